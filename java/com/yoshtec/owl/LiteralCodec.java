@@ -0,0 +1,132 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl;
+
+/**
+ * Converts the lexical form of a literal to a Java value and back. 
+ * <br>
+ * Besides the general {@link #parse(String)} and {@link #print(Object)} 
+ * there are methods to parse and print primitive values, numeric codecs 
+ * implement them without creating a boxed value in between.
+ * 
+ * @param <T> the Java type of the values 
+ * @see LiteralCodecRegistry
+ */
+public abstract class LiteralCodec<T> {
+	
+	private final Class<T> type;
+	
+	protected LiteralCodec(Class<T> type) {
+		this.type = type;
+	}
+	
+	/**
+	 * @return the Java type of the parsed values
+	 */
+	public Class<T> getType() {
+		return type;
+	}
+	
+	/**
+	 * @param literal the lexical form 
+	 * @return the value
+	 * @throws IllegalArgumentException if the literal is not valid
+	 */
+	public abstract T parse(String literal);
+	
+	/**
+	 * @return the value as long, for integral target types
+	 */
+	public long parseLong(String literal){
+		return ((Number)parse(literal)).longValue();
+	}
+	
+	/**
+	 * @return the value as double, for floating point target types
+	 */
+	public double parseDouble(String literal){
+		return ((Number)parse(literal)).doubleValue();
+	}
+	
+	/**
+	 * @return the value as boolean, for boolean target types
+	 */
+	public boolean parseBoolean(String literal){
+		return ((Boolean)parse(literal)).booleanValue();
+	}
+	
+	/**
+	 * Converts a number read without a lexical form, e.g. from the 
+	 * binary format. By default it is printed and parsed again, the 
+	 * numeric codecs convert it directly.
+	 * @throws IllegalArgumentException if the value can not be converted
+	 */
+	public T valueOf(long value){
+		return parse(printLong(value));
+	}
+	
+	/**
+	 * @see #valueOf(long)
+	 */
+	public T valueOf(double value){
+		return parse(printDouble(value));
+	}
+	
+	/**
+	 * @see #valueOf(long)
+	 */
+	public T valueOf(boolean value){
+		return parse(printBoolean(value));
+	}
+	
+	/**
+	 * @param value the value, not {@code null}
+	 * @return the lexical form, by default {@code value.toString()}
+	 */
+	public String print(T value){
+		return value.toString();
+	}
+	
+	/**
+	 * Prints a value that is known to be of the type of this codec 
+	 * @throws ClassCastException if the value has an other type
+	 */
+	public final String printValue(Object value){
+		return print(type.cast(value));
+	}
+	
+	public String printLong(long value){
+		return Long.toString(value);
+	}
+	
+	public String printDouble(double value){
+		return Double.toString(value);
+	}
+	
+	public String printBoolean(boolean value){
+		return value ? "true" : "false";
+	}
+	
+	@Override
+	public String toString() {
+		return "LiteralCodec(" + type.getName() + ")";
+	}
+	
+}
@@ -0,0 +1,823 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.DatatypeConverter;
+
+/**
+ * Finds the {@link LiteralCodec} for a data type URI and a Java 
+ * target type. 
+ * <br>
+ * All {@link XsdType}s are covered by built-in codecs, data types 
+ * from the alternate xsd name space are treated like their common 
+ * counterpart. Besides the types of the {@link XsdTypeMapper} 
+ * {@link Date} and the {@code java.time} types are supported. 
+ * Further codecs can be registered, they take precedence 
+ * over the built-in ones. Resolved codecs are cached, so the lookup
+ * should be done once per property and not per literal.
+ */
+public class LiteralCodecRegistry {
+	
+	/** data type of plain literals */
+	private static final URI PLAIN = XsdType.STRING.getUri();
+	
+	private final XsdTypeMapper typeMapper;
+	
+	/** codecs by data type and Java type */
+	private final ConcurrentMap<URI, ConcurrentMap<Class<?>, LiteralCodec<?>>> codecs = 
+		new ConcurrentHashMap<URI, ConcurrentMap<Class<?>, LiteralCodec<?>>>();
+	
+	/**
+	 * @param typeMapper used to find the Java type if the target type 
+	 * does not determine it, e.g. {@code Object} 
+	 */
+	public LiteralCodecRegistry(XsdTypeMapper typeMapper) {
+		this.typeMapper = typeMapper == null ? new XsdTypeMapper() : typeMapper;
+	}
+	
+	/**
+	 * Registers a codec, replacing the one for the data type and Java type 
+	 * if there is one.
+	 * @param dataType the data type URI
+	 * @param type the Java type
+	 * @param codec the codec to use 
+	 */
+	public void register(URI dataType, Class<?> type, LiteralCodec<?> codec){
+		byType(normalize(dataType)).put(wrap(type), codec);
+	}
+	
+	/**
+	 * @param dataType the data type URI of the literal, {@code null} for plain literals
+	 * @param type the target Java type, {@code null} for the mapped type
+	 * @return the codec or {@code null} if the literal can not be converted
+	 */
+	public LiteralCodec<?> getCodec(URI dataType, Class<?> type){
+		URI dt = normalize(dataType);
+		Class<?> target = wrap(type);
+		ConcurrentMap<Class<?>, LiteralCodec<?>> byType = byType(dt);
+		
+		LiteralCodec<?> codec = byType.get(target);
+		if(codec == null){
+			codec = createCodec(XsdType.fromUri(dt), target);
+			if(codec != null){
+				LiteralCodec<?> existing = byType.putIfAbsent(target, codec);
+				if(existing != null){
+					codec = existing;
+				}
+			}
+		}
+		return codec;
+	}
+	
+	/**
+	 * @param dataType the data type URI of the literals, {@code null} for plain literals
+	 * @param type the Java type of the values
+	 * @return a codec able to print values of the type, if there is none 
+	 * a codec printing {@code value.toString()}
+	 */
+	public LiteralCodec<?> getPrinter(URI dataType, Class<?> type){
+		LiteralCodec<?> codec = getCodec(dataType, type);
+		return codec != null ? codec : TO_STRING;
+	}
+	
+	/**
+	 * @return the xsd URI of the data type from the common name space
+	 */
+	private static URI normalize(URI dataType){
+		if(dataType == null){
+			return PLAIN;
+		}
+		XsdType xt = XsdType.fromUri(dataType);
+		return xt != null ? xt.getUri() : dataType;
+	}
+	
+	private ConcurrentMap<Class<?>, LiteralCodec<?>> byType(URI dt){
+		ConcurrentMap<Class<?>, LiteralCodec<?>> byType = codecs.get(dt);
+		if(byType == null){
+			byType = new ConcurrentHashMap<Class<?>, LiteralCodec<?>>();
+			ConcurrentMap<Class<?>, LiteralCodec<?>> existing = codecs.putIfAbsent(dt, byType);
+			if(existing != null){
+				byType = existing;
+			}
+		}
+		return byType;
+	}
+	
+	/**
+	 * @return the wrapper of primitive types, {@code Object} for {@code null} 
+	 */
+	private static Class<?> wrap(Class<?> type){
+		if(type == null){
+			return Object.class;
+		}
+		if(!type.isPrimitive()){
+			return type;
+		}
+		if(type == int.class) return Integer.class;
+		if(type == long.class) return Long.class;
+		if(type == double.class) return Double.class;
+		if(type == boolean.class) return Boolean.class;
+		if(type == float.class) return Float.class;
+		if(type == short.class) return Short.class;
+		if(type == byte.class) return Byte.class;
+		if(type == char.class) return Character.class;
+		return type;
+	}
+	
+	/**
+	 * Creates a built-in codec
+	 * @param xt the data type, {@code null} if not from xsd 
+	 * @param type the (wrapped) Java type
+	 */
+	private LiteralCodec<?> createCodec(XsdType xt, Class<?> type){
+		Class<?> target = type;
+		
+		// the declared type leaves the choice to the mapping
+		if(target == Object.class || target == Number.class || target.isInterface()){
+			Class<?> mapped = xt != null ? typeMapper.getType(xt) : null;
+			if(mapped == null || !type.isAssignableFrom(mapped)){
+				return xt == null ? STRING : null;
+			}
+			target = mapped;
+		}
+		
+		if(target == String.class){
+			return STRING;
+		}
+		if(target == Boolean.class){
+			return BOOLEAN;
+		}
+		if(target == Integer.class){
+			if(xt == XsdType.GYEAR){
+				return GYEAR;
+			}
+			if(xt == XsdType.GMONTH){
+				return GMONTH;
+			}
+			if(xt == XsdType.GDAY){
+				return GDAY;
+			}
+			return INTEGER;
+		}
+		if(target == Long.class){
+			return LONG;
+		}
+		if(target == Double.class){
+			return DOUBLE;
+		}
+		if(target == Float.class){
+			return FLOAT;
+		}
+		if(target == Short.class){
+			return SHORT;
+		}
+		if(target == Byte.class){
+			return BYTE;
+		}
+		if(target == Character.class){
+			return CHARACTER;
+		}
+		if(target == BigDecimal.class){
+			return DECIMAL;
+		}
+		if(target == BigInteger.class){
+			return BIG_INTEGER;
+		}
+		if(target.isAssignableFrom(Calendar.class) || Calendar.class.isAssignableFrom(target)){
+			if(xt == XsdType.DATE){
+				return CALENDAR_DATE;
+			}
+			if(xt == XsdType.TIME){
+				return CALENDAR_TIME;
+			}
+			return CALENDAR_DATETIME;
+		}
+		if(target == Date.class){
+			if(xt == XsdType.DATE){
+				return DATE_DATE;
+			}
+			if(xt == XsdType.TIME){
+				return DATE_TIME;
+			}
+			return DATE_DATETIME;
+		}
+		
+		// java.time
+		if(target == LocalDate.class){
+			return LOCAL_DATE;
+		}
+		if(target == LocalDateTime.class){
+			return LOCAL_DATETIME;
+		}
+		if(target == LocalTime.class){
+			return LOCAL_TIME;
+		}
+		if(target == OffsetDateTime.class){
+			return OFFSET_DATETIME;
+		}
+		if(target == OffsetTime.class){
+			return OFFSET_TIME;
+		}
+		if(target == ZonedDateTime.class){
+			return ZONED_DATETIME;
+		}
+		if(target == Instant.class){
+			return INSTANT;
+		}
+		return null;
+	}
+	
+	/*
+	 * Built-in codecs
+	 */
+	
+	/**
+	 * Parses the xsd floating point forms, which differ from Java 
+	 * for the infinite values.
+	 */
+	static double parseXsdDouble(String literal){
+		String s = literal.trim();
+		if("INF".equals(s) || "+INF".equals(s)){
+			return Double.POSITIVE_INFINITY;
+		}
+		if("-INF".equals(s)){
+			return Double.NEGATIVE_INFINITY;
+		}
+		return Double.parseDouble(s);
+	}
+	
+	static boolean parseXsdBoolean(String literal){
+		String s = literal.trim();
+		if("true".equals(s) || "1".equals(s)){
+			return true;
+		}
+		if("false".equals(s) || "0".equals(s)){
+			return false;
+		}
+		throw new IllegalArgumentException("Not a boolean: '" + literal + "'");
+	}
+	
+	/**
+	 * Parses an integer with a leading '+' as allowed by xsd
+	 */
+	static long parseXsdLong(String literal){
+		return Long.parseLong(literal.trim());
+	}
+	
+	/**
+	 * @return the literal without the time zone of gYear, gMonth and gDay
+	 */
+	static String stripTimezone(String literal){
+		String s = literal.trim();
+		int len = s.length();
+		if(len > 0 && s.charAt(len - 1) == 'Z'){
+			return s.substring(0, len - 1);
+		}
+		if(len > 6 && s.charAt(len - 3) == ':' 
+				&& (s.charAt(len - 6) == '+' || s.charAt(len - 6) == '-')){
+			return s.substring(0, len - 6);
+		}
+		return s;
+	}
+	
+	/** buffers for printing dates, reused per thread */
+	private static final ThreadLocal<char[]> DATE_BUFFER = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[32];
+		}
+	};
+	
+	private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+	
+	/**
+	 * Prints a point in time in UTC without creating a {@link Calendar}.
+	 * @param date print the date part 
+	 * @param time print the time part 
+	 * @return the lexical form of xsd:dateTime, xsd:date or xsd:time
+	 */
+	static String printUtc(long millis, boolean date, boolean time){
+		return print(millis, 0, date, time);
+	}
+	
+	/**
+	 * Prints a point in time in the default time zone with its offset, 
+	 * like the {@link Calendar} based printing, so a date at local 
+	 * midnight stays on its day.
+	 * @param date print the date part 
+	 * @param time print the time part 
+	 * @return the lexical form of xsd:dateTime, xsd:date or xsd:time
+	 */
+	static String printLocal(long millis, boolean date, boolean time){
+		return print(millis, TimeZone.getDefault().getOffset(millis), date, time);
+	}
+	
+	/**
+	 * Prints a point in time at a fixed offset to UTC.
+	 * @param offset the offset in milliseconds
+	 */
+	private static String print(long utcMillis, int offset, boolean date, boolean time){
+		long millis = utcMillis + offset;
+		long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+		int ms = (int)Math.floorMod(millis, MILLIS_PER_DAY);
+		
+		// civil date from the days since 1970-01-01, proleptic gregorian
+		long z = days + 719468;
+		long era = Math.floorDiv(z, 146097);
+		long doe = z - era * 146097;
+		long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+		long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+		long mp = (5 * doy + 2) / 153;
+		int day = (int)(doy - (153 * mp + 2) / 5 + 1);
+		int month = (int)(mp < 10 ? mp + 3 : mp - 9);
+		long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+		
+		if(date && (year < 1 || year > 9999)){
+			// beyond the four digit years, rarely used 
+			Calendar cal = new GregorianCalendar(new SimpleTimeZone(offset, offset == 0 ? "UTC" : "Custom"));
+			cal.setTimeInMillis(utcMillis);
+			return time ? DatatypeConverter.printDateTime(cal) : DatatypeConverter.printDate(cal);
+		}
+		
+		char[] buf = DATE_BUFFER.get();
+		int p = 0;
+		if(date){
+			p = digits(buf, p, (int)year, 4);
+			buf[p++] = '-';
+			p = digits(buf, p, month, 2);
+			buf[p++] = '-';
+			p = digits(buf, p, day, 2);
+			if(time){
+				buf[p++] = 'T';
+			}
+		}
+		if(time){
+			p = digits(buf, p, ms / 3600000, 2);
+			buf[p++] = ':';
+			p = digits(buf, p, ms / 60000 % 60, 2);
+			buf[p++] = ':';
+			p = digits(buf, p, ms / 1000 % 60, 2);
+			if(ms % 1000 != 0){
+				buf[p++] = '.';
+				p = digits(buf, p, ms % 1000, 3);
+			}
+		}
+		if(offset == 0){
+			buf[p++] = 'Z';
+		} else {
+			int minutes = Math.abs(offset) / 60000;
+			buf[p++] = offset < 0 ? '-' : '+';
+			p = digits(buf, p, minutes / 60, 2);
+			buf[p++] = ':';
+			p = digits(buf, p, minutes % 60, 2);
+		}
+		return new String(buf, 0, p);
+	}
+	
+	/** writes the value with leading zeros */
+	private static int digits(char[] buf, int pos, int value, int width){
+		int v = value;
+		for(int i = pos + width - 1; i >= pos; i--){
+			buf[i] = (char)('0' + v % 10);
+			v /= 10;
+		}
+		return pos + width;
+	}
+	
+	static String printXsdDouble(double value){
+		if(value == Double.POSITIVE_INFINITY){
+			return "INF";
+		}
+		if(value == Double.NEGATIVE_INFINITY){
+			return "-INF";
+		}
+		return Double.toString(value);
+	}
+	
+	static String printXsdFloat(float value){
+		if(value == Float.POSITIVE_INFINITY){
+			return "INF";
+		}
+		if(value == Float.NEGATIVE_INFINITY){
+			return "-INF";
+		}
+		return Float.toString(value);
+	}
+	
+	/** parses a number behind a fixed prefix, e.g. "--" of gMonth */
+	private static class GregorianPartCodec extends LiteralCodec<Integer> {
+		private final int prefix;
+		GregorianPartCodec(int prefix) {
+			super(Integer.class);
+			this.prefix = prefix;
+		}
+		@Override
+		public Integer parse(String literal) {
+			return Integer.valueOf((int)parseLong(literal));
+		}
+		@Override
+		public long parseLong(String literal) {
+			return Long.parseLong(stripTimezone(literal).substring(prefix));
+		}
+		@Override
+		public Integer valueOf(long value) {
+			if((int)value != value){
+				throw new NumberFormatException("Value out of range: " + value);
+			}
+			return Integer.valueOf((int)value);
+		}
+		@Override
+		public double parseDouble(String literal) {
+			return parseLong(literal);
+		}
+		@Override
+		public String print(Integer value) {
+			return printLong(value.longValue());
+		}
+		@Override
+		public String printLong(long value) {
+			StringBuilder sb = new StringBuilder(prefix + 4);
+			for(int i = 0; i < prefix; i++){
+				sb.append('-');
+			}
+			String digits = Long.toString(Math.abs(value));
+			if(value < 0){
+				sb.append('-');
+			}
+			for(int i = digits.length(); i < (prefix == 0 ? 4 : 2); i++){
+				sb.append('0');
+			}
+			return sb.append(digits).toString();
+		}
+	}
+	
+	private static class IntegralCodec<T extends Number> extends LiteralCodec<T> {
+		IntegralCodec(Class<T> type) {
+			super(type);
+		}
+		@Override
+		public T parse(String literal) {
+			return box(parseLong(literal));
+		}
+		@Override
+		public T valueOf(long value) {
+			return box(checkRange(value, value));
+		}
+		private T box(long l) {
+			Object value;
+			if(getType() == Long.class){
+				value = Long.valueOf(l);
+			} else if(getType() == Integer.class){
+				value = Integer.valueOf((int)l);
+			} else if(getType() == Short.class){
+				value = Short.valueOf((short)l);
+			} else {
+				value = Byte.valueOf((byte)l);
+			}
+			return getType().cast(value);
+		}
+		@Override
+		public long parseLong(String literal) {
+			return checkRange(parseXsdLong(literal), literal);
+		}
+		/** @param source the value or literal for the message */
+		private long checkRange(long l, Object source) {
+			if(getType() == Integer.class && (int)l != l 
+					|| getType() == Short.class && (short)l != l
+					|| getType() == Byte.class && (byte)l != l){
+				throw new NumberFormatException("Value out of range for " + getType().getSimpleName() + ": '" + source + "'");
+			}
+			return l;
+		}
+		@Override
+		public double parseDouble(String literal) {
+			return parseLong(literal);
+		}
+	}
+	
+	static final LiteralCodec<String> STRING = new LiteralCodec<String>(String.class) {
+		@Override
+		public String parse(String literal) {
+			return literal;
+		}
+	};
+	
+	/** a single character, not its code */
+	static final LiteralCodec<Character> CHARACTER = new LiteralCodec<Character>(Character.class) {
+		@Override
+		public Character parse(String literal) {
+			if(literal.length() != 1){
+				throw new IllegalArgumentException("Not a single character: '" + literal + "'");
+			}
+			return Character.valueOf(literal.charAt(0));
+		}
+		@Override
+		public long parseLong(String literal) {
+			return parse(literal).charValue();
+		}
+		@Override
+		public String printLong(long value) {
+			return String.valueOf((char)value);
+		}
+	};
+	
+	/** leaves literals as they are and prints values of any type via {@code toString()} */
+	static final LiteralCodec<Object> TO_STRING = new LiteralCodec<Object>(Object.class) {
+		@Override
+		public Object parse(String literal) {
+			return literal;
+		}
+	};
+	
+	static final LiteralCodec<Boolean> BOOLEAN = new LiteralCodec<Boolean>(Boolean.class) {
+		@Override
+		public Boolean parse(String literal) {
+			return Boolean.valueOf(parseXsdBoolean(literal));
+		}
+		@Override
+		public boolean parseBoolean(String literal) {
+			return parseXsdBoolean(literal);
+		}
+		@Override
+		public Boolean valueOf(boolean value) {
+			return Boolean.valueOf(value);
+		}
+	};
+	
+	static final LiteralCodec<Integer> INTEGER = new IntegralCodec<Integer>(Integer.class);
+	
+	static final LiteralCodec<Long> LONG = new IntegralCodec<Long>(Long.class);
+	
+	static final LiteralCodec<Short> SHORT = new IntegralCodec<Short>(Short.class);
+	
+	static final LiteralCodec<Byte> BYTE = new IntegralCodec<Byte>(Byte.class);
+	
+	static final LiteralCodec<Integer> GYEAR = new GregorianPartCodec(0);
+	
+	static final LiteralCodec<Integer> GMONTH = new GregorianPartCodec(2);
+	
+	static final LiteralCodec<Integer> GDAY = new GregorianPartCodec(3);
+	
+	static final LiteralCodec<Double> DOUBLE = new LiteralCodec<Double>(Double.class) {
+		@Override
+		public Double parse(String literal) {
+			return Double.valueOf(parseXsdDouble(literal));
+		}
+		@Override
+		public double parseDouble(String literal) {
+			return parseXsdDouble(literal);
+		}
+		@Override
+		public long parseLong(String literal) {
+			return (long)parseXsdDouble(literal);
+		}
+		@Override
+		public Double valueOf(long value) {
+			return Double.valueOf(value);
+		}
+		@Override
+		public Double valueOf(double value) {
+			return Double.valueOf(value);
+		}
+		@Override
+		public String print(Double value) {
+			return printXsdDouble(value.doubleValue());
+		}
+		@Override
+		public String printDouble(double value) {
+			return printXsdDouble(value);
+		}
+	};
+	
+	static final LiteralCodec<Float> FLOAT = new LiteralCodec<Float>(Float.class) {
+		@Override
+		public Float parse(String literal) {
+			return Float.valueOf((float)parseXsdDouble(literal));
+		}
+		@Override
+		public double parseDouble(String literal) {
+			return (float)parseXsdDouble(literal);
+		}
+		@Override
+		public long parseLong(String literal) {
+			return (long)parseXsdDouble(literal);
+		}
+		@Override
+		public Float valueOf(long value) {
+			return Float.valueOf(value);
+		}
+		@Override
+		public Float valueOf(double value) {
+			return Float.valueOf((float)value);
+		}
+		@Override
+		public String print(Float value) {
+			return printXsdFloat(value.floatValue());
+		}
+		@Override
+		public String printDouble(double value) {
+			return printXsdFloat((float)value);
+		}
+	};
+	
+	static final LiteralCodec<BigDecimal> DECIMAL = new LiteralCodec<BigDecimal>(BigDecimal.class) {
+		@Override
+		public BigDecimal parse(String literal) {
+			return new BigDecimal(literal.trim());
+		}
+		@Override
+		public BigDecimal valueOf(long value) {
+			return BigDecimal.valueOf(value);
+		}
+		@Override
+		public String print(BigDecimal value) {
+			// xsd:decimal has no exponent
+			return value.toPlainString();
+		}
+	};
+	
+	static final LiteralCodec<BigInteger> BIG_INTEGER = new LiteralCodec<BigInteger>(BigInteger.class) {
+		@Override
+		public BigInteger parse(String literal) {
+			return new BigInteger(literal.trim());
+		}
+		@Override
+		public BigInteger valueOf(long value) {
+			return BigInteger.valueOf(value);
+		}
+	};
+	
+	static final LiteralCodec<Calendar> CALENDAR_DATETIME = new LiteralCodec<Calendar>(Calendar.class) {
+		@Override
+		public Calendar parse(String literal) {
+			return DatatypeConverter.parseDateTime(literal.trim());
+		}
+		@Override
+		public String print(Calendar value) {
+			return DatatypeConverter.printDateTime(value);
+		}
+	};
+	
+	static final LiteralCodec<Calendar> CALENDAR_DATE = new LiteralCodec<Calendar>(Calendar.class) {
+		@Override
+		public Calendar parse(String literal) {
+			return DatatypeConverter.parseDate(literal.trim());
+		}
+		@Override
+		public String print(Calendar value) {
+			return DatatypeConverter.printDate(value);
+		}
+	};
+	
+	static final LiteralCodec<Calendar> CALENDAR_TIME = new LiteralCodec<Calendar>(Calendar.class) {
+		@Override
+		public Calendar parse(String literal) {
+			return DatatypeConverter.parseTime(literal.trim());
+		}
+		@Override
+		public String print(Calendar value) {
+			return DatatypeConverter.printTime(value);
+		}
+	};
+	
+	static final LiteralCodec<Date> DATE_DATETIME = new LiteralCodec<Date>(Date.class) {
+		@Override
+		public Date parse(String literal) {
+			return CALENDAR_DATETIME.parse(literal).getTime();
+		}
+		@Override
+		public String print(Date value) {
+			return printUtc(value.getTime(), true, true);
+		}
+	};
+	
+	static final LiteralCodec<Date> DATE_DATE = new LiteralCodec<Date>(Date.class) {
+		@Override
+		public Date parse(String literal) {
+			return CALENDAR_DATE.parse(literal).getTime();
+		}
+		@Override
+		public String print(Date value) {
+			return printLocal(value.getTime(), true, false);
+		}
+	};
+	
+	static final LiteralCodec<Date> DATE_TIME = new LiteralCodec<Date>(Date.class) {
+		@Override
+		public Date parse(String literal) {
+			return CALENDAR_TIME.parse(literal).getTime();
+		}
+		@Override
+		public String print(Date value) {
+			return printLocal(value.getTime(), false, true);
+		}
+	};
+	
+	static final LiteralCodec<LocalDate> LOCAL_DATE = new LiteralCodec<LocalDate>(LocalDate.class) {
+		@Override
+		public LocalDate parse(String literal) {
+			return LocalDate.parse(literal.trim(), DateTimeFormatter.ISO_DATE);
+		}
+	};
+	
+	// the ISO formatters always print the seconds, toString() omits them if zero
+	static final LiteralCodec<LocalDateTime> LOCAL_DATETIME = new LiteralCodec<LocalDateTime>(LocalDateTime.class) {
+		@Override
+		public LocalDateTime parse(String literal) {
+			return LocalDateTime.parse(literal.trim(), DateTimeFormatter.ISO_DATE_TIME);
+		}
+		@Override
+		public String print(LocalDateTime value) {
+			return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(value);
+		}
+	};
+	
+	static final LiteralCodec<LocalTime> LOCAL_TIME = new LiteralCodec<LocalTime>(LocalTime.class) {
+		@Override
+		public LocalTime parse(String literal) {
+			return LocalTime.parse(literal.trim(), DateTimeFormatter.ISO_TIME);
+		}
+		@Override
+		public String print(LocalTime value) {
+			return DateTimeFormatter.ISO_LOCAL_TIME.format(value);
+		}
+	};
+	
+	static final LiteralCodec<OffsetDateTime> OFFSET_DATETIME = new LiteralCodec<OffsetDateTime>(OffsetDateTime.class) {
+		@Override
+		public OffsetDateTime parse(String literal) {
+			return OffsetDateTime.parse(literal.trim());
+		}
+		@Override
+		public String print(OffsetDateTime value) {
+			return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value);
+		}
+	};
+	
+	static final LiteralCodec<OffsetTime> OFFSET_TIME = new LiteralCodec<OffsetTime>(OffsetTime.class) {
+		@Override
+		public OffsetTime parse(String literal) {
+			return OffsetTime.parse(literal.trim());
+		}
+		@Override
+		public String print(OffsetTime value) {
+			return DateTimeFormatter.ISO_OFFSET_TIME.format(value);
+		}
+	};
+	
+	static final LiteralCodec<ZonedDateTime> ZONED_DATETIME = new LiteralCodec<ZonedDateTime>(ZonedDateTime.class) {
+		@Override
+		public ZonedDateTime parse(String literal) {
+			return ZonedDateTime.parse(literal.trim());
+		}
+		@Override
+		public String print(ZonedDateTime value) {
+			// zone ids are not part of xsd:dateTime
+			return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(value);
+		}
+	};
+	
+	static final LiteralCodec<Instant> INSTANT = new LiteralCodec<Instant>(Instant.class) {
+		@Override
+		public Instant parse(String literal) {
+			return OffsetDateTime.parse(literal.trim()).toInstant();
+		}
+	};
+	
+}
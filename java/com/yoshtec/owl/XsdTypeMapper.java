@@ -21,6 +21,13 @@ package com.yoshtec.owl;
 
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.time.ZonedDateTime;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
@@ -95,6 +102,15 @@ public class XsdTypeMapper {
 	    init();
 	}
 	
+	/**
+	 * Creates a copy of the mapping
+	 * @param other the mapping to copy
+	 */
+	public XsdTypeMapper(XsdTypeMapper other){
+	    mapping.putAll(other.mapping);
+	    reverse.putAll(other.reverse);
+	}
+	
 	/**
 	 * initialize the default mapping table
 	 */
@@ -144,6 +160,15 @@ public class XsdTypeMapper {
 	    }
 	    reverse.put(Calendar.class, XsdType.DATETIME);
 	    reverse.put(Date.class, XsdType.DATETIME);
+
+	    // java.time
+	    reverse.put(LocalDate.class, XsdType.DATE);
+	    reverse.put(LocalDateTime.class, XsdType.DATETIME);
+	    reverse.put(OffsetDateTime.class, XsdType.DATETIME);
+	    reverse.put(ZonedDateTime.class, XsdType.DATETIME);
+	    reverse.put(Instant.class, XsdType.DATETIME);
+	    reverse.put(LocalTime.class, XsdType.TIME);
+	    reverse.put(OffsetTime.class, XsdType.TIME);
 	}
 
 	/**
@@ -193,5 +218,25 @@ public class XsdTypeMapper {
 	public XsdType getXsdType(Type type){
 	    return reverse.get(type);
 	}
+	
+	/**
+	 * Two mappers are equal if they map the same types
+	 */
+	@Override
+	public boolean equals(Object obj) {
+	    if(this == obj){
+	        return true;
+	    }
+	    if(!(obj instanceof XsdTypeMapper)){
+	        return false;
+	    }
+	    XsdTypeMapper other = (XsdTypeMapper)obj;
+	    return mapping.equals(other.mapping) && reverse.equals(other.reverse);
+	}
+	
+	@Override
+	public int hashCode() {
+	    return mapping.hashCode() * 31 + reverse.hashCode();
+	}
 
 }
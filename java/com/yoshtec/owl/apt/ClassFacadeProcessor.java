@@ -0,0 +1,548 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.apt;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+
+import com.yoshtec.owl.Const;
+import com.yoshtec.owl.annotations.OwlClass;
+import com.yoshtec.owl.annotations.OwlClassImplementation;
+import com.yoshtec.owl.annotations.OwlDataProperty;
+import com.yoshtec.owl.annotations.OwlDataType;
+import com.yoshtec.owl.annotations.OwlDataTypes;
+import com.yoshtec.owl.annotations.OwlIndividualId;
+import com.yoshtec.owl.annotations.OwlObjectProperty;
+import com.yoshtec.owl.annotations.OwlOntology;
+import com.yoshtec.owl.annotations.OwlTransient;
+import com.yoshtec.owl.annotations.dprop.OwlFunctionalDataProperty;
+import com.yoshtec.owl.annotations.ontology.OwlImports;
+import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
+import com.yoshtec.owl.cf.GeneratedClassFacade;
+
+/**
+ * Generates a {@link GeneratedClassFacade} for every class annotated with 
+ * {@link OwlClass} or {@link OwlClassImplementation} at compile time. The
+ * {@link com.yoshtec.owl.cf.ClassFacadeFactory} uses the generated facade 
+ * instead of scanning the class by reflection.
+ * <br>
+ * The processor is not registered as a service, it has to be named 
+ * when compiling the annotated classes, with jaob on the class path:
+ * <pre>
+ * javac -processor com.yoshtec.owl.apt.ClassFacadeProcessor -s gen-src ...
+ * </pre>
+ * The generated facades read the URIs the same way as the reflective 
+ * facade does. Fields that are not private or final are accessed directly,
+ * the others are accessed by the 
+ * {@link com.yoshtec.owl.cf.PropertyAccessorFactory} of the factory.
+ * Private and local classes and classes the reflective facade cannot handle 
+ * get no facade, a warning is printed for them.
+ */
+@SupportedAnnotationTypes({
+    "com.yoshtec.owl.annotations.OwlClass",
+    "com.yoshtec.owl.annotations.OwlClassImplementation"})
+public class ClassFacadeProcessor extends AbstractProcessor {
+    
+    private static final String ACCESSOR = "com.yoshtec.owl.cf.GeneratedPropertyAccessor";
+    private static final String PROPERTY_TYPE = "com.yoshtec.owl.PropertyType.";
+    
+    /** classes a facade has been generated for */
+    private final Set<String> generated = new HashSet<String>();
+    
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<Element> classes = new LinkedHashSet<Element>();
+        classes.addAll(roundEnv.getElementsAnnotatedWith(OwlClass.class));
+        classes.addAll(roundEnv.getElementsAnnotatedWith(OwlClassImplementation.class));
+        
+        for(Element e : classes){
+            if( e.getKind() != ElementKind.CLASS ){
+                continue; // interfaces and enums have no generated facade
+            }
+            TypeElement te = (TypeElement)e;
+            if( generated.add(te.getQualifiedName().toString()) ){
+                try {
+                    generate(te);
+                } catch (IOException ioe) {
+                    processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write the facade: " + ioe, te);
+                }
+            }
+        }
+        
+        // the annotations may be processed by others as well
+        return false;
+    }
+    
+    private void generate(TypeElement te) throws IOException {
+        Elements elements = processingEnv.getElementUtils();
+        
+        if( !isAccessible(te) ){
+            warn("No facade generated for a private, inner or local class", te);
+            return;
+        }
+        
+        List<String> classUris = readClasses(te);
+        if( classUris.isEmpty() ){
+            warn("This class is not a correctly annotated Class", te);
+            return;
+        }
+        
+        PackageElement pe = elements.getPackageOf(te);
+        String pkg = pe.isUnnamed() ? "" : pe.getQualifiedName().toString();
+        String binary = elements.getBinaryName(te).toString();
+        String facade = (pkg.length() == 0 ? binary : binary.substring(pkg.length() + 1)) + GeneratedClassFacade.SUFFIX;
+        String cls = types().erasure(te.asType()).toString();
+        
+        // the body of the constructor
+        StringBuilder body = new StringBuilder();
+        for(String uri : classUris){
+            body.append("        addClassUri(").append(literal(uri)).append(");\n");
+        }
+        readPackage(pe, classUris.get(0), body);
+        if( !readFields(te, pkg, body) ){
+            return;
+        }
+        
+        // id setting via methods, the last one found is used
+        for(ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(te))){
+            if( method.getModifiers().contains(Modifier.PUBLIC) 
+                    && method.getParameters().isEmpty()
+                    && method.getAnnotation(OwlIndividualId.class) != null ){
+                body.append("        setIdProperty(idMethod(").append(literal(method.getSimpleName().toString())).append("));\n");
+            }
+        }
+        
+        PrintWriter out = new PrintWriter(processingEnv.getFiler()
+                .createSourceFile(pkg.length() == 0 ? facade : pkg + "." + facade, te).openWriter());
+        try {
+            if( pkg.length() > 0 ){
+                out.println("package " + pkg + ";");
+                out.println();
+            }
+            out.println("/**");
+            out.println(" * Facade of {@link " + cls + "}, generated by the " + getClass().getName() + ".");
+            out.println(" * Do not edit, changes will be lost.");
+            out.println(" */");
+            out.println("public class " + facade + " extends " + GeneratedClassFacade.class.getName() + "<" + cls + "> {");
+            out.println();
+            out.println("    public " + facade + "(com.yoshtec.owl.XsdTypeMapper typeMapper, com.yoshtec.owl.cf.PropertyAccessorFactory accessorFactory) {");
+            out.println("        super(" + cls + ".class, typeMapper, accessorFactory);");
+            out.print(body);
+            out.println("    }");
+            out.println();
+            out.println("    public Object getNewInstance() throws Exception {");
+            out.println("        " + newInstance(te, false));
+            out.println("    }");
+            out.println();
+            out.println("    public Object getNewInstance(String id) throws IllegalArgumentException, InstantiationException, ");
+            out.println("            IllegalAccessException, java.lang.reflect.InvocationTargetException {");
+            out.println("        " + newInstance(te, true));
+            out.println("    }");
+            out.println();
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+    
+    /**
+     * Finds the OwlClass URIs the same way as the reflective facade, at the class,
+     * its interfaces or else at the first superclass.
+     */
+    private List<String> readClasses(TypeElement te){
+        List<String> result = new ArrayList<String>();
+        String uri = getClassUri(te);
+        if( uri != null ){
+            result.add(uri);
+            return result;
+        }
+        for(TypeMirror iface : te.getInterfaces()){
+            uri = getClassUri((TypeElement)types().asElement(iface));
+            if( uri != null ){
+                result.add(uri);
+            }
+        }
+        if( result.isEmpty() ){
+            for(TypeElement u : getSuperClasses(te)){
+                uri = getClassUri(u);
+                if( uri != null ){
+                    result.add(uri);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+    
+    private String getClassUri(TypeElement te){
+        OwlClass oc = te.getAnnotation(OwlClass.class);
+        if( oc == null ){
+            return null;
+        }
+        if( oc.uri().equals(Const.DEFAULT_ANNOTATION_STRING) ){
+            return "#" + te.getSimpleName();
+        }
+        return oc.uri();
+    }
+    
+    private void readPackage(PackageElement pe, String classUri, StringBuilder body){
+        OwlOntology oo = pe.getAnnotation(OwlOntology.class);
+        final String ontology;
+        if( oo != null ){
+            ontology = oo.uri();
+        } else {
+            // use the default part of the uri specified via the OwlClass
+            String fragment = URI.create(classUri).getRawFragment();
+            ontology = (fragment == null ? classUri : classUri.replace(fragment, "")).replace("#", "");
+        }
+        body.append("        setOntology(").append(literal(ontology));
+        OwlImports imp = pe.getAnnotation(OwlImports.class);
+        if( imp != null ){
+            for(String us : imp.uris()){
+                body.append(", ").append(literal(us));
+            }
+        }
+        body.append(");\n");
+    }
+    
+    /**
+     * Adds the fields of the class and its annotated superclasses
+     * @return {@code false} if the fields cannot be handled
+     */
+    private boolean readFields(TypeElement te, String pkg, StringBuilder body){
+        int level = 0;
+        for(TypeElement cl : getSuperClasses(te)){
+            if( cl.getAnnotation(OwlClass.class) != null || cl.getAnnotation(OwlClassImplementation.class) != null ){
+                for(VariableElement field : ElementFilter.fieldsIn(cl.getEnclosedElements())){
+                    Set<Modifier> mod = field.getModifiers();
+                    if( mod.contains(Modifier.TRANSIENT) || mod.contains(Modifier.STATIC) 
+                            || field.getAnnotation(OwlTransient.class) != null ){
+                        continue;
+                    }
+                    
+                    String name = field.getSimpleName().toString();
+                    String uri = null;
+                    String type = "null";
+                    if( field.getAnnotation(OwlDataProperty.class) != null ){
+                        uri = field.getAnnotation(OwlDataProperty.class).uri();
+                        type = PROPERTY_TYPE + "DATA";
+                    } else if( field.getAnnotation(OwlObjectProperty.class) != null ){
+                        uri = field.getAnnotation(OwlObjectProperty.class).uri();
+                        type = PROPERTY_TYPE + "OBJECT";
+                    } else if( field.asType().getKind() == TypeKind.ARRAY ){
+                        warn("Arrays currently not supported in automatic Type detection", field);
+                        return false;
+                    }
+                    if( uri == null || uri.equals(Const.DEFAULT_ANNOTATION_STRING) ){
+                        uri = "#" + name;
+                    }
+                    
+                    body.append("        addProperty(").append(accessor(cl, field, level, uri, pkg)).append(", ").append(type).append(");\n");
+                    if( field.getAnnotation(OwlIndividualId.class) != null ){
+                        body.append("        setIdProperty(").append(accessor(cl, field, level, null, pkg)).append(");\n");
+                    }
+                }
+            }
+            level++;
+        }
+        return true;
+    }
+    
+    /**
+     * @return the expression creating the accessor of the field
+     */
+    private String accessor(TypeElement declaring, VariableElement field, int level, String uri, String pkg){
+        String name = field.getSimpleName().toString();
+        String propUri = uri == null ? "null" : literal(uri);
+        if( !isDirectlyAccessible(declaring, field, pkg) ){
+            return "field(" + level + ", " + literal(name) + ", " + propUri + ")";
+        }
+        
+        Types types = types();
+        TypeMirror ft = field.asType();
+        String decl = types.erasure(declaring.asType()).toString();
+        String type = types.erasure(ft).toString();
+        String valueType = type;
+        TypeMirror owlType = ft;
+        if( ft.getKind() == TypeKind.ARRAY ){
+            owlType = ((ArrayType)ft).getComponentType();
+            valueType = types.erasure(owlType).toString();
+        } else if( isCollection(ft) ){
+            List<? extends TypeMirror> args = ((DeclaredType)ft).getTypeArguments();
+            owlType = args.size() == 1 && args.get(0).getKind() == TypeKind.DECLARED ? args.get(0) : null;
+            valueType = owlType != null ? types.erasure(owlType).toString() : "java.lang.Object";
+        }
+        boolean functional = field.getAnnotation(OwlFunctionalDataProperty.class) != null 
+                || field.getAnnotation(OwlFunctionalObjectProperty.class) != null;
+        
+        StringBuilder sb = new StringBuilder();
+        sb.append("new ").append(ACCESSOR).append("(").append(propUri).append(", ")
+            .append(decl).append(".class, ").append(type).append(".class, ")
+            .append(valueType).append(".class, ").append(functional).append(", typeMapper");
+        for(String dt : getDataTypes(field, owlType)){
+            sb.append(", ").append(literal(dt));
+        }
+        sb.append(") {\n");
+        
+        String target = "((" + decl + ")obj)." + name;
+        sb.append("            public Object getValue(Object obj) {\n");
+        sb.append("                return ").append(target).append(";\n");
+        sb.append("            }\n");
+        sb.append("            @SuppressWarnings(\"unchecked\")\n");
+        sb.append("            protected void setFieldValue(Object obj, Object value) {\n");
+        sb.append("                ").append(target).append(" = ").append(unbox(ft, type)).append(";\n");
+        sb.append("            }\n");
+        
+        TypeKind kind = ft.getKind();
+        if( kind == TypeKind.BOOLEAN ){
+            sb.append("            public boolean getBoolean(Object obj) {\n");
+            sb.append("                return ").append(target).append(";\n");
+            sb.append("            }\n");
+            sb.append("            public void setBoolean(Object obj, boolean value) {\n");
+            sb.append("                ").append(target).append(" = value;\n");
+            sb.append("            }\n");
+        } else if( kind == TypeKind.FLOAT || kind == TypeKind.DOUBLE ){
+            sb.append("            public double getDouble(Object obj) {\n");
+            sb.append("                return ").append(target).append(";\n");
+            sb.append("            }\n");
+            sb.append("            public void setDouble(Object obj, double value) {\n");
+            sb.append("                ").append(target).append(" = (").append(type).append(")value;\n");
+            sb.append("            }\n");
+        } else if( kind.isPrimitive() ){
+            // byte, short, char, int, long
+            sb.append("            public long getLong(Object obj) {\n");
+            sb.append("                return ").append(target).append(";\n");
+            sb.append("            }\n");
+            sb.append("            public double getDouble(Object obj) {\n");
+            sb.append("                return ").append(target).append(";\n");
+            sb.append("            }\n");
+            sb.append("            public void setLong(Object obj, long value) {\n");
+            sb.append("                ").append(target).append(" = (").append(type).append(")value;\n");
+            sb.append("            }\n");
+        }
+        sb.append("        }");
+        return sb.toString();
+    }
+    
+    /**
+     * @return the data types of the annotations or else the OwlClass 
+     * of the value type, empty if it is left to the type mapping
+     */
+    private List<String> getDataTypes(VariableElement field, TypeMirror owlType){
+        List<String> result = new ArrayList<String>();
+        OwlDataTypes odts = field.getAnnotation(OwlDataTypes.class);
+        OwlDataType odt = field.getAnnotation(OwlDataType.class);
+        if( odts != null ){
+            for(OwlDataType dt : odts.value()){
+                result.add(dt.uri());
+            }
+        } else if( odt != null ){
+            result.add(odt.uri());
+        } else if( owlType != null && owlType.getKind() == TypeKind.DECLARED ){
+            String uri = getClassUri((TypeElement)types().asElement(owlType));
+            if( uri != null ){
+                result.add(uri);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * @return the expression converting {@code value} to the type of the field
+     */
+    private static String unbox(TypeMirror ft, String type){
+        switch (ft.getKind()) {
+        case BOOLEAN:
+            return "(Boolean)value";
+        case CHAR:
+            return "(Character)value";
+        case BYTE:
+        case SHORT:
+        case INT:
+        case LONG:
+        case FLOAT:
+        case DOUBLE:
+            return "((Number)value)." + type + "Value()";
+        default:
+            return "(" + type + ")value";
+        }
+    }
+    
+    private String newInstance(TypeElement te, boolean withId){
+        String cls = types().erasure(te.asType()).toString();
+        boolean defaultConstructor = false;
+        for(ExecutableElement con : ElementFilter.constructorsIn(te.getEnclosedElements())){
+            if( con.getModifiers().contains(Modifier.PRIVATE) ){
+                continue;
+            }
+            List<? extends VariableElement> params = con.getParameters();
+            if( withId && params.size() == 1 && con.getModifiers().contains(Modifier.PUBLIC)
+                    && con.getAnnotation(OwlIndividualId.class) != null
+                    && types().isSameType(params.get(0).asType(), elementType("java.lang.String")) ){
+                return "return new " + cls + "(id);";
+            }
+            defaultConstructor |= params.isEmpty();
+        }
+        if( !defaultConstructor || te.getModifiers().contains(Modifier.ABSTRACT) ){
+            return "throw new InstantiationException(" + literal(cls) + ");";
+        }
+        return "return new " + cls + "();";
+    }
+    
+    /**
+     * @return {@code true} if the generated facade in the same package can 
+     * name and instantiate the class
+     */
+    private static boolean isAccessible(TypeElement te){
+        Element e = te;
+        while( e instanceof TypeElement ){
+            TypeElement t = (TypeElement)e;
+            if( t.getModifiers().contains(Modifier.PRIVATE) ){
+                return false;
+            }
+            if( t.getNestingKind() == NestingKind.LOCAL || t.getNestingKind() == NestingKind.ANONYMOUS ){
+                return false;
+            }
+            if( t.getNestingKind() == NestingKind.MEMBER && !t.getModifiers().contains(Modifier.STATIC) ){
+                return false;
+            }
+            e = t.getEnclosingElement();
+        }
+        return true;
+    }
+    
+    /**
+     * @return {@code true} if the generated facade in the package can read and write the field 
+     */
+    private boolean isDirectlyAccessible(TypeElement declaring, VariableElement field, String pkg){
+        Set<Modifier> mod = field.getModifiers();
+        if( mod.contains(Modifier.PRIVATE) || mod.contains(Modifier.FINAL) || !isAccessible(declaring) ){
+            return false;
+        }
+        PackageElement pe = processingEnv.getElementUtils().getPackageOf(declaring);
+        if( pe.getQualifiedName().contentEquals(pkg) ){
+            // package private and protected fields in the same package 
+            return true;
+        }
+        if( !mod.contains(Modifier.PUBLIC) ){
+            return false;
+        }
+        for(Element e = declaring; e instanceof TypeElement; e = e.getEnclosingElement()){
+            if( !e.getModifiers().contains(Modifier.PUBLIC) ){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return the class and its superclasses excluding {@code java.lang.Object}
+     */
+    private List<TypeElement> getSuperClasses(TypeElement te){
+        List<TypeElement> result = new ArrayList<TypeElement>();
+        TypeElement u = te;
+        while( u != null && !u.getQualifiedName().contentEquals("java.lang.Object") ){
+            result.add(u);
+            TypeMirror sup = u.getSuperclass();
+            u = sup.getKind() == TypeKind.DECLARED ? (TypeElement)types().asElement(sup) : null;
+        }
+        return result;
+    }
+    
+    private boolean isCollection(TypeMirror type){
+        return type.getKind() == TypeKind.DECLARED 
+            && types().isAssignable(types().erasure(type), types().erasure(elementType("java.util.Collection")));
+    }
+    
+    private TypeMirror elementType(String name){
+        return processingEnv.getElementUtils().getTypeElement(name).asType();
+    }
+    
+    private Types types(){
+        return processingEnv.getTypeUtils();
+    }
+    
+    private void warn(String msg, Element e){
+        processingEnv.getMessager().printMessage(Kind.WARNING, msg + ", using reflection at runtime", e);
+    }
+    
+    /**
+     * @return the string as Java literal
+     */
+    private static String literal(String s){
+        StringBuilder sb = new StringBuilder("\"");
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            switch (c) {
+            case '"':
+                sb.append("\\\"");
+                break;
+            case '\\':
+                sb.append("\\\\");
+                break;
+            case '\n':
+                sb.append("\\n");
+                break;
+            case '\r':
+                sb.append("\\r");
+                break;
+            case '\t':
+                sb.append("\\t");
+                break;
+            default:
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+    
+}
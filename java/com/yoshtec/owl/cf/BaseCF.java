@@ -24,7 +24,7 @@ abstract class BaseCF<T> implements ClassFacade {
     protected Set<URI> importedUris = null;
 
     /** maps the Java classes to XsdTypes and vice versa */
-    protected XsdTypeMapper typeMapper;
+    protected final XsdTypeMapper typeMapper;
 
     /** List of URIs this Class represents in the Owl World 
      * which can be handled by this facade */
@@ -44,7 +44,7 @@ abstract class BaseCF<T> implements ClassFacade {
     	// Base uri
     	if(p.isAnnotationPresent(OwlOntology.class)){
     		OwlOntology a = p.getAnnotation(OwlOntology.class);
-    		this.ontoBaseUri = URI.create(a.uri());
+    		this.ontoBaseUri = ReflectUtil.createUri(a.uri());
     	}
     	log.debug(" Package URI = '{}'", this.ontoBaseUri);
     	
@@ -54,7 +54,7 @@ abstract class BaseCF<T> implements ClassFacade {
     		OwlImports imp = p.getAnnotation(OwlImports.class);
     		for(String us : imp.uris()){
     		    log.trace(" Import URI '{}'", us);
-    		    importedUris.add(URI.create(us));
+    		    importedUris.add(ReflectUtil.createUri(us));
     		}
     	}
     }
@@ -67,10 +67,6 @@ abstract class BaseCF<T> implements ClassFacade {
         return this.typeMapper;
     }
 
-    public void setTypeMapper(XsdTypeMapper typeMapper) {
-        this.typeMapper = typeMapper;
-    }
-
     public Set<URI> getClassUris() {
     	return classuris;
     }
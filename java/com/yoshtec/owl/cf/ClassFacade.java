@@ -52,20 +52,12 @@ public interface ClassFacade {
             InstantiationException, IllegalAccessException,
             InvocationTargetException;
 
-    void setId(Object obj, String id);
-
     /**
-     * Commits the cached values to the Objects.
-     * 
-     * @throws InvocationTargetException if the setter/getter could not 
-     * be invoked correctly.
-     * @throws IllegalAccessException if the Access to the Properties has 
-     * been denied or failed.
+     * Stages the id of the object, it will be set on 
+     * {@link StagingContext#commit()}.
      */
-    void commit() throws InvocationTargetException, IllegalAccessException;
+    void setId(StagingContext ctx, Object obj, String id);
 
     XsdTypeMapper getTypeMapper();
 
-    void setTypeMapper(XsdTypeMapper typeMapper);
-
 }
\ No newline at end of file
@@ -1,19 +1,103 @@
 package com.yoshtec.owl.cf;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.yoshtec.owl.XsdType;
 import com.yoshtec.owl.XsdTypeMapper;
 import com.yoshtec.owl.annotations.OwlClass;
 import com.yoshtec.owl.annotations.OwlClassImplementation;
+import com.yoshtec.owl.util.UriDictionary;
 
+/**
+ * Creates the {@link ClassFacade}s for annotated classes. 
+ * <br>
+ * Creating a facade scans the class and its annotations, so 
+ * {@link #getClassFacade(Class)} keeps the facades once created. 
+ * Factories obtained via {@link #getShared(XsdTypeMapper)} are shared 
+ * within the process, so the scan is done once per class and type mapping.
+ * Classes compiled with the {@link com.yoshtec.owl.apt.ClassFacadeProcessor}
+ * are not scanned at all, their generated {@link GeneratedClassFacade} is used.
+ * 
+ * @author Jonas von Malottki
+ */
 public class ClassFacadeFactory {
 
     private static final Logger log = LoggerFactory
             .getLogger(ClassFacadeFactory.class);
     
+    /** the process wide factories by type mapping */
+    private static final ConcurrentMap<XsdTypeMapper,ClassFacadeFactory> shared = new ConcurrentHashMap<XsdTypeMapper,ClassFacadeFactory>();
+    
+    /** the class, property and data type URIs of all facades */
+    private static final UriDictionary schemaUris = new UriDictionary();
+    
+    static {
+        // the data type URIs of the facades are the ones of the xsd types
+        for(XsdType xt : XsdType.values()){
+            schemaUris.intern(xt.getUri());
+        }
+    }
+    
     private final XsdTypeMapper typeMapper;
     
+    private PropertyAccessorFactory accessorFactory = PropertyAccessorFactory.REFLECTION;
+    
+    /** facades already created */
+    private final ConcurrentMap<Class<?>,ClassFacade> facades = new ConcurrentHashMap<Class<?>,ClassFacade>();
+    
+    /** use the facades generated at compile time if present */
+    private boolean useGenerated = true;
+    
+    /** shared factories may not be reconfigured */
+    private boolean isShared = false;
+    
+    /**
+     * Returns the process wide factory for the type mapping. The factory works 
+     * on a copy of the mapping, so changes to the passed mapper afterwards will 
+     * lead to another factory. The mapping of a shared factory can not be 
+     * changed, {@link #getTypeMapper()} returns a copy of it.
+     * <br>
+     * Only plain {@link XsdTypeMapper}s are shared. A subclass may override 
+     * the mapping methods, which a copy would lose, so it gets a factory 
+     * of its own on every call.
+     * 
+     * @param typeMapper the type mapping, {@code null} for the default mapping
+     * @return the shared factory for the mapping
+     */
+    public static ClassFacadeFactory getShared(XsdTypeMapper typeMapper){
+        if( typeMapper != null && typeMapper.getClass() != XsdTypeMapper.class ){
+            return new ClassFacadeFactory(typeMapper);
+        }
+        XsdTypeMapper key = typeMapper == null ? new XsdTypeMapper() : typeMapper;
+        ClassFacadeFactory cff = shared.get(key);
+        if( cff == null ){
+            // the factory and the map get copies of their own, the map key must never change
+            cff = new ClassFacadeFactory(new XsdTypeMapper(key));
+            cff.isShared = true;
+            ClassFacadeFactory known = shared.putIfAbsent(new XsdTypeMapper(key), cff);
+            if( known != null ){
+                cff = known;
+            }
+        }
+        return cff;
+    }
+    
+    /**
+     * Returns the URIs of the classes, properties and data types of all facades. 
+     * The facades take their URIs from this dictionary, so the same URI is 
+     * the same instance in every facade. Marshalling and unmarshalling use 
+     * it as parent of their dictionaries, see {@link UriDictionary#UriDictionary(UriDictionary)}.
+     * 
+     * @return the process wide dictionary of the URIs of the facades
+     */
+    public static UriDictionary getSchemaUris(){
+        return schemaUris;
+    }
+    
     public ClassFacadeFactory(XsdTypeMapper typeMapper){
         if(typeMapper == null){
             this.typeMapper = new XsdTypeMapper();
@@ -26,11 +110,83 @@ public class ClassFacadeFactory {
         this.typeMapper = new XsdTypeMapper();
     }
     
+    /**
+     * @return the type mapping of the facades, a copy for shared factories
+     */
     public XsdTypeMapper getTypeMapper() {
+        if( isShared ){
+            return new XsdTypeMapper(this.typeMapper);
+        }
         return this.typeMapper;
     }
     
+    /**
+     * @return the factory for the property accessors of new facades
+     */
+    public PropertyAccessorFactory getPropertyAccessorFactory() {
+        return this.accessorFactory;
+    }
+    
+    /**
+     * Selects how the properties of facades created afterwards are accessed,
+     * {@link PropertyAccessorFactory#REFLECTION} by default. 
+     * @param accessorFactory the new factory, {@code null} for the default
+     */
+    public void setPropertyAccessorFactory(PropertyAccessorFactory accessorFactory) {
+        if( isShared ){
+            throw new IllegalStateException("A shared ClassFacadeFactory may not be changed");
+        }
+        this.accessorFactory = accessorFactory == null ? PropertyAccessorFactory.REFLECTION : accessorFactory;
+    }
+    
+    /**
+     * @return {@code true} if facades generated by the 
+     * {@link com.yoshtec.owl.apt.ClassFacadeProcessor} are used
+     */
+    public boolean isUseGenerated() {
+        return this.useGenerated;
+    }
+    
+    /**
+     * Selects whether facades generated at compile time are used 
+     * instead of scanning the classes by reflection, {@code true}
+     * by default. Classes without a generated facade are always scanned.
+     * @param useGenerated {@code false} to always scan the classes
+     */
+    public void setUseGenerated(boolean useGenerated) {
+        if( isShared ){
+            throw new IllegalStateException("A shared ClassFacadeFactory may not be changed");
+        }
+        this.useGenerated = useGenerated;
+    }
     
+    /**
+     * Returns the facade for the class, creates the facade only the 
+     * first time the class is requested. This method is thread safe.
+     * @param clazz the annotated class
+     * @return the facade or {@code null} if the class cannot be handled 
+     */
+    public ClassFacade getClassFacade(Class<?> clazz){
+        ClassFacade cf = facades.get(clazz);
+        if( cf == null ){
+            cf = createClassFacade(clazz);
+            if( cf == null ){
+                return null;
+            }
+            ClassFacade known = facades.putIfAbsent(clazz, cf);
+            if( known != null ){
+                cf = known;
+            }
+        }
+        return cf;
+    }
+    
+    /**
+     * Creates a new facade for the class without looking at the ones 
+     * already created. 
+     * @param clazz the annotated class
+     * @return the facade or {@code null} if the class cannot be handled
+     */
     public ClassFacade createClassFacade(Class<?> clazz){
         if( !(clazz.isAnnotationPresent(OwlClass.class) ||
             clazz.isAnnotationPresent(OwlClassImplementation.class)) ){
@@ -44,9 +200,39 @@ public class ClassFacadeFactory {
         } else if( clazz.isEnum() ){
             return new EnumCF((Class<Enum<?>>)clazz, typeMapper);
         } else {
-            return new SimpleClassFacade(clazz, typeMapper);
+            if( useGenerated ){
+                ClassFacade cf = createGeneratedFacade(clazz);
+                if( cf != null ){
+                    return cf;
+                }
+            }
+            return new SimpleClassFacade(clazz, typeMapper, accessorFactory);
         }
         
     }
     
+    /**
+     * @return the generated facade of the class or {@code null} if there is none
+     */
+    private ClassFacade createGeneratedFacade(Class<?> clazz){
+        Class<?> generated;
+        try {
+            generated = Class.forName(clazz.getName() + GeneratedClassFacade.SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            GeneratedClassFacade<?> cf = (GeneratedClassFacade<?>)generated
+                .getConstructor(XsdTypeMapper.class, PropertyAccessorFactory.class)
+                .newInstance(typeMapper, accessorFactory);
+            if( cf.getRepresentedClass() == clazz ){
+                log.debug("Using generated facade {}", generated);
+                return cf;
+            }
+        } catch (Exception e) {
+            log.warn("Unable to use generated facade " + generated, e);
+        }
+        return null;
+    }
+    
 }
@@ -98,7 +98,7 @@ class EnumCF<E extends Enum<E>> extends SimpleClassFacade<E> implements ClassFac
      * Does nothing, since IDs on enums are not settable 
      */
     @Override
-    public void setId(Object obj, String id) {
+    public void setId(StagingContext ctx, Object obj, String id) {
         return; // nothing to do here
     }
 
@@ -27,7 +27,6 @@ import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -74,9 +73,8 @@ public class FieldPropertyAccessor implements PropertyAccessor{
     private URI propUri = null;
     private Class<?> declaringClass = null;
     
-    /** allows to do lazy property setting, it is mostly used to be able to cache
-     * Collections or arrays that would be expensive to copy */
-    protected Map<Object, Object> valueCache = null;
+    /** the type of a single value */
+    private Class<?> valueType = null;
     
     /** will be used to marshal an unmarshall literals */
     private XmlAdapter<String, Object> adapter = null;
@@ -98,6 +96,7 @@ public class FieldPropertyAccessor implements PropertyAccessor{
         this.array = field.getType().isArray();
         this.declaringClass = field.getDeclaringClass();
         this.propUri = propUri;
+        this.valueType = ReflectUtil.getValueType(field.getGenericType());
         extractDataTypes();
         
         this.functional = field.isAnnotationPresent(OwlFunctionalDataProperty.class) 
@@ -141,9 +140,9 @@ public class FieldPropertyAccessor implements PropertyAccessor{
                 final URI returi;
                 if(oc.uri().equals(Const.DEFAULT_ANNOTATION_STRING)){
                     log.warn("Default uristr on class", at);
-                    returi = URI.create("#" + at.getSimpleName());
+                    returi = ReflectUtil.createUri("#" + at.getSimpleName());
                 } else {
-                    returi = URI.create(oc.uri());
+                    returi = ReflectUtil.createUri(oc.uri());
                 }
                 log.debug("Found URI '{}' for actual Type '{}'", returi, actualType );
                 return returi;
@@ -173,13 +172,13 @@ public class FieldPropertyAccessor implements PropertyAccessor{
             // found collection of data types
             OwlDataTypes odts = ae.getAnnotation(OwlDataTypes.class);
             for(OwlDataType odt : odts.value()){
-                dtUri.add(URI.create(odt.uri()));
+                dtUri.add(ReflectUtil.createUri(odt.uri()));
             }
             return true;
         } else if(ae.isAnnotationPresent(OwlDataType.class)){
             // only one data type present
             OwlDataType odt = ae.getAnnotation(OwlDataType.class);
-            dtUri.add(URI.create(odt.uri()));
+            dtUri.add(ReflectUtil.createUri(odt.uri()));
             return true;
         }
         return false;
@@ -206,17 +205,17 @@ public class FieldPropertyAccessor implements PropertyAccessor{
 
     /**
      * Sets the value or in Case of Collections will add the Value to the
-     * Collection of the Object passed.
+     * Collection of the Object passed. The value is staged in the context
+     * until it is committed.
      * 
+     * @param ctx the staging context of the current run
      * @param obj
      * @param value
      */
     @SuppressWarnings("unchecked")
-    public void setOrAddValue(Object obj, Object value) {
+    public void setOrAddValue(StagingContext ctx, Object obj, Object value) {
 
-        if(valueCache == null){
-             valueCache = new HashMap<Object, Object>();
-        }
+        Map<Object, Object> valueCache = ctx.getValues(this);
         
         if(this.isSingleValue()){
             valueCache.put(obj, value);
@@ -252,10 +251,11 @@ public class FieldPropertyAccessor implements PropertyAccessor{
     }
     /**
      * Commits the values from the cache to the Objects 
+     * @param valueCache the values staged for this property by object
      * @throws IllegalAccessException
      * @throws InvocationTargetException
      */
-    public void commit() throws IllegalAccessException, InvocationTargetException {
+    public void commit(Map<Object, Object> valueCache) throws IllegalAccessException, InvocationTargetException {
 
         if( valueCache == null )
             return; // nothing to to do in this case
@@ -264,17 +264,21 @@ public class FieldPropertyAccessor implements PropertyAccessor{
             throw new IllegalStateException("No way to set the value");
         }
         
-        for(Object obj : valueCache.keySet()){
-            Object value = valueCache.get(obj);
-            if(!array){
-                field.set(obj, value);
-            } else {
-                field.set(obj, ((Collection<?>)value).toArray());
+        for(Map.Entry<Object, Object> entry : valueCache.entrySet()){
+            Object value = entry.getValue();
+            if(array){
+                value = ReflectUtil.toArray((Collection<?>)value, valueType);
             }
-            break;
+            setFieldValue(entry.getKey(), value);
         }
-        // empty the value cache
-        valueCache = null;
+    }
+    
+    /**
+     * Writes the value to the field of the object, 
+     * subclasses may replace the reflective access 
+     */
+    protected void setFieldValue(Object obj, Object value) throws IllegalAccessException, InvocationTargetException {
+        field.set(obj, value);
     }
     
 
@@ -314,12 +318,6 @@ public class FieldPropertyAccessor implements PropertyAccessor{
         return propUri;
     }
 
-    /**
-     * @param propUri the propUri to set
-     */
-    public void setPropUri(URI propUri) {
-        this.propUri = propUri;
-    }
     
     /**
      * @return the Set of Datatype URIs valid for this property
@@ -346,13 +344,6 @@ public class FieldPropertyAccessor implements PropertyAccessor{
         return functional;
     }
 
-    /**
-     * @param functional the functional to set
-     */
-    public void setFunctional(boolean functional) {
-        this.functional = functional;
-    }
-
     @Override
     public String toString(){
         StringBuffer sb = new StringBuffer("(");
@@ -379,6 +370,10 @@ public class FieldPropertyAccessor implements PropertyAccessor{
         return this.field.getType();
     }
     
+    public Class<?> getValueType(){
+        return this.valueType;
+    }
+    
     /**
      * @return the Field if this Property is accessed via fields otherwise {@code null}
      */
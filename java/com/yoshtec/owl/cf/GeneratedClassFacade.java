@@ -0,0 +1,194 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.cf;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yoshtec.owl.PropertyType;
+import com.yoshtec.owl.XsdTypeMapper;
+
+/**
+ * Base of the facades generated by the {@link com.yoshtec.owl.apt.ClassFacadeProcessor}.
+ * The generated subclass registers the URIs and properties found in the 
+ * source at compile time, so creating the facade does not scan the 
+ * class by reflection. 
+ * <br>
+ * The generated facade of a class {@code a.b.Foo} is named 
+ * {@code a.b.Foo_OwlFacade} ({@link #SUFFIX}), the {@link ClassFacadeFactory}
+ * uses it instead of a reflective facade when it is present.
+ */
+public abstract class GeneratedClassFacade<T> extends BaseCF<T> implements ClassFacade {
+
+    private static final Logger log = LoggerFactory.getLogger(GeneratedClassFacade.class);
+    
+    /** appended to the binary name of the class to get the name of its generated facade */
+    public static final String SUFFIX = "_OwlFacade";
+    
+    /** creates the accessors of the fields not accessible to the generated code */
+    private final PropertyAccessorFactory accessorFactory;
+    
+    /** ID access property */
+    private PropertyAccessor idProp = null;
+    
+    /** Property associated with the class */
+    private final Map<URI, PropertyAccessor> properties = new HashMap<URI, PropertyAccessor>();
+    private final Map<URI, PropertyAccessor> dataProperties = new HashMap<URI, PropertyAccessor>();
+    private final Map<URI, PropertyAccessor> objectProperties = new HashMap<URI, PropertyAccessor>();
+    
+    protected GeneratedClassFacade(Class<T> clazz, XsdTypeMapper typeMapper, PropertyAccessorFactory accessorFactory) {
+        super(clazz, typeMapper);
+        this.accessorFactory = accessorFactory == null ? PropertyAccessorFactory.REFLECTION : accessorFactory;
+        this.importedUris = new HashSet<URI>();
+    }
+    
+    protected void addClassUri(String uri){
+        classuris.add(ReflectUtil.createUri(uri));
+    }
+    
+    /**
+     * @param uri the ontology base URI 
+     * @param imports the imported URIs
+     */
+    protected void setOntology(String uri, String... imports){
+        ontoBaseUri = ReflectUtil.createUri(uri);
+        for(String imp : imports){
+            importedUris.add(ReflectUtil.createUri(imp));
+        }
+    }
+    
+    /**
+     * Adds the property, unless a property with the same URI has 
+     * been added before, e.g. by a subclass.
+     * @param prop the accessor of the property
+     * @param type {@link PropertyType#DATA} or {@link PropertyType#OBJECT},
+     * {@code null} if the type is given by the type mapping 
+     */
+    protected void addProperty(PropertyAccessor prop, PropertyType type){
+        URI propUri = prop.getPropUri();
+        if(properties.containsKey(propUri)){
+            return;
+        }
+        if(type == null){
+            type = typeMapper.getXsdType(prop.getType()) != null ? PropertyType.DATA : PropertyType.OBJECT;
+            log.debug("Suspecting {} to be a {} - Property", prop, type);
+        }
+        properties.put(propUri, prop);
+        switch (type) {
+        case DATA:
+            dataProperties.put(propUri, prop);
+            break;
+        case OBJECT:
+            objectProperties.put(propUri, prop);
+            break;
+        default:
+            log.warn("Unable to handle {} Properties at this level", type);
+            break;
+        }
+    }
+    
+    protected void setIdProperty(PropertyAccessor prop){
+        this.idProp = prop;
+    }
+    
+    /**
+     * Creates the accessor of a field the generated code cannot access, 
+     * e.g. a private one, with the {@link PropertyAccessorFactory} of the 
+     * {@link ClassFacadeFactory}.
+     * @param level the number of superclasses between the class and the 
+     * class declaring the field
+     * @param name the name of the field
+     * @param propUri the URI of the property, {@code null} for id properties
+     */
+    protected PropertyAccessor field(int level, String name, String propUri){
+        Class<?> declaring = clazz;
+        for(int i = 0; i < level; i++){
+            declaring = declaring.getSuperclass();
+        }
+        try {
+            Field field = declaring.getDeclaredField(name);
+            return accessorFactory.createFieldAccessor(field, propUri == null ? null : ReflectUtil.createUri(propUri), typeMapper);
+        } catch (NoSuchFieldException e) {
+            throw new IllegalStateException("The facade of " + clazz + " is outdated, field " + name + " not found", e);
+        }
+    }
+    
+    /**
+     * Creates the accessor of a method annotated with 
+     * {@link com.yoshtec.owl.annotations.OwlIndividualId}
+     * @param name the name of the public method
+     */
+    protected PropertyAccessor idMethod(String name){
+        try {
+            return new PropPropertyAccessor(clazz.getMethod(name), null, null, typeMapper);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("The facade of " + clazz + " is outdated, method " + name + " not found", e);
+        }
+    }
+    
+    public PropertyAccessor getProperty(URI uri) {
+        return properties.get(uri);
+    }
+
+    public boolean hasProperty(URI uri) {
+        return properties.containsKey(uri);
+    }
+
+    public String getIdString(Object o) {
+        if( idProp != null ){
+            try {
+                Object value = idProp.getValue(o);
+                if(value != null){
+                    return value.toString();
+                }
+            } catch (Exception e) {
+                log.warn("could not retrieve idValue for object {}", o);
+            }
+        }
+        
+        // defaulting to the hashValue
+        return Integer.toString(o.hashCode());
+    }
+
+    public Collection<PropertyAccessor> getDataProperties() {
+        return dataProperties.values();
+    }
+
+    public Collection<PropertyAccessor> getObjectProperties() {
+        return objectProperties.values();
+    }
+
+    public boolean hasSetableId() {
+        return idProp != null && idProp.isAccessible();
+    }
+
+    public void setId(StagingContext ctx, Object obj, String id) {
+        if( idProp != null )
+            idProp.setOrAddValue(ctx, obj, id);
+    }
+
+}
@@ -0,0 +1,236 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.cf;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.yoshtec.owl.PropertyAccessType;
+import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.XsdTypeMapper;
+
+/**
+ * Base of the field accessors generated by the 
+ * {@link com.yoshtec.owl.apt.ClassFacadeProcessor}. The generated 
+ * subclasses read and write the field directly, the type information 
+ * has been taken from the source at compile time.
+ * <br>
+ * The primitive access methods fail with an {@link IllegalStateException}
+ * unless they are overridden for a field of a matching primitive type.
+ * 
+ * @see GeneratedClassFacade
+ */
+public abstract class GeneratedPropertyAccessor implements PrimitivePropertyAccessor {
+
+    private final URI propUri;
+    private final Class<?> declaringClass;
+    private final Class<?> type;
+    private final Class<?> valueType;
+    private final boolean functional;
+    private final boolean collection;
+    private final boolean array;
+    
+    /** List of data types */
+    private final Set<URI> dtUri = new HashSet<URI>();
+    
+    /**
+     * @param propUri the URI of the property, {@code null} for id properties
+     * @param declaringClass the class declaring the field
+     * @param type the type of the field
+     * @param valueType the type of a single value, for arrays and 
+     * collections the component type
+     * @param functional {@code true} if the property is functional
+     * @param typeMapper maps the value type to its data type if no 
+     * data types are passed
+     * @param dataTypeUris the data types or classes of the values
+     */
+    protected GeneratedPropertyAccessor(String propUri, Class<?> declaringClass, Class<?> type, 
+            Class<?> valueType, boolean functional, XsdTypeMapper typeMapper, String... dataTypeUris) {
+        this.propUri = propUri == null ? null : ReflectUtil.createUri(propUri);
+        this.declaringClass = declaringClass;
+        this.type = type;
+        this.valueType = valueType;
+        this.functional = functional;
+        this.collection = Collection.class.isAssignableFrom(type);
+        this.array = type.isArray();
+        
+        if( dataTypeUris.length > 0 ){
+            for(String dt : dataTypeUris){
+                dtUri.add(ReflectUtil.createUri(dt));
+            }
+        } else {
+            // mapped the same way as by the FieldPropertyAccessor
+            XsdType xsdtype = typeMapper.getXsdType(valueType);
+            dtUri.add(xsdtype != null ? xsdtype.getUri() : null);
+        }
+    }
+    
+    /**
+     * Writes the value to the field of the object
+     */
+    protected abstract void setFieldValue(Object obj, Object value);
+    
+    public boolean isSingleValue() {
+        return !collection && !array;
+    }
+
+    public void setOrAddValue(StagingContext ctx, Object obj, Object value) {
+        Map<Object, Object> valueCache = ctx.getValues(this);
+        
+        if(isSingleValue()){
+            valueCache.put(obj, value);
+        } else {
+            // only this accessor stages collections for itself
+            @SuppressWarnings("unchecked")
+            Collection<Object> c = (Collection<Object>)valueCache.get(obj);
+            if(c == null){
+                // create a new collection based on the type (Set or List)
+                if( collection && Set.class.isAssignableFrom(type) ){
+                    c = new HashSet<Object>();
+                } else {
+                    c = new ArrayList<Object>();
+                }
+                valueCache.put(obj, c);
+            }
+            c.add(value);
+        }
+    }
+
+    public void commit(Map<Object, Object> values) throws IllegalAccessException, InvocationTargetException {
+        if( values == null )
+            return;
+        
+        for(Map.Entry<Object, Object> entry : values.entrySet()){
+            Object value = entry.getValue();
+            if(array){
+                value = ReflectUtil.toArray((Collection<?>)value, valueType);
+            }
+            setFieldValue(entry.getKey(), value);
+        }
+    }
+
+    public Collection<String> getLiterals(Object obj) throws Exception {
+        Object value = getValue(obj);
+        
+        List<String> result = new ArrayList<String>();
+        if( value instanceof Collection<?> ){
+            for( Object lv : ((Collection<?>)value) ){
+                result.add(String.valueOf(lv));
+            }
+        } else if( value instanceof Object[] ){
+            for( Object lv : ((Object[])value) ){
+                result.add(String.valueOf(lv));
+            }
+        } else if( value != null && value.getClass().isArray() ){ // primitive arrays
+            for( int i = 0, n = Array.getLength(value); i < n; i++ ){
+                result.add(String.valueOf(Array.get(value, i)));
+            }
+        } else {
+            result.add(String.valueOf(value));
+        }
+        return result;
+    }
+
+    public URI getPropUri() {
+        return propUri;
+    }
+
+    public Set<URI> getDataTypeUris() {
+        return dtUri;
+    }
+
+    public Class<?> getDeclaringClass() {
+        return declaringClass;
+    }
+
+    public boolean isAccessible() {
+        return true;
+    }
+
+    public boolean isFunctional() {
+        return functional;
+    }
+
+    public PropertyAccessType getAccess() {
+        return PropertyAccessType.FIELD;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Class<?> getValueType() {
+        return valueType;
+    }
+    
+    public boolean isPrimitive() {
+        return type.isPrimitive();
+    }
+
+    public long getLong(Object obj) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+
+    public double getDouble(Object obj) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+
+    public boolean getBoolean(Object obj) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+
+    public void setLong(Object obj, long value) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+
+    public void setDouble(Object obj, double value) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+
+    public void setBoolean(Object obj, boolean value) throws IllegalAccessException, InvocationTargetException {
+        throw noPrimitive();
+    }
+    
+    private IllegalStateException noPrimitive(){
+        return new IllegalStateException("No such primitive access for " + this);
+    }
+    
+    @Override
+    public String toString(){
+        StringBuffer sb = new StringBuffer("(");
+        sb.append(this.getClass().getSimpleName());
+        sb.append(": ");
+        sb.append("Generated: ");
+        sb.append(declaringClass.getName());
+        sb.append(" URI: ");
+        sb.append(propUri);
+        sb.append(" )");
+        
+        return sb.toString();
+    }
+
+}
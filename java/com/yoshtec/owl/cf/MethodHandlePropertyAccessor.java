@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.cf;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
+
+import com.yoshtec.owl.XsdTypeMapper;
+
+/**
+ * Accesses a field through {@link MethodHandle}s instead of reflection.
+ * The handles are resolved once on construction and primitive fields 
+ * can be read and written without boxing.
+ * 
+ * @see PropertyAccessorFactory#METHOD_HANDLES
+ */
+public class MethodHandlePropertyAccessor extends FieldPropertyAccessor implements PrimitivePropertyAccessor {
+
+    private static final MethodType GET = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SET = MethodType.methodType(void.class, Object.class, Object.class);
+    
+    /** boxing handles */
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+    
+    /** primitive handles, {@code null} if not applicable for the field type */
+    private MethodHandle longGetter = null;
+    private MethodHandle longSetter = null;
+    private MethodHandle doubleGetter = null;
+    private MethodHandle doubleSetter = null;
+    private MethodHandle booleanGetter = null;
+    private MethodHandle booleanSetter = null;
+    
+    public MethodHandlePropertyAccessor(Field field, URI propUri, XsdTypeMapper typeMapper) {
+        super(field, propUri, typeMapper);
+        
+        MethodHandle get;
+        MethodHandle set;
+        try {
+            // the field has been made accessible
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            get = lookup.unreflectGetter(field);
+            set = lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Unable to access field " + field, e);
+        }
+        
+        this.getter = get.asType(GET);
+        this.setter = set.asType(SET);
+        
+        Class<?> type = field.getType();
+        if(type == boolean.class){
+            booleanGetter = get.asType(MethodType.methodType(boolean.class, Object.class));
+            booleanSetter = set.asType(MethodType.methodType(void.class, Object.class, boolean.class));
+        } else if(type == float.class || type == double.class){
+            doubleGetter = get.asType(MethodType.methodType(double.class, Object.class));
+            doubleSetter = MethodHandles.explicitCastArguments(set, MethodType.methodType(void.class, Object.class, double.class));
+        } else if(type.isPrimitive()){
+            // byte, short, char, int, long
+            longGetter = get.asType(MethodType.methodType(long.class, Object.class));
+            longSetter = MethodHandles.explicitCastArguments(set, MethodType.methodType(void.class, Object.class, long.class));
+            doubleGetter = get.asType(MethodType.methodType(double.class, Object.class));
+        }
+    }
+    
+    @Override
+    public Object getValue(Object obj) throws IllegalAccessException, InvocationTargetException {
+        try {
+            return (Object)getter.invokeExact(obj);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+    
+    @Override
+    protected void setFieldValue(Object obj, Object value) throws IllegalAccessException, InvocationTargetException {
+        try {
+            setter.invokeExact(obj, value);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+    
+    public boolean isPrimitive() {
+        return getType().isPrimitive();
+    }
+
+    public long getLong(Object obj) throws IllegalAccessException, InvocationTargetException {
+        try {
+            return (long)check(longGetter).invokeExact(obj);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    public double getDouble(Object obj) throws IllegalAccessException, InvocationTargetException {
+        try {
+            return (double)check(doubleGetter).invokeExact(obj);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    public boolean getBoolean(Object obj) throws IllegalAccessException, InvocationTargetException {
+        try {
+            return (boolean)check(booleanGetter).invokeExact(obj);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    public void setLong(Object obj, long value) throws IllegalAccessException, InvocationTargetException {
+        try {
+            check(longSetter).invokeExact(obj, value);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    public void setDouble(Object obj, double value) throws IllegalAccessException, InvocationTargetException {
+        try {
+            check(doubleSetter).invokeExact(obj, value);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+
+    public void setBoolean(Object obj, boolean value) throws IllegalAccessException, InvocationTargetException {
+        try {
+            check(booleanSetter).invokeExact(obj, value);
+        } catch (Throwable t) {
+            throw wrap(t);
+        }
+    }
+    
+    private MethodHandle check(MethodHandle mh){
+        if(mh == null){
+            throw new IllegalStateException("No such primitive access for " + this);
+        }
+        return mh;
+    }
+    
+    /**
+     * Unchecked exceptions are passed through, everything 
+     * else is reported like a reflective invocation
+     */
+    private static InvocationTargetException wrap(Throwable t){
+        if(t instanceof RuntimeException){
+            throw (RuntimeException)t;
+        }
+        if(t instanceof Error){
+            throw (Error)t;
+        }
+        return new InvocationTargetException(t);
+    }
+
+}
@@ -0,0 +1,60 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.cf;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * A {@link PropertyAccessor} that is able to access primitive fields 
+ * without boxing the values. The primitive setters write directly 
+ * to the object and bypass the values set by {@link #setOrAddValue(StagingContext, Object, Object)}.
+ */
+public interface PrimitivePropertyAccessor extends PropertyAccessor {
+    
+    /**
+     * @return {@code true} if the property has a primitive type
+     */
+    boolean isPrimitive();
+    
+    /**
+     * @return the value of an integral property (byte, short, char, int, long)
+     */
+    long getLong(Object obj) throws IllegalAccessException, InvocationTargetException;
+    
+    /**
+     * @return the value of a numeric property
+     */
+    double getDouble(Object obj) throws IllegalAccessException, InvocationTargetException;
+    
+    boolean getBoolean(Object obj) throws IllegalAccessException, InvocationTargetException;
+    
+    /**
+     * Sets an integral property, the value is narrowed to the type of the property
+     */
+    void setLong(Object obj, long value) throws IllegalAccessException, InvocationTargetException;
+    
+    /**
+     * Sets a float or double property
+     */
+    void setDouble(Object obj, double value) throws IllegalAccessException, InvocationTargetException;
+    
+    void setBoolean(Object obj, boolean value) throws IllegalAccessException, InvocationTargetException;
+    
+}
@@ -27,7 +27,6 @@ import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -77,9 +76,8 @@ public class PropPropertyAccessor implements PropertyAccessor{
     private URI propUri = null;
     private Class<?> declaringClass = null;
     
-    /** allows to do lazy property setting, it is mostly used to be able to cache
-     * Collections or arrays that would be expensive to copy */
-    protected Map<Object, Object> valueCache = null;
+    /** the type of a single value */
+    private Class<?> valueType = null;
     
     /** will be used to marshal an unmarshall literals */
     private XmlAdapter<String, Object> adapter = null;
@@ -101,6 +99,7 @@ public class PropPropertyAccessor implements PropertyAccessor{
         this.propUri = propUri;
         this.declaringClass = getter.getDeclaringClass();
         
+        this.valueType = ReflectUtil.getValueType(getter.getGenericReturnType());
         extractDataTypes();
         if(getter.getDeclaringClass() != getter.getDeclaringClass()){
             log.warn("Setter and getter defined in different classes {}, {}",getter.toGenericString(),setter.toGenericString());
@@ -147,9 +146,9 @@ public class PropPropertyAccessor implements PropertyAccessor{
                 final URI returi;
                 if(oc.uri().equals(Const.DEFAULT_ANNOTATION_STRING)){
                     log.warn("Default uristr on class", at);
-                    returi = URI.create("#" + at.getSimpleName());
+                    returi = ReflectUtil.createUri("#" + at.getSimpleName());
                 } else {
-                    returi = URI.create(oc.uri());
+                    returi = ReflectUtil.createUri(oc.uri());
                 }
                 log.debug("Found URI '{}' for actual Type '{}'", returi, actualType );
                 return returi;
@@ -179,13 +178,13 @@ public class PropPropertyAccessor implements PropertyAccessor{
             // found collection of data types
             OwlDataTypes odts = ae.getAnnotation(OwlDataTypes.class);
             for(OwlDataType odt : odts.value()){
-                dtUri.add(URI.create(odt.uri()));
+                dtUri.add(ReflectUtil.createUri(odt.uri()));
             }
             return true;
         } else if(ae.isAnnotationPresent(OwlDataType.class)){
             // only one data type present
             OwlDataType odt = ae.getAnnotation(OwlDataType.class);
-            dtUri.add(URI.create(odt.uri()));
+            dtUri.add(ReflectUtil.createUri(odt.uri()));
             return true;
         }
         return false;
@@ -212,17 +211,17 @@ public class PropPropertyAccessor implements PropertyAccessor{
 
     /**
      * Sets the value or in Case of Collections will add the Value to the
-     * Collection of the Object passed.
+     * Collection of the Object passed. The value is staged in the context
+     * until it is committed.
      * 
+     * @param ctx the staging context of the current run
      * @param obj
      * @param value
      */
     @SuppressWarnings("unchecked")
-    public void setOrAddValue(Object obj, Object value) {
+    public void setOrAddValue(StagingContext ctx, Object obj, Object value) {
 
-        if(valueCache == null){
-             valueCache = new HashMap<Object, Object>();
-        }
+        Map<Object, Object> valueCache = ctx.getValues(this);
         
         if(this.isSingleValue()){
             valueCache.put(obj, value);
@@ -259,11 +258,12 @@ public class PropPropertyAccessor implements PropertyAccessor{
     }
     /**
      * Commits the values from the cache to the Objects 
+     * @param valueCache the values staged for this property by object
      * @throws IllegalAccessException
      * @throws InvocationTargetException
      */
     @SuppressWarnings("unchecked")
-    public void commit() throws IllegalAccessException, InvocationTargetException {
+    public void commit(Map<Object, Object> valueCache) throws IllegalAccessException, InvocationTargetException {
 
         if( valueCache == null )
             return; // nothing to to do in this case
@@ -275,14 +275,15 @@ public class PropPropertyAccessor implements PropertyAccessor{
             throw new IllegalStateException("No way to set the value");
         }
 
-        for(Object obj : valueCache.keySet()){
-            Object value = valueCache.get(obj);
+        for(Map.Entry<Object, Object> entry : valueCache.entrySet()){
+            Object obj = entry.getKey();
+            Object value = entry.getValue();
             if(isSingleValue()){
                 setter.invoke(obj, value);
             } else {
                 if(array){
                     //set the new array
-                    setter.invoke(obj, ((Collection<?>)value).toArray() );
+                    setter.invoke(obj, ReflectUtil.toArray((Collection<?>)value, valueType));
                 }
 
                 if(collection){
@@ -301,11 +302,7 @@ public class PropPropertyAccessor implements PropertyAccessor{
                     }
                 }
             }
-            // finish here
-            break;
         }
-        // empty the value cache
-        valueCache = null;
     }
     
 
@@ -345,12 +342,6 @@ public class PropPropertyAccessor implements PropertyAccessor{
         return propUri;
     }
 
-    /**
-     * @param propUri the propUri to set
-     */
-    public void setPropUri(URI propUri) {
-        this.propUri = propUri;
-    }
     
     /**
      * @return the Set of Datatype URIs valid for this property
@@ -377,13 +368,6 @@ public class PropPropertyAccessor implements PropertyAccessor{
         return functional;
     }
 
-    /**
-     * @param functional the functional to set
-     */
-    public void setFunctional(boolean functional) {
-        this.functional = functional;
-    }
-
     @Override
     public String toString(){
         StringBuffer sb = new StringBuffer("(");
@@ -412,6 +396,10 @@ public class PropPropertyAccessor implements PropertyAccessor{
     public Class<?> getType(){
         return getter.getReturnType();
     }
+    
+    public Class<?> getValueType(){
+        return this.valueType;
+    }
 
     /**
      * @return the Getter if this Property is accessed via setter/getter 
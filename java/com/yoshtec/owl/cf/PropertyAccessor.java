@@ -22,12 +22,17 @@ package com.yoshtec.owl.cf;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 import com.yoshtec.owl.PropertyAccessType;
 /**
  * This Class helps to access annotated Properties of 
  * Java Beans and link the concepts to the OWL world.
+ * <br>
+ * Accessors do not change after their creation, values set during 
+ * unmarshalling are staged in a {@link StagingContext}, so accessors
+ * can be used by several threads at once.
  * 
  * @author Jonas von Malottki
  *
@@ -42,19 +47,23 @@ public interface PropertyAccessor{
 
 	/**
 	 * Sets the value or in Case of Collections will add the Value to the
-	 * Collection of the Object passed.
+	 * Collection of the Object passed. The value is staged in the context
+	 * until it is committed.
 	 * 
+	 * @param ctx the staging context of the current run
 	 * @param obj
 	 * @param value
 	 */
-	public void setOrAddValue(Object obj, Object value);
+	public void setOrAddValue(StagingContext ctx, Object obj, Object value);
 	
 	/**
 	 * Commits the values from the cache to the Objects 
+	 * @param values the values staged for this property by object
 	 * @throws IllegalAccessException
 	 * @throws InvocationTargetException
+	 * @see StagingContext#commit()
 	 */
-	public void commit() throws IllegalAccessException, InvocationTargetException; 
+	public void commit(Map<Object, Object> values) throws IllegalAccessException, InvocationTargetException; 
 
 	/**
 	 * Retrieves a Value from a Property. Primitives will be boxed.
@@ -70,10 +79,6 @@ public interface PropertyAccessor{
 	 * @return the propUri
 	 */
 	public URI getPropUri();
-	/**
-	 * @param propUri the propUri to set
-	 */
-	public void setPropUri(URI propUri);
 	
 	/**
 	 * @return the Set of Datatype URIs valid for this property
@@ -92,11 +97,6 @@ public interface PropertyAccessor{
      */
     public boolean isFunctional();
 
-    /**
-     * @param functional the functional to set
-     */
-    public void setFunctional(boolean functional);
-
     /**
      * 
      * @return the Type of Property Access e.g. field or Setter/getter-Pair
@@ -105,6 +105,12 @@ public interface PropertyAccessor{
 
     Class<?> getType();
     
+    /**
+     * @return the type of a single value, for arrays and collections 
+     * the component type 
+     */
+    Class<?> getValueType();
+    
 //    /**
 //     * @return the Field if this Property is accessed via fields otherwise {@code null}
 //     */
@@ -1,7 +1,61 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
 package com.yoshtec.owl.cf;
 
-public class PropertyAccessorFactory {
+import java.lang.reflect.Field;
+import java.net.URI;
 
+import com.yoshtec.owl.XsdTypeMapper;
+
+/**
+ * Creates the {@link PropertyAccessor}s for the fields of a 
+ * {@link ClassFacade}, selectable per {@link ClassFacadeFactory}.
+ * 
+ * @author Jonas von Malottki
+ * @see ClassFacadeFactory#setPropertyAccessorFactory(PropertyAccessorFactory)
+ */
+public abstract class PropertyAccessorFactory {
+
+    /** Accesses fields via {@link Field#get(Object)} and {@link Field#set(Object, Object)}, the default */
+    public static final PropertyAccessorFactory REFLECTION = new PropertyAccessorFactory() {
+        @Override
+        public PropertyAccessor createFieldAccessor(Field field, URI propUri, XsdTypeMapper typeMapper) {
+            return new FieldPropertyAccessor(field, propUri, typeMapper);
+        }
+    };
+    
+    /** Accesses fields via {@link java.lang.invoke.MethodHandle}s, 
+     * the accessors implement {@link PrimitivePropertyAccessor} */
+    public static final PropertyAccessorFactory METHOD_HANDLES = new PropertyAccessorFactory() {
+        @Override
+        public PropertyAccessor createFieldAccessor(Field field, URI propUri, XsdTypeMapper typeMapper) {
+            return new MethodHandlePropertyAccessor(field, propUri, typeMapper);
+        }
+    };
     
+    /**
+     * @param field the annotated field
+     * @param propUri the URI of the property, {@code null} for id properties
+     * @param typeMapper the type mapping used
+     * @return a new accessor for the field
+     */
+    public abstract PropertyAccessor createFieldAccessor(Field field, URI propUri, XsdTypeMapper typeMapper);
     
 }
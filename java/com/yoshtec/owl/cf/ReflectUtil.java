@@ -1,7 +1,12 @@
 package com.yoshtec.owl.cf;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import org.slf4j.Logger;
@@ -15,19 +20,26 @@ final class ReflectUtil {
 
     private static final Logger log = LoggerFactory.getLogger(ReflectUtil.class);
     
+    /**
+     * @return the URI, shared with all facades via {@link ClassFacadeFactory#getSchemaUris()}
+     */
+    static URI createUri(String uri){
+        return ClassFacadeFactory.getSchemaUris().intern(uri);
+    }
+    
     static URI getClassUri(Class<?> clazz){
         if( clazz.isAnnotationPresent(OwlClass.class) ){
             OwlClass oc = clazz.getAnnotation(OwlClass.class);
             if( oc.uri().equals(Const.DEFAULT_ANNOTATION_STRING) ){
                 if( clazz.getPackage().isAnnotationPresent(OwlOntology.class) ){
-                    return URI.create(
+                    return createUri(
                             clazz.getPackage().getAnnotation(OwlOntology.class).uri()
                             + "#" +
                             clazz.getSimpleName());
                 }  
                 log.error("No Ontology Uri on Package {}", clazz.getPackage() );
             } else {
-                return URI.create(oc.uri());
+                return createUri(oc.uri());
             }
         }
         
@@ -56,4 +68,113 @@ final class ReflectUtil {
         return null;
     }
     
+    /**
+     * @param type the generic type of a property
+     * @return the component type of arrays, the type argument of 
+     * collections or else the type itself, {@code Object} if unknown
+     */
+    static Class<?> getValueType(Type type){
+        if( type instanceof Class<?> ){
+            Class<?> c = (Class<?>)type;
+            if( c.isArray() ){
+                return c.getComponentType();
+            }
+            if( Collection.class.isAssignableFrom(c) ){
+                return Object.class;
+            }
+            return c;
+        }
+        if( type instanceof ParameterizedType ){
+            ParameterizedType pt = (ParameterizedType)type;
+            Type raw = pt.getRawType();
+            if( raw instanceof Class<?> && Collection.class.isAssignableFrom((Class<?>)raw) ){
+                Type[] typeparams = pt.getActualTypeArguments();
+                if( typeparams.length == 1 ){
+                    if( typeparams[0] instanceof Class<?> ){
+                        return (Class<?>)typeparams[0];
+                    }
+                    if( typeparams[0] instanceof ParameterizedType ){
+                        return (Class<?>)((ParameterizedType)typeparams[0]).getRawType();
+                    }
+                }
+                return Object.class;
+            }
+            return (Class<?>)raw;
+        }
+        return Object.class;
+    }
+    
+    /**
+     * Copies the values to an array of the component type. Only the array 
+     * is created reflectively, primitive arrays are filled by unboxing 
+     * the values in a loop of their own.
+     * @param values the (boxed) values, not {@code null} for primitive arrays
+     * @param componentType the component type of the array
+     * @return the array
+     */
+    static Object toArray(Collection<?> values, Class<?> componentType){
+        int n = values.size();
+        if( !componentType.isPrimitive() ){
+            return values.toArray((Object[])Array.newInstance(componentType, n));
+        }
+        
+        Iterator<?> it = values.iterator();
+        if( componentType == int.class ){
+            int[] a = new int[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).intValue();
+            }
+            return a;
+        }
+        if( componentType == long.class ){
+            long[] a = new long[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).longValue();
+            }
+            return a;
+        }
+        if( componentType == double.class ){
+            double[] a = new double[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).doubleValue();
+            }
+            return a;
+        }
+        if( componentType == float.class ){
+            float[] a = new float[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).floatValue();
+            }
+            return a;
+        }
+        if( componentType == short.class ){
+            short[] a = new short[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).shortValue();
+            }
+            return a;
+        }
+        if( componentType == byte.class ){
+            byte[] a = new byte[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Number)it.next()).byteValue();
+            }
+            return a;
+        }
+        if( componentType == boolean.class ){
+            boolean[] a = new boolean[n];
+            for(int i = 0; i < n; i++){
+                a[i] = ((Boolean)it.next()).booleanValue();
+            }
+            return a;
+        }
+        // char 
+        char[] a = new char[n];
+        for(int i = 0; i < n; i++){
+            Object v = it.next();
+            a[i] = v instanceof Character ? ((Character)v).charValue() : v.toString().charAt(0);
+        }
+        return a;
+    }
+    
 }
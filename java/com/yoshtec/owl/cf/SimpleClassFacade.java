@@ -59,10 +59,17 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
 	private Map<URI, PropertyAccessor> dataProperties = new HashMap<URI, PropertyAccessor>();
 	private Map<URI, PropertyAccessor> objectProperties = new HashMap<URI, PropertyAccessor>();
 	
+	/** creates the accessors of the fields */
+	private final PropertyAccessorFactory accessorFactory;
 	
 	protected SimpleClassFacade(Class<T> clazz, XsdTypeMapper typeMapper){
+		this(clazz, typeMapper, PropertyAccessorFactory.REFLECTION);
+	}
+	
+	protected SimpleClassFacade(Class<T> clazz, XsdTypeMapper typeMapper, PropertyAccessorFactory accessorFactory){
 		super(clazz, typeMapper);
 		this.clazz = clazz;
+		this.accessorFactory = accessorFactory;
 		setRepresentedClass();
 	}
 	
@@ -96,7 +103,7 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
 					
 					// this property will give an individual id
 					if(field.isAnnotationPresent(OwlIndividualId.class)){
-						this.idProp = new FieldPropertyAccessor(field, null, typeMapper);
+						this.idProp = accessorFactory.createFieldAccessor(field, null, typeMapper);
 					}
 					
 					// TODO: Implement Convention before Configuration 
@@ -136,7 +143,7 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
 			// use the default part of the uri specified via the OwlClass
 			URI uri = classuris.iterator().next();
 			String newUri = uri.toString().replaceAll(uri.getRawFragment(), "").replaceAll("#", "");
-			ontoBaseUri = URI.create(newUri);
+			ontoBaseUri = ReflectUtil.createUri(newUri);
 			
 			log.warn("Defaulting to: {}", newUri);
 			
@@ -169,9 +176,9 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
                 final URI uri;
                 // If it is default string then use the simple class name 
                 if(oc.uri().equals(Const.DEFAULT_ANNOTATION_STRING)){
-                    uri = URI.create('#' + clazz.getSimpleName());
+                    uri = ReflectUtil.createUri('#' + clazz.getSimpleName());
                 } else {
-                    uri = URI.create(oc.uri()); 
+                    uri = ReflectUtil.createUri(oc.uri()); 
                 }
                 // TODO: Handle partial Uris e.g. '#Foo' 
                 log.debug("Found Class '{}' with URI: '{}'", clazz.getName(), uri);
@@ -251,14 +258,14 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
 	private void addProperty(Field field, String uri, PropertyType type){
 		final URI propUri; 
 		if(uri.equals(Const.DEFAULT_ANNOTATION_STRING)){
-		    propUri = URI.create("#" + field.getName());
+		    propUri = ReflectUtil.createUri("#" + field.getName());
 		} else {
-		    propUri = URI.create(uri);
+		    propUri = ReflectUtil.createUri(uri);
 		}
 		// Only add the Property if it is not already defined
 		// e.g. it may be overwritten in an subclass
 		if(!properties.containsKey(propUri)){
-			PropertyAccessor prop = new FieldPropertyAccessor(field, propUri, typeMapper);
+			PropertyAccessor prop = accessorFactory.createFieldAccessor(field, propUri, typeMapper);
 			properties.put(propUri, prop );
 			switch (type) {
 			case DATA:
@@ -373,24 +380,11 @@ class SimpleClassFacade<T> extends BaseCF<T> implements ClassFacade {
 	}
 	
 	/* (non-Javadoc)
-     * @see com.yoshtec.owl.cf.ClassFacade#setId(java.lang.Object, java.lang.String)
+     * @see com.yoshtec.owl.cf.ClassFacade#setId(com.yoshtec.owl.cf.StagingContext, java.lang.Object, java.lang.String)
      */
-	public void setId(Object obj, String id) {
+	public void setId(StagingContext ctx, Object obj, String id) {
 		if( idProp != null )
-			idProp.setOrAddValue(obj, id);
-	}
-
-	/* (non-Javadoc)
-     * @see com.yoshtec.owl.cf.ClassFacade#commit()
-     */
-	public void commit() throws InvocationTargetException, IllegalAccessException{
-		if(idProp != null){
-			idProp.commit();
-		}
-		
-		for(PropertyAccessor prop : properties.values()){
-			prop.commit();
-		}
+			idProp.setOrAddValue(ctx, obj, id);
 	}
 
 
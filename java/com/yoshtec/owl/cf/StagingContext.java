@@ -0,0 +1,80 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.cf;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Holds the values staged by the {@link PropertyAccessor}s during one 
+ * unmarshalling run, until they are committed to the objects. 
+ * <br>
+ * Keeping the values here instead of in the accessors allows the 
+ * {@link ClassFacade}s to be shared between threads, a context itself 
+ * must only be used by one thread.
+ */
+public final class StagingContext {
+    
+    /** staged values per accessor and object */
+    private final Map<PropertyAccessor,Map<Object,Object>> staged = new LinkedHashMap<PropertyAccessor,Map<Object,Object>>();
+    
+    /**
+     * @param prop the accessor
+     * @return the values staged for the accessor by object, objects are 
+     * compared by identity since they may not be completely set yet
+     */
+    public Map<Object,Object> getValues(PropertyAccessor prop){
+        Map<Object,Object> values = staged.get(prop);
+        if(values == null){
+            values = new IdentityHashMap<Object,Object>();
+            staged.put(prop, values);
+        }
+        return values;
+    }
+    
+    /**
+     * @return {@code true} if there are no values staged
+     */
+    public boolean isEmpty(){
+        return staged.isEmpty();
+    }
+    
+    /**
+     * Sets the staged values to the objects and empties the context.
+     * 
+     * @throws InvocationTargetException if the setter/getter could not 
+     * be invoked correctly.
+     * @throws IllegalAccessException if the Access to the Properties has 
+     * been denied or failed.
+     */
+    public void commit() throws IllegalAccessException, InvocationTargetException {
+        try {
+            for(Entry<PropertyAccessor,Map<Object,Object>> entry : staged.entrySet()){
+                entry.getKey().commit(entry.getValue());
+            }
+        } finally {
+            staged.clear();
+        }
+    }
+
+}
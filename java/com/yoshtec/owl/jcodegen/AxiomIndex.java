@@ -0,0 +1,228 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.jcodegen;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.semanticweb.owl.model.OWLAnnotation;
+import org.semanticweb.owl.model.OWLAxiom;
+import org.semanticweb.owl.model.OWLClass;
+import org.semanticweb.owl.model.OWLDescription;
+import org.semanticweb.owl.model.OWLEntity;
+import org.semanticweb.owl.model.OWLEntityAnnotationAxiom;
+import org.semanticweb.owl.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owl.model.OWLFunctionalDataPropertyAxiom;
+import org.semanticweb.owl.model.OWLFunctionalObjectPropertyAxiom;
+import org.semanticweb.owl.model.OWLObject;
+import org.semanticweb.owl.model.OWLOntology;
+import org.semanticweb.owl.model.OWLProperty;
+import org.semanticweb.owl.model.OWLPropertyDomainAxiom;
+import org.semanticweb.owl.model.OWLPropertyRange;
+import org.semanticweb.owl.model.OWLPropertyRangeAxiom;
+import org.semanticweb.owl.model.OWLSubClassAxiom;
+
+/**
+ * Index from the classes and properties of an ontology to the axioms 
+ * the code is generated from. The index is built in one pass over the 
+ * axioms, instead of querying the ontology for every class and property, 
+ * which makes the code generation linear in the number of axioms.
+ * <br>
+ * The entries hold the same as the OWLAPI queries on the ontology alone, 
+ * e.g. {@link ClassEntry#subClasses} as {@code OWLClass.getSubClasses(ontology)}.
+ * <br>
+ * Large ontologies can be indexed in parallel, each task indexes a part 
+ * of the axioms and the parts are merged on the calling thread.
+ */
+class AxiomIndex {
+	
+	/**
+	 * The axioms about one class
+	 */
+	static class ClassEntry {
+		final Set<OWLAnnotation> annotations = new HashSet<OWLAnnotation>(2);
+		final Set<OWLDescription> subClasses = new HashSet<OWLDescription>();
+		final Set<OWLDescription> equivalentClasses = new HashSet<OWLDescription>(2);
+		int superClasses = 0;
+	}
+	
+	/**
+	 * The axioms about one property
+	 */
+	static class PropertyEntry {
+		final Set<OWLAnnotation> annotations = new HashSet<OWLAnnotation>(2);
+		final Set<OWLDescription> domains = new HashSet<OWLDescription>(2);
+		final Set<OWLPropertyRange> ranges = new HashSet<OWLPropertyRange>(2);
+		boolean functional = false;
+	}
+	
+	/** returned for classes and properties without axioms, not to be modified */
+	private static final ClassEntry NO_CLASS = new ClassEntry();
+	private static final PropertyEntry NO_PROPERTY = new PropertyEntry();
+	
+	private final Map<OWLClass,ClassEntry> classes = new HashMap<OWLClass,ClassEntry>();
+	
+	/** by property expression, the properties themselves are the named expressions */
+	private final Map<OWLObject,PropertyEntry> properties = new HashMap<OWLObject,PropertyEntry>();
+	
+	AxiomIndex(OWLOntology ontology) {
+		add(ontology.getAxioms());
+	}
+	
+	/**
+	 * Indexes the axioms on the executor
+	 * @param parts the number of parts the axioms are split into
+	 */
+	AxiomIndex(OWLOntology ontology, ExecutorService executor, int parts) throws InterruptedException, ExecutionException {
+		List<OWLAxiom> axioms = new ArrayList<OWLAxiom>(ontology.getAxioms());
+		int size = Math.max(1, (axioms.size() + parts - 1) / parts);
+		
+		List<Future<AxiomIndex>> futures = new ArrayList<Future<AxiomIndex>>(parts);
+		for(int start = 0; start < axioms.size(); start += size){
+			final List<OWLAxiom> part = axioms.subList(start, Math.min(start + size, axioms.size()));
+			futures.add(executor.submit(new Callable<AxiomIndex>() {
+				public AxiomIndex call() {
+					AxiomIndex index = new AxiomIndex();
+					index.add(part);
+					return index;
+				}
+			}));
+		}
+		for(Future<AxiomIndex> future : futures){
+			merge(future.get());
+		}
+	}
+	
+	private AxiomIndex() {
+	}
+	
+	private void add(Collection<OWLAxiom> axioms){
+		for(OWLAxiom axiom : axioms){
+			if(axiom instanceof OWLSubClassAxiom){
+				OWLSubClassAxiom sc = (OWLSubClassAxiom)axiom;
+				if(!sc.getSuperClass().isAnonymous()){
+					classEntry(sc.getSuperClass().asOWLClass()).subClasses.add(sc.getSubClass());
+				}
+				if(!sc.getSubClass().isAnonymous()){
+					classEntry(sc.getSubClass().asOWLClass()).superClasses++;
+				}
+			} else if(axiom instanceof OWLEquivalentClassesAxiom){
+				Set<OWLDescription> descs = ((OWLEquivalentClassesAxiom)axiom).getDescriptions();
+				for(OWLDescription desc : descs){
+					if(!desc.isAnonymous()){
+						ClassEntry entry = classEntry(desc.asOWLClass());
+						entry.equivalentClasses.addAll(descs);
+						entry.equivalentClasses.remove(desc);
+					}
+				}
+			} else if(axiom instanceof OWLPropertyDomainAxiom){
+				OWLPropertyDomainAxiom<?> pd = (OWLPropertyDomainAxiom<?>)axiom;
+				propertyEntry(pd.getProperty()).domains.add(pd.getDomain());
+			} else if(axiom instanceof OWLPropertyRangeAxiom){
+				OWLPropertyRangeAxiom<?,?> pr = (OWLPropertyRangeAxiom<?,?>)axiom;
+				propertyEntry(pr.getProperty()).ranges.add(pr.getRange());
+			} else if(axiom instanceof OWLFunctionalDataPropertyAxiom){
+				propertyEntry(((OWLFunctionalDataPropertyAxiom)axiom).getProperty()).functional = true;
+			} else if(axiom instanceof OWLFunctionalObjectPropertyAxiom){
+				propertyEntry(((OWLFunctionalObjectPropertyAxiom)axiom).getProperty()).functional = true;
+			} else if(axiom instanceof OWLEntityAnnotationAxiom){
+				OWLEntityAnnotationAxiom ea = (OWLEntityAnnotationAxiom)axiom;
+				OWLEntity subject = ea.getSubject();
+				if(subject instanceof OWLClass){
+					classEntry((OWLClass)subject).annotations.add(ea.getAnnotation());
+				} else if(subject instanceof OWLProperty){
+					propertyEntry(subject).annotations.add(ea.getAnnotation());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Adds the entries of an index of other axioms 
+	 */
+	private void merge(AxiomIndex other){
+		for(Map.Entry<OWLClass,ClassEntry> e : other.classes.entrySet()){
+			ClassEntry entry = classes.get(e.getKey());
+			if(entry == null){
+				classes.put(e.getKey(), e.getValue());
+			} else {
+				entry.annotations.addAll(e.getValue().annotations);
+				entry.subClasses.addAll(e.getValue().subClasses);
+				entry.equivalentClasses.addAll(e.getValue().equivalentClasses);
+				entry.superClasses += e.getValue().superClasses;
+			}
+		}
+		for(Map.Entry<OWLObject,PropertyEntry> e : other.properties.entrySet()){
+			PropertyEntry entry = properties.get(e.getKey());
+			if(entry == null){
+				properties.put(e.getKey(), e.getValue());
+			} else {
+				entry.annotations.addAll(e.getValue().annotations);
+				entry.domains.addAll(e.getValue().domains);
+				entry.ranges.addAll(e.getValue().ranges);
+				entry.functional |= e.getValue().functional;
+			}
+		}
+	}
+	
+	private ClassEntry classEntry(OWLClass ocls){
+		ClassEntry entry = classes.get(ocls);
+		if(entry == null){
+			entry = new ClassEntry();
+			classes.put(ocls, entry);
+		}
+		return entry;
+	}
+	
+	private PropertyEntry propertyEntry(OWLObject prop){
+		PropertyEntry entry = properties.get(prop);
+		if(entry == null){
+			entry = new PropertyEntry();
+			properties.put(prop, entry);
+		}
+		return entry;
+	}
+	
+	/**
+	 * @return the axioms about the class, an empty entry if there are none 
+	 */
+	ClassEntry get(OWLClass ocls){
+		ClassEntry entry = classes.get(ocls);
+		return entry == null ? NO_CLASS : entry;
+	}
+	
+	/**
+	 * @return the axioms about the property, an empty entry if there are none 
+	 */
+	PropertyEntry get(OWLProperty<?,?> prop){
+		PropertyEntry entry = properties.get(prop);
+		return entry == null ? NO_PROPERTY : entry;
+	}
+	
+}
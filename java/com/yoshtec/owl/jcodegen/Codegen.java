@@ -22,9 +22,16 @@ package com.yoshtec.owl.jcodegen;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.semanticweb.owl.apibinding.OWLManager;
 import org.semanticweb.owl.model.OWLAnnotation;
@@ -62,11 +69,11 @@ import org.semanticweb.owl.model.OWLOntologyCreationException;
 import org.semanticweb.owl.model.OWLOntologyManager;
 import org.semanticweb.owl.model.OWLProperty;
 import org.semanticweb.owl.model.OWLPropertyRange;
-import org.semanticweb.owl.model.OWLRuntimeException;
 import org.semanticweb.owl.util.SimpleURIMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JAnnotationArrayMember;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
@@ -76,6 +83,7 @@ import com.sun.codemodel.JDocComment;
 import com.sun.codemodel.JJavaName;
 import com.sun.codemodel.JMod;
 import com.sun.codemodel.JPackage;
+import com.sun.codemodel.writer.FileCodeWriter;
 import com.yoshtec.owl.PropertyType;
 import com.yoshtec.owl.XsdType;
 import com.yoshtec.owl.XsdTypeMapper;
@@ -147,15 +155,35 @@ public class Codegen {
 	/** if interfaces should be generated */
 	private boolean generateInterfaces = true;
 	
+	/** if facades accessing the fields without reflection should be generated */
+	private boolean generateFacades = false;
+	
+	/** if only changed files should be written */
+	private boolean incremental = false;
+	
+	/** if numeric and boolean data properties should be generated as primitives */
+	private boolean generatePrimitives = false;
+	
+	/** if the ontology should be indexed and the files written in parallel */
+	private boolean parallel = false;
+	
 	// local work variables
 	private OWLOntology ontology = null;
 	private JCodeModel jmodel = null;
 	private JPackage jpack = null;
+	private ExecutorService executor = null;
+	private AxiomIndex index = null;
+	
+	/** milliseconds spent per phase of the last run */
+	private final Map<String,Long> phaseTimes = new LinkedHashMap<String, Long>();
 	
 	private final XsdTypeMapper typeMapper = new XsdTypeMapper();
 	
 	/** holds the interfaces and the Properties */
-	private Map<String,JInterfaceProxy> interfaces = new HashMap<String, JInterfaceProxy>();
+	private final Map<String,JInterfaceProxy> interfaces = new HashMap<String, JInterfaceProxy>();
+	
+	/** the interfaces by class, saves deriving the name of the class on every lookup */
+	private final Map<OWLClass,JInterfaceProxy> classInterfaces = new HashMap<OWLClass, JInterfaceProxy>();
 	
 	/**
 	 * Creates a new Code Generator.
@@ -215,12 +243,49 @@ public class Codegen {
 		// check if everything is in a legal state for code generation
 		checkstate();
 		
+		phaseTimes.clear();
+		if(parallel){
+			executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		}
+		try {
+			generate();
+		} finally {
+			if(executor != null){
+				executor.shutdownNow();
+				executor = null;
+			}
+		}
+	}
+	
+	private void generate() throws CodegenException {
+		long time = System.currentTimeMillis();
+		
 		// Load an ontology
 		try {
             ontology = loadOntology();
         } catch (OWLOntologyCreationException e) {
             throw new CodegenException("unable to open an ontology", e);
         }
+		time = phase("load", time);
+		
+		// forget the interfaces of an earlier run
+		interfaces.clear();
+		classInterfaces.clear();
+		
+		// one pass over the axioms instead of querying per class and property
+		if(executor != null){
+			try {
+				index = new AxiomIndex(ontology, executor, Runtime.getRuntime().availableProcessors());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new CodegenException("interrupted while indexing the ontology", e);
+			} catch (ExecutionException e) {
+				throw new CodegenException("unable to index the ontology", e.getCause());
+			}
+		} else {
+			index = new AxiomIndex(ontology);
+		}
+		time = phase("index", time);
 		
 		// build a JCodeModel to hold the Java representation
 		jmodel = new JCodeModel();
@@ -233,14 +298,33 @@ public class Codegen {
 		
 		// Interfaces and Classes
 		this.addClasses();
+		time = phase("classes", time);
 	
 		// Properties
 		this.addProperties();		
+		time = phase("properties", time);
 		
 		// finish the Interfaces and create an implementation
 		for(JInterfaceProxy jiface : interfaces.values()){
 			jiface.addImplementation(javaClassSuffix);
 		}
+		time = phase("implementations", time);
+
+		// create the facades?
+		if(generateFacades){
+			List<String> imports = new ArrayList<String>();
+			for(OWLImportsDeclaration imprt : ontology.getImportsDeclarations()){
+				imports.add(imprt.getImportedOntologyURI().toString());
+			}
+			try {
+				for(JInterfaceProxy jiface : interfaces.values()){
+					jiface.addFacade(ontologyUri, imports);
+				}
+			} catch (JClassAlreadyExistsException e) {
+				throw new CodegenException("Unable to create a facade, the class already exists", e);
+			}
+			time = phase("facades", time);
+		}
 
 		// create an object factory?
 		if(createObjectFactory && objectFactoryName != null){
@@ -255,6 +339,7 @@ public class Codegen {
 		    } catch (JClassAlreadyExistsException e) {
 		        throw new CodegenException("Unable to create an ObjectFactory with the name " + objectFactoryName, e);
 		    }
+		    time = phase("objectfactory", time);
 		}
 		
 		// Create an folder if not already existent
@@ -269,10 +354,31 @@ public class Codegen {
 		
 		// Write code
 		try {
-            jmodel.build(javaSourceFolder);
+		    if(executor != null){
+		        CodeWriter writer = incremental ? new IncrementalCodeWriter(javaSourceFolder) : new FileCodeWriter(javaSourceFolder);
+		        jmodel.build(new ParallelCodeWriter(writer, executor));
+		    } else if(incremental){
+		        jmodel.build(new IncrementalCodeWriter(javaSourceFolder));
+		    } else {
+		        jmodel.build(javaSourceFolder);
+		    }
         } catch (IOException e) {
             throw new CodegenException("Unable to write Java files to Directory: " + javaSourceFolder, e);
         }
+		phase("write", time);
+	}
+	
+	/**
+	 * Records the time spent in a phase
+	 * @param name the name of the phase
+	 * @param start the start of the phase
+	 * @return the end of the phase
+	 */
+	private long phase(String name, long start){
+		long end = System.currentTimeMillis();
+		phaseTimes.put(name, end - start);
+		log.info("Phase {} took {}ms", name, end - start);
+		return end;
 	}
 	
 	/**
@@ -344,11 +450,13 @@ public class Codegen {
 	 * Interfaces.
 	 */
 	private void addClasses() throws CodegenException {
+		Set<OWLClass> classes = ontology.getReferencedClasses();
+		
 		/* run through the classes and generate Interface Stubs
 		 * Random order so we have to first generate all classes and then 
 		 * look for the Hierarchy 
 		 */
-		for(OWLClass ocls : ontology.getReferencedClasses()){
+		for(OWLClass ocls : classes){
 		
 			// basically OWL classes map "best" to Java Interfaces
 			log.debug("Using OWLClass: {}", ocls);
@@ -360,6 +468,7 @@ public class Codegen {
 			JInterfaceProxy jinterface = new JInterfaceProxy(name, jpack, generateInterfaces, javaClassSuffix);
 
 			interfaces.put(name, jinterface);
+			classInterfaces.put(ocls, jinterface);
 
 			// add some Annotations
 			this.annotateClass(jinterface, ocls);
@@ -367,18 +476,19 @@ public class Codegen {
 		
 		
 		// another run for the correct Type hierarchy and Annotation
-		for(OWLClass ocls : ontology.getReferencedClasses()){
+		for(OWLClass ocls : classes){
 			
 			// get the corresponding Java interface 
 			JInterfaceProxy jinterface = getInterface(ocls);
+			AxiomIndex.ClassEntry axioms = index.get(ocls);
 			
 			// check for multiple inheritance 
-			if( ocls.getSuperClasses(ontology).size() > 1 && !this.generateInterfaces ){
+			if( axioms.superClasses > 1 && !this.generateInterfaces ){
 			    throw new CodegenException("Unable to create Classes with multiple inheritance. \n Use Interfaces via the generateInterfaces option."); 
 			}
 			
 			// Type Hierarchy build Subclasses Connection
-			for(OWLDescription odesc : ocls.getSubClasses(ontology)){
+			for(OWLDescription odesc : axioms.subClasses){
 				
 				JInterfaceProxy ljinterface = getInterface(odesc);
 				
@@ -390,10 +500,10 @@ public class Codegen {
 		}
 		
 		// third Phase checking for equivalent classes
-		for( final OWLClass ocls : ontology.getReferencedClasses() ){
+		for( final OWLClass ocls : classes ){
 		    final JInterfaceProxy jinterface = getInterface(ocls);
 		    
-		    for( final OWLDescription odesc : ocls.getEquivalentClasses(ontology) ){
+		    for( final OWLDescription odesc : index.get(ocls).equivalentClasses ){
 		        OWLDescriptionVisitor vis = new OWLDescriptionVisitor(){
 
                     @Override
@@ -516,17 +626,12 @@ public class Codegen {
 	
 	
 	private JInterfaceProxy getInterface(OWLDescription desc){
-	    try {
-	        // get the corresponding Java interface 
-	        OWLClass ocls = desc.asOWLClass();
-
-	        String name = (ocls.isOWLThing() ? owlthingclassname : ocls.toString());
-	        return interfaces.get(name);
-	    } catch (OWLRuntimeException e) {
+	    if(desc.isAnonymous()){
 	        log.debug("Found anonymous or strange class {}", desc);
+	        return null;
 	    }
-	    return null;
-        
+	    // get the corresponding Java interface 
+	    return classInterfaces.get(desc.asOWLClass());
 	}
 	
 	private void addProperties(){
@@ -562,43 +667,46 @@ public class Codegen {
 		
 		log.debug("Property: {} \t {}", prop.getClass(), prop);
 		
-		Set<OWLDescription> domains = prop.getDomains(ontology);
-		if(domains.isEmpty()){
+		AxiomIndex.PropertyEntry axioms = index.get(prop);
+		
+		// variable name in normal case and first letter uppercase
+		StringBuffer pName = new StringBuffer(prop.toString()); // TODO: better to use some visitor thing here i guess
+		pName.setCharAt(0,Character.toLowerCase(pName.charAt(0)));
+		String name = pName.toString();
+		
+		if(axioms.domains.isEmpty()){
 			// if it is not associated with a special class
 			// than it can be used at owl:Thing level
 			log.debug("  Domain: \t\t owl:Thing");
-			this.addProperty(prop, interfaces.get(owlthingclassname), type);
+			this.addProperty(prop, name, type, axioms, interfaces.get(owlthingclassname));
 		} else {
 			// for each included class Methods have to be generated
-			for(OWLDescription odes : domains){
+			for(OWLDescription odes : axioms.domains){
 				
 				log.debug("  Domain: \t\t {}",odes);
 				
 				// all associated classes will be added
 				for(OWLClass ocls : OntologyUtil.getOWLClasses(odes)){
 					// add a property
-					this.addProperty(prop, interfaces.get(ocls.toString()), type);
+					this.addProperty(prop, name, type, axioms, classInterfaces.get(ocls));
 				}
 			}
 		}
 	}
 	
 
-	private void addProperty(OWLProperty<?,?> prop, JInterfaceProxy iface, PropertyType type){
+	private void addProperty(OWLProperty<?,?> prop, String name, PropertyType type, AxiomIndex.PropertyEntry axioms, JInterfaceProxy iface){
 
 		// addng a new Property
 		Property jprop = new Property();
-		
-		// variable name in normal case and first letter uppercase
-		StringBuffer pName = new StringBuffer(prop.toString()); // TODO: better to use some visitor thing here i guess
-		pName.setCharAt(0,Character.toLowerCase(pName.charAt(0)));
-		jprop.setName(pName.toString());
+		jprop.setName(name);
 		
 		// Property Type
 		jprop.setPtype(type);
+		jprop.setPrimitive(generatePrimitives);
 		
 		// Functional?
-		boolean functional = prop.isFunctional(ontology);
+		boolean functional = axioms.functional;
 		jprop.setFunctional(functional);
 		log.debug("  Adding Property {}{} to Class {}", new Object[] {prop, (functional ? "*" : ""), iface.name()});
 		
@@ -606,7 +714,7 @@ public class Codegen {
 		jprop.setPropUri(prop.getURI());
 		
 		// has this Property a Range?
-		Set<? extends OWLPropertyRange> ranges = prop.getRanges(ontology);
+		Set<? extends OWLPropertyRange> ranges = axioms.ranges;
 		
 		// if there is no Range we can save some time
 		if(!ranges.isEmpty()){
@@ -635,7 +743,7 @@ public class Codegen {
 						
 						if(pr instanceof OWLClass){
 							//
-							jprop.setBaseType(interfaces.get(((OWLClass)pr).toString()));
+							jprop.setBaseType(classInterfaces.get((OWLClass)pr));
 							//jtype = jpack._getClass(((OWLClass)pr).toString());
 						} else {
 							jprop.setBaseType(jmodel._ref(Object.class));
@@ -665,7 +773,7 @@ public class Codegen {
 			}
 		}
 		
-		for (OWLAnnotation<OWLObject> oa : prop.getAnnotations(ontology)) {
+		for (OWLAnnotation<OWLObject> oa : axioms.annotations) {
 			if(oa.isAnnotationByConstant()) {
 				jprop.addComment(oa.getAnnotationValueAsConstant().getLiteral());
 			}
@@ -721,7 +829,7 @@ public class Codegen {
 		
 		
 		// get further Annotation from the Ontology for the current class
-		for( OWLAnnotation<?> oannot : ocls.getAnnotations(ontology)){
+		for( OWLAnnotation<?> oannot : index.get(ocls).annotations){
 			log.debug("Annotation: {}", oannot.toString());
 			
 			if( oannot instanceof OWLConstantAnnotation ){
@@ -873,6 +981,109 @@ public class Codegen {
 	}
 
 
+	/**
+	 * @return {@code true} if facades will be generated
+	 */
+	public boolean isGenerateFacades() {
+		return generateFacades;
+	}
+
+	/**
+	 * Tells the codegen to generate a {@link com.yoshtec.owl.cf.GeneratedClassFacade}
+	 * for each generated class. The facades read and write the fields of the 
+	 * classes directly, the Marshaller and UnMarshaller use them instead of 
+	 * scanning the classes by reflection.
+	 * <br/>
+	 * The default value is {@code false}.
+	 * 
+	 * @param generateFacades if facades should be generated
+	 * @see com.yoshtec.owl.cf.ClassFacadeFactory#setUseGenerated(boolean)
+	 */
+	public void setGenerateFacades(boolean generateFacades) {
+		this.generateFacades = generateFacades;
+	}
+
+
+	/**
+	 * @return {@code true} if primitive fields will be generated
+	 */
+	public boolean isGeneratePrimitives() {
+		return generatePrimitives;
+	}
+
+	/**
+	 * Tells the codegen to generate primitive fields for numeric and 
+	 * boolean data properties, e.g. {@code int} instead of {@code Integer}
+	 * for functional and {@code int[]} instead of {@code List<Integer>} for 
+	 * other {@code xsd:int} properties. The Marshaller reads them without 
+	 * boxing the values, as do the generated facades, see 
+	 * {@link #setGenerateFacades(boolean)}. An unset primitive field is 
+	 * marshalled with its default value.
+	 * <br/>
+	 * The default value is {@code false}.
+	 * 
+	 * @param generatePrimitives if primitive fields should be generated
+	 */
+	public void setGeneratePrimitives(boolean generatePrimitives) {
+		this.generatePrimitives = generatePrimitives;
+	}
+
+
+	/**
+	 * @return {@code true} if only changed files will be written
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Tells the codegen to write only the files whose content changed 
+	 * since the last run, unchanged files keep their timestamps. The 
+	 * hashes of the files are kept in a manifest in the source folder, 
+	 * see {@link IncrementalCodeWriter}.
+	 * <br/>
+	 * The default value is {@code false}.
+	 * 
+	 * @param incremental if only changed files should be written
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+	}
+
+
+	/**
+	 * @return {@code true} if the ontology is indexed and the generated files are written in parallel
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Tells the codegen to index the ontology and to write the generated 
+	 * files on as many threads as there are processors. The code model 
+	 * is built from the index on the calling thread, the rendered files 
+	 * are written and hashed in the background. Pays off for ontologies 
+	 * with thousands of classes.
+	 * <br/>
+	 * The default value is {@code false}.
+	 * 
+	 * @param parallel if the ontology should be indexed and the generated files written in parallel
+	 * @see AxiomIndex
+	 * @see ParallelCodeWriter
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * @return the milliseconds spent in the phases of the last 
+	 * {@link #genCode()}, in the order of the phases
+	 */
+	public Map<String,Long> getPhaseTimes() {
+		return Collections.unmodifiableMap(phaseTimes);
+	}
+
+
 	/**
 	 * @return {@code true} if Id Fields will be generated
 	 */
@@ -955,4 +1166,5 @@ public class Codegen {
 	public void setObjectFactoryName(String objectFactoryName) {
 		this.objectFactoryName = objectFactoryName;
 	}
+
 }
@@ -0,0 +1,189 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.jcodegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+
+/**
+ * Writes the generated files to a folder, but only those whose content 
+ * changed since the last run. Unchanged files are not touched and keep 
+ * their timestamps, so incremental compilation does not recompile them.
+ * <br>
+ * The content hash and the modification time of every written file are 
+ * kept in a manifest ({@value #MANIFEST}) in the folder. A file is written 
+ * again if its hash changed, or if it was changed or deleted since the last 
+ * run. Files written by the last run and not generated anymore are deleted.
+ * <br>
+ * Files may be written from several threads, see {@link ParallelCodeWriter}.
+ * 
+ * @see Codegen#setIncremental(boolean)
+ */
+public class IncrementalCodeWriter extends CodeWriter {
+
+	/** Logger */
+	private static final Logger log = LoggerFactory.getLogger(IncrementalCodeWriter.class);
+	
+	/** name of the manifest file in the target folder */
+	public static final String MANIFEST = ".jaob-codegen.properties";
+	
+	/** the folder to write to */
+	private final File target;
+	
+	/** hash and modification time by path of the last run */
+	private final Properties previous = new Properties();
+	
+	/** hash and modification time by path of this run */
+	private final Properties current = new Properties();
+	
+	private final AtomicInteger written = new AtomicInteger();
+	private final AtomicInteger unchanged = new AtomicInteger();
+	
+	/**
+	 * @param target the folder to write the files to, reads the 
+	 * manifest of the last run if present
+	 */
+	public IncrementalCodeWriter(File target) throws IOException {
+		this.target = target;
+		File manifest = new File(target, MANIFEST);
+		if(manifest.exists()){
+			InputStream in = new FileInputStream(manifest);
+			try {
+				previous.load(in);
+			} finally {
+				in.close();
+			}
+		}
+	}
+	
+	@Override
+	public OutputStream openBinary(final JPackage pkg, final String fileName) throws IOException {
+		// collect the content, it is compared on close
+		return new ByteArrayOutputStream(){
+			private boolean closed = false;
+			
+			@Override
+			public void close() throws IOException {
+				if(!closed){
+					closed = true;
+					store(pkg.isUnnamed() ? fileName : pkg.name().replace('.', '/') + '/' + fileName, toByteArray());
+				}
+			}
+		};
+	}
+	
+	/**
+	 * Writes the file unless it is unchanged
+	 * @param path the path relative to the target folder
+	 * @param content the generated content
+	 */
+	private void store(String path, byte[] content) throws IOException {
+		String hash = hash(content);
+		File file = new File(target, path);
+		
+		String last = previous.getProperty(path);
+		if(last != null && last.equals(hash + ' ' + file.lastModified())){
+			current.setProperty(path, last);
+			unchanged.incrementAndGet();
+			return;
+		}
+		
+		log.debug("Writing {}", path);
+		File dir = file.getParentFile();
+		// another thread may create the folder at the same time
+		if(!dir.mkdirs() && !dir.isDirectory()){
+			throw new IOException("Unable to create the folder " + dir);
+		}
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(content);
+		} finally {
+			out.close();
+		}
+		current.setProperty(path, hash + ' ' + file.lastModified());
+		written.incrementAndGet();
+	}
+	
+	@Override
+	public void close() throws IOException {
+		// remove the files no longer generated
+		int removed = 0;
+		for(String path : previous.stringPropertyNames()){
+			if(!current.containsKey(path) && new File(target, path).delete()){
+				log.debug("Removed {}", path);
+				removed++;
+			}
+		}
+		
+		OutputStream out = new FileOutputStream(new File(target, MANIFEST));
+		try {
+			current.store(out, "Generated by jaob, hash and modification time of the generated files");
+		} finally {
+			out.close();
+		}
+		
+		log.info("Wrote {} files, {} unchanged, {} removed", new Object[]{written.get(), unchanged.get(), removed});
+	}
+	
+	/**
+	 * @return the number of files written
+	 */
+	public int getWritten() {
+		return written.get();
+	}
+	
+	/**
+	 * @return the number of files left unchanged 
+	 */
+	public int getUnchanged() {
+		return unchanged.get();
+	}
+	
+	private static String hash(byte[] content){
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+			StringBuilder sb = new StringBuilder(digest.length * 2);
+			for(byte b : digest){
+				sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+				sb.append(Character.forDigit(b & 0xf, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException e) {
+			// SHA-1 is available on every platform
+			throw new IllegalStateException(e);
+		}
+	}
+	
+}
@@ -19,8 +19,10 @@
  */
 package com.yoshtec.owl.jcodegen;
 
+import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.slf4j.Logger;
@@ -28,6 +30,7 @@ import org.slf4j.LoggerFactory;
 
 import com.sun.codemodel.JAnnotationArrayMember;
 import com.sun.codemodel.JAnnotationUse;
+import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
 import com.sun.codemodel.JClassAlreadyExistsException;
 import com.sun.codemodel.JDefinedClass;
@@ -36,8 +39,10 @@ import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
 import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JVar;
 import com.yoshtec.owl.Const;
 import com.yoshtec.owl.PropertyType;
+import com.yoshtec.owl.XsdTypeMapper;
 import com.yoshtec.owl.annotations.OwlAnnotation;
 import com.yoshtec.owl.annotations.OwlAnnotations;
 import com.yoshtec.owl.annotations.OwlClass;
@@ -46,6 +51,8 @@ import com.yoshtec.owl.annotations.classes.OwlObjectIntersectionOf;
 import com.yoshtec.owl.annotations.classes.OwlObjectUnionOf;
 import com.yoshtec.owl.annotations.classes.OwlSubclassOf;
 import com.yoshtec.owl.annotations.classes.OwlThing;
+import com.yoshtec.owl.cf.GeneratedClassFacade;
+import com.yoshtec.owl.cf.PropertyAccessorFactory;
 import com.yoshtec.owl.util.OntologyUtil;
 
 /* package */ class JInterfaceProxy {
@@ -408,6 +415,75 @@ import com.yoshtec.owl.util.OntologyUtil;
 
 	}
 	
+	/**
+	 * Adds a {@link GeneratedClassFacade} for the implementation, which 
+	 * registers the properties known here and accesses the fields directly. 
+	 * It describes the implementation the same way as the facade created
+	 * by reflection from the annotations.
+	 * @param ontologyUri the ontology URI of the package
+	 * @param imports the URIs imported by the package
+	 */
+	public void addFacade(String ontologyUri, List<String> imports) throws JClassAlreadyExistsException {
+		if( isThing() ){
+			// owl:Thing is no OwlClass, so there is nothing to describe
+			return;
+		}
+		
+		JDefinedClass impl = this.getImplementation();
+		JDefinedClass facade = jpack._class(JMod.PUBLIC, impl.name() + GeneratedClassFacade.SUFFIX);
+		facade._extends(impl.owner().ref(GeneratedClassFacade.class).narrow(impl));
+		facade.javadoc().add("Facade of {@link " + impl.name() + "}, accesses the fields without reflection.");
+		
+		JMethod constructor = facade.constructor(JMod.PUBLIC);
+		JVar typeMapper = constructor.param(XsdTypeMapper.class, "typeMapper");
+		JVar accessorFactory = constructor.param(PropertyAccessorFactory.class, "accessorFactory");
+		JBlock body = constructor.body();
+		body.invoke("super").arg(impl.dotclass()).arg(typeMapper).arg(accessorFactory);
+		body.invoke("addClassUri").arg(classUri.toString());
+		JInvocation ontology = body.invoke("setOntology").arg(ontologyUri);
+		for( String imprt : imports ){
+			ontology.arg(imprt);
+		}
+		
+		if( this.createInterface ){
+			// the implementation declares all properties
+			for( Property prop : properties ){
+				prop.addToFacade(body, impl, typeMapper);
+			}
+		} else {
+			// the properties are declared along the class hierarchy
+			JInterfaceProxy proxy = this;
+			while( proxy != null && !proxy.isThing() ){
+				for( Property prop : proxy.localProperties ){
+					prop.addToFacade(body, proxy.getImplementation(), typeMapper);
+				}
+				proxy = proxy.directSuperClasses.isEmpty() ? null : proxy.directSuperClasses.iterator().next();
+			}
+		}
+		
+		JMethod creator = facade.method(JMod.PUBLIC, Object.class, "getNewInstance");
+		creator._throws(Exception.class);
+		creator.body()._return(JExpr._new(impl));
+		
+		JMethod idcreator = facade.method(JMod.PUBLIC, Object.class, "getNewInstance");
+		JVar id = idcreator.param(String.class, "id");
+		idcreator._throws(IllegalArgumentException.class)._throws(InstantiationException.class)
+			._throws(IllegalAccessException.class)._throws(InvocationTargetException.class);
+		if( idProperty != null && (createInterface || localProperties.contains(idProperty)) ){
+			// the implementation has got an id constructor
+			idcreator.body()._return(JExpr._new(impl).arg(id));
+		} else {
+			idcreator.body()._return(JExpr._new(impl));
+		}
+	}
+	
+	/**
+	 * @return {@code true} if this is the owl:Thing class 
+	 */
+	public boolean isThing(){
+		return OntologyUtil.OWL_THING_URI.equals(classUri);
+	}
+	
 	/**
 	 * Adds an annotation to the Class / Interface
 	 * @param uri
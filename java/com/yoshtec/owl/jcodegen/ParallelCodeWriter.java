@@ -0,0 +1,116 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.jcodegen;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+
+/**
+ * Hands the generated files to another {@link CodeWriter} on the threads 
+ * of an executor. The code model renders the files one after the other, 
+ * the content is buffered and written (and hashed by the 
+ * {@link IncrementalCodeWriter}) in the background. {@link #close()} waits 
+ * for all files to be written.
+ * <br>
+ * The target writer has to accept files from several threads at once.
+ * 
+ * @see Codegen#setParallel(boolean)
+ */
+public class ParallelCodeWriter extends CodeWriter {
+
+	/** the writer the files are handed to */
+	private final CodeWriter target;
+	
+	/** runs the writes, not shut down by this writer */
+	private final ExecutorService executor;
+	
+	/** the writes not yet waited for */
+	private final List<Future<Void>> pending = new ArrayList<Future<Void>>();
+	
+	/**
+	 * @param target the writer to hand the files to
+	 * @param executor the executor to write the files on
+	 */
+	public ParallelCodeWriter(CodeWriter target, ExecutorService executor) {
+		this.target = target;
+		this.executor = executor;
+	}
+	
+	@Override
+	public OutputStream openBinary(final JPackage pkg, final String fileName) throws IOException {
+		return new ByteArrayOutputStream(){
+			private boolean closed = false;
+			
+			@Override
+			public void close() throws IOException {
+				if(!closed){
+					closed = true;
+					submit(pkg, fileName, toByteArray());
+				}
+			}
+		};
+	}
+	
+	private void submit(final JPackage pkg, final String fileName, final byte[] content){
+		pending.add(executor.submit(new Callable<Void>() {
+			public Void call() throws IOException {
+				OutputStream out = target.openBinary(pkg, fileName);
+				try {
+					out.write(content);
+				} finally {
+					out.close();
+				}
+				return null;
+			}
+		}));
+	}
+	
+	@Override
+	public void close() throws IOException {
+		try {
+			for(Future<Void> future : pending){
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			if(e.getCause() instanceof IOException){
+				throw (IOException)e.getCause();
+			}
+			throw new IOException("Unable to write a file: " + e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while writing the files");
+		} finally {
+			pending.clear();
+		}
+		target.close();
+	}
+	
+}
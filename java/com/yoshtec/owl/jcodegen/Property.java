@@ -29,12 +29,16 @@ import org.slf4j.LoggerFactory;
 import com.sun.codemodel.JAnnotationArrayMember;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JDocComment;
 import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPrimitiveType;
 import com.sun.codemodel.JType;
 import com.sun.codemodel.JVar;
 import com.yoshtec.owl.PropertyAccessType;
@@ -46,6 +50,7 @@ import com.yoshtec.owl.annotations.OwlIndividualId;
 import com.yoshtec.owl.annotations.OwlObjectProperty;
 import com.yoshtec.owl.annotations.dprop.OwlFunctionalDataProperty;
 import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
+import com.yoshtec.owl.cf.GeneratedPropertyAccessor;
 
 /**
  * Abstraction for OWL Properties. Bridges the OWL Property and Java
@@ -84,6 +89,9 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 	/** List of {@code rdfs:comment}s as String */
 	private List<String> comments = new ArrayList<String>();
 	
+	/** if numeric and boolean values are held in primitives instead of boxes and Lists */
+	private boolean primitive = false;
+	
 	public Property(){
 	}
 	
@@ -132,7 +140,7 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 	public void addImplementationTo(JDefinedClass jclass, boolean inheritDoc){
 
 		// Prepare some variables
-		JClass type = this.getJavaType();
+		JType type = this.getJavaType();
 		String varName = this.getVArname();
 		String jdoc = this.getJavaDoc();
 		
@@ -187,7 +195,7 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 			}
 
 			JBlock gbody = getter.body();
-			if(!functional){
+			if(!functional && !type.isArray()){
 				JClass al = jclass.owner().ref(ArrayList.class).narrow(this.getBaseType().boxify());
 				//Output: if(field == null) field = new ArrayList<Type>(); 
 				gbody._if(field.eq(JExpr._null()))._then().assign(field, JExpr._new(al));
@@ -215,12 +223,135 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 			if(this.functional){
 				getterdoc.addReturn().add("the ".concat(this.name));
 				setterdoc.addParam(setvar).add("the new ".concat(name).concat(" value"));
+			} else if(type.isArray()){
+				getterdoc.addReturn().add("an array of ".concat(this.name));
 			} else {
 				getterdoc.addReturn().add("a List of ".concat(this.name));
 			}
 		}
 	}
 	
+	/**
+	 * Adds the accessor of the implementation field to the constructor 
+	 * of a generated facade, see {@link JInterfaceProxy#addFacade(String, List)}.
+	 * @param body the body of the facade constructor
+	 * @param jclass the implementation declaring the field
+	 * @param typeMapper the type mapper parameter of the constructor
+	 */
+	public void addToFacade(JBlock body, JDefinedClass jclass, JVar typeMapper){
+		JClass propType = jclass.owner().ref(PropertyType.class);
+		switch (this.ptype) {
+		case DATA:
+		case OBJECT:
+			body.invoke("addProperty")
+				.arg(newAccessor(jclass, propUri.toString(), functional, typeMapper))
+				.arg(propType.staticRef(ptype.name()));
+			break;
+		case ID:
+			// the id field is not annotated as property, so it 
+			// is added with the default URI and guessed type as well
+			body.invoke("addProperty")
+				.arg(newAccessor(jclass, "#" + name, false, typeMapper))
+				.arg(JExpr._null());
+			body.invoke("setIdProperty").arg(newAccessor(jclass, null, false, typeMapper));
+			break;
+		default:
+			log.warn("Unknown Property Type: {}",ptype);
+			break;
+		}
+	}
+	
+	/**
+	 * @return the creation of an accessor reading and writing the field directly
+	 */
+	private JExpression newAccessor(JDefinedClass jclass, String uri, boolean isFunctional, JVar typeMapper){
+		JCodeModel owner = jclass.owner();
+		JType type = this.getJavaType();
+		JPrimitiveType primitiveType = this.getPrimitiveType();
+		
+		JDefinedClass accessor = owner.anonymousClass(GeneratedPropertyAccessor.class);
+		
+		JMethod getter = accessor.method(JMod.PUBLIC, Object.class, "getValue");
+		JVar gobj = getter.param(Object.class, "obj");
+		// Output: return ((Class)obj).field;
+		getter.body()._return(JExpr.cast(jclass, gobj).ref(name));
+		
+		JMethod setter = accessor.method(JMod.PROTECTED, void.class, "setFieldValue");
+		setter.annotate(SuppressWarnings.class).param("value", "unchecked");
+		JVar sobj = setter.param(Object.class, "obj");
+		JVar value = setter.param(Object.class, "value");
+		// Output: ((Class)obj).field = (Type)value;
+		setter.body().assign(JExpr.cast(jclass, sobj).ref(name), JExpr.cast(type.boxify(), value));
+		
+		if(type.isPrimitive()){
+			addPrimitiveAccess(accessor, jclass, primitiveType);
+		}
+		
+		JInvocation inv = JExpr._new(accessor)
+			.arg(uri == null ? JExpr._null() : JExpr.lit(uri))
+			.arg(jclass.dotclass())
+			.arg(dotclass(type))
+			.arg(primitiveType != null ? dotclass(primitiveType) : getBaseType().boxify().erasure().dotclass())
+			.arg(JExpr.lit(isFunctional))
+			.arg(typeMapper);
+		
+		if( ptype != PropertyType.ID ){
+			if( !dtUris.isEmpty() ){
+				for( URI dt : dtUris ){
+					inv.arg(dt.toString());
+				}
+			} else if( jproxy != null && !jproxy.isThing() ){
+				// the class of the values
+				inv.arg(jproxy.getClassUri().toString());
+			}
+		}
+		return inv;
+	}
+	
+	/**
+	 * Adds the primitive access methods of a primitive field to the accessor,
+	 * e.g. {@code getLong} and {@code setLong} for an {@code int} field.
+	 */
+	private void addPrimitiveAccess(JDefinedClass accessor, JDefinedClass jclass, JPrimitiveType type){
+		JCodeModel owner = jclass.owner();
+		if(type == owner.BOOLEAN){
+			addPrimitiveAccess(accessor, jclass, type, owner.BOOLEAN, "Boolean", true);
+		} else if(type == owner.DOUBLE || type == owner.FLOAT){
+			addPrimitiveAccess(accessor, jclass, type, owner.DOUBLE, "Double", true);
+		} else {
+			// byte, short, int, long
+			addPrimitiveAccess(accessor, jclass, type, owner.LONG, "Long", true);
+			addPrimitiveAccess(accessor, jclass, type, owner.DOUBLE, "Double", false);
+		}
+	}
+	
+	private void addPrimitiveAccess(JDefinedClass accessor, JDefinedClass jclass, JPrimitiveType type, 
+			JPrimitiveType accessType, String suffix, boolean withSetter){
+		JMethod getter = accessor.method(JMod.PUBLIC, accessType, "get" + suffix);
+		JVar gobj = getter.param(Object.class, "obj");
+		// Output: return ((Class)obj).field;
+		getter.body()._return(JExpr.cast(jclass, gobj).ref(name));
+		
+		if(withSetter){
+			JMethod setter = accessor.method(JMod.PUBLIC, void.class, "set" + suffix);
+			JVar sobj = setter.param(Object.class, "obj");
+			JVar value = setter.param(accessType, "value");
+			// Output: ((Class)obj).field = (type)value;
+			setter.body().assign(JExpr.cast(jclass, sobj).ref(name), type == accessType ? value : JExpr.cast(type, value));
+		}
+	}
+	
+	/**
+	 * @return the class literal of the type, {@code int.class} is 
+	 * written as {@code Integer.TYPE}
+	 */
+	private static JExpression dotclass(JType type){
+		if(type.isPrimitive()){
+			return type.boxify().staticRef("TYPE");
+		}
+		return ((JClass)type).erasure().dotclass();
+	}
+	
 	/**
 	 * @return JavaDoc string of this Property
 	 */
@@ -254,11 +385,33 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 	}
 
 	
+	/**
+	 * @return the primitive type of the values if they are held in 
+	 * primitives, {@code null} otherwise
+	 */
+	private JPrimitiveType getPrimitiveType(){
+		if(!primitive || ptype != PropertyType.DATA || type == null){
+			return null;
+		}
+		JType unboxed = type.unboxify();
+		// characters are no numbers
+		if(unboxed.isPrimitive() && unboxed != unboxed.owner().CHAR){
+			return (JPrimitiveType)unboxed;
+		}
+		return null;
+	}
+	
 	/**
 	 * @return the boxed type if this Property is functional, 
-	 * a narrowed {@code List<type>} of the type else 
+	 * a narrowed {@code List<type>} of the type else. Primitive 
+	 * values are held in the primitive type or an array thereof.
 	 */
-	private JClass getJavaType(){
+	private JType getJavaType(){
+		JPrimitiveType primitiveType = getPrimitiveType();
+		if(primitiveType != null){
+			return functional ? primitiveType : primitiveType.array();
+		}
+		
 		JClass type = null;
 		if(this.type == null){
 			type = this.jproxy.getType();
@@ -310,6 +463,18 @@ import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;
 		this.functional = functional;
 	}
 
+	public boolean isPrimitive() {
+		return primitive;
+	}
+
+	/**
+	 * @param primitive if numeric and boolean data values should be 
+	 * held in primitive fields and arrays
+	 */
+	public void setPrimitive(boolean primitive) {
+		this.primitive = primitive;
+	}
+
 	public JType getBaseType() {
 		if(type == null){
 			return jproxy.getType();
@@ -0,0 +1,290 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.semanticweb.owl.model.AddAxiom;
+import org.semanticweb.owl.model.OWLAxiom;
+import org.semanticweb.owl.model.OWLClassAssertionAxiom;
+import org.semanticweb.owl.model.OWLConstant;
+import org.semanticweb.owl.model.OWLDataFactory;
+import org.semanticweb.owl.model.OWLDataPropertyAssertionAxiom;
+import org.semanticweb.owl.model.OWLDeclarationAxiom;
+import org.semanticweb.owl.model.OWLImportsDeclaration;
+import org.semanticweb.owl.model.OWLIndividual;
+import org.semanticweb.owl.model.OWLObjectPropertyAssertionAxiom;
+import org.semanticweb.owl.model.OWLOntology;
+import org.semanticweb.owl.model.OWLOntologyChange;
+import org.semanticweb.owl.model.OWLOntologyChangeException;
+import org.semanticweb.owl.model.OWLOntologyCreationException;
+import org.semanticweb.owl.model.OWLOntologyManager;
+import org.semanticweb.owl.model.OWLUntypedConstant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yoshtec.owl.LiteralCodec;
+import com.yoshtec.owl.LiteralCodecRegistry;
+import com.yoshtec.owl.XsdTypeMapper;
+
+/**
+ * Converts between ontologies and the compact binary format written by 
+ * {@link Marshaller#marshal(java.util.Collection, URI, OutputStream, boolean)}.
+ * Services can exchange marshalled objects in the binary format and 
+ * convert them to an ontology only where OWL is needed.
+ * <br>
+ * The conversion is lossless for the axioms about individuals: 
+ * the imports, the class assertions of named classes and the data and 
+ * object property assertions of named properties, including the data 
+ * types and language tags of the literals. Declarations are implied by 
+ * the assertions, all other axioms are skipped.
+ */
+public final class BinaryGraphConverter {
+    
+    static private final Logger log = LoggerFactory.getLogger(BinaryGraphConverter.class);
+    
+    private BinaryGraphConverter() {
+        // static methods only
+    }
+    
+    /**
+     * Writes the axioms about the individuals of the ontology in the 
+     * binary format. 
+     * @param ontology the ontology to write
+     * @param output the output, will be flushed but not closed
+     * @throws MarshalException if writing fails
+     */
+    public static void write(OWLOntology ontology, OutputStream output) throws MarshalException {
+        if(ontology == null)
+            throw new IllegalArgumentException("Ontology shall not be null");
+        if(output == null)
+            throw new IllegalArgumentException("OutputStream cannot be null");
+        
+        // group the assertions by individual so they share the subject records
+        Map<OWLIndividual, List<OWLAxiom>> bySubject = new LinkedHashMap<OWLIndividual, List<OWLAxiom>>();
+        int skipped = 0;
+        for(OWLAxiom axiom : ontology.getAxioms()){
+            OWLIndividual subject = getSubject(axiom);
+            if(subject != null){
+                List<OWLAxiom> axioms = bySubject.get(subject);
+                if(axioms == null){
+                    axioms = new ArrayList<OWLAxiom>();
+                    bySubject.put(subject, axioms);
+                }
+                axioms.add(axiom);
+            } else if(!(axiom instanceof OWLImportsDeclaration || axiom instanceof OWLDeclarationAxiom)){
+                skipped++;
+            }
+        }
+        if(skipped > 0){
+            log.warn("{} axioms of {} can not be written to the binary format", skipped, ontology.getURI());
+        }
+        
+        BinaryGraphWriter out = new BinaryGraphWriter(output, ontology.getURI());
+        try {
+            out.startDocument();
+            for(OWLImportsDeclaration imp : ontology.getImportsDeclarations()){
+                out.importDeclaration(imp.getImportedOntologyURI());
+            }
+            for(Map.Entry<OWLIndividual, List<OWLAxiom>> entry : bySubject.entrySet()){
+                URI subject = entry.getKey().getURI();
+                for(OWLAxiom axiom : entry.getValue()){
+                    if(axiom instanceof OWLClassAssertionAxiom){
+                        OWLClassAssertionAxiom ca = (OWLClassAssertionAxiom)axiom;
+                        out.classAssertion(subject, ca.getDescription().asOWLClass().getURI());
+                    } else if(axiom instanceof OWLObjectPropertyAssertionAxiom){
+                        OWLObjectPropertyAssertionAxiom oa = (OWLObjectPropertyAssertionAxiom)axiom;
+                        out.objectPropertyValue(subject, oa.getProperty().asOWLObjectProperty().getURI(), oa.getObject().getURI());
+                    } else {
+                        OWLDataPropertyAssertionAxiom da = (OWLDataPropertyAssertionAxiom)axiom;
+                        URI property = da.getProperty().asOWLDataProperty().getURI();
+                        OWLConstant constant = da.getObject();
+                        if(constant.isTyped()){
+                            out.dataPropertyValue(subject, property, constant.asOWLTypedConstant().getDataType().getURI(), constant.getLiteral());
+                        } else {
+                            OWLUntypedConstant untyped = constant.asOWLUntypedConstant();
+                            if(untyped.hasLang()){
+                                out.languageValue(subject, property, untyped.getLiteral(), untyped.getLang());
+                            } else {
+                                out.dataPropertyValue(subject, property, null, untyped.getLiteral());
+                            }
+                        }
+                    }
+                }
+            }
+            out.endDocument();
+        } catch (IOException e) {
+            throw new MarshalException("Unable to write the binary graph of " + ontology.getURI(), e);
+        }
+    }
+    
+    /**
+     * @return the individual the axiom is about, {@code null} 
+     * if it can not be written to the binary format
+     */
+    private static OWLIndividual getSubject(OWLAxiom axiom){
+        if(axiom instanceof OWLClassAssertionAxiom){
+            OWLClassAssertionAxiom ca = (OWLClassAssertionAxiom)axiom;
+            return ca.getDescription().isAnonymous() ? null : ca.getIndividual();
+        }
+        if(axiom instanceof OWLObjectPropertyAssertionAxiom){
+            OWLObjectPropertyAssertionAxiom oa = (OWLObjectPropertyAssertionAxiom)axiom;
+            return oa.getProperty().isAnonymous() ? null : oa.getSubject();
+        }
+        if(axiom instanceof OWLDataPropertyAssertionAxiom){
+            return ((OWLDataPropertyAssertionAxiom)axiom).getSubject();
+        }
+        return null;
+    }
+    
+    /**
+     * Reads a document in the binary format into a new ontology
+     * @param input the input, will not be closed
+     * @param manager creates the ontology, named after the URI stored in the document
+     * @return the new ontology
+     * @throws UnmarshalException if the input can not be read or the ontology not be created
+     */
+    public static OWLOntology read(InputStream input, OWLOntologyManager manager) throws UnmarshalException {
+        if(input == null)
+            throw new IllegalArgumentException("InputStream cannot be null");
+        if(manager == null)
+            throw new IllegalArgumentException("Manager shall not be null");
+        
+        final OntologyBuilder builder = new OntologyBuilder(manager);
+        BinaryGraphReader reader = new BinaryGraphReader(builder) {
+            @Override
+            void startDocument(URI ontologyUri) throws UnmarshalException {
+                builder.create(ontologyUri);
+            }
+            @Override
+            void languageLiteral(URI subject, URI predicate, String literal, String language) {
+                builder.add(builder.factory.getOWLDataPropertyAssertionAxiom(
+                        builder.factory.getOWLIndividual(subject), 
+                        builder.factory.getOWLDataProperty(predicate),
+                        builder.factory.getOWLUntypedConstant(literal, language)));
+            }
+        };
+        try {
+            reader.parse(input);
+        } catch (IOException e) {
+            throw new UnmarshalException("Error reading the binary graph", e);
+        }
+        return builder.ontology;
+    }
+    
+    /**
+     * Collects the axioms read and adds them to the ontology at the end. 
+     * Values read as numbers are printed with the default codec of 
+     * their data type, an ontology only holds literals.
+     */
+    private static class OntologyBuilder implements TripleHandler {
+        
+        private final OWLOntologyManager manager;
+        
+        private final LiteralCodecRegistry codecs = new LiteralCodecRegistry(new XsdTypeMapper());
+        
+        /** the printers by data type, resolved on first use */
+        private final Map<URI,LiteralCodec<?>> printers = new HashMap<URI,LiteralCodec<?>>();
+        
+        final OWLDataFactory factory;
+        
+        OWLOntology ontology = null;
+        
+        private final List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>();
+        
+        OntologyBuilder(OWLOntologyManager manager) {
+            this.manager = manager;
+            this.factory = manager.getOWLDataFactory();
+        }
+        
+        void create(URI ontologyUri) throws UnmarshalException {
+            try {
+                ontology = manager.createOntology(ontologyUri);
+            } catch (OWLOntologyCreationException e) {
+                throw new UnmarshalException("Error creating the Ontology " + ontologyUri, e);
+            }
+        }
+        
+        void add(OWLAxiom axiom){
+            changes.add(new AddAxiom(ontology, axiom));
+        }
+        
+        public void resource(URI subject, URI predicate, URI object) {
+            if(TripleWriter.RDF_TYPE.equals(predicate)){
+                add(factory.getOWLClassAssertionAxiom(factory.getOWLIndividual(subject), factory.getOWLClass(object)));
+            } else if(TripleWriter.OWL_IMPORTS.equals(predicate) && ontology.getURI().equals(subject)){
+                add(factory.getOWLImportsDeclarationAxiom(ontology, object));
+            } else {
+                add(factory.getOWLObjectPropertyAssertionAxiom(factory.getOWLIndividual(subject), 
+                        factory.getOWLObjectProperty(predicate), factory.getOWLIndividual(object)));
+            }
+        }
+        
+        public void literal(URI subject, URI predicate, String literal, URI dataType) {
+            OWLConstant constant = dataType == null 
+                ? factory.getOWLUntypedConstant(literal) 
+                : factory.getOWLTypedConstant(literal, factory.getOWLDataType(dataType));
+            add(factory.getOWLDataPropertyAssertionAxiom(factory.getOWLIndividual(subject), 
+                    factory.getOWLDataProperty(predicate), constant));
+        }
+        
+        public void longValue(URI subject, URI predicate, long value, URI dataType) {
+            literal(subject, predicate, printer(dataType).printLong(value), dataType);
+        }
+        
+        public void doubleValue(URI subject, URI predicate, double value, URI dataType) {
+            literal(subject, predicate, printer(dataType).printDouble(value), dataType);
+        }
+        
+        public void booleanValue(URI subject, URI predicate, boolean value, URI dataType) {
+            literal(subject, predicate, printer(dataType).printBoolean(value), dataType);
+        }
+        
+        /**
+         * @return the default codec of the data type
+         */
+        private LiteralCodec<?> printer(URI dataType){
+            LiteralCodec<?> printer = printers.get(dataType);
+            if(printer == null){
+                printer = codecs.getPrinter(dataType, Object.class);
+                printers.put(dataType, printer);
+            }
+            return printer;
+        }
+        
+        public void end() throws UnmarshalException {
+            try {
+                manager.applyChanges(changes);
+            } catch (OWLOntologyChangeException e) {
+                throw new UnmarshalException("Error adding the axioms to the Ontology " + ontology.getURI(), e);
+            }
+            changes.clear();
+        }
+    }
+    
+}
@@ -0,0 +1,269 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.yoshtec.owl.util.UriDictionary;
+
+/**
+ * Reads the binary format written by {@link BinaryGraphWriter} and hands 
+ * the statements on to a {@link TripleHandler}. Values written as numbers 
+ * are handed on as numbers, they are never printed to a literal.
+ */
+class BinaryGraphReader {
+    
+    private final TripleHandler handler;
+    
+    /** creates the URI instances */
+    private final UriDictionary dictionary;
+    
+    private InputStream in = null;
+    
+    private final byte[] buf = new byte[8192];
+    
+    private int pos = 0;
+    
+    private int limit = 0;
+    
+    /** bytes read before the current buffer */
+    private long offset = 0;
+    
+    /** the URIs by their number, the first entry stands for "none" */
+    private final List<URI> uris = new ArrayList<URI>();
+    
+    /** the ontology URI */
+    private URI base = null;
+    
+    BinaryGraphReader(TripleHandler handler) {
+        this(handler, new UriDictionary());
+    }
+    
+    /**
+     * @param dictionary creates the URIs, may be shared with the handler
+     */
+    BinaryGraphReader(TripleHandler handler, UriDictionary dictionary) {
+        this.handler = handler;
+        this.dictionary = dictionary;
+    }
+    
+    /**
+     * Reads the document, the stream will not be closed
+     */
+    void parse(InputStream input) throws IOException, UnmarshalException {
+        this.in = input;
+        uris.add(null);
+        
+        int magic = (read() << 24) | (read() << 16) | (read() << 8) | read();
+        if(magic != BinaryGraphWriter.MAGIC){
+            throw new UnmarshalException("Not a binary graph");
+        }
+        int version = read();
+        if(version != BinaryGraphWriter.VERSION){
+            throw new UnmarshalException("Unsupported binary graph version " + version);
+        }
+        base = URI.create(readString());
+        startDocument(base);
+        
+        URI subject = null;
+        for(;;){
+            int tag = read();
+            if(tag == BinaryGraphWriter.URI_DEF){
+                uris.add(dictionary.intern(readString()));
+                continue;
+            }
+            if(tag == BinaryGraphWriter.SUBJECT){
+                subject = uri(readInt());
+                continue;
+            }
+            if(tag == BinaryGraphWriter.END){
+                handler.end();
+                return;
+            }
+            if(tag == BinaryGraphWriter.IMPORT){
+                handler.resource(base, TripleWriter.OWL_IMPORTS, uri(readInt()));
+                continue;
+            }
+            
+            if(subject == null){
+                throw new UnmarshalException("Statement without subject at byte " + position());
+            }
+            
+            switch (tag) {
+            case BinaryGraphWriter.TYPE:
+                handler.resource(subject, TripleWriter.RDF_TYPE, uri(readInt()));
+                break;
+            case BinaryGraphWriter.OBJECT: {
+                URI p = uri(readInt());
+                handler.resource(subject, p, uri(readInt()));
+                break;
+            }
+            case BinaryGraphWriter.STRING: {
+                URI p = uri(readInt());
+                int d = readInt();
+                handler.literal(subject, p, readString(), d == 0 ? null : uri(d));
+                break;
+            }
+            case BinaryGraphWriter.LANG_STRING: {
+                URI p = uri(readInt());
+                String literal = readString();
+                languageLiteral(subject, p, literal, readString());
+                break;
+            }
+            case BinaryGraphWriter.LONG: {
+                URI p = uri(readInt());
+                int d = readInt();
+                long l = readVarLong();
+                handler.longValue(subject, p, (l >>> 1) ^ -(l & 1), uri(d));
+                break;
+            }
+            case BinaryGraphWriter.DOUBLE: {
+                URI p = uri(readInt());
+                int d = readInt();
+                long bits = 0;
+                for(int i = 0; i < 8; i++){
+                    bits = (bits << 8) | read();
+                }
+                handler.doubleValue(subject, p, Double.longBitsToDouble(bits), uri(d));
+                break;
+            }
+            case BinaryGraphWriter.FLOAT: {
+                URI p = uri(readInt());
+                int d = readInt();
+                int bits = 0;
+                for(int i = 0; i < 4; i++){
+                    bits = (bits << 8) | read();
+                }
+                handler.doubleValue(subject, p, Float.intBitsToFloat(bits), uri(d));
+                break;
+            }
+            case BinaryGraphWriter.TRUE:
+            case BinaryGraphWriter.FALSE: {
+                URI p = uri(readInt());
+                int d = readInt();
+                handler.booleanValue(subject, p, tag == BinaryGraphWriter.TRUE, uri(d));
+                break;
+            }
+            default:
+                throw new UnmarshalException("Unknown record " + tag + " at byte " + position());
+            }
+        }
+    }
+    
+    /**
+     * Called after the header is read
+     * @param ontologyUri the URI of the ontology
+     */
+    void startDocument(URI ontologyUri) throws UnmarshalException {
+        // nothing to do
+    }
+    
+    /**
+     * Hands on a literal with a language tag, the tag is dropped
+     * since the {@link TripleHandler} has no notion of it
+     */
+    void languageLiteral(URI subject, URI predicate, String literal, String language) throws UnmarshalException {
+        handler.literal(subject, predicate, literal, null);
+    }
+    
+    /**
+     * @return the ontology URI, {@code null} before the header is read
+     */
+    URI getBase() {
+        return base;
+    }
+    
+    private URI uri(int id) throws UnmarshalException {
+        if(id <= 0 || id >= uris.size()){
+            throw new UnmarshalException("Unknown URI number " + id + " at byte " + position());
+        }
+        return uris.get(id);
+    }
+    
+    private long position(){
+        return offset + pos;
+    }
+    
+    private int read() throws IOException {
+        if(pos == limit){
+            fill();
+        }
+        return buf[pos++] & 0xFF;
+    }
+    
+    private void fill() throws IOException {
+        offset += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buf);
+        if(n <= 0){
+            throw new EOFException("Unexpected end of the binary graph at byte " + offset);
+        }
+        limit = n;
+    }
+    
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for(int shift = 0; shift < 64; shift += 7){
+            int b = read();
+            value |= (long)(b & 0x7F) << shift;
+            if((b & 0x80) == 0){
+                return value;
+            }
+        }
+        throw new IOException("Malformed number at byte " + position());
+    }
+    
+    private int readInt() throws IOException {
+        long value = readVarLong();
+        if(value > Integer.MAX_VALUE){
+            throw new IOException("Number out of range at byte " + position());
+        }
+        return (int)value;
+    }
+    
+    private String readString() throws IOException {
+        int length = readInt();
+        if(limit - pos >= length){
+            String s = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+        byte[] bytes = new byte[length];
+        int n = limit - pos;
+        System.arraycopy(buf, pos, bytes, 0, n);
+        pos = limit;
+        while(n < length){
+            fill();
+            int chunk = Math.min(length - n, limit);
+            System.arraycopy(buf, 0, bytes, n, chunk);
+            pos = chunk;
+            n += chunk;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+}
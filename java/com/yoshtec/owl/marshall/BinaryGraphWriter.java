@@ -0,0 +1,276 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.yoshtec.owl.util.UriDictionary;
+
+/**
+ * Writes the statements of marshalled individuals in a compact binary 
+ * format. Every URI is written once and referenced by its number 
+ * afterwards, consecutive statements about the same subject share 
+ * one subject record and numbers are written as variable length 
+ * integers.
+ * <br>
+ * The document starts with {@link #MAGIC}, the {@link #VERSION} and the 
+ * ontology URI, followed by the records and {@link #END}. A record is 
+ * a tag byte followed by its fields:
+ * <ul>
+ * <li>{@link #URI_DEF}: the next URI number, numbers start at 1 (string)</li>
+ * <li>{@link #SUBJECT}: the subject of the following statements (uri)</li>
+ * <li>{@link #IMPORT}: an import of the ontology (uri)</li>
+ * <li>{@link #TYPE}: a class assertion (class uri)</li>
+ * <li>{@link #OBJECT}: an object property value (property uri, individual uri)</li>
+ * <li>{@link #STRING}: a literal (property uri, data type uri or 0, string)</li>
+ * <li>{@link #LANG_STRING}: a literal with language (property uri, string, string)</li>
+ * <li>{@link #LONG}, {@link #DOUBLE}, {@link #FLOAT}, {@link #TRUE}, {@link #FALSE}: 
+ * a value printed with the default codec of the data type (property uri, data type uri, value)</li>
+ * </ul>
+ * Strings are written as their UTF-8 length followed by the bytes, 
+ * {@code LONG} values zig-zag encoded. URIs are written as they are, 
+ * relative URIs are not resolved.
+ */
+class BinaryGraphWriter {
+    
+    /** "JAOB" */
+    static final int MAGIC = 0x4A414F42;
+    static final int VERSION = 1;
+    
+    static final int END = 0;
+    static final int URI_DEF = 1;
+    static final int SUBJECT = 2;
+    static final int IMPORT = 3;
+    static final int TYPE = 4;
+    static final int OBJECT = 5;
+    static final int STRING = 6;
+    static final int LANG_STRING = 7;
+    static final int LONG = 8;
+    static final int DOUBLE = 9;
+    static final int FLOAT = 10;
+    static final int TRUE = 11;
+    static final int FALSE = 12;
+    
+    private final OutputStream out;
+    
+    private final URI base;
+    
+    private final byte[] buf = new byte[8192];
+    
+    private int pos = 0;
+    
+    /** numbers the URIs */
+    private final UriDictionary uris;
+    
+    /** the numbers in the document by dictionary id, 0 if not written yet */
+    private int[] numbers = new int[256];
+    
+    /** the number of URIs written */
+    private int written = 0;
+    
+    /** the number of the current subject, 0 if there is none */
+    private int subject = 0;
+    
+    BinaryGraphWriter(OutputStream out, URI base) {
+        this(out, base, new UriDictionary());
+    }
+    
+    /**
+     * @param uris the dictionary to number the URIs with, may be shared 
+     * with the code producing the URIs
+     */
+    BinaryGraphWriter(OutputStream out, URI base, UriDictionary uris) {
+        this.out = out;
+        this.base = base;
+        this.uris = uris;
+    }
+    
+    void startDocument() throws IOException {
+        ensure(5);
+        buf[pos++] = (byte)(MAGIC >>> 24);
+        buf[pos++] = (byte)(MAGIC >>> 16);
+        buf[pos++] = (byte)(MAGIC >>> 8);
+        buf[pos++] = (byte)MAGIC;
+        buf[pos++] = VERSION;
+        writeString(base.toString());
+    }
+    
+    /**
+     * Finishes and flushes the output
+     */
+    void endDocument() throws IOException {
+        writeTag(END);
+        flush();
+        out.flush();
+    }
+    
+    void importDeclaration(URI ontologyUri) throws IOException {
+        int o = id(ontologyUri);
+        writeTag(IMPORT);
+        writeVarLong(o);
+    }
+    
+    void classAssertion(URI individual, URI owlClass) throws IOException {
+        int c = id(owlClass);
+        subject(individual);
+        writeTag(TYPE);
+        writeVarLong(c);
+    }
+    
+    void objectPropertyValue(URI individual, URI property, URI object) throws IOException {
+        int p = id(property);
+        int o = id(object);
+        subject(individual);
+        writeTag(OBJECT);
+        writeVarLong(p);
+        writeVarLong(o);
+    }
+    
+    /**
+     * @param dataType the data type, {@code null} for a plain literal
+     */
+    void dataPropertyValue(URI individual, URI property, URI dataType, String literal) throws IOException {
+        int p = id(property);
+        int d = dataType == null ? 0 : id(dataType);
+        subject(individual);
+        writeTag(STRING);
+        writeVarLong(p);
+        writeVarLong(d);
+        writeString(literal);
+    }
+    
+    void languageValue(URI individual, URI property, String literal, String language) throws IOException {
+        int p = id(property);
+        subject(individual);
+        writeTag(LANG_STRING);
+        writeVarLong(p);
+        writeString(literal);
+        writeString(language);
+    }
+    
+    void longValue(URI individual, URI property, URI dataType, long value) throws IOException {
+        valueHeader(individual, property, dataType, LONG);
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+    
+    void doubleValue(URI individual, URI property, URI dataType, double value) throws IOException {
+        valueHeader(individual, property, dataType, DOUBLE);
+        long bits = Double.doubleToRawLongBits(value);
+        ensure(8);
+        for(int shift = 56; shift >= 0; shift -= 8){
+            buf[pos++] = (byte)(bits >>> shift);
+        }
+    }
+    
+    void floatValue(URI individual, URI property, URI dataType, float value) throws IOException {
+        valueHeader(individual, property, dataType, FLOAT);
+        int bits = Float.floatToRawIntBits(value);
+        ensure(4);
+        for(int shift = 24; shift >= 0; shift -= 8){
+            buf[pos++] = (byte)(bits >>> shift);
+        }
+    }
+    
+    void booleanValue(URI individual, URI property, URI dataType, boolean value) throws IOException {
+        valueHeader(individual, property, dataType, value ? TRUE : FALSE);
+    }
+    
+    private void valueHeader(URI individual, URI property, URI dataType, int tag) throws IOException {
+        int p = id(property);
+        int d = id(dataType);
+        subject(individual);
+        writeTag(tag);
+        writeVarLong(p);
+        writeVarLong(d);
+    }
+    
+    /**
+     * Writes a subject record if the subject changes
+     */
+    private void subject(URI individual) throws IOException {
+        int s = id(individual);
+        if(s != subject){
+            writeTag(SUBJECT);
+            writeVarLong(s);
+            subject = s;
+        }
+    }
+    
+    /**
+     * @return the number of the URI, writes the URI if it is not known yet
+     */
+    private int id(URI uri) throws IOException {
+        int d = uris.getId(uri);
+        if(d >= numbers.length){
+            numbers = Arrays.copyOf(numbers, Math.max(d + 1, numbers.length * 2));
+        }
+        int id = numbers[d];
+        if(id == 0){
+            id = ++written;
+            numbers[d] = id;
+            writeTag(URI_DEF);
+            writeString(uri.toString());
+        }
+        return id;
+    }
+    
+    private void writeTag(int tag) throws IOException {
+        ensure(1);
+        buf[pos++] = (byte)tag;
+    }
+    
+    private void writeVarLong(long value) throws IOException {
+        ensure(10);
+        while((value & ~0x7FL) != 0){
+            buf[pos++] = (byte)((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte)value;
+    }
+    
+    private void writeString(String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        if(bytes.length > buf.length){
+            flush();
+            out.write(bytes);
+        } else {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+    }
+    
+    private void ensure(int n) throws IOException {
+        if(pos + n > buf.length){
+            flush();
+        }
+    }
+    
+    private void flush() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+    }
+    
+}
@@ -0,0 +1,101 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owl.model.OWLAxiom;
+import org.semanticweb.owl.model.OWLClass;
+import org.semanticweb.owl.model.OWLClassAssertionAxiom;
+import org.semanticweb.owl.model.OWLDataPropertyAssertionAxiom;
+import org.semanticweb.owl.model.OWLObjectPropertyAssertionAxiom;
+import org.semanticweb.owl.model.OWLOntology;
+
+import com.yoshtec.owl.util.OntologyUtil;
+
+/**
+ * Index from the URI of an individual to the axioms about it. The 
+ * index is built in one pass over the axioms of an ontology, so 
+ * looking up an individual afterwards does not depend on the size 
+ * of the ontology.
+ */
+class IndividualIndex {
+    
+    /**
+     * The axioms about one individual
+     */
+    static class Entry {
+        final Set<URI> classes = new HashSet<URI>(2);
+        final List<OWLDataPropertyAssertionAxiom> dataProperties = new ArrayList<OWLDataPropertyAssertionAxiom>();
+        final List<OWLObjectPropertyAssertionAxiom> objectProperties = new ArrayList<OWLObjectPropertyAssertionAxiom>();
+    }
+    
+    private final OWLOntology ontology;
+    
+    private final Map<URI,Entry> entries = new HashMap<URI,Entry>();
+    
+    IndividualIndex(OWLOntology ontology) {
+        this.ontology = ontology;
+        
+        for(OWLAxiom axiom : ontology.getAxioms()){
+            if(axiom instanceof OWLClassAssertionAxiom){
+                OWLClassAssertionAxiom ca = (OWLClassAssertionAxiom)axiom;
+                Entry entry = entry(ca.getIndividual().getURI());
+                for(OWLClass ocls : OntologyUtil.getOWLClasses(ca.getDescription())){
+                    entry.classes.add(ocls.getURI());
+                }
+            } else if(axiom instanceof OWLDataPropertyAssertionAxiom){
+                OWLDataPropertyAssertionAxiom da = (OWLDataPropertyAssertionAxiom)axiom;
+                entry(da.getSubject().getURI()).dataProperties.add(da);
+            } else if(axiom instanceof OWLObjectPropertyAssertionAxiom){
+                OWLObjectPropertyAssertionAxiom oa = (OWLObjectPropertyAssertionAxiom)axiom;
+                entry(oa.getSubject().getURI()).objectProperties.add(oa);
+            }
+        }
+    }
+    
+    private Entry entry(URI uri){
+        Entry entry = entries.get(uri);
+        if(entry == null){
+            entry = new Entry();
+            entries.put(uri, entry);
+        }
+        return entry;
+    }
+    
+    /**
+     * @return the axioms about the individual or {@code null} 
+     * if there are none in the ontology 
+     */
+    Entry get(URI individual){
+        return entries.get(individual);
+    }
+    
+    OWLOntology getOntology() {
+        return ontology;
+    }
+    
+}
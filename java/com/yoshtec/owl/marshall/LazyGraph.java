@@ -0,0 +1,422 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.semanticweb.owl.model.OWLObjectPropertyAssertionAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yoshtec.owl.PropertyAccessType;
+import com.yoshtec.owl.cf.ClassFacade;
+import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.cf.StagingContext;
+
+/**
+ * The individuals of an indexed ontology, unmarshalled on demand.
+ * <br>
+ * Object properties pointing to individuals that are not unmarshalled 
+ * yet are set to placeholders: a {@link Proxy} if the type of the 
+ * property is an interface and a lazy {@link List} or {@link Set} for 
+ * multi valued properties. The individuals behind a placeholder are 
+ * unmarshalled on first access, their object properties are set to 
+ * placeholders again. Single valued properties of a class type can 
+ * not be deferred, their individuals are unmarshalled right away. 
+ * The same holds for arrays, collections filled via the getter of the 
+ * property and fields of a concrete collection type like 
+ * {@code ArrayList}, the lazy collections can only be assigned to 
+ * fields of the collection interfaces.
+ * <br>
+ * Every individual is unmarshalled at most once. The graph is 
+ * guarded by its own lock, the objects reached through it are not 
+ * thread safe.
+ */
+class LazyGraph {
+    
+    static private final Logger log = LoggerFactory.getLogger(LazyGraph.class);
+    
+    private final UnMarshaller un;
+    
+    private final IndividualIndex index;
+    
+    /** the objects by individual, {@code null} if the individual could not be unmarshalled */
+    private final Map<URI,Object> objects;
+    
+    /** the proxies by individual */
+    private final Map<URI,Object> proxies = new HashMap<URI,Object>();
+    
+    /** the individuals instantiated but not yet loaded in the current run */
+    private final List<Pending> pending = new ArrayList<Pending>();
+    
+    /** the values set during the current run, {@code null} outside a run */
+    private StagingContext ctx = null;
+    
+    /**
+     * @param un the UnMarshaller with the registered classes
+     * @param index the index of the ontology
+     * @param objects the individuals already unmarshalled, 
+     * {@code null} for the ones that could not be unmarshalled
+     */
+    LazyGraph(UnMarshaller un, IndividualIndex index, Map<URI,Object> objects) {
+        this.un = un;
+        this.index = index;
+        this.objects = objects;
+    }
+    
+    /**
+     * Stages the values of an object property, the values not yet 
+     * unmarshalled as placeholders. Values already staged for a 
+     * collection are kept.
+     * @param ctx the context to stage into
+     * @param subject the object the property belongs to
+     * @param prop the property
+     * @param targets the individuals of the values
+     */
+    synchronized void link(StagingContext ctx, Object subject, PropertyAccessor prop, List<URI> targets){
+        if(prop.isSingleValue()){
+            for(URI target : targets){
+                Object value = placeholder(prop.getType(), target);
+                if(value != null){
+                    prop.setOrAddValue(ctx, subject, value);
+                }
+            }
+            return;
+        }
+        
+        Class<?> type = prop.getType();
+        boolean set = Set.class.isAssignableFrom(type);
+        if(prop.getAccess() != PropertyAccessType.FIELD 
+                || !type.isAssignableFrom(set ? LazySet.class : LazyList.class)){
+            // arrays, fields of a concrete collection type and collections 
+            // filled via the getter can not take a lazy collection
+            for(URI target : targets){
+                Object value = get(target);
+                if(value != null){
+                    prop.setOrAddValue(ctx, subject, value);
+                }
+            }
+            return;
+        }
+        
+        Map<Object,Object> values = ctx.getValues(prop);
+        Collection<?> known = (Collection<?>)values.get(subject);
+        if(set){
+            values.put(subject, new LazySet(known, targets));
+        } else {
+            values.put(subject, new LazyList(known, targets));
+        }
+    }
+    
+    /**
+     * @return {@code true} if the object of the individual has been unmarshalled
+     */
+    synchronized boolean isUnmarshalled(URI individual){
+        return objects.get(individual) != null;
+    }
+    
+    /**
+     * @return the value for a single valued property of the given type
+     */
+    private Object placeholder(Class<?> type, URI target){
+        if(objects.containsKey(target)){
+            return objects.get(target);
+        }
+        if(!type.isInterface()){
+            return get(target);
+        }
+        Object proxy = proxies.get(target);
+        if(proxy == null || !type.isInstance(proxy)){
+            if(un.getClassFacade(index.get(target)) == null){
+                log.warn("No SimpleClassFacade found for Individual {}", target);
+                objects.put(target, null);
+                return null;
+            }
+            proxy = Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Deferred(target));
+            proxies.put(target, proxy);
+        }
+        return proxy;
+    }
+    
+    /**
+     * Unmarshals an individual if necessary. Inside a run the object is 
+     * only instantiated, its properties are set at the end of the run.
+     * @return the object of the individual, {@code null} if it can not be unmarshalled
+     */
+    synchronized Object get(URI individual){
+        if(objects.containsKey(individual)){
+            return objects.get(individual);
+        }
+        if(ctx != null){
+            return instantiate(individual);
+        }
+        
+        StagingContext run = new StagingContext();
+        ctx = run;
+        Object obj;
+        try {
+            obj = instantiate(individual);
+            while(!pending.isEmpty()){
+                load(pending.remove(pending.size() - 1));
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error unmarshalling the individual " + individual, e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Error unmarshalling the individual " + individual, e);
+        } finally {
+            pending.clear();
+            ctx = null;
+        }
+        
+        // outside of the run, values materialised while committing start their own
+        try {
+            run.commit();
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Error setting the staged values to the objects", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Error setting the staged values to the objects", e);
+        }
+        return obj;
+    }
+    
+    /**
+     * Instantiates the object of an individual and queues it for loading
+     */
+    private Object instantiate(URI individual){
+        IndividualIndex.Entry entry = index.get(individual);
+        ClassFacade cf = un.getClassFacade(entry);
+        if(cf == null){
+            log.warn("No SimpleClassFacade found for Individual {}", individual);
+            objects.put(individual, null);
+            return null;
+        }
+        
+        Object obj;
+        try {
+            obj = un.newInstance(ctx, cf, individual);
+        } catch (Exception e) {
+            throw new IllegalStateException("Error unmarshalling the individual " + individual, e);
+        }
+        objects.put(individual, obj);
+        pending.add(new Pending(obj, cf, entry));
+        return obj;
+    }
+    
+    /**
+     * Stages the properties of an instantiated individual
+     */
+    private void load(Pending p) throws IllegalAccessException, InvocationTargetException {
+        un.setDataProperties(ctx, p.cf, p.obj, p.entry);
+        
+        Map<PropertyAccessor,List<URI>> values = new LinkedHashMap<PropertyAccessor,List<URI>>();
+        for(OWLObjectPropertyAssertionAxiom oa : p.entry.objectProperties){
+            URI propUri = oa.getProperty().asOWLObjectProperty().getURI();
+            if(p.cf.hasProperty(propUri)){
+                PropertyAccessor prop = p.cf.getProperty(propUri);
+                List<URI> targets = values.get(prop);
+                if(targets == null){
+                    targets = new ArrayList<URI>();
+                    values.put(prop, targets);
+                }
+                targets.add(oa.getObject().getURI());
+            }
+        }
+        for(Map.Entry<PropertyAccessor,List<URI>> entry : values.entrySet()){
+            link(ctx, p.obj, entry.getKey(), entry.getValue());
+        }
+    }
+    
+    /**
+     * Adds the objects of the individuals to the collection, 
+     * skipping the ones that can not be unmarshalled
+     */
+    private void materialise(List<URI> targets, Collection<Object> values){
+        for(URI target : targets){
+            Object obj = get(target);
+            if(obj != null){
+                values.add(obj);
+            }
+        }
+    }
+    
+    /**
+     * A placeholder for values not yet unmarshalled
+     */
+    interface LazyValue {
+        /**
+         * @return {@code true} once the values have been unmarshalled
+         */
+        boolean isLoaded();
+    }
+    
+    /**
+     * An individual instantiated but not loaded yet
+     */
+    private static class Pending {
+        final Object obj;
+        final ClassFacade cf;
+        final IndividualIndex.Entry entry;
+        
+        Pending(Object obj, ClassFacade cf, IndividualIndex.Entry entry) {
+            this.obj = obj;
+            this.cf = cf;
+            this.entry = entry;
+        }
+    }
+    
+    /**
+     * Forwards the calls on a proxy to the object of the individual
+     */
+    private class Deferred implements InvocationHandler, LazyValue {
+        private final URI individual;
+        
+        Deferred(URI individual) {
+            this.individual = individual;
+        }
+        
+        public boolean isLoaded() {
+            return isUnmarshalled(individual);
+        }
+        
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object target = get(individual);
+            if(target == null){
+                throw new IllegalStateException("The individual " + individual + " could not be unmarshalled");
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+    
+    /**
+     * A list unmarshalling its elements on first access
+     */
+    private class LazyList extends AbstractList<Object> implements LazyValue {
+        private final List<Object> values;
+        
+        /** the individuals not yet unmarshalled, {@code null} once they are */
+        private List<URI> targets;
+        
+        LazyList(Collection<?> known, List<URI> targets) {
+            this.values = known == null ? new ArrayList<Object>(targets.size()) : new ArrayList<Object>(known);
+            this.targets = targets;
+        }
+        
+        public boolean isLoaded() {
+            return targets == null;
+        }
+        
+        private List<Object> values(){
+            if(targets != null){
+                List<URI> t = targets;
+                targets = null;
+                materialise(t, values);
+            }
+            return values;
+        }
+        
+        @Override
+        public Object get(int index) {
+            return values().get(index);
+        }
+        
+        @Override
+        public int size() {
+            return values().size();
+        }
+        
+        @Override
+        public Object set(int index, Object element) {
+            return values().set(index, element);
+        }
+        
+        @Override
+        public void add(int index, Object element) {
+            values().add(index, element);
+        }
+        
+        @Override
+        public Object remove(int index) {
+            return values().remove(index);
+        }
+    }
+    
+    /**
+     * A set unmarshalling its elements on first access
+     */
+    private class LazySet extends AbstractSet<Object> implements LazyValue {
+        private final Set<Object> values;
+        
+        /** the individuals not yet unmarshalled, {@code null} once they are */
+        private List<URI> targets;
+        
+        LazySet(Collection<?> known, List<URI> targets) {
+            this.values = known == null ? new LinkedHashSet<Object>() : new LinkedHashSet<Object>(known);
+            this.targets = targets;
+        }
+        
+        public boolean isLoaded() {
+            return targets == null;
+        }
+        
+        private Set<Object> values(){
+            if(targets != null){
+                List<URI> t = targets;
+                targets = null;
+                materialise(t, values);
+            }
+            return values;
+        }
+        
+        @Override
+        public Iterator<Object> iterator() {
+            return values().iterator();
+        }
+        
+        @Override
+        public int size() {
+            return values().size();
+        }
+        
+        @Override
+        public boolean add(Object e) {
+            return values().add(e);
+        }
+    }
+    
+}
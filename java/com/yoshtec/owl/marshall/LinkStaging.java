@@ -0,0 +1,238 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.cf.StagingContext;
+import com.yoshtec.owl.util.UriDictionary;
+
+/**
+ * Keeps the unmarshalled objects and the object property values between
+ * them until the object graph is connected.
+ * <br>
+ * Individuals and properties are interned to int ids once, the links 
+ * themselves are stored column wise in three int arrays (subject, 
+ * property, target). Connecting the graph is then a pass over the 
+ * arrays without looking up any URI.
+ */
+class LinkStaging {
+    
+    /** ids of the individuals, may contain other URIs as well */
+    private final UriDictionary ids;
+    
+    /** objects by individual id, {@code null} if not (yet) unmarshalled */
+    private Object[] objects = new Object[64];
+    
+    /** individuals already unmarshalled, possibly to {@code null} */
+    private final BitSet unmarshalled = new BitSet();
+    
+    /** ids of the properties */
+    private final Map<PropertyAccessor,Integer> propertyIds = new IdentityHashMap<PropertyAccessor,Integer>();
+    private PropertyAccessor[] properties = new PropertyAccessor[16];
+    
+    /** the links */
+    private int[] subjects = new int[256];
+    private int[] predicates = new int[256];
+    private int[] targets = new int[256];
+    private int size = 0;
+    
+    /** the last property used, links are mostly added per property */
+    private PropertyAccessor lastProperty = null;
+    private int lastPropertyId = -1;
+    
+    LinkStaging() {
+        this(new UriDictionary());
+    }
+    
+    /**
+     * @param ids the dictionary numbering the individuals, may be shared 
+     * with the parser of the statements
+     */
+    LinkStaging(UriDictionary ids) {
+        this.ids = ids;
+    }
+    
+    /**
+     * @return the id of the individual 
+     */
+    int intern(URI individual){
+        int id = ids.getId(individual);
+        if(id >= objects.length){
+            objects = Arrays.copyOf(objects, Math.max(id + 1, objects.length * 2));
+        }
+        return id;
+    }
+    
+    private int intern(PropertyAccessor prop){
+        if(prop == lastProperty){
+            return lastPropertyId;
+        }
+        Integer id = propertyIds.get(prop);
+        if(id == null){
+            id = propertyIds.size();
+            propertyIds.put(prop, id);
+            if(id == properties.length){
+                properties = Arrays.copyOf(properties, id * 2);
+            }
+            properties[id] = prop;
+        }
+        lastProperty = prop;
+        lastPropertyId = id;
+        return id;
+    }
+    
+    /**
+     * @return {@code true} if the individual has been unmarshalled already
+     */
+    boolean isUnmarshalled(URI individual){
+        int id = ids.lookup(individual);
+        return id >= 0 && unmarshalled.get(id);
+    }
+    
+    /**
+     * Records the object of an individual
+     * @param obj the object, {@code null} if the individual could not be unmarshalled
+     * @return the id of the individual
+     */
+    int put(URI individual, Object obj){
+        int id = intern(individual);
+        objects[id] = obj;
+        unmarshalled.set(id);
+        return id;
+    }
+    
+    /**
+     * @return the object of the individual or {@code null}
+     */
+    Object get(URI individual){
+        int id = ids.lookup(individual);
+        return id < 0 || id >= objects.length ? null : objects[id];
+    }
+    
+    /**
+     * Adds an object property value, to be set by {@link #resolve(StagingContext)}
+     * @param subject the id of the individual the property belongs to
+     * @param prop the property
+     * @param target the URI of the value
+     */
+    void link(int subject, PropertyAccessor prop, URI target){
+        if(size == subjects.length){
+            int capacity = size * 2;
+            subjects = Arrays.copyOf(subjects, capacity);
+            predicates = Arrays.copyOf(predicates, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+        subjects[size] = subject;
+        predicates[size] = intern(prop);
+        targets[size] = intern(target);
+        size++;
+    }
+    
+    /**
+     * @return the number of links
+     */
+    int size(){
+        return size;
+    }
+    
+    /**
+     * Stages the values of all links with an unmarshalled target, 
+     * links to individuals that were not unmarshalled are dropped. 
+     * The links are removed afterwards.
+     */
+    void resolve(StagingContext ctx){
+        resolve(ctx, null);
+    }
+    
+    /**
+     * Stages the values of all links with an unmarshalled target, 
+     * links to individuals that were not unmarshalled are handed to 
+     * the lazy graph or dropped if there is none.
+     * The links are removed afterwards.
+     * @param lazy the graph setting the remaining links lazily, may be {@code null}
+     */
+    void resolve(StagingContext ctx, LazyGraph lazy){
+        // the links to be set lazily, by subject and property
+        Map<Object,Map<PropertyAccessor,List<URI>>> deferred = new IdentityHashMap<Object,Map<PropertyAccessor,List<URI>>>();
+        for(int i = 0; i < size; i++){
+            Object target = objects[targets[i]];
+            if(target != null){
+                properties[predicates[i]].setOrAddValue(ctx, objects[subjects[i]], target);
+            } else if(lazy != null && !unmarshalled.get(targets[i])){
+                Map<PropertyAccessor,List<URI>> byProperty = deferred.get(objects[subjects[i]]);
+                if(byProperty == null){
+                    byProperty = new LinkedHashMap<PropertyAccessor,List<URI>>();
+                    deferred.put(objects[subjects[i]], byProperty);
+                }
+                List<URI> uris = byProperty.get(properties[predicates[i]]);
+                if(uris == null){
+                    uris = new ArrayList<URI>();
+                    byProperty.put(properties[predicates[i]], uris);
+                }
+                uris.add(ids.getUri(targets[i]));
+            }
+        }
+        for(Map.Entry<Object,Map<PropertyAccessor,List<URI>>> subject : deferred.entrySet()){
+            for(Map.Entry<PropertyAccessor,List<URI>> prop : subject.getValue().entrySet()){
+                lazy.link(ctx, subject.getKey(), prop.getKey(), prop.getValue());
+            }
+        }
+        size = 0;
+        subjects = new int[16];
+        predicates = new int[16];
+        targets = new int[16];
+    }
+    
+    /**
+     * @return the unmarshalled objects by individual, {@code null} for
+     * individuals that could not be unmarshalled 
+     */
+    Map<URI,Object> getUnmarshalled(){
+        Map<URI,Object> result = new HashMap<URI,Object>(unmarshalled.cardinality() * 2);
+        for(int id = unmarshalled.nextSetBit(0); id >= 0; id = unmarshalled.nextSetBit(id + 1)){
+            result.put(ids.getUri(id), objects[id]);
+        }
+        return result;
+    }
+    
+    /**
+     * @return the unmarshalled objects, without {@code null}s 
+     */
+    List<Object> getObjects(){
+        List<Object> result = new ArrayList<Object>(unmarshalled.cardinality());
+        for(int id = unmarshalled.nextSetBit(0); id >= 0; id = unmarshalled.nextSetBit(id + 1)){
+            if(objects[id] != null){
+                result.add(objects[id]);
+            }
+        }
+        return result;
+    }
+    
+}
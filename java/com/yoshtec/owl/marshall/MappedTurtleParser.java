@@ -0,0 +1,771 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.util.UriDictionary;
+
+/**
+ * Reads N-Triples and Turtle from a memory mapped file and hands every
+ * statement to a {@link TripleHandler}. 
+ * <br>
+ * The tokenizer works directly on the bytes of the mapping, neither lines 
+ * nor tokens are copied, only literals and URIs seen for the first time are 
+ * decoded. URIs are cached by their bytes, so the predicates and classes 
+ * repeated throughout a dump are not decoded again.
+ * <br>
+ * Files larger than the mapping window are mapped window by window, a 
+ * statement crossing the end of a window is parsed again from its start 
+ * in the next window. The triples of a statement are handed on only after 
+ * the statement is complete.
+ * <br>
+ * Like in the {@link NTriplesParser} statements containing blank nodes are 
+ * skipped, blank node property lists and collections are parsed and ignored.
+ * Language tags are not kept.
+ */
+class MappedTurtleParser {
+    
+    static private final Logger log = LoggerFactory.getLogger(MappedTurtleParser.class);
+    
+    /** default size of the mapped windows */
+    static final int DEFAULT_WINDOW = 1 << 28;
+    
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+    
+    private static final URI XSD_INTEGER = XsdType.INTEGER.getUri();
+    private static final URI XSD_DECIMAL = XsdType.DECIMAL.getUri();
+    private static final URI XSD_DOUBLE = XsdType.DOUBLE.getUri();
+    private static final URI XSD_BOOLEAN = XsdType.BOOLEAN.getUri();
+    
+    private static final int EOF = -1;
+    
+    private final TripleHandler handler;
+    private final int window;
+    
+    /** creates the URIs */
+    private final UriDictionary uris;
+    
+    private FileChannel channel;
+    private long size;
+    
+    /** offset of the current window in the file */
+    private long base;
+    private MappedByteBuffer buf;
+    private int pos;
+    private int limit;
+    
+    private final Map<String,String> prefixes = new HashMap<String,String>();
+    private URI baseUri = null;
+    
+    /** URIs by the bytes of IRI references and of prefixed names */
+    private final UriCache iris = new UriCache();
+    private final UriCache names = new UriCache();
+    
+    /** buffer for decoding */
+    private byte[] scratch = new byte[256];
+    
+    /** the triples of the current statement, literals have no object */
+    private int count = 0;
+    private URI[] subjects = new URI[16];
+    private URI[] predicates = new URI[16];
+    private URI[] objects = new URI[16];
+    private String[] literals = new String[16];
+    private URI[] dataTypes = new URI[16];
+    
+    MappedTurtleParser(TripleHandler handler) {
+        this(handler, DEFAULT_WINDOW);
+    }
+    
+    /**
+     * @param window the maximum size of the mapped windows, also the 
+     * maximum size of a statement
+     */
+    MappedTurtleParser(TripleHandler handler, int window) {
+        this(handler, window, new UriDictionary());
+    }
+    
+    /**
+     * @param window the maximum size of the mapped windows
+     * @param uris creates the URIs missed by the cache, may be shared with the handler
+     */
+    MappedTurtleParser(TripleHandler handler, int window, UriDictionary uris) {
+        this.handler = handler;
+        this.window = window;
+        this.uris = uris;
+    }
+    
+    /**
+     * Parses all statements of the file
+     */
+    void parse(File file) throws IOException, UnmarshalException {
+        RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            channel = raf.getChannel();
+            size = channel.size();
+            map(0);
+            while(true){
+                int start = pos;
+                try {
+                    skipWhitespace();
+                    if(peek() == EOF){
+                        break;
+                    }
+                    count = 0;
+                    parseStatement();
+                } catch (Underflow u) {
+                    if(start == 0){
+                        throw new UnmarshalException("Statement larger than " + window + " bytes at byte " + base);
+                    }
+                    map(base + start);
+                    continue;
+                }
+                flush();
+            }
+        } finally {
+            buf = null;
+            channel = null;
+            raf.close();
+        }
+        handler.end();
+    }
+    
+    private void map(long offset) throws IOException {
+        long len = Math.min(window, size - offset);
+        log.debug("Mapping {} bytes at {}", len, offset);
+        buf = channel.map(FileChannel.MapMode.READ_ONLY, offset, len);
+        base = offset;
+        limit = (int)len;
+        pos = 0;
+    }
+    
+    /*
+     * Grammar
+     */
+    
+    private void parseStatement() throws UnmarshalException {
+        int c = peek();
+        if(c == '@'){
+            pos++;
+            if(keyword("prefix", false)){
+                prefixDirective();
+            } else if(keyword("base", false)){
+                baseDirective();
+            } else {
+                throw error("Unknown directive");
+            }
+            skipWhitespace();
+            expect('.');
+            return;
+        }
+        if(keyword("PREFIX", true)){
+            prefixDirective();
+            return;
+        }
+        if(keyword("BASE", true)){
+            baseDirective();
+            return;
+        }
+        
+        URI subject;
+        boolean list = false;
+        if(c == '['){
+            blankNodePropertyList();
+            subject = null;
+            list = true;
+        } else {
+            subject = subject();
+        }
+        skipWhitespace();
+        if(!list || peek() != '.'){
+            predicateObjectList(subject);
+            skipWhitespace();
+        }
+        expect('.');
+    }
+    
+    private void prefixDirective() throws UnmarshalException {
+        skipWhitespace();
+        int start = pos;
+        while(peek() != ':'){
+            if(peek() == EOF || isWhitespace(peek())){
+                throw error("Expected a prefix");
+            }
+            pos++;
+        }
+        String prefix = decode(start, pos++);
+        skipWhitespace();
+        prefixes.put(prefix, iri().toString());
+        names.clear();
+    }
+    
+    private void baseDirective() throws UnmarshalException {
+        skipWhitespace();
+        baseUri = iri();
+        iris.clear();
+        names.clear();
+    }
+    
+    /**
+     * @return the subject or {@code null} for blank nodes
+     */
+    private URI subject() throws UnmarshalException {
+        int c = peek();
+        if(c == '<'){
+            return iri();
+        }
+        if(c == '_'){
+            blankNodeLabel();
+            return null;
+        }
+        if(c == '('){
+            collection();
+            return null;
+        }
+        return prefixedName();
+    }
+    
+    private void predicateObjectList(URI subject) throws UnmarshalException {
+        while(true){
+            URI predicate = verb();
+            skipWhitespace();
+            objectList(subject, predicate);
+            skipWhitespace();
+            if(peek() != ';'){
+                return;
+            }
+            while(peek() == ';'){
+                pos++;
+                skipWhitespace();
+            }
+            int c = peek();
+            if(c == '.' || c == ']' || c == EOF){
+                return;
+            }
+        }
+    }
+    
+    private URI verb() throws UnmarshalException {
+        if(peek() == 'a' && isDelimiter(peekAt(1))){
+            pos++;
+            return TripleWriter.RDF_TYPE;
+        }
+        if(peek() == '<'){
+            return iri();
+        }
+        return prefixedName();
+    }
+    
+    private void objectList(URI subject, URI predicate) throws UnmarshalException {
+        while(true){
+            object(subject, predicate);
+            skipWhitespace();
+            if(peek() != ','){
+                return;
+            }
+            pos++;
+            skipWhitespace();
+        }
+    }
+    
+    private void object(URI subject, URI predicate) throws UnmarshalException {
+        int c = peek();
+        switch (c) {
+        case '<':
+            resource(subject, predicate, iri());
+            return;
+        case '_':
+            blankNodeLabel();
+            return;
+        case '[':
+            blankNodePropertyList();
+            return;
+        case '(':
+            collection();
+            return;
+        case '"':
+        case '\'':
+            literal(subject, predicate);
+            return;
+        }
+        if(isDigit(c) || c == '+' || c == '-' || c == '.'){
+            numeric(subject, predicate);
+        } else if(keyword("true", false)){
+            literal(subject, predicate, "true", XSD_BOOLEAN);
+        } else if(keyword("false", false)){
+            literal(subject, predicate, "false", XSD_BOOLEAN);
+        } else {
+            resource(subject, predicate, prefixedName());
+        }
+    }
+    
+    private void blankNodeLabel() {
+        while(!isDelimiter(peek())){
+            pos++;
+        }
+        log.debug("Skipping blank node at byte {}", base + pos);
+    }
+    
+    private void blankNodePropertyList() throws UnmarshalException {
+        expect('[');
+        skipWhitespace();
+        if(peek() != ']'){
+            predicateObjectList(null);
+            skipWhitespace();
+        }
+        expect(']');
+    }
+    
+    private void collection() throws UnmarshalException {
+        expect('(');
+        skipWhitespace();
+        while(peek() != ')'){
+            if(peek() == EOF){
+                throw error("Unterminated collection");
+            }
+            object(null, null);
+            skipWhitespace();
+        }
+        pos++;
+    }
+    
+    /**
+     * Reads an IRI reference, relative ones are resolved against the base 
+     */
+    private URI iri() throws UnmarshalException {
+        expect('<');
+        int start = pos;
+        int hash = 0;
+        boolean escaped = false;
+        int c;
+        while((c = next()) != '>'){
+            if(c == EOF || c == '\n'){
+                throw error("Unterminated URI");
+            }
+            if(c == '\\'){
+                escaped = true;
+            }
+            hash = 31 * hash + (byte)c;
+        }
+        int end = pos - 1;
+        
+        URI uri = iris.get(buf, start, end, hash);
+        if(uri == null){
+            String s = decode(start, end);
+            if(escaped){
+                s = unescape(s);
+            }
+            uri = createUri(s);
+            iris.put(buf, start, end, hash, uri);
+        }
+        return uri;
+    }
+    
+    private URI prefixedName() throws UnmarshalException {
+        int start = pos;
+        boolean escaped = false;
+        int c;
+        while(isNameChar(c = peek())){
+            if(c == '\\'){
+                escaped = true;
+                pos++;
+            }
+            pos++;
+        }
+        // a name does not end with a dot, it ends the statement 
+        while(pos > start && buf.get(pos - 1) == '.' && (pos - 2 < start || buf.get(pos - 2) != '\\')){
+            pos--;
+        }
+        if(pos == start){
+            throw error("Expected a URI");
+        }
+        int hash = 0;
+        for(int i = start; i < pos; i++){
+            hash = 31 * hash + buf.get(i);
+        }
+        
+        URI uri = names.get(buf, start, pos, hash);
+        if(uri == null){
+            String name = decode(start, pos);
+            int colon = name.indexOf(':');
+            if(colon < 0){
+                throw error("Expected a URI");
+            }
+            String ns = prefixes.get(name.substring(0, colon));
+            if(ns == null){
+                throw error("Unknown prefix '" + name.substring(0, colon) + "'");
+            }
+            String local = name.substring(colon + 1);
+            if(escaped){
+                local = local.replaceAll("\\\\(.)", "$1");
+            }
+            uri = createUri(ns + local);
+            names.put(buf, start, pos, hash, uri);
+        }
+        return uri;
+    }
+    
+    private void literal(URI subject, URI predicate) throws UnmarshalException {
+        int quote = next();
+        boolean isLong = false;
+        if(peek() == quote){
+            pos++;
+            if(peek() != quote){
+                // the empty string
+                literalSuffix(subject, predicate, "");
+                return;
+            }
+            pos++;
+            isLong = true;
+        }
+        
+        int start = pos;
+        boolean escaped = false;
+        int end;
+        while(true){
+            int c = next();
+            if(c == EOF || (!isLong && c == '\n')){
+                throw error("Unterminated literal");
+            }
+            if(c == '\\'){
+                escaped = true;
+                pos++;
+            } else if(c == quote){
+                if(!isLong){
+                    end = pos - 1;
+                    break;
+                } 
+                if(peek() == quote && peekAt(1) == quote){
+                    end = pos - 1;
+                    pos += 2;
+                    break;
+                }
+            }
+        }
+        
+        String value = decode(start, end);
+        if(escaped){
+            value = unescape(value);
+        }
+        literalSuffix(subject, predicate, value);
+    }
+    
+    private void literalSuffix(URI subject, URI predicate, String value) throws UnmarshalException {
+        URI dataType = null;
+        if(peek() == '@'){
+            // language tags are not kept
+            pos++;
+            while(isLetterOrDigit(peek()) || peek() == '-'){
+                pos++;
+            }
+        } else if(peek() == '^'){
+            pos++;
+            expect('^');
+            dataType = peek() == '<' ? iri() : prefixedName();
+        }
+        literal(subject, predicate, value, dataType);
+    }
+    
+    private void numeric(URI subject, URI predicate) throws UnmarshalException {
+        int start = pos;
+        URI dataType = XSD_INTEGER;
+        if(peek() == '+' || peek() == '-'){
+            pos++;
+        }
+        while(isDigit(peek())){
+            pos++;
+        }
+        if(peek() == '.' && isDigit(peekAt(1))){
+            dataType = XSD_DECIMAL;
+            pos++;
+            while(isDigit(peek())){
+                pos++;
+            }
+        }
+        if(peek() == 'e' || peek() == 'E'){
+            dataType = XSD_DOUBLE;
+            pos++;
+            if(peek() == '+' || peek() == '-'){
+                pos++;
+            }
+            while(isDigit(peek())){
+                pos++;
+            }
+        }
+        if(pos == start || !isDigit(buf.get(pos - 1))){
+            throw error("Invalid number");
+        }
+        literal(subject, predicate, decode(start, pos), dataType);
+    }
+    
+    /*
+     * Triples of the current statement
+     */
+    
+    private void resource(URI subject, URI predicate, URI object){
+        if(subject != null && predicate != null){
+            add(subject, predicate, object, null, null);
+        }
+    }
+    
+    private void literal(URI subject, URI predicate, String literal, URI dataType){
+        if(subject != null && predicate != null){
+            add(subject, predicate, null, literal, dataType);
+        }
+    }
+    
+    private void add(URI subject, URI predicate, URI object, String literal, URI dataType){
+        if(count == subjects.length){
+            int n = count * 2;
+            subjects = copy(subjects, n);
+            predicates = copy(predicates, n);
+            objects = copy(objects, n);
+            dataTypes = copy(dataTypes, n);
+            String[] l = new String[n];
+            System.arraycopy(literals, 0, l, 0, count);
+            literals = l;
+        }
+        subjects[count] = subject;
+        predicates[count] = predicate;
+        objects[count] = object;
+        literals[count] = literal;
+        dataTypes[count] = dataType;
+        count++;
+    }
+    
+    private static URI[] copy(URI[] a, int n){
+        URI[] c = new URI[n];
+        System.arraycopy(a, 0, c, 0, a.length);
+        return c;
+    }
+    
+    private void flush() throws UnmarshalException {
+        for(int i = 0; i < count; i++){
+            if(objects[i] != null){
+                handler.resource(subjects[i], predicates[i], objects[i]);
+            } else {
+                handler.literal(subjects[i], predicates[i], literals[i], dataTypes[i]);
+            }
+            literals[i] = null;
+        }
+        count = 0;
+    }
+    
+    /*
+     * Tokenizer
+     */
+    
+    /**
+     * @return the current byte, {@link #EOF} at the end of the file
+     * @throws Underflow at the end of a window that is not the last one
+     */
+    private int peek(){
+        return peekAt(0);
+    }
+    
+    private int peekAt(int offset){
+        int p = pos + offset;
+        if(p < limit){
+            return buf.get(p) & 0xff;
+        }
+        if(base + p >= size){
+            return EOF;
+        }
+        throw Underflow.INSTANCE;
+    }
+    
+    private int next(){
+        int c = peek();
+        pos++;
+        return c;
+    }
+    
+    private void expect(char c) throws UnmarshalException {
+        if(peek() != c){
+            throw error("Expected '" + c + "'");
+        }
+        pos++;
+    }
+    
+    /**
+     * Consumes the keyword if it is followed by a delimiter
+     */
+    private boolean keyword(String word, boolean ignoreCase){
+        int len = word.length();
+        for(int i = 0; i < len; i++){
+            int c = peekAt(i);
+            char w = word.charAt(i);
+            if(c != w && !(ignoreCase && Character.toUpperCase((char)c) == w)){
+                return false;
+            }
+        }
+        if(!isDelimiter(peekAt(len))){
+            return false;
+        }
+        pos += len;
+        return true;
+    }
+    
+    /**
+     * Skips white space and comments
+     */
+    private void skipWhitespace(){
+        while(true){
+            int c = peek();
+            if(isWhitespace(c)){
+                pos++;
+            } else if(c == '#'){
+                while(c != '\n' && c != EOF){
+                    pos++;
+                    c = peek();
+                }
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private String decode(int start, int end){
+        int len = end - start;
+        if(scratch.length < len){
+            scratch = new byte[Math.max(len, scratch.length * 2)];
+        }
+        for(int i = 0; i < len; i++){
+            scratch[i] = buf.get(start + i);
+        }
+        return new String(scratch, 0, len, UTF8);
+    }
+    
+    private String unescape(String s) throws UnmarshalException {
+        try {
+            return NTriplesParser.unescape(s);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+    
+    private URI createUri(String s) throws UnmarshalException {
+        try {
+            URI uri = uris.intern(s);
+            if(baseUri != null && !uri.isAbsolute()){
+                return uris.intern(baseUri.resolve(uri));
+            }
+            return uri;
+        } catch (IllegalArgumentException e) {
+            throw error("Invalid URI " + s);
+        }
+    }
+    
+    private static boolean isWhitespace(int c){
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+    
+    private static boolean isDigit(int c){
+        return c >= '0' && c <= '9';
+    }
+    
+    private static boolean isLetterOrDigit(int c){
+        return isDigit(c) || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+    
+    private static boolean isNameChar(int c){
+        return isLetterOrDigit(c) || c >= 0x80 
+            || c == '_' || c == '-' || c == ':' || c == '.' || c == '%' || c == '\\';
+    }
+    
+    private static boolean isDelimiter(int c){
+        return c == EOF || isWhitespace(c) || c == '<' || c == '"' || c == '\'' 
+            || c == ';' || c == ',' || c == '.' || c == '[' || c == ']' || c == '(' || c == ')' || c == '#';
+    }
+    
+    private UnmarshalException error(String msg){
+        return new UnmarshalException(msg + " at byte " + (base + pos));
+    }
+    
+    /**
+     * Thrown when a statement continues beyond the current window. 
+     */
+    private static final class Underflow extends RuntimeException {
+        private static final long serialVersionUID = -1702398162785622817L;
+        
+        static final Underflow INSTANCE = new Underflow();
+        
+        private Underflow() {
+            super(null, null, false, false);
+        }
+    }
+    
+    /**
+     * A direct mapped cache of URIs by the bytes they were read from
+     */
+    private static final class UriCache {
+        private static final int SIZE = 1024;
+        
+        private final byte[][] keys = new byte[SIZE][];
+        private final URI[] uris = new URI[SIZE];
+        
+        private static int index(int hash){
+            return (hash ^ (hash >>> 16)) & (SIZE - 1);
+        }
+        
+        URI get(MappedByteBuffer buf, int start, int end, int hash){
+            int i = index(hash);
+            byte[] key = keys[i];
+            if(key == null || key.length != end - start){
+                return null;
+            }
+            for(int j = 0; j < key.length; j++){
+                if(key[j] != buf.get(start + j)){
+                    return null;
+                }
+            }
+            return uris[i];
+        }
+        
+        void put(MappedByteBuffer buf, int start, int end, int hash, URI uri){
+            int i = index(hash);
+            byte[] key = new byte[end - start];
+            for(int j = 0; j < key.length; j++){
+                key[j] = buf.get(start + j);
+            }
+            keys[i] = key;
+            uris[i] = uri;
+        }
+        
+        void clear(){
+            for(int i = 0; i < SIZE; i++){
+                keys[i] = null;
+                uris[i] = null;
+            }
+        }
+    }
+}
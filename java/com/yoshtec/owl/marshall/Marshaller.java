@@ -19,22 +19,32 @@
  */
 package com.yoshtec.owl.marshall;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
+import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
-import java.util.Calendar;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.GregorianCalendar;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
-import java.util.Stack;
-
-import javax.xml.bind.DatatypeConverter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import org.semanticweb.owl.apibinding.OWLManager;
 import org.semanticweb.owl.io.OWLOntologyOutputTarget;
 import org.semanticweb.owl.io.WriterOutputTarget;
+import org.semanticweb.owl.model.AddAxiom;
+import org.semanticweb.owl.model.OWLAxiom;
 import org.semanticweb.owl.model.OWLClass;
 import org.semanticweb.owl.model.OWLConstant;
 import org.semanticweb.owl.model.OWLDataFactory;
@@ -44,6 +54,7 @@ import org.semanticweb.owl.model.OWLIndividual;
 import org.semanticweb.owl.model.OWLObjectProperty;
 import org.semanticweb.owl.model.OWLObjectPropertyAssertionAxiom;
 import org.semanticweb.owl.model.OWLOntology;
+import org.semanticweb.owl.model.OWLOntologyChange;
 import org.semanticweb.owl.model.OWLOntologyChangeException;
 import org.semanticweb.owl.model.OWLOntologyCreationException;
 import org.semanticweb.owl.model.OWLOntologyManager;
@@ -53,11 +64,18 @@ import org.semanticweb.owl.util.SimpleURIMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import uk.ac.manchester.cs.owl.OWLDataFactoryImpl;
+
+import com.yoshtec.owl.LiteralCodec;
+import com.yoshtec.owl.LiteralCodecRegistry;
 import com.yoshtec.owl.XsdType;
 import com.yoshtec.owl.XsdTypeMapper;
 import com.yoshtec.owl.cf.ClassFacade;
 import com.yoshtec.owl.cf.ClassFacadeFactory;
+import com.yoshtec.owl.cf.PrimitivePropertyAccessor;
 import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.util.IdentityVisitedMap;
+import com.yoshtec.owl.util.UriDictionary;
 
 /**
  * Marshalls annotated Java beans to Ontologies
@@ -85,23 +103,41 @@ public class Marshaller {
 
 	/** Ontology Data factory */
 	private OWLDataFactory factory = null;
-		
-	/** Often used xsd:string */
-	private OWLDataType owlString = null; 
 	
 	/** Maps Java classes to xsd types and vice versa */
 	private XsdTypeMapper typeMapper = new XsdTypeMapper();
 	
-	/** List of already marshaled Objects */
-	private Map<Object,OWLIndividual> visitedObjects = null;
-
-	/** Object where the OWL object properties are not yet marshaled */
-	private Stack<Object> missingObjectProps = null;
-	
 	/** already used and prepared classes */
-	private Map<Class<?>,ClassFacade> classes = new HashMap<Class<?>,ClassFacade>();
+	private ConcurrentMap<Class<?>,ClassFacade> classes = new ConcurrentHashMap<Class<?>,ClassFacade>();
+	
+	/** the factory set explicitly, if {@code null} the shared one for the type mapper is used */
+	private ClassFacadeFactory cfFactory = null;
+	
+	/** converts the values to literals, {@code null} for the default codecs of the type mapper */
+	private LiteralCodecRegistry literalCodecs = null;
+	
+	/** the data type, printer and OWL entities resolved per data property */
+	private final ConcurrentMap<PropertyAccessor,DataPropertyBinding> bindings = new ConcurrentHashMap<PropertyAccessor,DataPropertyBinding>();
+	
+	/** number of axioms collected before they are applied to the ontology, 
+	 * values smaller than 2 disable batching */
+	private int batchSize = 0;
+	
+	/** axioms not yet applied to the ontology */
+	private List<OWLOntologyChange> pendingChanges = null;
+	
+	/** if visited objects are compared by identity instead of equals */
+	private boolean identityTracking = false;
+	
+	/** bounds the traversal of the object graph, {@code null} for no bounds */
+	private TraversalPolicy traversalPolicy = null;
 	
-	private ClassFacadeFactory cfFactory;
+	/** a subclass overrides {@link #printValue(Object)}, so every literal is printed by it */
+	private final boolean printValueOverridden = overridesPrintValue(getClass());
+	
+	/** number of partitions per thread in parallel marshalling, allows 
+	 * the pool to balance partitions with differently sized object graphs */
+	private static final int PARTITIONS_PER_THREAD = 4;
 	
 	/**
 	 * Creates a new Marshaller to serialize annotated Java objects to 
@@ -116,9 +152,6 @@ public class Marshaller {
 		// to a data factory that we can use.
 		factory = manager.getOWLDataFactory();
 		
-		// setting default string data type 
-		owlString = factory.getOWLDataType(XsdType.STRING.getUri());
-		
 		resetObjects();
 	}
 	
@@ -137,13 +170,11 @@ public class Marshaller {
 	
 	/**
 	 * Rests local working Structures:
-	 * meaning clears the visited Objects HashMap and the still 
-	 * not marshaled object properties for the iterative marshaling.
+	 * meaning clears the axioms still pending for the ontology.
 	 * 
 	 */
 	private void resetObjects(){
-		this.visitedObjects = new HashMap<Object, OWLIndividual>();
-		this.missingObjectProps = new Stack<Object>();
+		this.pendingChanges = (batchSize > 1 ? new ArrayList<OWLOntologyChange>(batchSize) : null);
 	}
 	
 	public OWLOntology marshal(Collection<?> objects, URI ontologyUri) throws MarshalException {
@@ -244,6 +275,79 @@ public class Marshaller {
 		return this.ontology;
 	}
 	
+	/**
+	 * Streams the Objects passed to the output without building an 
+	 * {@link OWLOntology} in memory. The class assertions and property 
+	 * values of an object are written as soon as the object is visited, 
+	 * so the memory needed is bounded by the set of visited objects and 
+	 * not by the number of axioms.
+	 * <br>
+	 * Besides the ontology header, the imports and the declarations of the 
+	 * used classes and properties only the individuals will be written.
+	 * 
+	 * @param objects Objects to be written
+	 * @param ontologyURI The URI of the Ontology, relative URIs will be resolved against it 
+	 * @param output the output to write to, will be flushed but not closed
+	 * @param format the RDF serialization to write
+	 * @param deep if the object graph should be traversed or not, if it is not traversed only the uris of the
+     * object Properties will be filled in.
+	 * @throws MarshalException if the marshalling or writing failed
+	 */
+	public void marshal(Collection<?> objects, URI ontologyURI, Writer output, RdfFormat format, boolean deep) throws MarshalException {
+		if(objects == null)
+			throw new IllegalArgumentException("No Objects to be marshaled");
+		if(ontologyURI == null)
+			throw new IllegalArgumentException("No ontologyURI specified");
+		if(output == null)
+			throw new IllegalArgumentException("Writer cannot be null");
+		if(format == null)
+			throw new IllegalArgumentException("No format specified");
+		
+		TripleWriter out = TripleWriter.create(format, output, ontologyURI);
+		try {
+			out.startDocument();
+			new StreamWalker(out).walk(objects, deep);
+			out.endDocument();
+		} catch (IOException e) {
+			throw new MarshalException("Unable to write ontology to output", e);
+		}
+	}
+	
+	/**
+	 * Writes the Objects passed in a compact binary format. Like the 
+	 * streaming marshalling no {@link OWLOntology} is built, but URIs are 
+	 * written only once and referenced by number afterwards, and values of
+	 * numeric and boolean properties are written as binary numbers. 
+	 * <br>
+	 * The output can be read with {@link UnMarshaller#unmarshal(java.io.InputStream, UnmarshalListener)}
+	 * or converted to an ontology with {@link BinaryGraphConverter}. 
+	 * 
+	 * @param objects Objects to be written
+	 * @param ontologyURI The URI of the Ontology
+	 * @param output the output to write to, will be flushed but not closed
+	 * @param deep if the object graph should be traversed or not, if it is not traversed only the uris of the
+	 * object Properties will be filled in.
+	 * @throws MarshalException if the marshalling or writing failed
+	 */
+	public void marshal(Collection<?> objects, URI ontologyURI, OutputStream output, boolean deep) throws MarshalException {
+		if(objects == null)
+			throw new IllegalArgumentException("No Objects to be marshaled");
+		if(ontologyURI == null)
+			throw new IllegalArgumentException("No ontologyURI specified");
+		if(output == null)
+			throw new IllegalArgumentException("OutputStream cannot be null");
+		
+		UriDictionary uris = newUriDictionary();
+		BinaryGraphWriter out = new BinaryGraphWriter(output, ontologyURI, uris);
+		try {
+			out.startDocument();
+			new BinaryWalker(out, uris).walk(objects, deep);
+			out.endDocument();
+		} catch (IOException e) {
+			throw new MarshalException("Unable to write ontology to output", e);
+		}
+	}
+	
 	/**
 	 * Convenience Method for {@code marshal(objects, onto, true)}
      * @param objects the objects to be marshaled
@@ -280,64 +384,94 @@ public class Marshaller {
 	}
 	
 	/**
-	 * @param o
-	 * @return A class facade able to handle the Object {@code o}
-	 * @throws Exception
+	 * Marshals the objects into the passed ontology, partitioning the root 
+	 * objects across a {@link ForkJoinPool} with {@code parallelism} threads.
+	 * Objects shared between the partitions are tracked in a concurrent 
+	 * visited set and thus only marshaled once. The axioms created by the 
+	 * partitions are merged into the ontology after all partitions are done.
+	 * <br>
+	 * The order of the individuals in the ontology may differ from the 
+	 * sequential marshalling, the resulting set of axioms does not.
+	 * 
+	 * @param objects the objects to be marshaled
+	 * @param onto the ontology to be marshaled to
+	 * @param deep if the object graph should be traversed or not, if it is not traversed only the uris of the
+	 * object Properties will be filled in.
+	 * @param parallelism number of threads to use, values smaller than 2 will
+	 * marshal sequentially
+	 * @return the ontology passed
+	 * @throws MarshalException if the marshalling failed
 	 */
-	private ClassFacade getClassFacade(Object o) throws OWLOntologyChangeException {
-		ClassFacade cf = classes.get(o.getClass()); 
-		if( cf == null ){
-			cf = getCfFactory().createClassFacade(o.getClass());
-			classes.put(o.getClass(), cf);
-			
-			// Base Uri of the Package
-			manager.addAxiom(ontology, factory.getOWLImportsDeclarationAxiom(ontology, cf.getOntoBaseUri()));
+	public OWLOntology marshal(Collection<?> objects, OWLOntology onto, boolean deep, int parallelism) throws MarshalException {
+		if(parallelism < 2){
+			return marshal(objects, onto, deep);
+		}
+		if(objects == null)
+			throw new IllegalArgumentException("No Objects to be marshaled");
+		if(onto == null)
+			throw new IllegalArgumentException("Ontology shall not be null");
+		
+		this.ontology = onto;
+		
+		resetObjects();
+		
+		// make sure the factory exists before the workers start
+		getCfFactory();
+		
+		List<Object> roots = new ArrayList<Object>(objects);
+		Map<Object, OWLIndividual> visited = identityTracking 
+				? Collections.synchronizedMap(new IdentityVisitedMap<OWLIndividual>()) 
+				: new ConcurrentHashMap<Object, OWLIndividual>();
+		Queue<List<OWLAxiom>> results = new ConcurrentLinkedQueue<List<OWLAxiom>>();
+		int threshold = Math.max(1, roots.size() / (parallelism * PARTITIONS_PER_THREAD));
+		
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new PartitionTask(roots, 0, roots.size(), threshold, visited, results, deep));
+		} catch (RuntimeException e) {
+			// find the originating marshal exception
+			for(Throwable t = e; t != null; t = t.getCause()){
+				if(t instanceof MarshalException){
+					throw (MarshalException)t;
+				}
+			}
+			throw new MarshalException("Error in parallel marshalling", e);
+		} finally {
+			pool.shutdown();
+		}
+		
+		// merge the axioms of the partitions
+		try {
+			for(List<OWLAxiom> axioms : results){
+				List<OWLOntologyChange> changes = new ArrayList<OWLOntologyChange>(axioms.size());
+				for(OWLAxiom axiom : axioms){
+					changes.add(new AddAxiom(ontology, axiom));
+				}
+				manager.applyChanges(changes);
+			}
+		} catch (OWLOntologyChangeException e) {
+			throw new MarshalException("Unable to merge the marshaled axioms into the ontology", e);
 		}
-		return cf;
+		
+		return ontology;
 	}
 	
 	/**
-	 * @return the {@link OWLIndividual} for the parameter {@code o}
+	 * @return a new map for the visited objects of a sequential walk
 	 */
-	private OWLIndividual getOWLIndividual(Object o, boolean deep) throws OWLOntologyChangeException, MarshalException {
-	
-		if(!visitedObjects.containsKey(o)){
-			
-			ClassFacade cf = getClassFacade(o);
-
-			// Individual creation
-			URI induri = URI.create("#" + cf.getIdString(o));
-			OWLIndividual ind = factory.getOWLIndividual(induri);
-	
-			// add the visited Object
-			visitedObjects.put(o, ind);
-			
-			// add the Class URIs 
-			for(URI uri : cf.getClassUris()){
-				if( uri != null){
-				    OWLClass ocls = factory.getOWLClass(uri);
-				    manager.addAxiom(ontology, factory.getOWLClassAssertionAxiom(ind, ocls));
-				}
-			}
-
-            // Data Properties
-            for(PropertyAccessor prop : cf.getDataProperties()){
-                try {
-                    addDataProperty(prop.getValue(o), ind, prop);
-                } catch (IllegalAccessException e) {
-                    throw new MarshalException("Error in accessing object values from object " + o + " data property: " + prop.getPropUri(), e);
-                } catch (InvocationTargetException e) {
-                    throw new MarshalException("Error in accessing object values from object " + o + " data property: " + prop.getPropUri(), e);
-                }
-            }
-			
-			// only if deep is set we will descend further in the object graph
-			if(deep){
-    			// Object Property still missing
-    			this.missingObjectProps.push(o);
-			}
+	private <I> Map<Object, I> newVisitedMap(){
+		if(identityTracking){
+			return new IdentityVisitedMap<I>();
 		}
-		return visitedObjects.get(o);
+		return new HashMap<Object, I>();
+	}
+	
+	/**
+	 * @return a new dictionary for the individual URIs of a walk, 
+	 * the class and property URIs are the ones of the facades
+	 */
+	private static UriDictionary newUriDictionary(){
+		return new UriDictionary(ClassFacadeFactory.getSchemaUris());
 	}
 	
 	/**
@@ -349,146 +483,839 @@ public class Marshaller {
 		if( objects == null )
 			return; //nothing to to!
 
+		AxiomWalker walker = new AxiomWalker(factory, this.<OWLIndividual>newVisitedMap());
+		walker.walk(objects, deep);
+		
 		try {
-			// two Phase system
-
-		    // first marshal the plain currently known objects
-		    for(Object obj : objects){
-		        if( obj != null ){ // sort nasty nulls out
-		            // this will add for every unknown object a missing object prop
-		            getOWLIndividual(obj, true);
-		        }
-		    }
-
-			// then fill in the missing object properties
-			// while also following the object graph and 
-			// discover new missing Individuals with its Object props 
-			while(!missingObjectProps.isEmpty()){
-
-				Object obj = missingObjectProps.pop();
-
-				ClassFacade cf = getClassFacade(obj);
-
-				OWLIndividual ind = getOWLIndividual(obj, deep);
-
-				// Object Properties 
-				for(PropertyAccessor prop : cf.getObjectProperties()){
-					try{
-						addObjectProperty(prop.getValue(obj), ind, prop, deep);
-					} catch (InvocationTargetException e) {
-						throw new MarshalException("Error in accessing object values from object " + obj + " property: " + prop.getPropUri(), e);
-					} catch (IllegalAccessException e) {
-						throw new MarshalException("Error in accessing object values from object " + obj + " property: " + prop.getPropUri(), e);
+			// apply the remaining batched axioms
+			flushChanges();
+		} catch (OWLOntologyChangeException e) {
+			throw new MarshalException(e);
+		}
+	}
+	
+	/**
+	 * Walks the object graph and hands the class assertions and property values 
+	 * of the visited objects on. The sequential marshalling uses one walker, 
+	 * the parallel marshalling one walker per partition of the root objects
+	 * and the streaming marshalling writes the values directly to the output.
+	 * 
+	 * @param <I> the representation of an individual
+	 */
+	private abstract class Walker<I> {
+		
+		/** List of already marshaled Objects, may be shared between walkers */
+		private final Map<Object,I> visitedObjects;
+
+		/** Object where the OWL object properties are not yet marshaled */
+		private final ArrayDeque<Missing> missingObjectProps = new ArrayDeque<Missing>();
+		
+		/** the URIs of the individuals */
+		final UriDictionary uris;
+		
+		/** bounds the traversal, {@code null} for none */
+		private final TraversalPolicy policy;
+		
+		/** if the object graph is traversed beyond the roots */
+		private boolean deep = true;
+		
+		Walker(Map<Object,I> visitedObjects, UriDictionary uris){
+			this.visitedObjects = visitedObjects;
+			this.uris = uris;
+			this.policy = traversalPolicy;
+		}
+		
+		/** @return the representation of the individual with the passed URI */
+		abstract I createIndividual(URI uri);
+		
+		abstract void addImport(URI uri) throws OWLOntologyChangeException, MarshalException;
+		
+		abstract void addClassAssertion(I ind, URI classUri) throws OWLOntologyChangeException, MarshalException;
+		
+		abstract void addDataPropertyValue(I ind, DataPropertyBinding binding, String literal) throws OWLOntologyChangeException, MarshalException;
+		
+		abstract void addObjectPropertyValue(I subj, URI property, I obj) throws OWLOntologyChangeException, MarshalException;
+		
+		/** Hands on a value of a data property, printed with the printer of the property */
+		void addDataValue(I ind, DataPropertyBinding binding, Object value) throws OWLOntologyChangeException, MarshalException {
+			addDataPropertyValue(ind, binding, print(binding, value));
+		}
+		
+		/** Hands on the value of an integral primitive property */
+		void addLongValue(I ind, DataPropertyBinding binding, long value) throws OWLOntologyChangeException, MarshalException {
+			addDataPropertyValue(ind, binding, binding.printer.printLong(value));
+		}
+		
+		/** Hands on the value of a {@code double} or {@code float} property */
+		void addDoubleValue(I ind, DataPropertyBinding binding, double value) throws OWLOntologyChangeException, MarshalException {
+			addDataPropertyValue(ind, binding, binding.printer.printDouble(value));
+		}
+		
+		/** Hands on the value of a {@code boolean} property */
+		void addBooleanValue(I ind, DataPropertyBinding binding, boolean value) throws OWLOntologyChangeException, MarshalException {
+			addDataPropertyValue(ind, binding, binding.printer.printBoolean(value));
+		}
+		
+		/** @return the factory for the OWL entities of the data properties */
+		abstract OWLDataFactory getDataFactory();
+		
+		/**
+		 * @param o
+		 * @return A class facade able to handle the Object {@code o}
+		 * @throws Exception
+		 */
+		private ClassFacade getClassFacade(Object o) throws OWLOntologyChangeException, MarshalException {
+			ClassFacade cf = classes.get(o.getClass()); 
+			if( cf == null ){
+				cf = getCfFactory().getClassFacade(o.getClass());
+				if( cf == null ){
+					throw new IllegalStateException("Unable to handle objects of " + o.getClass());
+				}
+				// resolve the data properties before the facade is visible to other walkers
+				for(PropertyAccessor prop : cf.getDataProperties()){
+					getBinding(prop);
+				}
+				ClassFacade known = classes.putIfAbsent(o.getClass(), cf);
+				if( known != null ){
+					// another walker was faster
+					return known;
+				}
+				
+				// Base Uri of the Package
+				addImport(cf.getOntoBaseUri());
+			}
+			return cf;
+		}
+	
+		/**
+		 * @return the individual for the parameter {@code o}
+		 */
+		private I getIndividual(Object o, int depth) throws OWLOntologyChangeException, MarshalException {
+			
+			I ind = visitedObjects.get(o);
+			if(ind == null){
+				
+				ClassFacade cf = getClassFacade(o);
+	
+				// Individual creation
+				URI induri = uris.intern("#" + cf.getIdString(o));
+				ind = createIndividual(induri);
+		
+				// add the visited Object
+				I known = visitedObjects.putIfAbsent(o, ind);
+				if(known != null){
+					// already marshaled by another walker
+					return known;
+				}
+				
+				// add the Class URIs 
+				for(URI uri : cf.getClassUris()){
+					if( uri != null){
+					    addClassAssertion(ind, uri);
+					}
+				}
+	
+	            // Data Properties
+	            for(PropertyAccessor prop : cf.getDataProperties()){
+	                DataPropertyBinding binding = getBinding(prop);
+	                try {
+	                    if(binding.primitive != null){
+	                        addDataProperty(o, ind, binding.primitive, binding);
+	                    } else {
+	                        addDataProperty(prop.getValue(o), ind, binding);
+	                    }
+	                } catch (IllegalAccessException e) {
+	                    throw new MarshalException("Error in accessing object values from object " + o + " data property: " + prop.getPropUri(), e);
+	                } catch (InvocationTargetException e) {
+	                    throw new MarshalException("Error in accessing object values from object " + o + " data property: " + prop.getPropUri(), e);
+	                }
+	            }
+				
+				// only if deep is set we will descend further in the object graph
+				if(isExpanded(o, depth)){
+	    			// Object Property still missing, breadth first 
+					// with a policy so objects are reached at their lowest depth
+					if(policy == null){
+						this.missingObjectProps.push(new Missing(o, depth));
+					} else {
+						this.missingObjectProps.addLast(new Missing(o, depth));
 					}
 				}
 			}
-		} catch (OWLOntologyChangeException e) {
-			throw new MarshalException(e); //TODO: message
-		} catch (IllegalStateException e) {
-			throw new MarshalException(e);
-		} catch (IllegalArgumentException e){
-		    throw new MarshalException(e);
+			return ind;
+		}
+		
+		/**
+		 * @return {@code true} if the object properties of the object shall be marshalled
+		 */
+		private boolean isExpanded(Object o, int depth){
+			if(depth > 0 && !deep){
+				return false;
+			}
+			return policy == null || policy.isExpanded(o, depth);
+		}
+		
+		/**
+		 * Marshals the objects and all Objects from the missingObjectProps
+		 * @throws MarshalException if something goes wrong
+		 */
+		void walk(Collection<?> objects, boolean deep) throws MarshalException {
+			this.deep = deep;
+			try {
+				// two Phase system
+	
+			    // first marshal the plain currently known objects
+			    for(Object obj : objects){
+			        if( obj != null ){ // sort nasty nulls out
+			            // this will add for every unknown object a missing object prop
+			            getIndividual(obj, 0);
+			        }
+			    }
+	
+				// then fill in the missing object properties
+				// while also following the object graph and 
+				// discover new missing Individuals with its Object props 
+				while(!missingObjectProps.isEmpty()){
+	
+					Missing missing = missingObjectProps.pop();
+					Object obj = missing.obj;
+	
+					ClassFacade cf = getClassFacade(obj);
+	
+					I ind = getIndividual(obj, missing.depth);
+	
+					// Object Properties 
+					for(PropertyAccessor prop : cf.getObjectProperties()){
+						if(policy != null && !policy.isFollowed(obj, prop.getPropUri())){
+							continue;
+						}
+						try{
+							addObjectProperty(prop.getValue(obj), ind, prop, missing.depth + 1);
+						} catch (InvocationTargetException e) {
+							throw new MarshalException("Error in accessing object values from object " + obj + " property: " + prop.getPropUri(), e);
+						} catch (IllegalAccessException e) {
+							throw new MarshalException("Error in accessing object values from object " + obj + " property: " + prop.getPropUri(), e);
+						}
+					}
+				}
+			} catch (OWLOntologyChangeException e) {
+				throw new MarshalException(e); //TODO: message
+			} catch (IllegalStateException e) {
+				throw new MarshalException(e);
+			} catch (IllegalArgumentException e){
+			    throw new MarshalException(e);
+			}
+		}
+		
+		private void addDataProperty(Object value, I ind, DataPropertyBinding binding) throws OWLOntologyChangeException, MarshalException {
+			if(value != null){
+				// unpack Lists 
+				if( value instanceof Collection<?> ){
+					for( Object lv : ((Collection<?>)value) ){
+						addDataValue(ind, binding, lv);
+					}
+				} else if( value instanceof Object[]){ // or Object Arrays
+					for( Object lv : ((Object[])value) ){
+						addDataValue(ind, binding, lv);
+					} 
+				} else if( value.getClass().isArray() ){ // or primitive Arrays
+					if(printValueOverridden){
+						for(int i = 0; i < Array.getLength(value); i++){
+							addDataValue(ind, binding, Array.get(value, i));
+						}
+					} else {
+						addDataValues(value, ind, binding);
+					}
+				} else { //seems to be a single Value
+					addDataValue(ind, binding, value);
+				}
+			}
+		}
+		
+		/**
+		 * Processes the values of a primitive array without boxing them
+		 */
+		private void addDataValues(Object array, I ind, DataPropertyBinding binding) throws OWLOntologyChangeException, MarshalException {
+			if(array instanceof int[]){
+				for(int v : (int[])array){
+					addLongValue(ind, binding, v);
+				}
+			} else if(array instanceof long[]){
+				for(long v : (long[])array){
+					addLongValue(ind, binding, v);
+				}
+			} else if(array instanceof double[]){
+				for(double v : (double[])array){
+					addDoubleValue(ind, binding, v);
+				}
+			} else if(array instanceof float[]){
+				for(float v : (float[])array){
+					addDoubleValue(ind, binding, v);
+				}
+			} else if(array instanceof boolean[]){
+				for(boolean v : (boolean[])array){
+					addBooleanValue(ind, binding, v);
+				}
+			} else if(array instanceof short[]){
+				for(short v : (short[])array){
+					addLongValue(ind, binding, v);
+				}
+			} else if(array instanceof byte[]){
+				for(byte v : (byte[])array){
+					addLongValue(ind, binding, v);
+				}
+			} else {
+				// characters are printed as such, not as numbers
+				for(char v : (char[])array){
+					addDataValue(ind, binding, v);
+				}
+			}
+		}
+		
+		/**
+		 * Processes a primitive data property without boxing the value 
+		 */
+		private void addDataProperty(Object o, I ind, PrimitivePropertyAccessor prop, DataPropertyBinding binding) throws OWLOntologyChangeException, MarshalException, IllegalAccessException, InvocationTargetException {
+			Class<?> type = prop.getType();
+			if(type == boolean.class){
+				addBooleanValue(ind, binding, prop.getBoolean(o));
+			} else if(type == double.class || type == float.class){
+				addDoubleValue(ind, binding, prop.getDouble(o));
+			} else {
+				addLongValue(ind, binding, prop.getLong(o));
+			}
+		}
+		
+		/**
+		 * @return the resolved data property, created with the factory of this walker if unknown
+		 */
+		private DataPropertyBinding getBinding(PropertyAccessor prop){
+			DataPropertyBinding binding = bindings.get(prop);
+			if(binding == null){
+				binding = new DataPropertyBinding(prop, getLiteralCodecs(), getDataFactory(), printValueOverridden);
+				DataPropertyBinding known = bindings.putIfAbsent(prop, binding);
+				if(known != null){
+					return known;
+				}
+			}
+			return binding;
+		}
+		
+		/**
+		 * Processes Object Properties
+		 * @param value the Value
+		 * @param ind the individual to which the Property shall be added
+		 * @param prop the property to set
+		 * @param depth the depth of the values
+		 * @throws Exception
+		 */
+		private void addObjectProperty(Object value, I ind, PropertyAccessor prop, int depth) throws OWLOntologyChangeException, MarshalException {
+			
+			if(value != null){
+				// Process the values:
+				URI propuri = prop.getPropUri();
+	
+				// unpack Lists 
+				if( value instanceof Collection<?> ){
+					for( Object lv : ((Collection<?>)value) ){
+						addObjectPropertyValue(ind, propuri, this.getIndividual(lv, depth));
+					}
+				} else if( value instanceof Object[]){ // or Object Arrays
+					for( Object lv : ((Object[])value) ){
+						addObjectPropertyValue(ind, propuri, this.getIndividual(lv, depth));
+					} 
+				} else { //seems to be a single Value
+					addObjectPropertyValue(ind, propuri, this.getIndividual(value, depth));
+				}
+			}
 		}
 	}
 	
-	private void addDataProperty(Object value, OWLIndividual ind, PropertyAccessor prop) throws OWLOntologyChangeException {
-		if(value != null){
+	/**
+	 * An object whose object properties are not yet marshaled
+	 */
+	private static final class Missing {
+		final Object obj;
+		
+		/** number of object properties from the nearest root */
+		final int depth;
+		
+		Missing(Object obj, int depth) {
+			this.obj = obj;
+			this.depth = depth;
+		}
+	}
+	
+	/**
+	 * Creates the axioms of the visited objects and adds them to the ontology.
+	 */
+	private class AxiomWalker extends Walker<OWLIndividual> {
+		
+		/** Data factory of this walker */
+		private final OWLDataFactory wfactory;
+		
+		AxiomWalker(OWLDataFactory wfactory, Map<Object,OWLIndividual> visitedObjects){
+			super(visitedObjects, newUriDictionary());
+			this.wfactory = wfactory;
+		}
+		
+		/**
+		 * Hands a newly created axiom on to the ontology.
+		 */
+		void emit(OWLAxiom axiom) throws OWLOntologyChangeException {
+			addAxiom(axiom);
+		}
+		
+		/**
+		 * Hands a newly created object property axiom on, failures 
+		 * of single axioms are only logged.
+		 */
+		void emitObjectPropertyAxiom(OWLObjectPropertyAssertionAxiom axiom) throws OWLOntologyChangeException {
+			if(pendingChanges != null){
+				// in batching mode errors can only be reported for the whole batch
+				addAxiom(axiom);
+				return;
+			}
+			try {
+				manager.addAxiom(ontology, axiom);
+			} catch (OWLOntologyChangeException e) {
+				log.warn("Unable to create {}", axiom);
+			}
+		}
+		
+		@Override
+		OWLIndividual createIndividual(URI uri) {
+			return wfactory.getOWLIndividual(uri);
+		}
+
+		@Override
+		void addImport(URI uri) throws OWLOntologyChangeException {
+			emit(wfactory.getOWLImportsDeclarationAxiom(ontology, uri));
+		}
+
+		@Override
+		void addClassAssertion(OWLIndividual ind, URI classUri) throws OWLOntologyChangeException {
+			OWLClass ocls = wfactory.getOWLClass(classUri);
+			emit(wfactory.getOWLClassAssertionAxiom(ind, ocls));
+		}
+
+		@Override
+		void addDataPropertyValue(OWLIndividual ind, DataPropertyBinding binding, String literal) throws OWLOntologyChangeException {
+			OWLConstant odc = wfactory.getOWLTypedConstant(literal, binding.owlDataType);
+			emit(wfactory.getOWLDataPropertyAssertionAxiom(ind, binding.owlProperty, odc));
+		}
+
+		@Override
+		void addObjectPropertyValue(OWLIndividual subj, URI property, OWLIndividual obj) throws OWLOntologyChangeException {
+			OWLObjectProperty oprop = wfactory.getOWLObjectProperty(property);
+			emitObjectPropertyAxiom(wfactory.getOWLObjectPropertyAssertionAxiom(subj, oprop, obj));
+		}
+		
+		@Override
+		OWLDataFactory getDataFactory() {
+			return wfactory;
+		}
+	}
+	
+	/**
+	 * Walker of a partition in the parallel marshalling, collects 
+	 * the axioms instead of adding them to the ontology. Each partition 
+	 * uses its own data factory, since the factories are not thread safe.
+	 */
+	private class CollectingWalker extends AxiomWalker {
+		
+		private final List<OWLAxiom> axioms = new ArrayList<OWLAxiom>();
+		
+		CollectingWalker(Map<Object,OWLIndividual> visitedObjects){
+			super(new OWLDataFactoryImpl(), visitedObjects);
+		}
+		
+		@Override
+		void emit(OWLAxiom axiom) {
+			axioms.add(axiom);
+		}
+		
+		@Override
+		void emitObjectPropertyAxiom(OWLObjectPropertyAssertionAxiom axiom) {
+			axioms.add(axiom);
+		}
+	}
+	
+	/**
+	 * Writes the class assertions and property values of the visited objects 
+	 * directly to a {@link TripleWriter}, individuals are only represented 
+	 * by their URIs. 
+	 */
+	private class StreamWalker extends Walker<URI> {
+		
+		private final TripleWriter out;
+		
+		StreamWalker(TripleWriter out){
+			super(Marshaller.this.<URI>newVisitedMap(), newUriDictionary());
+			this.out = out;
+		}
 
+		@Override
+		URI createIndividual(URI uri) {
+			return uri;
+		}
+
+		@Override
+		void addImport(URI uri) throws MarshalException {
+			try {
+				out.importDeclaration(uri);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write import of " + uri, e);
+			}
+		}
+
+		@Override
+		void addClassAssertion(URI ind, URI classUri) throws MarshalException {
+			try {
+				out.classAssertion(ind, classUri);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write class assertion of " + ind, e);
+			}
+		}
+
+		@Override
+		void addDataPropertyValue(URI ind, DataPropertyBinding binding, String literal) throws MarshalException {
+			try {
+				out.dataPropertyValue(ind, binding.propUri, binding.dataType, literal);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+
+		@Override
+		void addObjectPropertyValue(URI subj, URI property, URI obj) throws MarshalException {
+			try {
+				out.objectPropertyValue(subj, property, obj);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + subj + " object property: " + property, e);
+			}
+		}
+		
+		@Override
+		OWLDataFactory getDataFactory() {
+			return factory;
+		}
+	}
+	
+	/**
+	 * Writes the visited objects to a {@link BinaryGraphWriter}. Values 
+	 * printed by the default codec of their data type are written as numbers.
+	 */
+	private class BinaryWalker extends Walker<URI> {
+		
+		private final BinaryGraphWriter out;
+		
+		BinaryWalker(BinaryGraphWriter out, UriDictionary uris){
+			super(Marshaller.this.<URI>newVisitedMap(), uris);
+			this.out = out;
+		}
+		
+		@Override
+		URI createIndividual(URI uri) {
+			return uri;
+		}
+		
+		@Override
+		void addImport(URI uri) throws MarshalException {
+			try {
+				out.importDeclaration(uri);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write import of " + uri, e);
+			}
+		}
+		
+		@Override
+		void addClassAssertion(URI ind, URI classUri) throws MarshalException {
+			try {
+				out.classAssertion(ind, classUri);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write class assertion of " + ind, e);
+			}
+		}
+		
+		@Override
+		void addDataPropertyValue(URI ind, DataPropertyBinding binding, String literal) throws MarshalException {
+			try {
+				out.dataPropertyValue(ind, binding.propUri, binding.dataType, literal);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+		
+		@Override
+		void addDataValue(URI ind, DataPropertyBinding binding, Object value) throws OWLOntologyChangeException, MarshalException {
+			if(!binding.canonical || binding.printer.getType() != value.getClass()){
+				super.addDataValue(ind, binding, value);
+			} else if(value instanceof Boolean){
+				addBooleanValue(ind, binding, ((Boolean)value).booleanValue());
+			} else if(value instanceof Double){
+				addDoubleValue(ind, binding, ((Double)value).doubleValue());
+			} else if(value instanceof Float){
+				writeFloat(ind, binding, ((Float)value).floatValue());
+			} else if(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte){
+				addLongValue(ind, binding, ((Number)value).longValue());
+			} else {
+				super.addDataValue(ind, binding, value);
+			}
+		}
+		
+		@Override
+		void addLongValue(URI ind, DataPropertyBinding binding, long value) throws OWLOntologyChangeException, MarshalException {
+			if(!binding.canonical){
+				super.addLongValue(ind, binding, value);
+				return;
+			}
+			try {
+				out.longValue(ind, binding.propUri, binding.dataType, value);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+		
+		@Override
+		void addDoubleValue(URI ind, DataPropertyBinding binding, double value) throws OWLOntologyChangeException, MarshalException {
+			if(!binding.canonical){
+				super.addDoubleValue(ind, binding, value);
+				return;
+			}
+			if(binding.primitive != null && binding.primitive.getType() == float.class){
+				writeFloat(ind, binding, (float)value);
+				return;
+			}
+			try {
+				out.doubleValue(ind, binding.propUri, binding.dataType, value);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+		
+		@Override
+		void addBooleanValue(URI ind, DataPropertyBinding binding, boolean value) throws OWLOntologyChangeException, MarshalException {
+			if(!binding.canonical){
+				super.addBooleanValue(ind, binding, value);
+				return;
+			}
+			try {
+				out.booleanValue(ind, binding.propUri, binding.dataType, value);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+		
+		private void writeFloat(URI ind, DataPropertyBinding binding, float value) throws MarshalException {
+			try {
+				out.floatValue(ind, binding.propUri, binding.dataType, value);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + ind + " data property: " + binding.propUri, e);
+			}
+		}
+		
+		@Override
+		void addObjectPropertyValue(URI subj, URI property, URI obj) throws MarshalException {
+			try {
+				out.objectPropertyValue(subj, property, obj);
+			} catch (IOException e) {
+				throw new MarshalException("Unable to write value of " + subj + " object property: " + property, e);
+			}
+		}
+		
+		@Override
+		OWLDataFactory getDataFactory() {
+			return factory;
+		}
+	}
+	
+	/**
+	 * The data type, the printer and the OWL entities of a data property,
+	 * resolved once per {@link PropertyAccessor} so the values can be 
+	 * emitted without any lookups. The entities are immutable and 
+	 * may be used with other data factories.
+	 */
+	private static final class DataPropertyBinding {
+		
+		final URI propUri;
+		
+		/** the data type of the literals, defaulting to xsd:string */
+		final URI dataType;
+		
+		final LiteralCodec<?> printer;
+		
+		/** if the printer is the default codec of the data type, so the 
+		 * literal can be restored from the value and the data type alone */
+		final boolean canonical;
+		
+		/** the accessor if the value can be read without boxing, {@code null} otherwise */
+		final PrimitivePropertyAccessor primitive;
+		
+		final OWLDataProperty owlProperty;
+		
+		final OWLDataType owlDataType;
+		
+		/**
+		 * @param printed {@code true} if the values are printed by {@link Marshaller#printValue(Object)}, 
+		 * they are read boxed then and never written without a printed literal 
+		 */
+		DataPropertyBinding(PropertyAccessor prop, LiteralCodecRegistry codecs, OWLDataFactory factory, boolean printed) {
+			this.propUri = prop.getPropUri();
+			
 			//Datatype of the Property: defaulting to String
-			OWLDataType dt = owlString;
+			URI dt = XsdType.STRING.getUri();
 
 			// if it is mapped to a data Property
 			Set<URI> dturis = prop.getDataTypeUris();
 			if(dturis != null && !dturis.isEmpty()){
 				if(dturis.size() == 1){
 					// get the first uri
-					dt = factory.getOWLDataType(dturis.iterator().next());
+					dt = dturis.iterator().next();
 				} else {
 					log.warn("Cannot handle heterogenous DataProperties: {}", dturis);
 				}
 			} else {
-				log.warn("No DataType set, defaulting to xsd:string: {}, {}", prop, ind);
+				log.warn("No DataType set, defaulting to xsd:string: {}", prop);
 			}
+			this.dataType = dt;
 			
-			// Process the values:
-			URI propuri = prop.getPropUri();
-			// unpack Lists 
-			if( value instanceof Collection<?> ){
-				for( Object lv : ((Collection<?>)value) ){
-					addDataPropertyValue(ind, propuri, dt, printValue(lv));
-				}
-			} else if( value instanceof Object[]){ // or Object Arrays
-				for( Object lv : ((Object[])value) ){
-					addDataPropertyValue(ind, propuri, dt, printValue(lv));
-				} 
-			} else { //seems to be a single Value
-				addDataPropertyValue(ind, propuri, dt, printValue(value));
-			}
+			this.printer = codecs.getPrinter(dt, prop.getValueType());
+			this.canonical = !printed && printer == codecs.getPrinter(dt, Object.class);
+			this.primitive = !printed && isPrimitive(prop) ? (PrimitivePropertyAccessor)prop : null;
+			this.owlProperty = factory.getOWLDataProperty(propUri);
+			this.owlDataType = factory.getOWLDataType(dt);
 		}
 	}
 	
-	
-	private void addDataPropertyValue(OWLIndividual ind, URI property, OWLDataType dt, String literal) throws OWLOntologyChangeException{
-		OWLDataProperty odp = factory.getOWLDataProperty(property);
-		OWLConstant odc = factory.getOWLTypedConstant(literal,dt);
-		manager.addAxiom(ontology, factory.getOWLDataPropertyAssertionAxiom(ind, odp, odc));
-	}
-	
 	/**
-	 * Processes Object Properties
-	 * @param value the Value
-	 * @param ind the OWLIndividual to which the Property shall be added
-	 * @param prop the property to set
-	 * @throws Exception
+	 * Splits the root objects until a partition is small enough
+	 * to be marshaled by a single {@link CollectingWalker}.
 	 */
-	private void addObjectProperty(Object value, OWLIndividual ind, PropertyAccessor prop, boolean deep) throws OWLOntologyChangeException, MarshalException {
+	private class PartitionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 2986511520785307311L;
 		
-		if(value != null){
-			// Process the values:
-			OWLObjectProperty oprop = factory.getOWLObjectProperty(prop.getPropUri());
+		private final List<Object> roots;
+		private final int start;
+		private final int end;
+		private final int threshold;
+		private final Map<Object, OWLIndividual> visited;
+		private final Queue<List<OWLAxiom>> results;
+		private final boolean deep;
+		
+		PartitionTask(List<Object> roots, int start, int end, int threshold,
+				Map<Object, OWLIndividual> visited, Queue<List<OWLAxiom>> results, boolean deep) {
+			this.roots = roots;
+			this.start = start;
+			this.end = end;
+			this.threshold = threshold;
+			this.visited = visited;
+			this.results = results;
+			this.deep = deep;
+		}
 
-			// unpack Lists 
-			if( value instanceof Collection<?> ){
-				for( Object lv : ((Collection<?>)value) ){
-					OWLIndividual oobj = this.getOWLIndividual(lv, deep);
-					addObjectPropertyValue(ind, oprop, oobj);
+		@Override
+		protected void compute() {
+			if(end - start <= threshold){
+				CollectingWalker walker = new CollectingWalker(visited);
+				try {
+					walker.walk(roots.subList(start, end), deep);
+				} catch (MarshalException e) {
+					throw new IllegalStateException(e);
 				}
-			} else if( value instanceof Object[]){ // or Object Arrays
-				for( Object lv : ((Object[])value) ){
-					OWLIndividual oobj = this.getOWLIndividual(lv, deep);
-					addObjectPropertyValue(ind, oprop, oobj);
-				} 
-			} else { //seems to be a single Value
-				OWLIndividual oobj = this.getOWLIndividual(value, deep);
-				addObjectPropertyValue(ind, oprop, oobj);
+				results.add(walker.axioms);
+			} else {
+				int middle = (start + end) >>> 1;
+				invokeAll(new PartitionTask(roots, start, middle, threshold, visited, results, deep),
+						new PartitionTask(roots, middle, end, threshold, visited, results, deep));
 			}
 		}
 	}
 	
-	private void addObjectPropertyValue(OWLIndividual subj, OWLObjectProperty pred, OWLIndividual obj){
-		OWLObjectPropertyAssertionAxiom addOVal = factory.getOWLObjectPropertyAssertionAxiom(subj, pred, obj);
-		try {
-			manager.addAxiom(ontology, addOVal);
-		} catch (OWLOntologyChangeException e) {
-			log.warn("Unable to create {} <{}> {}", new Object[]{subj,pred,obj});
+	/**
+	 * Adds an axiom to the ontology. In batching mode the axiom is 
+	 * collected and the collected axioms are applied with a single 
+	 * {@link OWLOntologyManager#applyChanges(List)} call once 
+	 * {@link #getBatchSize()} axioms are pending.
+	 * @param axiom the axiom to add
+	 * @throws OWLOntologyChangeException if the axiom(s) could not be applied
+	 */
+	private void addAxiom(OWLAxiom axiom) throws OWLOntologyChangeException {
+		if(pendingChanges == null){
+			manager.addAxiom(ontology, axiom);
+		} else {
+			pendingChanges.add(new AddAxiom(ontology, axiom));
+			if(pendingChanges.size() >= batchSize){
+				flushChanges();
+			}
+		}
+	}
+	
+	/**
+	 * Applies all pending axioms to the ontology.
+	 * @throws OWLOntologyChangeException if the axioms could not be applied
+	 */
+	private void flushChanges() throws OWLOntologyChangeException {
+		if(pendingChanges != null && !pendingChanges.isEmpty()){
+			try {
+				manager.applyChanges(pendingChanges);
+			} finally {
+				pendingChanges.clear();
+			}
 		}
 	}
 
-	/** 
-	 * Prints the value of an Object
+	/**
+	 * Prints the value of an Object. The literals are printed by the 
+	 * {@link #getLiteralCodecs() codecs} of the properties, this method 
+	 * is only called if a subclass overrides it. It then prints every 
+	 * value instead of the codecs, primitive values are boxed for it.
+	 * 
 	 * @param value
-	 * @return
+	 * @return the literal
 	 */
 	protected String printValue(Object value){
-		if(value instanceof Calendar){
-			return DatatypeConverter.printDateTime((Calendar)value);
+		return getLiteralCodecs().getPrinter(null, value.getClass()).printValue(value);
+	}
+	
+	/**
+	 * @return {@code true} if the class overrides {@link #printValue(Object)}
+	 */
+	private static boolean overridesPrintValue(Class<?> cls){
+		for(Class<?> c = cls; c != Marshaller.class; c = c.getSuperclass()){
+			try {
+				c.getDeclaredMethod("printValue", Object.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not in this class
+			}
 		}
-		if( value instanceof java.util.Date ){
-			Calendar cal = new GregorianCalendar();
-			cal.setTime((java.util.Date)value);
-			return DatatypeConverter.printDateTime(cal);
+		return false;
+	}
+	
+	/**
+	 * Prints the value with the printer of the property, values of 
+	 * other types than declared by the property are printed with 
+	 * the printer for their class.
+	 */
+	private String print(DataPropertyBinding binding, Object value){
+		if(printValueOverridden){
+			return printValue(value);
+		}
+		if(binding.printer.getType().isInstance(value)){
+			return binding.printer.printValue(value);
 		}
-		return value.toString();
+		return getLiteralCodecs().getPrinter(binding.dataType, value.getClass()).printValue(value);
+	}
+	
+	/**
+	 * @return {@code true} if the property can be read without boxing the value
+	 */
+	private static boolean isPrimitive(PropertyAccessor prop){
+		return prop instanceof PrimitivePropertyAccessor 
+			&& ((PrimitivePropertyAccessor)prop).isPrimitive()
+			&& prop.getType() != char.class;
 	}
 
 	/**
@@ -519,12 +1346,133 @@ public class Marshaller {
             return;
         }
         this.typeMapper = typeMapper;
-        cfFactory = new ClassFacadeFactory(typeMapper);
+        this.cfFactory = null;
+        this.literalCodecs = null;
+        classes.clear();
+        bindings.clear();
+    }
+    
+    /**
+     * The default codecs print {@code java.util.Date} values of xsd:dateTime 
+     * properties in UTC, e.g. {@code 2008-05-30T10:15:00Z}, where former 
+     * versions printed them with the offset of the default time zone. Both 
+     * denote the same instant. Dates and times of xsd:date and xsd:time 
+     * properties are still printed in the default time zone.
+     * 
+     * @return the codecs used to print the literals
+     */
+    public LiteralCodecRegistry getLiteralCodecs() {
+        if( literalCodecs == null ){
+            literalCodecs = new LiteralCodecRegistry(typeMapper);
+        }
+        return this.literalCodecs;
+    }
+
+    /**
+     * Sets the codecs used to print the literals, e.g. one with 
+     * additional codecs registered. See {@link #getLiteralCodecs()} for 
+     * how the default codecs print dates.
+     * @param literalCodecs the codecs, {@code null} for the default ones
+     */
+    public void setLiteralCodecs(LiteralCodecRegistry literalCodecs) {
+        this.literalCodecs = literalCodecs;
+        bindings.clear();
+    }
+    
+    /**
+     * Sets the factory providing the class facades. By default the process 
+     * wide factory for the type mapper is used, see {@link ClassFacadeFactory#getShared(XsdTypeMapper)}.
+     * @param cfFactory the factory, {@code null} for the shared one
+     */
+    public void setClassFacadeFactory(ClassFacadeFactory cfFactory) {
+        this.cfFactory = cfFactory;
+        classes.clear();
+        bindings.clear();
+    }
+    
+    /**
+     * @return the number of axioms collected before they are applied
+     * to the ontology, values smaller than 2 mean that batching is disabled
+     */
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    /**
+     * Enables the batching mode, when set to a value bigger than 1. Instead
+     * of adding every single class assertion and property value via 
+     * {@link OWLOntologyManager#addAxiom(OWLOntology, OWLAxiom)} the axioms 
+     * are collected and applied with one 
+     * {@link OWLOntologyManager#applyChanges(List)} call per batch. This 
+     * considerably reduces the number of change events fired through the 
+     * manager when marshalling large object graphs.<br/>
+     * Default value is <code>0</code> (disabled).
+     * 
+     * @param batchSize number of axioms per batch
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    /**
+     * @return {@code true} if visited objects are compared by identity
+     */
+    public boolean isIdentityTracking() {
+        return this.identityTracking;
+    }
+
+    /**
+     * Selects how the Marshaller recognizes objects it has already visited. 
+     * By default the visited objects are looked up via {@code equals} and 
+     * {@code hashCode}, so equal objects are only walked once. With identity 
+     * tracking the lookup compares by identity and does not call the 
+     * (possibly expensive) {@code equals} and {@code hashCode} methods, 
+     * every distinct object is walked.<br/>
+     * Only the lookup changes: the URI of the individual is still derived 
+     * from the id of the object, so distinct objects with the same id are 
+     * still marshaled to one individual. Objects without an id get their 
+     * {@code hashCode} as id.<br/>
+     * Default value is <code>false</code>.
+     * 
+     * @param identityTracking {@code true} to compare visited objects by identity
+     * @see IdentityVisitedMap
+     */
+    public void setIdentityTracking(boolean identityTracking) {
+        this.identityTracking = identityTracking;
+    }
+    
+    /**
+     * @return the policy bounding the traversal of the object graph, 
+     * {@code null} if the graph is traversed completely
+     */
+    public TraversalPolicy getTraversalPolicy() {
+        return this.traversalPolicy;
+    }
+
+    /**
+     * Bounds the part of the object graph that is marshaled in the deep 
+     * mode, e.g. to export the neighbourhood of some objects in a large 
+     * graph without visiting the rest of it. The objects are then visited
+     * breadth first, so every object is expanded at its lowest depth. 
+     * Without the deep mode only the roots are expanded, as far as the 
+     * policy allows.
+     * <br>
+     * In the parallel marshalling the depth is counted within each 
+     * partition of the roots, objects shared between partitions are 
+     * expanded at the depth they are reached first.
+     * <br>
+     * Default value is <code>null</code> (the graph is traversed completely).
+     * 
+     * @param traversalPolicy the policy, {@code null} to traverse the whole graph
+     * @see SimpleTraversalPolicy
+     */
+    public void setTraversalPolicy(TraversalPolicy traversalPolicy) {
+        this.traversalPolicy = traversalPolicy;
     }
     
     private ClassFacadeFactory getCfFactory(){
         if( cfFactory == null ){
-            cfFactory = new ClassFacadeFactory(typeMapper);
+            return ClassFacadeFactory.getShared(typeMapper);
         }
         return cfFactory;
     }
@@ -0,0 +1,233 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.net.URI;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.yoshtec.owl.util.UriDictionary;
+
+/**
+ * Reads N-Triples line by line and hands every statement to a 
+ * {@link TripleHandler} without keeping it. 
+ * <br>
+ * Statements containing blank nodes are skipped, since they cannot
+ * denote individuals.
+ */
+class NTriplesParser {
+    
+    static private final Logger log = LoggerFactory.getLogger(NTriplesParser.class);
+
+    private final TripleHandler handler;
+    
+    /** creates the URIs, each distinct URI is parsed once */
+    private final UriDictionary uris;
+    
+    /** current line and position in it */
+    private String line;
+    private int pos;
+    private int lineNumber;
+    
+    NTriplesParser(TripleHandler handler) {
+        this(handler, new UriDictionary());
+    }
+    
+    /**
+     * @param uris creates the URIs, may be shared with the handler
+     */
+    NTriplesParser(TripleHandler handler, UriDictionary uris) {
+        this.handler = handler;
+        this.uris = uris;
+    }
+    
+    /**
+     * Parses all statements of the input, the input will not be closed
+     */
+    void parse(Reader input) throws IOException, UnmarshalException {
+        BufferedReader in = new BufferedReader(input);
+        lineNumber = 0;
+        while((line = in.readLine()) != null){
+            lineNumber++;
+            pos = 0;
+            skipWhitespace();
+            if(pos == line.length() || line.charAt(pos) == '#'){
+                continue; // empty line or comment 
+            }
+            parseStatement();
+        }
+        handler.end();
+    }
+    
+    private void parseStatement() throws UnmarshalException {
+        URI subject = parseResource();
+        skipWhitespace();
+        URI predicate = parseResource();
+        skipWhitespace();
+        
+        if(peek() == '"'){
+            String literal = parseLiteral();
+            URI dataType = null;
+            if(line.startsWith("^^", pos)){
+                pos += 2;
+                dataType = parseResource();
+            } else if(peek() == '@'){
+                // language tags are not kept
+                while(pos < line.length() && !Character.isWhitespace(line.charAt(pos)) && line.charAt(pos) != '.'){
+                    pos++;
+                }
+            }
+            expectEnd();
+            if(subject != null && predicate != null){
+                handler.literal(subject, predicate, literal, dataType);
+            }
+        } else {
+            URI object = parseResource();
+            expectEnd();
+            if(subject != null && predicate != null && object != null){
+                handler.resource(subject, predicate, object);
+            }
+        }
+    }
+    
+    /**
+     * @return the URI or {@code null} for a blank node
+     */
+    private URI parseResource() throws UnmarshalException {
+        char c = peek();
+        if(c == '<'){
+            int end = line.indexOf('>', pos);
+            if(end < 0){
+                throw error("Unterminated URI");
+            }
+            String uri = line.substring(pos + 1, end);
+            pos = end + 1;
+            if(uri.indexOf('\\') >= 0){
+                uri = resolveEscapes(uri);
+            }
+            try {
+                return uris.intern(uri);
+            } catch (IllegalArgumentException e) {
+                throw error("Invalid URI " + uri);
+            }
+        } else if(c == '_'){
+            // blank node
+            while(pos < line.length() && !Character.isWhitespace(line.charAt(pos))){
+                pos++;
+            }
+            log.debug("Skipping blank node in line {}", lineNumber);
+            return null;
+        }
+        throw error("Expected a URI");
+    }
+    
+    private String parseLiteral() throws UnmarshalException {
+        int start = ++pos;
+        boolean escaped = false;
+        while(pos < line.length()){
+            char c = line.charAt(pos);
+            if(c == '\\'){
+                escaped = true;
+                pos += 2;
+            } else if(c == '"'){
+                String literal = line.substring(start, pos++);
+                return escaped ? resolveEscapes(literal) : literal;
+            } else {
+                pos++;
+            }
+        }
+        throw error("Unterminated literal");
+    }
+    
+    private String resolveEscapes(String s) throws UnmarshalException {
+        try {
+            return unescape(s);
+        } catch (IllegalArgumentException e) {
+            throw error(e.getMessage());
+        }
+    }
+    
+    /**
+     * Resolves the escape sequences of N-Triples and Turtle strings 
+     * @throws IllegalArgumentException for invalid escape sequences
+     */
+    static String unescape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            if(c != '\\' || i + 1 == s.length()){
+                sb.append(c);
+                continue;
+            }
+            c = s.charAt(++i);
+            switch (c) {
+            case 't': sb.append('\t'); break;
+            case 'n': sb.append('\n'); break;
+            case 'r': sb.append('\r'); break;
+            case 'b': sb.append('\b'); break;
+            case 'f': sb.append('\f'); break;
+            case '"': sb.append('"'); break;
+            case '\'': sb.append('\''); break;
+            case '\\': sb.append('\\'); break;
+            case 'u':
+            case 'U':
+                int len = (c == 'u' ? 4 : 8);
+                if(i + len >= s.length()){
+                    throw new IllegalArgumentException("Invalid escape sequence");
+                }
+                try {
+                    sb.appendCodePoint(Integer.parseInt(s.substring(i + 1, i + 1 + len), 16));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Invalid escape sequence");
+                }
+                i += len;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid escape sequence \\" + c);
+            }
+        }
+        return sb.toString();
+    }
+    
+    private void expectEnd() throws UnmarshalException {
+        skipWhitespace();
+        if(peek() != '.'){
+            throw error("Expected '.'");
+        }
+    }
+    
+    private char peek() {
+        return pos < line.length() ? line.charAt(pos) : 0;
+    }
+    
+    private void skipWhitespace(){
+        while(pos < line.length() && Character.isWhitespace(line.charAt(pos))){
+            pos++;
+        }
+    }
+    
+    private UnmarshalException error(String msg){
+        return new UnmarshalException(msg + " in line " + lineNumber + ": " + line);
+    }
+}
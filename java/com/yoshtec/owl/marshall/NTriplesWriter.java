@@ -0,0 +1,140 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+
+/**
+ * Writes one N-Triples statement per line.
+ */
+class NTriplesWriter extends TripleWriter {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    NTriplesWriter(Writer out, URI base) {
+        super(out, base);
+    }
+
+    @Override
+    protected void resource(URI subject, URI predicate, URI object) throws IOException {
+        uri(subject);
+        out.write(' ');
+        uri(predicate);
+        out.write(' ');
+        uri(object);
+        out.write(" .\n");
+    }
+
+    @Override
+    protected void literal(URI subject, URI predicate, String literal, URI dataType) throws IOException {
+        uri(subject);
+        out.write(' ');
+        uri(predicate);
+        out.write(" \"");
+        escape(literal);
+        out.write('"');
+        if(dataType != null){
+            out.write("^^");
+            uri(dataType);
+        }
+        out.write(" .\n");
+    }
+    
+    /**
+     * Writes an IRIREF, only UCHAR escapes are allowed inside
+     */
+    private void uri(URI uri) throws IOException {
+        out.write('<');
+        String s = uri.toString();
+        for(int i = 0; i < s.length(); ){
+            int c = s.codePointAt(i);
+            switch (c) {
+            case '<': case '>': case '"': case '{': case '}':
+            case '|': case '^': case '`': case '\\':
+                uchar(c);
+                break;
+            default:
+                if(c <= 0x20 || c > 0x7e){
+                    uchar(c);
+                } else {
+                    out.write(c);
+                }
+                break;
+            }
+            i += Character.charCount(c);
+        }
+        out.write('>');
+    }
+    
+    /**
+     * Escapes the characters not allowed in N-Triples string literals
+     */
+    private void escape(String s) throws IOException {
+        for(int i = 0; i < s.length(); ){
+            int c = s.codePointAt(i);
+            switch (c) {
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                if(c < 0x20 || c > 0x7e){
+                    uchar(c);
+                } else {
+                    out.write(c);
+                }
+                break;
+            }
+            i += Character.charCount(c);
+        }
+    }
+    
+    /**
+     * Writes a code point as a four digit UCHAR escape or, outside 
+     * the BMP, as an eight digit one
+     */
+    private void uchar(int c) throws IOException {
+        int digits;
+        if(c > 0xffff){
+            out.write("\\U");
+            digits = 8;
+        } else {
+            out.write("\\u");
+            digits = 4;
+        }
+        for(int shift = (digits - 1) * 4; shift >= 0; shift -= 4){
+            out.write(HEX[(c >>> shift) & 0xf]);
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+/**
+ * RDF serializations the {@link Marshaller} is able to stream to. 
+ * 
+ * @see Marshaller#marshal(java.util.Collection, java.net.URI, java.io.Writer, RdfFormat, boolean)
+ */
+public enum RdfFormat {
+    
+    /** RDF/XML, one {@code rdf:Description} per consecutive group of statements about a subject */
+    RDF_XML,
+    
+    /** N-Triples, one statement per line */
+    N_TRIPLES;
+    
+}
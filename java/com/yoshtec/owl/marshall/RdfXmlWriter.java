@@ -0,0 +1,162 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+
+/**
+ * Writes RDF/XML, consecutive statements about the same subject are 
+ * grouped in one {@code rdf:Description}. Property elements declare the 
+ * namespace of the property on their own, so no namespace table has to 
+ * be collected in advance.
+ */
+class RdfXmlWriter extends TripleWriter {
+    
+    /** subject of the currently open rdf:Description */
+    private URI subject = null;
+
+    RdfXmlWriter(Writer out, URI base) {
+        super(out, base);
+    }
+    
+    @Override
+    void startDocument() throws IOException {
+        out.write("<?xml version=\"1.0\"?>\n");
+        out.write("<rdf:RDF xmlns:rdf=\"" + RDF_NS + "\" xmlns:owl=\"" + OWL_NS + "\" xml:base=\"");
+        escape(base.toString());
+        out.write("\">\n");
+        super.startDocument();
+    }
+    
+    @Override
+    void endDocument() throws IOException {
+        close();
+        out.write("</rdf:RDF>\n");
+        super.endDocument();
+    }
+
+    @Override
+    protected void resource(URI subject, URI predicate, URI object) throws IOException {
+        open(subject);
+        startProperty(predicate);
+        out.write(" rdf:resource=\"");
+        escape(object.toString());
+        out.write("\"/>\n");
+    }
+
+    @Override
+    protected void literal(URI subject, URI predicate, String literal, URI dataType) throws IOException {
+        open(subject);
+        startProperty(predicate);
+        if(dataType != null){
+            out.write(" rdf:datatype=\"");
+            escape(dataType.toString());
+            out.write('"');
+        }
+        out.write('>');
+        escape(literal);
+        out.write("</p:");
+        out.write(localName(predicate));
+        out.write(">\n");
+    }
+    
+    /**
+     * opens a rdf:Description for the subject, if not already open
+     */
+    private void open(URI s) throws IOException {
+        if(!s.equals(subject)){
+            close();
+            out.write("  <rdf:Description rdf:about=\"");
+            escape(s.toString());
+            out.write("\">\n");
+            subject = s;
+        }
+    }
+    
+    private void close() throws IOException {
+        if(subject != null){
+            out.write("  </rdf:Description>\n");
+            subject = null;
+        }
+    }
+    
+    private void startProperty(URI predicate) throws IOException {
+        String local = localName(predicate);
+        String uri = predicate.toString();
+        out.write("    <p:");
+        out.write(local);
+        out.write(" xmlns:p=\"");
+        escape(uri.substring(0, uri.length() - local.length()));
+        out.write('"');
+    }
+    
+    /**
+     * @return the longest suffix of the URI that is a valid XML local name 
+     */
+    private static String localName(URI uri) throws IOException {
+        String s = uri.toString();
+        int start = s.length();
+        while(start > 0 && isNameChar(s.charAt(start - 1))){
+            start--;
+        }
+        // a local name must not start with a digit, '-' or '.'
+        while(start < s.length() && !isNameStartChar(s.charAt(start))){
+            start++;
+        }
+        if(start == s.length()){
+            throw new IOException("Unable to write property " + uri + " as RDF/XML element");
+        }
+        return s.substring(start);
+    }
+    
+    private static boolean isNameStartChar(char c){
+        return c == '_' || Character.isLetter(c);
+    }
+    
+    private static boolean isNameChar(char c){
+        return isNameStartChar(c) || c == '-' || c == '.' || Character.isDigit(c);
+    }
+    
+    private void escape(String s) throws IOException {
+        for(int i = 0; i < s.length(); i++){
+            char c = s.charAt(i);
+            switch (c) {
+            case '&':
+                out.write("&amp;");
+                break;
+            case '<':
+                out.write("&lt;");
+                break;
+            case '>':
+                out.write("&gt;");
+                break;
+            case '"':
+                out.write("&quot;");
+                break;
+            default:
+                out.write(c);
+                break;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link TraversalPolicy} with a maximum depth, included or excluded 
+ * object properties and classes at which the traversal stops.
+ * <br>
+ * Without further settings it traverses the whole object graph.
+ */
+public class SimpleTraversalPolicy implements TraversalPolicy {
+    
+    /** the maximum depth, negative for unbounded */
+    private int maxDepth = -1;
+    
+    /** the properties followed, all if empty */
+    private final Set<URI> included = new HashSet<URI>();
+    
+    /** the properties not followed */
+    private final Set<URI> excluded = new HashSet<URI>();
+    
+    /** the objects of these classes and their subclasses are not expanded */
+    private final Set<Class<?>> stopClasses = new HashSet<Class<?>>();
+    
+    public SimpleTraversalPolicy() {
+    }
+    
+    /**
+     * @param maxDepth the maximum number of object properties followed 
+     * from a root, negative for unbounded
+     */
+    public SimpleTraversalPolicy(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+    
+    public boolean isExpanded(Object obj, int depth) {
+        if(maxDepth >= 0 && depth >= maxDepth){
+            return false;
+        }
+        for(Class<?> cls : stopClasses){
+            if(cls.isInstance(obj)){
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public boolean isFollowed(Object obj, URI property) {
+        if(excluded.contains(property)){
+            return false;
+        }
+        return included.isEmpty() || included.contains(property);
+    }
+    
+    /**
+     * @return the maximum number of object properties followed from a root, 
+     * negative for unbounded
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+    
+    /**
+     * Sets the maximum number of object properties followed from a root. 
+     * The objects at the maximum depth are still marshalled, their object 
+     * properties are not. A depth of 0 only marshals the roots themselves.
+     * <br>
+     * Default value is <code>-1</code> (unbounded).
+     * 
+     * @param maxDepth the maximum depth, negative for unbounded
+     */
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+    
+    /**
+     * Restricts the traversal to the included object properties, once a 
+     * property is included all properties not included are skipped.
+     * @param property the URI of the object property
+     * @return this policy
+     */
+    public SimpleTraversalPolicy include(URI property) {
+        included.add(property);
+        return this;
+    }
+    
+    /**
+     * Skips the values of an object property
+     * @param property the URI of the object property
+     * @return this policy
+     */
+    public SimpleTraversalPolicy exclude(URI property) {
+        excluded.add(property);
+        return this;
+    }
+    
+    /**
+     * Stops the traversal at the objects of a class: they are marshalled 
+     * but their object properties are not.
+     * @param cls the class, applies to its subclasses as well
+     * @return this policy
+     */
+    public SimpleTraversalPolicy stopAt(Class<?> cls) {
+        stopClasses.add(cls);
+        return this;
+    }
+
+}
@@ -0,0 +1,55 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+
+/**
+ * Bounds the part of an object graph the {@link Marshaller} traverses, 
+ * see {@link Marshaller#setTraversalPolicy(TraversalPolicy)}.
+ * <br>
+ * The objects passed to the Marshaller are the roots at depth 0, an 
+ * object reached over {@code n} object properties has the depth 
+ * {@code n}. Every reached object is marshalled with its class and its 
+ * data properties, the policy decides whether its object properties 
+ * are marshalled and thereby the objects behind them are reached.
+ * 
+ * @see SimpleTraversalPolicy
+ */
+public interface TraversalPolicy {
+    
+    /**
+     * @param obj the object reached
+     * @param depth the number of object properties between the object 
+     * and the nearest root, 0 for a root
+     * @return {@code true} if the object properties of the object shall be marshalled
+     */
+    boolean isExpanded(Object obj, int depth);
+    
+    /**
+     * Called for the object properties of the expanded objects.
+     * 
+     * @param obj the object the property belongs to
+     * @param property the URI of the object property
+     * @return {@code true} if the values of the property shall be marshalled
+     */
+    boolean isFollowed(Object obj, URI property);
+
+}
@@ -0,0 +1,64 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+
+/**
+ * Receives the statements read by a triple parser. 
+ */
+interface TripleHandler {
+    
+    /**
+     * A statement with a resource as object
+     */
+    void resource(URI subject, URI predicate, URI object) throws UnmarshalException;
+    
+    /**
+     * A statement with a literal as object
+     * @param dataType the data type of the literal, {@code null} for plain literals
+     */
+    void literal(URI subject, URI predicate, String literal, URI dataType) throws UnmarshalException;
+    
+    /**
+     * A statement with an integral literal read as a number, e.g. from 
+     * the binary format, so there is no lexical form to parse
+     * @param dataType the data type of the literal
+     */
+    void longValue(URI subject, URI predicate, long value, URI dataType) throws UnmarshalException;
+    
+    /**
+     * A statement with a floating point literal read as a number
+     * @param dataType the data type of the literal, e.g. xsd:float for a widened float
+     */
+    void doubleValue(URI subject, URI predicate, double value, URI dataType) throws UnmarshalException;
+    
+    /**
+     * A statement with a boolean literal read as such
+     * @param dataType the data type of the literal
+     */
+    void booleanValue(URI subject, URI predicate, boolean value, URI dataType) throws UnmarshalException;
+    
+    /**
+     * Called after the last statement
+     */
+    void end() throws UnmarshalException;
+
+}
@@ -0,0 +1,148 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes RDF statements of marshalled individuals directly to a 
+ * {@link Writer}. Only the URIs of the declared classes and properties 
+ * are remembered, so the memory needed does not grow with the number 
+ * of statements written.
+ * <br>
+ * Relative URIs (e.g. {@code #id}) are resolved against the ontology URI.
+ */
+abstract class TripleWriter {
+    
+    static final String RDF_NS = "http://www.w3.org/1999/02/22-rdf-syntax-ns#";
+    static final String OWL_NS = "http://www.w3.org/2002/07/owl#";
+    
+    static final URI RDF_TYPE = URI.create(RDF_NS + "type");
+    static final URI OWL_ONTOLOGY = URI.create(OWL_NS + "Ontology");
+    static final URI OWL_IMPORTS = URI.create(OWL_NS + "imports");
+    static final URI OWL_CLASS = URI.create(OWL_NS + "Class");
+    static final URI OWL_OBJECT_PROPERTY = URI.create(OWL_NS + "ObjectProperty");
+    static final URI OWL_DATATYPE_PROPERTY = URI.create(OWL_NS + "DatatypeProperty");
+    
+    /** the output */
+    protected final Writer out;
+    
+    /** the ontology URI, base for relative URIs */
+    protected final URI base;
+    
+    /** classes and properties already declared */
+    private final Set<URI> declared = new HashSet<URI>();
+    
+    /** the relative URIs resolved so far, an individual is mostly used in several statements */
+    private final Map<URI,URI> resolved = new HashMap<URI,URI>();
+    
+    protected TripleWriter(Writer out, URI base) {
+        this.out = out;
+        this.base = base;
+    }
+    
+    /**
+     * @return a writer for the format
+     */
+    static TripleWriter create(RdfFormat format, Writer out, URI base){
+        switch (format) {
+        case N_TRIPLES:
+            return new NTriplesWriter(out, base);
+        case RDF_XML:
+            return new RdfXmlWriter(out, base);
+        default:
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+    
+    /**
+     * Writes the document header and the ontology declaration
+     */
+    void startDocument() throws IOException {
+        resource(base, RDF_TYPE, OWL_ONTOLOGY);
+    }
+    
+    /**
+     * Finishes and flushes the output
+     */
+    void endDocument() throws IOException {
+        out.flush();
+    }
+    
+    void importDeclaration(URI ontologyUri) throws IOException {
+        resource(base, OWL_IMPORTS, ontologyUri);
+    }
+    
+    void classAssertion(URI individual, URI owlClass) throws IOException {
+        URI cls = resolve(owlClass);
+        declare(cls, OWL_CLASS);
+        resource(resolve(individual), RDF_TYPE, cls);
+    }
+    
+    void dataPropertyValue(URI individual, URI property, URI dataType, String literal) throws IOException {
+        URI prop = resolve(property);
+        declare(prop, OWL_DATATYPE_PROPERTY);
+        literal(resolve(individual), prop, literal, dataType);
+    }
+    
+    void objectPropertyValue(URI subject, URI property, URI object) throws IOException {
+        URI prop = resolve(property);
+        declare(prop, OWL_OBJECT_PROPERTY);
+        resource(resolve(subject), prop, resolve(object));
+    }
+    
+    /**
+     * Writes the type of a class or property the first time it is used
+     */
+    private void declare(URI uri, URI type) throws IOException {
+        if(declared.add(uri)){
+            resource(uri, RDF_TYPE, type);
+        }
+    }
+    
+    protected URI resolve(URI uri){
+        if(uri.isAbsolute()){
+            return uri;
+        }
+        URI abs = resolved.get(uri);
+        if(abs == null){
+            abs = base.resolve(uri);
+            resolved.put(uri, abs);
+        }
+        return abs;
+    }
+    
+    /**
+     * Writes a statement with a resource as object
+     */
+    protected abstract void resource(URI subject, URI predicate, URI object) throws IOException;
+    
+    /**
+     * Writes a statement with a typed literal as object
+     */
+    protected abstract void literal(URI subject, URI predicate, String literal, URI dataType) throws IOException;
+    
+}
@@ -19,26 +19,31 @@
  */
 package com.yoshtec.owl.marshall;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
-import javax.xml.bind.DatatypeConverter;
-
 import org.semanticweb.owl.apibinding.OWLManager;
 import org.semanticweb.owl.model.OWLClass;
 import org.semanticweb.owl.model.OWLConstant;
+import org.semanticweb.owl.model.OWLDataPropertyAssertionAxiom;
 import org.semanticweb.owl.model.OWLDataPropertyExpression;
 import org.semanticweb.owl.model.OWLIndividual;
+import org.semanticweb.owl.model.OWLObjectPropertyAssertionAxiom;
 import org.semanticweb.owl.model.OWLObjectPropertyExpression;
 import org.semanticweb.owl.model.OWLOntology;
 import org.semanticweb.owl.model.OWLOntologyCreationException;
@@ -48,10 +53,9 @@ import org.semanticweb.owl.util.SimpleURIMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import sun.reflect.generics.reflectiveObjects.NotImplementedException;
-
 import com.yoshtec.owl.Const;
-import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.LiteralCodec;
+import com.yoshtec.owl.LiteralCodecRegistry;
 import com.yoshtec.owl.XsdTypeMapper;
 import com.yoshtec.owl.annotations.OwlClass;
 import com.yoshtec.owl.annotations.OwlClassImplementation;
@@ -59,8 +63,12 @@ import com.yoshtec.owl.annotations.OwlOntology;
 import com.yoshtec.owl.annotations.OwlRegistry;
 import com.yoshtec.owl.cf.ClassFacade;
 import com.yoshtec.owl.cf.ClassFacadeFactory;
+import com.yoshtec.owl.cf.PrimitivePropertyAccessor;
+import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.cf.StagingContext;
 import com.yoshtec.owl.util.ClassUtil;
 import com.yoshtec.owl.util.OntologyUtil;
+import com.yoshtec.owl.util.UriDictionary;
 
 /**
  * Unmarshals OWL Ontologies into Java Objects.
@@ -78,41 +86,32 @@ public final class UnMarshaller {
 	// only classes should be in there, no interfaces or other
 	protected Map<URI,ClassFacade> registeredClasses = new HashMap<URI,ClassFacade>();
 
-	/** List of already unmarshalled Objects */
-	protected Map<URI,Object> unmarshalledObjects = null;
-
-	/** List of the object properties that are not yet connected */
-	protected List<ObjectPropHolder> unresolvedObjectProperties = null; 
+	/** the already unmarshalled Objects and the object properties that are not yet connected */
+	protected LinkStaging links = null;
+	
+	/** the values set during the current run */
+	protected StagingContext staging = null;
 	
 	/** the Ontology */
 	protected OWLOntology ontology = null;
 	
+	/** Indexes of the ontologies already loaded for single individuals, by physical URI */
+	private final Map<URI,IndividualIndex> indexes = new HashMap<URI,IndividualIndex>();
+	
 	/** Default type mapper */
 	protected XsdTypeMapper typeMapper;
 
 	private ClassFacadeFactory cfFactory; 
 	
+	/** converts the literals to Java values */
+	private LiteralCodecRegistry literalCodecs;
+	
+	/** the codec last resolved for a property */
+	private final Map<PropertyAccessor,ResolvedCodec> resolvedCodecs = new IdentityHashMap<PropertyAccessor,ResolvedCodec>();
+	
+	/** set object properties leaving the neighbourhood of a single individual lazily */
+	private boolean lazy = false;
 	
-	/**
-	 * Holds the information necessary to 
-	 * associate object properties and 
-	 * their values with the unmarshalled objects 
-	 *
-	 */
-	private static class ObjectPropHolder{
-		public URI owlInduri = null;
-		public ClassFacade cf = null;
-		public URI propUri = null;
-		public Object instance = null;
-		
-		public ObjectPropHolder(URI owlInduri, ClassFacade cf, URI propUri, Object instance) {
-			super();
-			this.owlInduri = owlInduri;
-			this.cf = cf;
-			this.propUri = propUri;
-			this.instance = instance;
-		}
-	}
 	
 	public UnMarshaller(){
 	   this(new XsdTypeMapper());
@@ -122,7 +121,8 @@ public final class UnMarshaller {
 	    
 	    this.typeMapper = typeMapper == null ? new XsdTypeMapper() : typeMapper;
 	    
-	    cfFactory = new ClassFacadeFactory(this.typeMapper);
+	    cfFactory = ClassFacadeFactory.getShared(this.typeMapper);
+	    literalCodecs = new LiteralCodecRegistry(this.typeMapper);
 	}
 	
 	
@@ -142,16 +142,113 @@ public final class UnMarshaller {
 	
 	
 	/**
+	 * Unmarshals a single individual without its object properties,
+	 * same as {@code unmarshall(ontologyPhysicalUri, individualUri, 0)}.
 	 * 
 	 * @param <T>
 	 * @param ontologyPhysicalUri
 	 * @param individualUri 
 	 * @return the individual specified by the individualUri if existent else null;
 	 * @throws UnmarshalException if unmarshalling fails 
+	 * @see #unmarshall(URI, URI, int)
 	 */
 	public <T> T unmarshall(URI ontologyPhysicalUri, URI individualUri) throws UnmarshalException{
-	    throw new NotImplementedException();
-	    //return null;
+	    return this.<T>unmarshall(ontologyPhysicalUri, individualUri, 0);
+	}
+	
+	/**
+	 * Unmarshals a single individual and the individuals reachable from it 
+	 * over at most {@code depth} object properties. Object properties 
+	 * pointing further out are not set, unless the UnMarshaller is 
+	 * {@link #setLazy(boolean) lazy}.
+	 * <br>
+	 * The ontology is loaded and indexed by individual once, repeated 
+	 * calls with the same physical URI reuse the index. The index and 
+	 * the ontology are kept until {@link #clearIndexes()} is called, 
+	 * changes to the file are not seen before.
+	 * 
+	 * @param <T>
+	 * @param ontologyPhysicalUri the physical URI of the ontology
+	 * @param individualUri the URI of the individual
+	 * @param depth the number of object properties to follow, 0 for only the individual itself
+	 * @return the individual specified by the individualUri if existent else null;
+	 * @throws UnmarshalException if unmarshalling fails 
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> T unmarshall(URI ontologyPhysicalUri, URI individualUri, int depth) throws UnmarshalException{
+		if(depth < 0){
+			throw new IllegalArgumentException("depth must not be negative");
+		}
+		
+		IndividualIndex index = getIndex(ontologyPhysicalUri);
+		
+		this.ontology = index.getOntology();
+		this.links = new LinkStaging();
+		this.staging = new StagingContext();
+		
+		try {
+			// breadth first through the neighbourhood 
+			List<URI> level = Collections.singletonList(individualUri);
+			for(int d = 0; !level.isEmpty(); d++){
+				List<URI> next = new ArrayList<URI>();
+				for(URI uri : level){
+					if(links.isUnmarshalled(uri)){
+						continue;
+					}
+					try {
+						unmarshall(uri, index.get(uri), d < depth ? next : null);
+					} catch (IllegalArgumentException e) {
+						throw new UnmarshalException("Error unmarshalling the individual " + uri, e);
+					} catch (InstantiationException e) {
+						throw new UnmarshalException("Error unmarshalling the individual " + uri, e);
+					} catch (IllegalAccessException e) {
+						throw new UnmarshalException("Error unmarshalling the individual " + uri, e);
+					} catch (InvocationTargetException e) {
+						throw new UnmarshalException("Error unmarshalling the individual " + uri, e);
+					}
+				}
+				level = next;
+			}
+			
+			// connect the objects inside the neighbourhood, 
+			// the ones outside on demand if lazy
+			links.resolve(staging, lazy ? new LazyGraph(this, index, links.getUnmarshalled()) : null);
+			commit(staging);
+			
+			return (T)links.get(individualUri);
+		} finally {
+			this.links = null;
+			this.staging = null;
+		}
+	}
+	
+	/**
+	 * Drops the indexes kept by {@link #unmarshall(URI, URI, int)} and 
+	 * removes their ontologies from the manager, so the next call loads 
+	 * the ontology again. Objects unmarshalled lazily before still load 
+	 * from the old index.
+	 */
+	public void clearIndexes(){
+		for(IndividualIndex index : indexes.values()){
+			manager.removeOntology(index.getOntology().getURI());
+		}
+		indexes.clear();
+	}
+	
+	/**
+	 * @return the index of the ontology, loads the ontology if necessary
+	 */
+	private IndividualIndex getIndex(URI physicalUri) throws UnmarshalException {
+		IndividualIndex index = indexes.get(physicalUri);
+		if(index == null){
+			try {
+				index = new IndividualIndex(manager.loadOntologyFromPhysicalURI(physicalUri));
+			} catch (OWLOntologyCreationException e) {
+				throw new UnmarshalException("Error opening Ontology " + physicalUri, e);
+			}
+			indexes.put(physicalUri, index);
+		}
+		return index;
 	}
 	
 	/**
@@ -186,8 +283,8 @@ public final class UnMarshaller {
 		this.ontology = onto;
 
 		// initialize some variables
-		this.unmarshalledObjects = new HashMap<URI,Object>();
-		this.unresolvedObjectProperties = new ArrayList<ObjectPropHolder>();
+		this.links = new LinkStaging();
+		this.staging = new StagingContext();
 		
 		// first unmarshall normal individuals 
 		for(OWLIndividual oi : ontology.getReferencedIndividuals()){
@@ -205,38 +302,107 @@ public final class UnMarshaller {
 		}
 
 		// then build the object graph
-		for(ObjectPropHolder prop : unresolvedObjectProperties){
-			prop.cf.getProperty(prop.propUri).setOrAddValue(prop.instance, unmarshalledObjects.get(prop.owlInduri));
-		}
+		links.resolve(staging);
 		
-		for(ClassFacade cf : registeredClasses.values()){
-			try {
-				cf.commit();
-			} catch (InvocationTargetException e) {
-				throw new UnmarshalException("Error setting the value to object " + cf, e);
-			} catch (IllegalAccessException e) {
-				throw new UnmarshalException("Error setting the value to object " + cf, e);
-			}
-		}
+		commit(staging);
 		
-		// copy values and sort out null objects
-		Set<Object> result = new HashSet<Object>();
-		for(Object obj : unmarshalledObjects.values()){
-			if(obj != null){
-				result.add(obj);
-			}
-		}
+		// copy values, null objects are sorted out already
+		Set<Object> result = new HashSet<Object>(links.getObjects());
 		
 		// cleanup 
-		this.unresolvedObjectProperties = null;
-		this.unmarshalledObjects = null;
+		this.links = null;
+		this.staging = null;
 		
 		return result;
 	}
 
+	/**
+	 * Sets the staged values to the objects
+	 */
+	private void commit(StagingContext ctx) throws UnmarshalException {
+		try {
+			ctx.commit();
+		} catch (InvocationTargetException e) {
+			throw new UnmarshalException("Error setting the staged values to the objects", e);
+		} catch (IllegalAccessException e) {
+			throw new UnmarshalException("Error setting the staged values to the objects", e);
+		}
+	}
+	
+	/**
+	 * Unmarshals the objects of an ontology in N-Triples format incrementally.
+	 * The statements are read one by one and every object is handed to 
+	 * the listener as soon as the statements about its individual are read, 
+	 * so the ontology is never held in memory as a whole.
+	 * <br>
+	 * Object properties are deferred until the end of the input, they are
+	 * set before {@link UnmarshalListener#finished()} is called.
+	 * Statements about an individual are expected to be grouped, as they are
+	 * written by {@link Marshaller#marshal(Collection, URI, java.io.Writer, RdfFormat, boolean)}.
+	 * Imports of the ontology are not followed.
+	 * 
+	 * @param input the N-Triples, the reader will not be closed
+	 * @param listener receives the unmarshalled objects
+	 * @throws UnmarshalException if reading or unmarshalling fails
+	 */
+	public void unmarshal(Reader input, UnmarshalListener listener) throws UnmarshalException {
+		try {
+			UriDictionary uris = newUriDictionary();
+			new NTriplesParser(new IncrementalHandler(listener, uris), uris).parse(input);
+		} catch (IOException e) {
+			throw new UnmarshalException("Error reading the input", e);
+		}
+	}
+	
+	/**
+	 * Unmarshals the objects of an N-Triples or Turtle file incrementally, 
+	 * like {@link #unmarshal(Reader, UnmarshalListener)}. The file is memory 
+	 * mapped and tokenized in place, the statements are handed straight to 
+	 * the registered classes without building an ontology. For large 
+	 * dumps this is considerably faster than reading them through the OWL API.
+	 * 
+	 * @param input the N-Triples or Turtle file
+	 * @param listener receives the unmarshalled objects
+	 * @throws UnmarshalException if reading or unmarshalling fails
+	 */
+	public void unmarshal(File input, UnmarshalListener listener) throws UnmarshalException {
+		try {
+			UriDictionary uris = newUriDictionary();
+			new MappedTurtleParser(new IncrementalHandler(listener, uris), MappedTurtleParser.DEFAULT_WINDOW, uris).parse(input);
+		} catch (IOException e) {
+			throw new UnmarshalException("Error reading " + input, e);
+		}
+	}
+	
+	/**
+	 * Unmarshals the objects of the binary format written by 
+	 * {@link Marshaller#marshal(Collection, URI, java.io.OutputStream, boolean)} 
+	 * incrementally, like {@link #unmarshal(Reader, UnmarshalListener)}.
+	 * 
+	 * @param input the binary graph, the stream will not be closed
+	 * @param listener receives the unmarshalled objects
+	 * @throws UnmarshalException if reading or unmarshalling fails
+	 */
+	public void unmarshal(InputStream input, UnmarshalListener listener) throws UnmarshalException {
+		try {
+			UriDictionary uris = newUriDictionary();
+			new BinaryGraphReader(new IncrementalHandler(listener, uris), uris).parse(input);
+		} catch (IOException e) {
+			throw new UnmarshalException("Error reading the input", e);
+		}
+	}
+
+	/**
+	 * @return a new dictionary for the URIs read, the class and property 
+	 * URIs are the instances of the registered facades
+	 */
+	private static UriDictionary newUriDictionary(){
+		return new UriDictionary(ClassFacadeFactory.getSchemaUris());
+	}
+
 	protected void unmarshall(OWLIndividual oi) throws IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException {
 
-		if(!unmarshalledObjects.containsKey(oi.getURI())){
+		if(!links.isUnmarshalled(oi.getURI())){
 			// check which Object shall be instantiated
 			Set<OWLClass> oclasses = OntologyUtil.getOWLClasses(oi.getTypes(ontology));
 			log.debug("OWLClasses from Individual {}: {}", oi, oclasses);
@@ -260,7 +426,7 @@ public final class UnMarshaller {
 			if(cf == null){
 				log.warn("No SimpleClassFacade found for Individual {}", oi);
 				// put the URI to the list, at least we tried for this individual
-				unmarshalledObjects.put(oi.getURI(), null);
+				links.put(oi.getURI(), null);
 				// prematurely end
 				return;
 			}
@@ -268,41 +434,113 @@ public final class UnMarshaller {
 			// Instantiation
 			String id = oi.toString();
 			Object myObj = cf.getNewInstance(id);
-			unmarshalledObjects.put(oi.getURI(), myObj);
+			int linkId = links.put(oi.getURI(), myObj);
 			if(cf.hasSetableId()){
-				cf.setId(myObj,id);
+				cf.setId(staging, myObj, id);
 			}
 
 			// Data Properties!
 			this.addDataProperties(oi, cf, myObj);
 
 			// Object Properties
-			this.addObjectProperties(oi, cf, myObj);
+			this.addObjectProperties(oi, cf, linkId);
 		}
 	}
 	
 
+	/**
+	 * Unmarshals an individual from its indexed axioms.
+	 * @param next receives the individuals referenced by object properties, 
+	 * {@code null} if they should not be followed
+	 */
+	private void unmarshall(URI uri, IndividualIndex.Entry entry, List<URI> next) throws IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException {
+		
+		ClassFacade cf = getClassFacade(entry);
+		if(cf == null){
+			log.warn("No SimpleClassFacade found for Individual {}", uri);
+			links.put(uri, null);
+			return;
+		}
+		
+		Object myObj = newInstance(staging, cf, uri);
+		int linkId = links.put(uri, myObj);
+		setDataProperties(staging, cf, myObj, entry);
+		
+		// Object Properties
+		for(OWLObjectPropertyAssertionAxiom oa : entry.objectProperties){
+			URI propUri = oa.getProperty().asOWLObjectProperty().getURI();
+			if(cf.hasProperty(propUri)){
+				URI target = oa.getObject().getURI();
+				links.link(linkId, cf.getProperty(propUri), target);
+				if(next != null){
+					next.add(target);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the facade of a registered class of the individual, 
+	 * {@code null} if there is none
+	 */
+	ClassFacade getClassFacade(IndividualIndex.Entry entry){
+		ClassFacade cf = null;
+		if(entry != null){
+			for(URI curi : entry.classes){
+				if(registeredClasses.containsKey(curi)){
+					cf = registeredClasses.get(curi);
+				}
+			}
+		}
+		return cf;
+	}
+	
+	/**
+	 * Instantiates the object of an individual and stages its id
+	 */
+	Object newInstance(StagingContext ctx, ClassFacade cf, URI uri) throws IllegalArgumentException, InstantiationException, IllegalAccessException, InvocationTargetException {
+		String id = shortName(uri);
+		Object obj = cf.getNewInstance(id);
+		if(cf.hasSetableId()){
+			cf.setId(ctx, obj, id);
+		}
+		return obj;
+	}
+	
+	/**
+	 * Sets the data properties of an individual from its indexed axioms
+	 */
+	void setDataProperties(StagingContext ctx, ClassFacade cf, Object obj, IndividualIndex.Entry entry) throws IllegalAccessException, InvocationTargetException {
+		for(OWLDataPropertyAssertionAxiom da : entry.dataProperties){
+			URI propUri = da.getProperty().asOWLDataProperty().getURI();
+			if(cf.hasProperty(propUri)){
+				OWLConstant ocd = da.getObject();
+				URI dt = ocd.isTyped() ? ocd.asOWLTypedConstant().getDataType().getURI() : null;
+				setLiteral(ctx, cf.getProperty(propUri), obj, ocd.getLiteral(), dt);
+			}
+		}
+	}
 
-	private void addObjectProperties(OWLIndividual oi, ClassFacade cf, Object instance) {
+	private void addObjectProperties(OWLIndividual oi, ClassFacade cf, int linkId) {
 		for (Entry<OWLObjectPropertyExpression, Set<OWLIndividual>> opentry : oi.getObjectPropertyValues(ontology).entrySet()){
 
 			// retrieve current property URI
 			URI propUri = opentry.getKey().asOWLObjectProperty().getURI();
 
 			if (cf.hasProperty(propUri)) {
+				PropertyAccessor prop = cf.getProperty(propUri);
 
 				// Walk through the values
 				for (OWLIndividual ocd : opentry.getValue()) {
-					// get the value an  Set the Property Value
-					ObjectPropHolder ph = new ObjectPropHolder(ocd.getURI(),cf,propUri, instance);
-					unresolvedObjectProperties.add(ph);
+					// remember the value to be set later
+					links.link(linkId, prop, ocd.getURI());
 				}
 			}
 		}
 	}
 
 
-	private void addDataProperties(OWLIndividual oi, ClassFacade cf, Object instance) {
+	private void addDataProperties(OWLIndividual oi, ClassFacade cf, Object instance) throws IllegalAccessException, InvocationTargetException {
 		for( Entry<OWLDataPropertyExpression, Set<OWLConstant>> dpEntry : oi.getDataPropertyValues(ontology).entrySet()) {
 
 			// retrieve current property URI
@@ -310,34 +548,341 @@ public final class UnMarshaller {
 
 			if(cf.hasProperty(propUri)){
 
+				PropertyAccessor prop = cf.getProperty(propUri);
+
 				// Walk through the values
 				for(OWLConstant ocd : dpEntry.getValue()) {
-					//try to read the literal
-					Object value = readValue(ocd.getLiteral(), ocd.asOWLTypedConstant().getDataType().getURI());
-
-					// Set the Property Value
-					cf.getProperty(propUri).setOrAddValue(instance, value);
+					URI dt = ocd.isTyped() ? ocd.asOWLTypedConstant().getDataType().getURI() : null;
+					setLiteral(staging, prop, instance, ocd.getLiteral(), dt);
 				}
 			}
 		}
 	}
 
-	// TODO: Improve reading and printing values in a more JAXB manner
-	private Object readValue(String literal, URI dt) {
-		Class<?> type = typeMapper.getType(XsdType.fromUri(dt));
-
-		if(type.isAssignableFrom(Calendar.class))
-			return DatatypeConverter.parseDateTime(literal);
-
-		if(type.isAssignableFrom(String.class))
-			return literal;
-
-		if(type.isAssignableFrom(Integer.class))
-			return Integer.parseInt(literal);
-
-		return null;
+	/**
+	 * Converts the literal with the codec for the property and sets 
+	 * the value. Single valued primitive properties are set directly 
+	 * without boxing the value if the accessor supports it.
+	 */
+	private void setLiteral(StagingContext ctx, PropertyAccessor prop, Object obj, String literal, URI dt) throws IllegalAccessException, InvocationTargetException {
+		LiteralCodec<?> codec = getCodec(prop, dt);
+		if(codec == null){
+			log.warn("Unable to convert literal '{}' of type {} for property " + prop.getPropUri(), literal, dt);
+			return;
+		}
+		
+		Class<?> type = prop.getType();
+		// characters are set boxed, like the Marshaller reads them
+		if(type.isPrimitive() && type != char.class && prop instanceof PrimitivePropertyAccessor){
+			PrimitivePropertyAccessor pp = (PrimitivePropertyAccessor)prop;
+			if(type == boolean.class){
+				pp.setBoolean(obj, codec.parseBoolean(literal));
+			} else if(type == double.class || type == float.class){
+				pp.setDouble(obj, codec.parseDouble(literal));
+			} else {
+				pp.setLong(obj, codec.parseLong(literal));
+			}
+			return;
+		}
+		
+		prop.setOrAddValue(ctx, obj, codec.parse(literal));
+	}
+	
+	/**
+	 * Sets a value read as a number or boolean, so there is no literal 
+	 * to parse. Single valued primitive properties of the same kind are 
+	 * set directly, the others get the value converted by the codec.
+	 * @param value a {@link Long}, {@link Double} or {@link Boolean}
+	 */
+	private void setValue(StagingContext ctx, PropertyAccessor prop, Object obj, Object value, URI dt) throws IllegalAccessException, InvocationTargetException {
+		LiteralCodec<?> codec = getCodec(prop, dt);
+		if(codec == null){
+			log.warn("Unable to convert value '{}' of type {} for property " + prop.getPropUri(), value, dt);
+			return;
+		}
+		
+		Class<?> type = prop.getType();
+		if(type.isPrimitive() && type != char.class && prop instanceof PrimitivePropertyAccessor){
+			PrimitivePropertyAccessor pp = (PrimitivePropertyAccessor)prop;
+			if(type == boolean.class){
+				if(value instanceof Boolean){
+					pp.setBoolean(obj, ((Boolean)value).booleanValue());
+					return;
+				}
+			} else if(type == double.class || type == float.class){
+				if(value instanceof Number){
+					pp.setDouble(obj, ((Number)value).doubleValue());
+					return;
+				}
+			} else if(value instanceof Long && fits(type, ((Long)value).longValue())){
+				pp.setLong(obj, ((Long)value).longValue());
+				return;
+			}
+		}
+		
+		// other kinds and values out of range are left to the codec
+		Object converted;
+		if(value instanceof Long){
+			converted = codec.valueOf(((Long)value).longValue());
+		} else if(value instanceof Double){
+			converted = codec.valueOf(((Double)value).doubleValue());
+		} else {
+			converted = codec.valueOf(((Boolean)value).booleanValue());
+		}
+		prop.setOrAddValue(ctx, obj, converted);
+	}
+	
+	/**
+	 * @return {@code true} if the value is in the range of the integral primitive type
+	 */
+	private static boolean fits(Class<?> type, long value){
+		return type == long.class 
+			|| type == int.class && (int)value == value
+			|| type == short.class && (short)value == value
+			|| type == byte.class && (byte)value == value;
+	}
+	
+	/**
+	 * @return the codec for the property and the data type, resolved 
+	 * once as long as the data type of the literals does not change
+	 */
+	private LiteralCodec<?> getCodec(PropertyAccessor prop, URI dt){
+		ResolvedCodec rc = resolvedCodecs.get(prop);
+		if(rc == null || !(dt == null ? rc.dataType == null : dt.equals(rc.dataType))){
+			rc = new ResolvedCodec(dt, literalCodecs.getCodec(dt, prop.getValueType()));
+			resolvedCodecs.put(prop, rc);
+		}
+		return rc.codec;
+	}
+	
+	/**
+	 * The codec resolved for a property 
+	 */
+	private static class ResolvedCodec {
+		final URI dataType;
+		final LiteralCodec<?> codec;
+		
+		ResolvedCodec(URI dataType, LiteralCodec<?> codec) {
+			this.dataType = dataType;
+			this.codec = codec;
+		}
 	}
 
+	/**
+	 * Turns the statements from a {@link NTriplesParser}, {@link MappedTurtleParser} 
+	 * or {@link BinaryGraphReader} into objects. 
+	 * Only the statements about the current subject are kept, everything
+	 * else is reduced to the unmarshalled objects and the pending 
+	 * object properties.
+	 */
+	private class IncrementalHandler implements TripleHandler {
+		
+		private final UnmarshalListener listener;
+		
+		/** the unmarshalled objects and the object properties to be set at the end */
+		private final LinkStaging graph;
+		
+		/** the facades of the unmarshalled objects */
+		private final Map<URI,ClassFacade> facades = new HashMap<URI,ClassFacade>();
+		
+		/** statements about individuals without a class assertion (yet) */
+		private final Map<URI,Subject> untyped = new HashMap<URI,Subject>();
+		
+		/** individuals without a registered class */
+		private final Set<URI> ignored = new HashSet<URI>();
+		
+		/** the values of this run */
+		private final StagingContext ctx = new StagingContext();
+		
+		/** the current subject */
+		private Subject current = null;
+		
+		IncrementalHandler(UnmarshalListener listener, UriDictionary uris) {
+			this.listener = listener;
+			this.graph = new LinkStaging(uris);
+		}
+		
+		public void resource(URI subject, URI predicate, URI object) throws UnmarshalException {
+			Subject s = subject(subject);
+			if(TripleWriter.RDF_TYPE.equals(predicate)){
+				s.typed = true;
+				ClassFacade cf = registeredClasses.get(object);
+				if(cf != null){
+					if(s.cf != null && s.cf != cf){
+						log.warn("More than one Class is asserted for ind: {}", subject);
+					}
+					s.cf = cf;
+				}
+			} else {
+				s.linkProps.add(predicate);
+				s.linkTargets.add(object);
+			}
+		}
+		
+		public void literal(URI subject, URI predicate, String literal, URI dataType) throws UnmarshalException {
+			data(subject, predicate, literal, dataType);
+		}
+		
+		public void longValue(URI subject, URI predicate, long value, URI dataType) throws UnmarshalException {
+			data(subject, predicate, Long.valueOf(value), dataType);
+		}
+		
+		public void doubleValue(URI subject, URI predicate, double value, URI dataType) throws UnmarshalException {
+			data(subject, predicate, Double.valueOf(value), dataType);
+		}
+		
+		public void booleanValue(URI subject, URI predicate, boolean value, URI dataType) throws UnmarshalException {
+			data(subject, predicate, Boolean.valueOf(value), dataType);
+		}
+		
+		private void data(URI subject, URI predicate, Object value, URI dataType) throws UnmarshalException {
+			Subject s = subject(subject);
+			s.dataProps.add(predicate);
+			s.dataValues.add(value);
+			s.dataTypes.add(dataType);
+		}
+		
+		public void end() throws UnmarshalException {
+			finish(current);
+			current = null;
+			
+			if(!untyped.isEmpty()){
+				log.debug("No Class asserted for Individuals {}", untyped.keySet());
+			}
+			
+			// build the object graph
+			graph.resolve(ctx);
+			commit(ctx);
+			
+			listener.finished();
+		}
+		
+		private Subject subject(URI uri) throws UnmarshalException {
+			if(current == null || !current.uri.equals(uri)){
+				finish(current);
+				current = new Subject(uri);
+			}
+			return current;
+		}
+		
+		/**
+		 * Instantiates the object of the subject if possible, 
+		 * sets the data properties and stages the object properties 
+		 */
+		private void finish(Subject s) throws UnmarshalException {
+			if(s == null){
+				return;
+			}
+			
+			// a later group of statements about an already known individual
+			Object instance = graph.get(s.uri);
+			ClassFacade cf = facades.get(s.uri);
+			
+			boolean created = false;
+			
+			if(instance == null){
+				if(ignored.contains(s.uri)){
+					return;
+				}
+				Subject earlier = untyped.remove(s.uri);
+				if(earlier != null){
+					s.merge(earlier);
+				}
+				if(s.cf == null){
+					if(s.typed){
+						// not in the scope of the registered classes
+						log.debug("No registered Class found for Individual {}", s.uri);
+						ignored.add(s.uri);
+					} else {
+						untyped.put(s.uri, s);
+					}
+					return;
+				}
+				cf = s.cf;
+				created = true;
+				
+				String id = shortName(s.uri);
+				try {
+					instance = cf.getNewInstance(id);
+				} catch (Exception e) {
+					throw new UnmarshalException("Error unmarshalling the individual " + s.uri, e);
+				}
+				if(cf.hasSetableId()){
+					cf.setId(ctx, instance, id);
+				}
+				graph.put(s.uri, instance);
+				facades.put(s.uri, cf);
+			}
+			
+			try {
+				for(int i = 0; i < s.dataProps.size(); i++){
+					URI propUri = s.dataProps.get(i);
+					if(cf.hasProperty(propUri)){
+						Object value = s.dataValues.get(i);
+						if(value instanceof String){
+							setLiteral(ctx, cf.getProperty(propUri), instance, (String)value, s.dataTypes.get(i));
+						} else {
+							setValue(ctx, cf.getProperty(propUri), instance, value, s.dataTypes.get(i));
+						}
+					}
+				}
+			} catch (Exception e) {
+				throw new UnmarshalException("Error setting the data properties of " + s.uri, e);
+			}
+			commit(ctx);
+			
+			int linkId = graph.intern(s.uri);
+			for(int i = 0; i < s.linkProps.size(); i++){
+				URI propUri = s.linkProps.get(i);
+				if(cf.hasProperty(propUri)){
+					graph.link(linkId, cf.getProperty(propUri), s.linkTargets.get(i));
+				}
+			}
+			
+			if(created){
+				listener.unmarshalled(s.uri, instance);
+			}
+		}
+	}
+	
+	/**
+	 * @return the fragment of the URI or else the last path segment, 
+	 * like the name of an {@link OWLIndividual}
+	 */
+	private static String shortName(URI uri){
+		if(uri.getFragment() != null){
+			return uri.getFragment();
+		}
+		String s = uri.toString();
+		return s.substring(s.lastIndexOf('/') + 1);
+	}
+	
+	/**
+	 * The statements read about a subject
+	 */
+	private static class Subject {
+		final URI uri;
+		ClassFacade cf = null;
+		boolean typed = false;
+		final List<URI> dataProps = new ArrayList<URI>();
+		/** the literals, or the values read as numbers or booleans */
+		final List<Object> dataValues = new ArrayList<Object>();
+		final List<URI> dataTypes = new ArrayList<URI>();
+		final List<URI> linkProps = new ArrayList<URI>();
+		final List<URI> linkTargets = new ArrayList<URI>();
+		
+		Subject(URI uri) {
+			this.uri = uri;
+		}
+		
+		void merge(Subject earlier){
+			dataProps.addAll(earlier.dataProps);
+			dataValues.addAll(earlier.dataValues);
+			dataTypes.addAll(earlier.dataTypes);
+			linkProps.addAll(earlier.linkProps);
+			linkTargets.addAll(earlier.linkTargets);
+		}
+	}
 
 	/**
 	 * Convenience method for {@link #registerClass(Class)}
@@ -391,7 +936,7 @@ public final class UnMarshaller {
 
 
 
-		ClassFacade cf = cfFactory.createClassFacade(clazz);
+		ClassFacade cf = cfFactory.getClassFacade(clazz);
 		
 		// First option:
 		// true generic owlclass 
@@ -475,6 +1020,36 @@ public final class UnMarshaller {
 		return result;
 	}
 
+	/**
+	 * @return {@code true} if object properties are set lazily
+	 * @see #setLazy(boolean)
+	 */
+	public boolean isLazy() {
+		return lazy;
+	}
+
+	/**
+	 * Sets whether {@link #unmarshall(URI, URI, int)} sets the object 
+	 * properties pointing out of the neighbourhood of the individual 
+	 * lazily. The values are then placeholders that unmarshal their 
+	 * individuals from the ontology on first access: proxies for 
+	 * properties of an interface type, like the ones generated by the 
+	 * Codegen, and lazy lists or sets for collections. Reading a small 
+	 * part of a large ontology only unmarshals the individuals touched.
+	 * <br>
+	 * The proxies are not the objects themselves and can not be 
+	 * marshalled, the lazily loaded objects must only be accessed by
+	 * one thread at a time. Single valued properties of a class type, 
+	 * arrays, collections filled via a getter and fields of a concrete 
+	 * collection type like {@code ArrayList} can not be deferred, their 
+	 * values are still unmarshalled right away.
+	 * 
+	 * @param lazy {@code true} to set object properties lazily, default is {@code false}
+	 */
+	public void setLazy(boolean lazy) {
+		this.lazy = lazy;
+	}
+
 	/**
 	 * @return the current type mapping 
 	 */
@@ -494,7 +1069,25 @@ public final class UnMarshaller {
             return;
         }
         this.typeMapper = typeMapper;
-        cfFactory = new ClassFacadeFactory(typeMapper);
+        cfFactory = ClassFacadeFactory.getShared(typeMapper);
+        setLiteralCodecs(new LiteralCodecRegistry(typeMapper));
+    }
+
+    /**
+     * @return the codecs used to convert literals
+     */
+    public LiteralCodecRegistry getLiteralCodecs() {
+        return this.literalCodecs;
+    }
+
+    /**
+     * Sets the codecs used to convert literals, e.g. one with 
+     * additional codecs registered.
+     * @param literalCodecs the codecs 
+     */
+    public void setLiteralCodecs(LiteralCodecRegistry literalCodecs) {
+        this.literalCodecs = literalCodecs;
+        resolvedCodecs.clear();
     }
 
 }
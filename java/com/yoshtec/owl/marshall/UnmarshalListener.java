@@ -0,0 +1,45 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+
+/**
+ * Callback for the incremental unmarshalling via 
+ * {@link UnMarshaller#unmarshal(java.io.Reader, UnmarshalListener)}.
+ */
+public interface UnmarshalListener {
+    
+    /**
+     * Called as soon as an object has been instantiated and its data 
+     * properties are set. Object properties are not yet set at this point.
+     * 
+     * @param individual the URI of the individual
+     * @param object the unmarshalled object
+     */
+    void unmarshalled(URI individual, Object object);
+    
+    /**
+     * Called after all objects have been unmarshalled and the object 
+     * properties between them have been set.
+     */
+    void finished();
+
+}
@@ -110,6 +110,13 @@ public class OntologyGenerator {
     }
     
     public OntologyGenerator(XsdTypeMapper typeMapper){
+        this(ClassFacadeFactory.getShared(typeMapper));
+    }
+    
+    /**
+     * @param cfFactory the factory providing the class facades
+     */
+    public OntologyGenerator(ClassFacadeFactory cfFactory){
         // create a manger for Ontologies
         manager = OWLManager.createOWLOntologyManager();    
 
@@ -117,9 +124,8 @@ public class OntologyGenerator {
         // to a data factory that we can use.
         factory = manager.getOWLDataFactory();
         
-        this.typeMapper = typeMapper == null ? new XsdTypeMapper() : typeMapper;
-        
-        cfFactory = new ClassFacadeFactory(this.typeMapper);
+        this.cfFactory = cfFactory;
+        this.typeMapper = cfFactory.getTypeMapper();
     } 
     
     
@@ -293,7 +299,7 @@ public class OntologyGenerator {
     private void addClassFacadeMapping(Class<?> c){
         if( c.isAnnotationPresent(OwlClass.class) ){
             if(!classes.containsKey(c)){
-                ClassFacade cf = cfFactory.createClassFacade(c);
+                ClassFacade cf = cfFactory.getClassFacade(c);
                 classes.put(c, cf);
             }
         }
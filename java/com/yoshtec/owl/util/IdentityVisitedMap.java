@@ -0,0 +1,200 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * A map comparing its keys by identity, meant for keeping track of the 
+ * objects already visited while walking an object graph. 
+ * <br>
+ * Keys and values are kept alternating in one array with open addressing 
+ * and linear probing, so adding an entry allocates nothing apart from 
+ * growing the table. Entries cannot be removed, only the whole map can 
+ * be cleared. {@code null} keys are not permitted. The map is not 
+ * thread safe.
+ * 
+ * @param <V> the type of the values
+ */
+public class IdentityVisitedMap<V> extends AbstractMap<Object,V> {
+
+    private static final int DEFAULT_CAPACITY = 64;
+    
+    /** keys at even, values at odd positions */
+    private Object[] table;
+    
+    private int size = 0;
+    
+    /** number of entries before the table grows, a load factor of 1/2 */
+    private int threshold;
+    
+    public IdentityVisitedMap() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * @param expectedSize the expected number of entries 
+     */
+    public IdentityVisitedMap(int expectedSize) {
+        int capacity = 4;
+        while(capacity < expectedSize * 2){
+            capacity <<= 1;
+        }
+        table = new Object[capacity * 2];
+        threshold = capacity / 2;
+    }
+    
+    /**
+     * @return the position of the key in the table or of the free 
+     * slot it would be put to
+     */
+    private static int index(Object[] tab, Object key){
+        int mask = tab.length - 2;
+        // spread the identity hash, the lower bits are used
+        int h = System.identityHashCode(key) * 0x9E3779B9;
+        int i = (h ^ (h >>> 16)) << 1 & mask;
+        Object k;
+        while((k = tab[i]) != null && k != key){
+            i = (i + 2) & mask;
+        }
+        return i;
+    }
+    
+    @SuppressWarnings("unchecked")
+    @Override
+    public V get(Object key) {
+        if(key == null){
+            return null;
+        }
+        return (V)table[index(table, key) + 1];
+    }
+    
+    @Override
+    public boolean containsKey(Object key) {
+        return key != null && table[index(table, key)] != null;
+    }
+    
+    @Override
+    public V put(Object key, V value) {
+        return put(key, value, false);
+    }
+    
+    @Override
+    public V putIfAbsent(Object key, V value) {
+        return put(key, value, true);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V put(Object key, V value, boolean onlyIfAbsent){
+        if(key == null){
+            throw new NullPointerException("null keys are not permitted");
+        }
+        int i = index(table, key);
+        if(table[i] != null){
+            V old = (V)table[i + 1];
+            if(!onlyIfAbsent || old == null){
+                table[i + 1] = value;
+            }
+            return old;
+        }
+        table[i] = key;
+        table[i + 1] = value;
+        if(++size > threshold){
+            resize();
+        }
+        return null;
+    }
+    
+    private void resize(){
+        Object[] old = table;
+        Object[] tab = new Object[old.length * 2];
+        for(int j = 0; j < old.length; j += 2){
+            Object key = old[j];
+            if(key != null){
+                int i = index(tab, key);
+                tab[i] = key;
+                tab[i + 1] = old[j + 1];
+            }
+        }
+        table = tab;
+        threshold = tab.length / 4;
+    }
+    
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    @Override
+    public void clear() {
+        Arrays.fill(table, null);
+        size = 0;
+    }
+    
+    @Override
+    public Set<Map.Entry<Object,V>> entrySet() {
+        return new AbstractSet<Map.Entry<Object,V>>() {
+            @Override
+            public Iterator<Map.Entry<Object,V>> iterator() {
+                return new Iterator<Map.Entry<Object,V>>() {
+                    private final Object[] tab = table;
+                    private int next = advance(0);
+                    
+                    private int advance(int from){
+                        while(from < tab.length && tab[from] == null){
+                            from += 2;
+                        }
+                        return from;
+                    }
+                    
+                    public boolean hasNext() {
+                        return next < tab.length;
+                    }
+                    
+                    @SuppressWarnings("unchecked")
+                    public Map.Entry<Object,V> next() {
+                        if(!hasNext()){
+                            throw new NoSuchElementException();
+                        }
+                        Map.Entry<Object,V> e = new SimpleImmutableEntry<Object,V>(tab[next], (V)tab[next + 1]);
+                        next = advance(next + 2);
+                        return e;
+                    }
+                    
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+                };
+            }
+            
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    
+}
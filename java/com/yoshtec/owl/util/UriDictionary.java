@@ -0,0 +1,178 @@
+/*
+ * See the NOTICE file distributed with this work for additional
+ * information regarding copyright ownership.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package com.yoshtec.owl.util;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns URIs: every distinct URI is created once and numbered with 
+ * a dense int id, starting at 0. Looking up the same URI string again 
+ * returns the same {@link URI} instance without parsing the string.
+ * URIs are told apart by their string, so URIs differing only in the 
+ * case of the scheme or host are different entries.
+ * <br>
+ * A dictionary may have a parent, e.g. the dictionary of the class and 
+ * property URIs of the class facades. URIs known to the parent are 
+ * taken from it, so the same instances are used, but numbered by 
+ * the child. 
+ * <br>
+ * Lookups are lock free, adding a URI synchronizes on the dictionary.
+ * Entries cannot be removed.
+ */
+public class UriDictionary {
+    
+    private static final class Entry {
+        final int id;
+        final URI uri;
+        Entry(int id, URI uri) {
+            this.id = id;
+            this.uri = uri;
+        }
+    }
+    
+    private final UriDictionary parent;
+    
+    /** the entries by URI string */
+    private final ConcurrentMap<String,Entry> entries = new ConcurrentHashMap<String,Entry>();
+    
+    /** the URIs by id, reassigned after every change to publish it */
+    private volatile URI[] uris = new URI[64];
+    
+    private volatile int size = 0;
+    
+    public UriDictionary() {
+        this(null);
+    }
+    
+    /**
+     * @param parent the dictionary to take known URI instances from, may be {@code null}
+     */
+    public UriDictionary(UriDictionary parent) {
+        this.parent = parent;
+    }
+    
+    /**
+     * @param uri the URI string
+     * @return the URI, created only if the string is not known yet 
+     * @throws IllegalArgumentException if the string is no valid URI
+     */
+    public URI intern(String uri){
+        Entry e = entries.get(uri);
+        return e != null ? e.uri : add(uri, null).uri;
+    }
+    
+    /**
+     * @return the known instance of the URI, the passed one if the URI is not known yet 
+     */
+    public URI intern(URI uri){
+        String s = uri.toString();
+        Entry e = entries.get(s);
+        return e != null ? e.uri : add(s, uri).uri;
+    }
+    
+    /**
+     * @return the id of the URI, the URI is added if it is not known yet
+     */
+    public int getId(URI uri){
+        String s = uri.toString();
+        Entry e = entries.get(s);
+        return e != null ? e.id : add(s, uri).id;
+    }
+    
+    /**
+     * @return the id of the URI string, the URI is added if it is not known yet
+     * @throws IllegalArgumentException if the string is no valid URI
+     */
+    public int getId(String uri){
+        Entry e = entries.get(uri);
+        return e != null ? e.id : add(uri, null).id;
+    }
+    
+    /**
+     * @return the id of the URI or {@code -1} if it is not known, 
+     * the URI is not added 
+     */
+    public int lookup(URI uri){
+        Entry e = entries.get(uri.toString());
+        return e != null ? e.id : -1;
+    }
+    
+    /**
+     * @return the URI with the id 
+     * @throws IndexOutOfBoundsException if there is no such id
+     */
+    public URI getUri(int id){
+        if(id < 0 || id >= size){
+            throw new IndexOutOfBoundsException("No URI with id " + id);
+        }
+        return uris[id];
+    }
+    
+    /**
+     * @return the number of URIs, also the next id
+     */
+    public int size(){
+        return size;
+    }
+    
+    /**
+     * @return the instance known to this dictionary or its parents, {@code null} if there is none
+     */
+    private URI find(String s){
+        Entry e = entries.get(s);
+        if(e != null){
+            return e.uri;
+        }
+        return parent != null ? parent.find(s) : null;
+    }
+    
+    /**
+     * @param uri the URI instance to add, {@code null} to create one from the string
+     */
+    private synchronized Entry add(String s, URI uri){
+        // another thread may have been faster
+        Entry e = entries.get(s);
+        if(e != null){
+            return e;
+        }
+        
+        URI instance = parent != null ? parent.find(s) : null;
+        if(instance == null){
+            instance = uri != null ? uri : URI.create(s);
+        }
+        
+        e = new Entry(size, instance);
+        URI[] tab = uris;
+        if(e.id == tab.length){
+            tab = Arrays.copyOf(tab, tab.length * 2);
+        }
+        tab[e.id] = instance;
+        uris = tab;
+        // publish the id before the entry, a thread finding the 
+        // entry must be able to get the URI by its id
+        size = e.id + 1;
+        entries.put(s, e);
+        return e;
+    }
+    
+}
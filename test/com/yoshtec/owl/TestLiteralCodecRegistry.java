@@ -0,0 +1,249 @@
+package com.yoshtec.owl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import javax.xml.bind.DatatypeConverter;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestLiteralCodecRegistry {
+
+    private final LiteralCodecRegistry registry = new LiteralCodecRegistry(new XsdTypeMapper());
+    
+    @Test
+    public void testNumbers(){
+        assertEquals(Long.valueOf(12345678901L), registry.getCodec(XsdType.LONG.getUri(), Long.class).parse(" 12345678901 "));
+        assertEquals(42, registry.getCodec(XsdType.INT.getUri(), int.class).parseLong("+42"));
+        assertEquals(Short.valueOf((short)7), registry.getCodec(XsdType.SHORT.getUri(), Short.class).parse("7"));
+        assertEquals(1.5d, registry.getCodec(XsdType.DOUBLE.getUri(), double.class).parseDouble("1.5"), 0d);
+        assertEquals(Double.NEGATIVE_INFINITY, registry.getCodec(XsdType.DOUBLE.getUri(), Double.class).parseDouble("-INF"), 0d);
+        assertEquals(Float.valueOf(Float.POSITIVE_INFINITY), registry.getCodec(XsdType.FLOAT.getUri(), Float.class).parse("INF"));
+        assertEquals(new BigDecimal("3.14"), registry.getCodec(XsdType.DECIMAL.getUri(), BigDecimal.class).parse("3.14"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), 
+                registry.getCodec(XsdType.INTEGER.getUri(), BigInteger.class).parse("123456789012345678901234567890"));
+    }
+    
+    @Test
+    public void testCharacter(){
+        assertEquals(Character.valueOf('x'), registry.getCodec(XsdType.STRING.getUri(), Character.class).parse("x"));
+        assertEquals('x', registry.getCodec(XsdType.STRING.getUri(), char.class).parseLong("x"));
+        assertEquals("x", registry.getPrinter(XsdType.STRING.getUri(), char.class).printValue(Character.valueOf('x')));
+        assertEquals(" ", registry.getPrinter(XsdType.STRING.getUri(), Character.class).printLong(' '));
+    }
+    
+    @Test
+    public void testValueOf(){
+        assertEquals(Integer.valueOf(-42), registry.getCodec(XsdType.INT.getUri(), int.class).valueOf(-42L));
+        assertEquals(Long.valueOf(12345678901L), registry.getCodec(XsdType.LONG.getUri(), Long.class).valueOf(12345678901L));
+        assertEquals(Integer.valueOf(987), registry.getCodec(XsdType.GYEAR.getUri(), Integer.class).valueOf(987L));
+        assertEquals(Float.valueOf(0.1f), registry.getCodec(XsdType.FLOAT.getUri(), float.class).valueOf((double)0.1f));
+        assertEquals(Double.valueOf(2d), registry.getCodec(XsdType.DOUBLE.getUri(), Double.class).valueOf(2L));
+        assertEquals(BigInteger.valueOf(7), registry.getCodec(XsdType.INTEGER.getUri(), BigInteger.class).valueOf(7L));
+        assertEquals(Boolean.TRUE, registry.getCodec(XsdType.BOOLEAN.getUri(), Boolean.class).valueOf(true));
+        // converted through the lexical form
+        assertEquals("42", registry.getCodec(XsdType.STRING.getUri(), String.class).valueOf(42L));
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void testValueOfOutOfRange(){
+        registry.getCodec(XsdType.SHORT.getUri(), short.class).valueOf(70000L);
+    }
+    
+    @Test(expected=NumberFormatException.class)
+    public void testOutOfRange(){
+        registry.getCodec(XsdType.BYTE.getUri(), byte.class).parseLong("300");
+    }
+    
+    @Test
+    public void testBoolean(){
+        LiteralCodec<?> codec = registry.getCodec(XsdType.BOOLEAN.getUri(), boolean.class);
+        assertTrue(codec.parseBoolean("true"));
+        assertTrue(codec.parseBoolean("1"));
+        assertFalse(codec.parseBoolean("0"));
+        assertEquals(Boolean.FALSE, codec.parse("false"));
+    }
+    
+    @Test
+    public void testDates(){
+        Calendar cal = (Calendar)registry.getCodec(XsdType.DATE.getUri(), Calendar.class).parse("2008-05-30");
+        assertEquals(2008, cal.get(Calendar.YEAR));
+        assertEquals(Calendar.MAY, cal.get(Calendar.MONTH));
+        
+        cal = (Calendar)registry.getCodec(XsdType.DATETIME.getUri(), Object.class).parse("2008-05-30T10:15:00Z");
+        assertEquals(10, cal.get(Calendar.HOUR_OF_DAY));
+        
+        assertEquals(2008L, registry.getCodec(XsdType.GYEAR.getUri(), int.class).parseLong("2008Z"));
+        assertEquals(5L, registry.getCodec(XsdType.GMONTH.getUri(), int.class).parseLong("--05"));
+        assertEquals(Integer.valueOf(30), registry.getCodec(XsdType.GDAY.getUri(), Integer.class).parse("---30+01:00"));
+    }
+    
+    @Test
+    public void testResolution(){
+        // alternate name space 
+        assertSame(registry.getCodec(XsdType.INT.getUri(), int.class), registry.getCodec(XsdType.INT.getAltUri(), Integer.class));
+        
+        // mapped type
+        assertEquals(Integer.class, registry.getCodec(XsdType.INT.getUri(), Object.class).getType());
+        assertEquals(Long.class, registry.getCodec(XsdType.INT.getUri(), long.class).getType());
+        
+        // plain literals
+        assertEquals("abc", registry.getCodec(null, String.class).parse("abc"));
+        
+        // not convertible
+        assertNull(registry.getCodec(XsdType.INT.getUri(), Thread.class));
+    }
+    
+    @Test
+    public void testRegister(){
+        URI dt = URI.create("http://example.org/types#hex");
+        LiteralCodec<Integer> hex = new LiteralCodec<Integer>(Integer.class) {
+            @Override
+            public Integer parse(String literal) {
+                return Integer.valueOf(literal, 16);
+            }
+        };
+        registry.register(dt, int.class, hex);
+        assertSame(hex, registry.getCodec(dt, Integer.class));
+        assertEquals(255L, registry.getCodec(dt, int.class).parseLong("ff"));
+    }
+    
+    @Test
+    public void testPrint(){
+        assertEquals("2008-05-30T10:15:00Z", 
+                registry.getPrinter(XsdType.DATETIME.getUri(), Date.class).printValue(new Date(1212142500000L)));
+        assertEquals("1969-12-31T23:59:59.999Z", 
+                registry.getPrinter(XsdType.DATETIME.getUri(), Date.class).printValue(new Date(-1L)));
+        TimeZone zone = TimeZone.getDefault();
+        try {
+            // dates are printed in the default zone
+            TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+            assertEquals("2008-05-30Z", 
+                    registry.getPrinter(XsdType.DATE.getUri(), Date.class).printValue(new Date(1212142500000L)));
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+        assertEquals(new Date(1212142500123L), 
+                registry.getCodec(XsdType.DATETIME.getUri(), Date.class).parse("2008-05-30T10:15:00.123Z"));
+        
+        assertEquals("-INF", registry.getPrinter(XsdType.DOUBLE.getUri(), double.class).printDouble(Double.NEGATIVE_INFINITY));
+        assertEquals("1000", registry.getPrinter(XsdType.DECIMAL.getUri(), BigDecimal.class).printValue(new BigDecimal("1E+3")));
+        assertEquals("--05", registry.getPrinter(XsdType.GMONTH.getUri(), int.class).printLong(5));
+        assertEquals("true", registry.getPrinter(XsdType.BOOLEAN.getUri(), boolean.class).printBoolean(true));
+        
+        // java.time
+        LocalDate date = LocalDate.of(2008, 5, 30);
+        assertEquals(date, registry.getCodec(XsdType.DATE.getUri(), LocalDate.class).parse(
+                registry.getPrinter(XsdType.DATE.getUri(), LocalDate.class).printValue(date)));
+        OffsetDateTime odt = OffsetDateTime.parse("2008-05-30T10:15:00+02:00");
+        assertEquals("2008-05-30T10:15:00+02:00", registry.getPrinter(XsdType.DATETIME.getUri(), OffsetDateTime.class).printValue(odt));
+        
+        // unknown types are printed via toString
+        assertEquals("x", registry.getPrinter(XsdType.STRING.getUri(), StringBuilder.class).printValue(new StringBuilder("x")));
+    }
+    
+    /**
+     * Dates at local midnight keep their day in zones east and west of UTC
+     */
+    @Test
+    public void testDateDefaultZone(){
+        TimeZone zone = TimeZone.getDefault();
+        try {
+            for(String id : new String[]{"Europe/Berlin", "America/New_York", "Asia/Kolkata"}){
+                TimeZone.setDefault(TimeZone.getTimeZone(id));
+                Calendar cal = new GregorianCalendar(2026, Calendar.OCTOBER, 18);
+                Date midnight = cal.getTime();
+                
+                String literal = registry.getPrinter(XsdType.DATE.getUri(), Date.class).printValue(midnight);
+                assertEquals(DatatypeConverter.printDate(cal), literal);
+                assertTrue(literal, literal.startsWith("2026-10-18"));
+                assertEquals(midnight, registry.getCodec(XsdType.DATE.getUri(), Date.class).parse(literal));
+                
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                cal.set(Calendar.MINUTE, 30);
+                Date time = cal.getTime();
+                literal = registry.getPrinter(XsdType.TIME.getUri(), Date.class).printValue(time);
+                assertEquals(DatatypeConverter.printTime(cal), literal);
+                assertTrue(literal, literal.startsWith("00:30:00"));
+            }
+        } finally {
+            TimeZone.setDefault(zone);
+        }
+    }
+    
+    /**
+     * Benchmark of printing via the codecs against the former printing 
+     * through {@link DatatypeConverter} and {@code toString()}, long running
+     */
+    @Ignore
+    @Test
+    public void testPrintTiming(){
+        final int n = 200000;
+        LiteralCodec<?> datePrinter = registry.getPrinter(XsdType.DATETIME.getUri(), Date.class);
+        LiteralCodec<?> longPrinter = registry.getPrinter(XsdType.LONG.getUri(), long.class);
+        LiteralCodec<?> doublePrinter = registry.getPrinter(XsdType.DOUBLE.getUri(), double.class);
+        LiteralCodec<?> stringPrinter = registry.getPrinter(XsdType.STRING.getUri(), String.class);
+        
+        Date[] dates = new Date[n];
+        String[] strings = new String[n];
+        for(int i = 0; i < n; i++){
+            dates[i] = new Date(1212142500000L + i * 1001L);
+            strings[i] = "s" + i;
+        }
+        
+        long length = 0;
+        for(int round = 0; round < 3; round++){
+            long start = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                Calendar cal = new GregorianCalendar();
+                cal.setTime(dates[i]);
+                length += DatatypeConverter.printDateTime(cal).length();
+            }
+            long calendar = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                length += datePrinter.printValue(dates[i]).length();
+            }
+            long codec = System.nanoTime() - start;
+            System.out.println("Dates: Calendar " + calendar / 1000000 + " ms, codec " + codec / 1000000 + " ms");
+            
+            start = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                length += Long.valueOf(i * 31L).toString().length();
+                length += Double.valueOf(i / 7d).toString().length();
+            }
+            long boxed = System.nanoTime() - start;
+            
+            start = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                length += longPrinter.printLong(i * 31L).length();
+                length += doublePrinter.printDouble(i / 7d).length();
+            }
+            long primitive = System.nanoTime() - start;
+            System.out.println("Numbers: boxed " + boxed / 1000000 + " ms, primitive " + primitive / 1000000 + " ms");
+            
+            start = System.nanoTime();
+            for(int i = 0; i < n; i++){
+                length += stringPrinter.printValue(strings[i]).length();
+            }
+            System.out.println("Strings: codec " + (System.nanoTime() - start) / 1000000 + " ms");
+        }
+        assertTrue(length > 0);
+    }
+    
+}
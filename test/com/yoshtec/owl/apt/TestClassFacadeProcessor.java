@@ -0,0 +1,231 @@
+package com.yoshtec.owl.apt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.yoshtec.owl.cf.ClassFacade;
+import com.yoshtec.owl.cf.ClassFacadeFactory;
+import com.yoshtec.owl.cf.GeneratedClassFacade;
+import com.yoshtec.owl.cf.GeneratedPropertyAccessor;
+import com.yoshtec.owl.cf.PrimitivePropertyAccessor;
+import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.cf.StagingContext;
+import com.yoshtec.owl.testclasses.bucket.Bucket;
+
+public class TestClassFacadeProcessor {
+    
+    private static final String NS = "http://www.yoshtec.com/ontology/test/Sample#";
+    
+    private static final String BASE = 
+        "package sample;\n" +
+        "import com.yoshtec.owl.annotations.*;\n" +
+        "@OwlClass(uri=\"" + NS + "Base\")\n" +
+        "public class Base {\n" +
+        "    long size;\n" +
+        "}\n";
+    
+    private static final String SAMPLE = 
+        "package sample;\n" +
+        "import java.util.List;\n" +
+        "import com.yoshtec.owl.annotations.*;\n" +
+        "import com.yoshtec.owl.annotations.oprop.OwlFunctionalObjectProperty;\n" +
+        "@OwlClass(uri=\"" + NS + "Sample\")\n" +
+        "public class Sample extends Base {\n" +
+        "    @OwlIndividualId @OwlDataProperty(uri=\"" + NS + "name\") String name;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "count\") int count;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "ratio\") float ratio;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "valid\") boolean valid;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "tags\") List<String> tags;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "sizes\") int[] sizes;\n" +
+        "    @OwlObjectProperty(uri=\"" + NS + "next\") @OwlFunctionalObjectProperty Sample next;\n" +
+        "    @OwlDataProperty(uri=\"" + NS + "secret\") private String secret;\n" +
+        "    transient int ignored;\n" +
+        "    public String getSecret() { return secret; }\n" +
+        "}\n";
+    
+    /**
+     * Compiles the sample classes with the processor
+     * @return the loader of the compiled classes
+     */
+    private ClassLoader compile() throws Exception {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull("A JDK is needed to run the processor", compiler);
+        
+        File dir = File.createTempFile("apt", "");
+        dir.delete();
+        File src = new File(dir, "sample");
+        src.mkdirs();
+        write(new File(src, "Base.java"), BASE);
+        write(new File(src, "Sample.java"), SAMPLE);
+        
+        int result = compiler.run(null, null, null, 
+                "-classpath", System.getProperty("java.class.path"),
+                "-processor", ClassFacadeProcessor.class.getName(),
+                "-d", dir.getPath(), "-s", dir.getPath(),
+                new File(src, "Base.java").getPath(), new File(src, "Sample.java").getPath());
+        assertEquals(0, result);
+        assertTrue(new File(src, "Sample" + GeneratedClassFacade.SUFFIX + ".java").exists());
+        
+        return new URLClassLoader(new URL[]{dir.toURI().toURL()}, getClass().getClassLoader());
+    }
+    
+    private static void write(File file, String content) throws Exception {
+        Writer w = new FileWriter(file);
+        try {
+            w.write(content);
+        } finally {
+            w.close();
+        }
+    }
+    
+    @Test
+    public void testGenerated() throws Exception {
+        Class<?> sample = compile().loadClass("sample.Sample");
+        
+        ClassFacadeFactory cff = new ClassFacadeFactory();
+        ClassFacade generated = cff.createClassFacade(sample);
+        assertTrue(generated instanceof GeneratedClassFacade<?>);
+        
+        cff.setUseGenerated(false);
+        ClassFacade reflected = cff.createClassFacade(sample);
+        assertFalse(reflected instanceof GeneratedClassFacade<?>);
+        
+        // both facades describe the class the same way
+        assertEquals(reflected.getClassUris(), generated.getClassUris());
+        assertEquals(reflected.getOntoBaseUri(), generated.getOntoBaseUri());
+        assertEquals(uris(reflected.getDataProperties()), uris(generated.getDataProperties()));
+        assertEquals(uris(reflected.getObjectProperties()), uris(generated.getObjectProperties()));
+        assertEquals(reflected.hasSetableId(), generated.hasSetableId());
+        for(PropertyAccessor prop : reflected.getDataProperties()){
+            compare(prop, generated.getProperty(prop.getPropUri()));
+        }
+        for(PropertyAccessor prop : reflected.getObjectProperties()){
+            compare(prop, generated.getProperty(prop.getPropUri()));
+        }
+        
+        // only the private field is accessed by reflection
+        assertTrue(generated.getProperty(URI.create(NS + "count")) instanceof GeneratedPropertyAccessor);
+        assertTrue(generated.getProperty(URI.create("#size")) instanceof GeneratedPropertyAccessor);
+        assertFalse(generated.getProperty(URI.create(NS + "secret")) instanceof GeneratedPropertyAccessor);
+        assertFalse(generated.hasProperty(URI.create("#ignored")));
+    }
+    
+    private static HashSet<URI> uris(Iterable<PropertyAccessor> props){
+        HashSet<URI> result = new HashSet<URI>();
+        for(PropertyAccessor prop : props){
+            result.add(prop.getPropUri());
+        }
+        return result;
+    }
+    
+    private static void compare(PropertyAccessor expected, PropertyAccessor actual){
+        assertEquals(expected.getDataTypeUris(), actual.getDataTypeUris());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getValueType(), actual.getValueType());
+        assertEquals(expected.getDeclaringClass(), actual.getDeclaringClass());
+        assertEquals(expected.isSingleValue(), actual.isSingleValue());
+        assertEquals(expected.isFunctional(), actual.isFunctional());
+    }
+    
+    @Test
+    public void testAccess() throws Exception {
+        Class<?> sample = compile().loadClass("sample.Sample");
+        ClassFacade cf = new ClassFacadeFactory().createClassFacade(sample);
+        
+        Object s = cf.getNewInstance();
+        Object next = cf.getNewInstance("next");
+        StagingContext ctx = new StagingContext();
+        cf.setId(ctx, s, "first");
+        cf.getProperty(URI.create(NS + "tags")).setOrAddValue(ctx, s, "a");
+        cf.getProperty(URI.create(NS + "tags")).setOrAddValue(ctx, s, "b");
+        cf.getProperty(URI.create(NS + "sizes")).setOrAddValue(ctx, s, 3);
+        cf.getProperty(URI.create(NS + "sizes")).setOrAddValue(ctx, s, 4);
+        cf.getProperty(URI.create(NS + "next")).setOrAddValue(ctx, s, next);
+        cf.getProperty(URI.create(NS + "secret")).setOrAddValue(ctx, s, "hidden");
+        cf.getProperty(URI.create(NS + "ratio")).setOrAddValue(ctx, s, 0.5f);
+        cf.getProperty(URI.create("#size")).setOrAddValue(ctx, s, 12L);
+        ctx.commit();
+        
+        assertEquals("first", cf.getIdString(s));
+        assertEquals(Arrays.asList("a", "b"), cf.getProperty(URI.create(NS + "tags")).getValue(s));
+        assertTrue(cf.getProperty(URI.create(NS + "tags")).getValue(s) instanceof List<?>);
+        assertArrayEquals(new int[]{3, 4}, (int[])cf.getProperty(URI.create(NS + "sizes")).getValue(s));
+        assertEquals(next, cf.getProperty(URI.create(NS + "next")).getValue(s));
+        assertEquals("hidden", sample.getMethod("getSecret").invoke(s));
+        assertEquals(0.5f, cf.getProperty(URI.create(NS + "ratio")).getValue(s));
+        assertEquals(12L, cf.getProperty(URI.create("#size")).getValue(s));
+        
+        // primitives without boxing
+        PrimitivePropertyAccessor count = (PrimitivePropertyAccessor)cf.getProperty(URI.create(NS + "count"));
+        assertTrue(count.isPrimitive());
+        count.setLong(s, 42L);
+        assertEquals(42L, count.getLong(s));
+        assertEquals(42, count.getValue(s));
+        
+        PrimitivePropertyAccessor valid = (PrimitivePropertyAccessor)cf.getProperty(URI.create(NS + "valid"));
+        valid.setBoolean(s, true);
+        assertEquals(true, valid.getBoolean(s));
+    }
+    
+    @Test(expected=IllegalStateException.class)
+    public void testNoPrimitive() throws Exception {
+        Class<?> sample = compile().loadClass("sample.Sample");
+        ClassFacade cf = new ClassFacadeFactory().createClassFacade(sample);
+        ((PrimitivePropertyAccessor)cf.getProperty(URI.create(NS + "tags"))).getLong(cf.getNewInstance());
+    }
+    
+    @Test
+    public void testNotGenerated(){
+        // classes compiled without the processor are scanned
+        assertFalse(new ClassFacadeFactory().createClassFacade(Bucket.class) instanceof GeneratedClassFacade<?>);
+    }
+    
+    /**
+     * Benchmark of generated against reflective facades, long running
+     */
+    @Ignore
+    @Test
+    public void testTiming() throws Exception {
+        Class<?> sample = compile().loadClass("sample.Sample");
+        ClassFacadeFactory generated = new ClassFacadeFactory();
+        ClassFacadeFactory reflected = new ClassFacadeFactory();
+        reflected.setUseGenerated(false);
+        
+        final int runs = 2000;
+        for(int i = 0; i < runs; i++){
+            generated.createClassFacade(sample);
+            reflected.createClassFacade(sample);
+        }
+        
+        long time = System.currentTimeMillis();
+        for(int i = 0; i < runs; i++){
+            reflected.createClassFacade(sample);
+        }
+        System.out.println("Reflective facades: " + (System.currentTimeMillis() - time) + "ms");
+        
+        time = System.currentTimeMillis();
+        for(int i = 0; i < runs; i++){
+            generated.createClassFacade(sample);
+        }
+        System.out.println("Generated facades: " + (System.currentTimeMillis() - time) + "ms");
+    }
+}
@@ -0,0 +1,100 @@
+package com.yoshtec.owl.cf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.XsdTypeMapper;
+import com.yoshtec.owl.testclasses.bucket.Bucket;
+import com.yoshtec.owl.testclasses.bucket.Stone;
+
+public class TestClassFacadeFactory {
+
+    @Test
+    public void testShared(){
+        ClassFacadeFactory cff = ClassFacadeFactory.getShared(new XsdTypeMapper());
+        
+        // equal mappings share the factory
+        assertSame(cff, ClassFacadeFactory.getShared(new XsdTypeMapper()));
+        assertSame(cff, ClassFacadeFactory.getShared(null));
+        
+        // a changed mapping does not
+        XsdTypeMapper mapper = new XsdTypeMapper();
+        mapper.setReverseMapping(StringBuilder.class, XsdType.STRING);
+        ClassFacadeFactory other = ClassFacadeFactory.getShared(mapper);
+        assertNotSame(cff, other);
+        assertSame(other, ClassFacadeFactory.getShared(mapper));
+        
+        // changing the mapper afterwards does not affect the shared factory
+        mapper.setReverseMapping(StringBuffer.class, XsdType.STRING);
+        assertNotSame(other, ClassFacadeFactory.getShared(mapper));
+        
+        // neither does changing the mapping handed out by the shared factory
+        cff.getTypeMapper().setReverseMapping(StringBuilder.class, XsdType.STRING);
+        assertSame(cff, ClassFacadeFactory.getShared(null));
+        assertSame(other, ClassFacadeFactory.getShared(other.getTypeMapper()));
+    }
+    
+    @Test
+    public void testSharedSubclass(){
+        XsdTypeMapper custom = new XsdTypeMapper(){
+            @Override
+            public XsdType getXsdType(Class<?> clazz) {
+                return clazz == StringBuilder.class ? XsdType.STRING : super.getXsdType(clazz);
+            }
+        };
+        
+        // a subclass is not copied, its overrides stay in effect
+        ClassFacadeFactory cff = ClassFacadeFactory.getShared(custom);
+        assertSame(custom, cff.getTypeMapper());
+        assertEquals(XsdType.STRING, cff.getTypeMapper().getXsdType(StringBuilder.class));
+        assertNotSame(ClassFacadeFactory.getShared(null), cff);
+        assertNotSame(cff, ClassFacadeFactory.getShared(custom));
+    }
+    
+    @Test
+    public void testCached(){
+        ClassFacadeFactory cff = new ClassFacadeFactory();
+        ClassFacade cf = cff.getClassFacade(Bucket.class);
+        assertSame(cf, cff.getClassFacade(Bucket.class));
+        assertNotSame(cf, cff.createClassFacade(Bucket.class));
+    }
+    
+    @Test
+    public void testConcurrent() throws Exception {
+        final ClassFacadeFactory cff = new ClassFacadeFactory();
+        final List<ClassFacade> found = Collections.synchronizedList(new ArrayList<ClassFacade>());
+        
+        List<Thread> threads = new ArrayList<Thread>();
+        for(int i = 0; i < 8; i++){
+            threads.add(new Thread(){
+                @Override
+                public void run() {
+                    found.add(cff.getClassFacade(Stone.class));
+                }
+            });
+        }
+        for(Thread t : threads){
+            t.start();
+        }
+        for(Thread t : threads){
+            t.join();
+        }
+        
+        for(ClassFacade cf : found){
+            assertSame(found.get(0), cf);
+        }
+    }
+    
+    @Test(expected=IllegalStateException.class)
+    public void testSharedUnchangeable(){
+        ClassFacadeFactory.getShared(null).setPropertyAccessorFactory(PropertyAccessorFactory.METHOD_HANDLES);
+    }
+}
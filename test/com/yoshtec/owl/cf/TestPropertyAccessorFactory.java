@@ -0,0 +1,168 @@
+package com.yoshtec.owl.cf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+import com.yoshtec.owl.XsdTypeMapper;
+import com.yoshtec.owl.annotations.OwlClass;
+import com.yoshtec.owl.annotations.OwlDataProperty;
+
+public class TestPropertyAccessorFactory {
+    
+    private static final int RUNS = 2000000;
+
+    @OwlClass(uri="http://www.yoshtec.com/ontology/test/Sample#Sample")
+    public static class Sample {
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#count")
+        private int count = 0;
+        
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#ratio")
+        private float ratio = 0.0f;
+        
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#valid")
+        private boolean valid = false;
+        
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#name")
+        private String name = null;
+        
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#tags")
+        private String[] tags = null;
+        
+        @OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Sample#sizes")
+        private int[] sizes = null;
+    }
+    
+    private final XsdTypeMapper typeMapper = new XsdTypeMapper();
+    
+    private PropertyAccessor create(PropertyAccessorFactory factory, String field) throws Exception {
+        Field f = Sample.class.getDeclaredField(field);
+        return factory.createFieldAccessor(f, URI.create("#" + field), typeMapper);
+    }
+    
+    @Test
+    public void testFactory(){
+        ClassFacadeFactory cff = new ClassFacadeFactory(typeMapper);
+        ClassFacade cf = cff.createClassFacade(Sample.class);
+        assertTrue(cf.getProperty(URI.create("http://www.yoshtec.com/ontology/test/Sample#count")) instanceof FieldPropertyAccessor);
+        
+        cff.setPropertyAccessorFactory(PropertyAccessorFactory.METHOD_HANDLES);
+        cf = cff.createClassFacade(Sample.class);
+        assertTrue(cf.getProperty(URI.create("http://www.yoshtec.com/ontology/test/Sample#count")) instanceof MethodHandlePropertyAccessor);
+    }
+    
+    @Test
+    public void testMethodHandleAccess() throws Exception {
+        Sample s = new Sample();
+        s.count = 42;
+        s.ratio = 0.5f;
+        s.valid = true;
+        s.name = "stone";
+        
+        for(String field : new String[]{"count", "ratio", "valid", "name"}){
+            assertEquals(create(PropertyAccessorFactory.REFLECTION, field).getValue(s), 
+                    create(PropertyAccessorFactory.METHOD_HANDLES, field).getValue(s));
+        }
+        
+        PrimitivePropertyAccessor count = (PrimitivePropertyAccessor)create(PropertyAccessorFactory.METHOD_HANDLES, "count");
+        assertTrue(count.isPrimitive());
+        assertEquals(42L, count.getLong(s));
+        assertEquals(42.0, count.getDouble(s), 0.0);
+        count.setLong(s, 7L);
+        assertEquals(7, s.count);
+        
+        PrimitivePropertyAccessor ratio = (PrimitivePropertyAccessor)create(PropertyAccessorFactory.METHOD_HANDLES, "ratio");
+        ratio.setDouble(s, 0.25);
+        assertEquals(0.25f, s.ratio, 0.0f);
+        
+        PrimitivePropertyAccessor valid = (PrimitivePropertyAccessor)create(PropertyAccessorFactory.METHOD_HANDLES, "valid");
+        valid.setBoolean(s, false);
+        assertEquals(false, valid.getBoolean(s));
+        
+        // staged values are written by the handles as well
+        PropertyAccessor name = create(PropertyAccessorFactory.METHOD_HANDLES, "name");
+        StagingContext ctx = new StagingContext();
+        name.setOrAddValue(ctx, s, "pebble");
+        ctx.commit();
+        assertEquals("pebble", s.name);
+    }
+    
+    @Test
+    public void testCommit() throws Exception {
+        for(PropertyAccessorFactory factory : new PropertyAccessorFactory[]{PropertyAccessorFactory.REFLECTION, PropertyAccessorFactory.METHOD_HANDLES}){
+            PropertyAccessor name = create(factory, "name");
+            PropertyAccessor tags = create(factory, "tags");
+            PropertyAccessor sizes = create(factory, "sizes");
+            
+            // every staged object is written
+            Sample[] samples = new Sample[1000];
+            StagingContext ctx = new StagingContext();
+            for(int i = 0; i < samples.length; i++){
+                samples[i] = new Sample();
+                name.setOrAddValue(ctx, samples[i], "s" + i);
+                tags.setOrAddValue(ctx, samples[i], "a");
+                tags.setOrAddValue(ctx, samples[i], "b" + i);
+                sizes.setOrAddValue(ctx, samples[i], i);
+                sizes.setOrAddValue(ctx, samples[i], 2 * i);
+            }
+            ctx.commit();
+            
+            for(int i = 0; i < samples.length; i++){
+                assertEquals("s" + i, samples[i].name);
+                assertArrayEquals(new String[]{"a", "b" + i}, samples[i].tags);
+                assertArrayEquals(new int[]{i, 2 * i}, samples[i].sizes);
+            }
+        }
+    }
+    
+    @Test(expected=IllegalStateException.class)
+    public void testNoPrimitive() throws Exception {
+        ((PrimitivePropertyAccessor)create(PropertyAccessorFactory.METHOD_HANDLES, "name")).getLong(new Sample());
+    }
+    
+    /**
+     * Benchmark of reflection against method handles, long running
+     */
+    @Ignore
+    @Test
+    public void testTiming() throws Exception {
+        Sample s = new Sample();
+        s.count = 3;
+        
+        PropertyAccessor reflective = create(PropertyAccessorFactory.REFLECTION, "count");
+        PrimitivePropertyAccessor handle = (PrimitivePropertyAccessor)create(PropertyAccessorFactory.METHOD_HANDLES, "count");
+        
+        // warm up
+        long sum = 0;
+        for(int i = 0; i < RUNS; i++){
+            sum += (Integer)reflective.getValue(s) + (Integer)handle.getValue(s) + handle.getLong(s);
+        }
+        
+        long time = System.currentTimeMillis();
+        for(int i = 0; i < RUNS; i++){
+            sum += (Integer)reflective.getValue(s);
+        }
+        System.out.println("Reflection get: " + (System.currentTimeMillis() - time) + "ms");
+        
+        time = System.currentTimeMillis();
+        for(int i = 0; i < RUNS; i++){
+            sum += (Integer)handle.getValue(s);
+        }
+        System.out.println("MethodHandle get: " + (System.currentTimeMillis() - time) + "ms");
+        
+        time = System.currentTimeMillis();
+        for(int i = 0; i < RUNS; i++){
+            sum += handle.getLong(s);
+        }
+        System.out.println("MethodHandle getLong: " + (System.currentTimeMillis() - time) + "ms");
+        
+        // the warm up reads three values per run, the timed loops one each
+        assertEquals(6L * 3 * RUNS, sum);
+    }
+}
@@ -0,0 +1,93 @@
+package com.yoshtec.owl.jcodegen;
+
+import java.io.File;
+import java.net.URI;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owl.apibinding.OWLManager;
+import org.semanticweb.owl.model.OWLClass;
+import org.semanticweb.owl.model.OWLDataProperty;
+import org.semanticweb.owl.model.OWLObjectProperty;
+import org.semanticweb.owl.model.OWLOntology;
+import org.semanticweb.owl.model.OWLOntologyManager;
+import org.semanticweb.owl.model.OWLProperty;
+
+public class TestAxiomIndex {
+	
+	/**
+	 * The index has to hold the same as the OWLAPI queries 
+	 */
+	private void assertIndexed(String file) throws Exception {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = manager.loadOntologyFromPhysicalURI(new File(file).toURI());
+		
+		assertIndexed(ontology, new AxiomIndex(ontology));
+		
+		// the merged parts have to hold the same
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			assertIndexed(ontology, new AxiomIndex(ontology, executor, 3));
+			assertIndexed(ontology, new AxiomIndex(ontology, executor, 1000));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private void assertIndexed(OWLOntology ontology, AxiomIndex index) {
+		for(OWLClass ocls : ontology.getReferencedClasses()){
+			AxiomIndex.ClassEntry entry = index.get(ocls);
+			Assert.assertEquals(ocls.getSubClasses(ontology), entry.subClasses);
+			Assert.assertEquals(ocls.getSuperClasses(ontology).size(), entry.superClasses);
+			Assert.assertEquals(ocls.getEquivalentClasses(ontology), entry.equivalentClasses);
+			Assert.assertEquals(ocls.getAnnotations(ontology), entry.annotations);
+		}
+		for(OWLDataProperty dprop : ontology.getReferencedDataProperties()){
+			assertIndexed(ontology, index, dprop);
+		}
+		for(OWLObjectProperty oprop : ontology.getReferencedObjectProperties()){
+			assertIndexed(ontology, index, oprop);
+		}
+	}
+	
+	private void assertIndexed(OWLOntology ontology, AxiomIndex index, OWLProperty<?,?> prop){
+		AxiomIndex.PropertyEntry entry = index.get(prop);
+		Assert.assertEquals(prop.getDomains(ontology), entry.domains);
+		Assert.assertEquals(prop.getRanges(ontology), entry.ranges);
+		Assert.assertEquals(prop.isFunctional(ontology), entry.functional);
+		Assert.assertEquals(prop.getAnnotations(ontology), entry.annotations);
+	}
+	
+	@Test
+	public void testMatryoshka() throws Exception {
+		assertIndexed("test/matryoshka.owl");
+	}
+	
+	@Test
+	public void testBucket() throws Exception {
+		assertIndexed("test/bucket.owl");
+	}
+	
+	@Test
+	public void testIntersection() throws Exception {
+		assertIndexed("test/intersect.owl");
+	}
+	
+	@Test
+	public void testUnion() throws Exception {
+		assertIndexed("test/unionof.owl");
+	}
+	
+	@Test
+	public void testEmpty() throws Exception {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		OWLOntology ontology = manager.createOntology(URI.create("http://www.yoshtec.com/ontology/test/empty"));
+		AxiomIndex index = new AxiomIndex(ontology);
+		AxiomIndex.ClassEntry entry = index.get(manager.getOWLDataFactory().getOWLThing());
+		Assert.assertTrue(entry.subClasses.isEmpty());
+		Assert.assertEquals(0, entry.superClasses);
+	}
+	
+}
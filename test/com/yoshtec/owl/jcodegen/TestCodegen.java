@@ -20,9 +20,30 @@
 package com.yoshtec.owl.jcodegen;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
+import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
+import org.semanticweb.owl.apibinding.OWLManager;
+import org.semanticweb.owl.model.OWLAxiom;
+import org.semanticweb.owl.model.OWLClass;
+import org.semanticweb.owl.model.OWLDataFactory;
+import org.semanticweb.owl.model.OWLDataProperty;
+import org.semanticweb.owl.model.OWLDataType;
+import org.semanticweb.owl.model.OWLObjectProperty;
+import org.semanticweb.owl.model.OWLOntology;
+import org.semanticweb.owl.model.OWLOntologyManager;
+import org.semanticweb.owl.vocab.XSDVocabulary;
+
+import com.yoshtec.owl.cf.GeneratedClassFacade;
 
 public class TestCodegen {
 	
@@ -48,6 +69,42 @@ public class TestCodegen {
 		codegen.genCode();
 	}
 	
+	@Test
+	public void testCodegenFacades() throws Exception{
+		Codegen codegen = new Codegen();
+		codegen.setJavaPackageName("matryoshkafacades");
+		codegen.setOntologyUri("http://www.yoshtec.com/ontology/test/matryoshka");
+		codegen.setOntologyPhysicalUri( new File("test/matryoshka.owl").toURI().toString());
+		codegen.setJavaSourceFolder(new File("otest"));
+		codegen.setGenerateIdField(true);
+		codegen.setIdFieldName("indName");
+		
+		// will generate a facade next to each implementation
+		codegen.setGenerateFacades(true);
+		codegen.genCode();
+		
+		Assert.assertTrue(new File("otest/matryoshkafacades/MatryoshkaImpl" + GeneratedClassFacade.SUFFIX + ".java").exists());
+		Assert.assertFalse(new File("otest/matryoshkafacades/ThingImpl" + GeneratedClassFacade.SUFFIX + ".java").exists());
+	}
+	
+	@Test
+	public void testCodegenPrimitives() throws Exception{
+		Codegen codegen = new Codegen();
+		codegen.setJavaPackageName("bucketprimitives");
+		codegen.setOntologyUri("http://www.yoshtec.com/ontology/test/Bucket");
+		codegen.setOntologyPhysicalUri( new File("test/bucket.owl").toURI().toString());
+		codegen.setJavaSourceFolder(new File("otest"));
+		codegen.setGenerateFacades(true);
+		
+		// weight is an xsd:int property, but not functional
+		codegen.setGeneratePrimitives(true);
+		codegen.genCode();
+		
+		String stone = new String(read(new File("otest/bucketprimitives/StoneImpl.java")), "UTF-8");
+		Assert.assertTrue(stone.contains("int[] weight"));
+		Assert.assertFalse(stone.contains("List<Integer>"));
+	}
+	
 	@Test
 	public void testCodegenBucket() throws Exception{
 		Codegen codegen = new Codegen();
@@ -134,4 +191,140 @@ public class TestCodegen {
 	    codegen.genCode();
 	}
 	
+	@Test
+	public void testCodegenParallel() throws Exception{
+		File sequential = new File("otest/sequential");
+		File parallel = new File("otest/parallel");
+		for(File folder : new File[]{sequential, parallel}){
+			Codegen codegen = new Codegen();
+			codegen.setJavaPackageName("matryoshkaparallel");
+			codegen.setOntologyUri("http://www.yoshtec.com/ontology/test/matryoshka");
+			codegen.setOntologyPhysicalUri( new File("test/matryoshka.owl").toURI().toString());
+			codegen.setJavaSourceFolder(folder);
+			codegen.setGenerateIdField(true);
+			codegen.setParallel(folder == parallel);
+			codegen.genCode();
+		}
+		
+		// the same files have to be generated
+		File[] files = new File(sequential, "matryoshkaparallel").listFiles();
+		Assert.assertTrue(files.length > 0);
+		Assert.assertEquals(files.length, new File(parallel, "matryoshkaparallel").listFiles().length);
+		for(File file : files){
+			Assert.assertArrayEquals(file.getName(), read(file), read(new File(parallel, "matryoshkaparallel/" + file.getName())));
+		}
+	}
+	
+	@Test
+	public void testCodegenTwice() throws Exception{
+		File folder = new File("otest/twice");
+		Codegen codegen = new Codegen();
+		codegen.setJavaPackageName("matryoshkatwice");
+		codegen.setOntologyUri("http://www.yoshtec.com/ontology/test/matryoshka");
+		codegen.setOntologyPhysicalUri( new File("test/matryoshka.owl").toURI().toString());
+		codegen.setJavaSourceFolder(folder);
+		codegen.setGenerateIdField(true);
+		codegen.setIncremental(true);
+		codegen.genCode();
+		
+		File[] files = new File(folder, "matryoshkatwice").listFiles();
+		Assert.assertTrue(files.length > 0);
+		long[] modified = new long[files.length];
+		for(int i = 0; i < files.length; i++){
+			modified[i] = files[i].lastModified();
+		}
+		// a rewritten file has to get a later timestamp, even on file systems counting seconds
+		Thread.sleep(1100);
+		
+		// the same instance has to generate the same files again, none is rewritten
+		codegen.genCode();
+		Assert.assertEquals(files.length, new File(folder, "matryoshkatwice").listFiles().length);
+		for(int i = 0; i < files.length; i++){
+			Assert.assertEquals(files[i].getName(), modified[i], files[i].lastModified());
+		}
+	}
+	
+	/**
+	 * Benchmark of the sequential against the parallel generation, long running
+	 */
+	@Ignore
+	@Test
+	public void testCodegenParallelTiming() throws Exception{
+		final int classes = 20000;
+		String uri = "http://www.yoshtec.com/ontology/test/generated";
+		File owl = new File("otest/generated.owl");
+		generateOntology(uri, classes, owl);
+		
+		for(boolean parallel : new boolean[]{false, true}){
+			Codegen codegen = new Codegen();
+			codegen.setJavaPackageName(parallel ? "generatedparallel" : "generated");
+			codegen.setOntologyUri(uri);
+			codegen.setOntologyPhysicalUri(owl.toURI().toString());
+			codegen.setJavaSourceFolder(new File("otest"));
+			codegen.setParallel(parallel);
+			
+			long time = System.currentTimeMillis();
+			codegen.genCode();
+			time = System.currentTimeMillis() - time;
+			
+			System.out.println((parallel ? "Parallel" : "Sequential") + " codegen of " + classes + " classes took " + time + "ms");
+			for(Map.Entry<String, Long> phase : codegen.getPhaseTimes().entrySet()){
+				System.out.println("  " + phase.getKey() + ": " + phase.getValue() + "ms");
+			}
+		}
+		
+		Assert.assertTrue(new File("otest/generatedparallel/Class" + (classes - 1) + "Impl.java").exists());
+	}
+	
+	/**
+	 * Writes an ontology with a class tree, every tenth class has a data 
+	 * and an object property.
+	 */
+	private static void generateOntology(String uri, int classes, File file) throws Exception {
+		OWLOntologyManager manager = OWLManager.createOWLOntologyManager();
+		OWLDataFactory factory = manager.getOWLDataFactory();
+		OWLOntology ontology = manager.createOntology(URI.create(uri));
+		OWLDataType string = factory.getOWLDataType(XSDVocabulary.STRING.getURI());
+		
+		Set<OWLAxiom> axioms = new HashSet<OWLAxiom>();
+		OWLClass[] ocls = new OWLClass[classes];
+		for(int i = 0; i < classes; i++){
+			ocls[i] = factory.getOWLClass(URI.create(uri + "#Class" + i));
+			axioms.add(factory.getOWLDeclarationAxiom(ocls[i]));
+			if(i > 0){
+				axioms.add(factory.getOWLSubClassAxiom(ocls[i], ocls[(i - 1) / 10]));
+			}
+			if(i % 10 == 0){
+				OWLDataProperty dprop = factory.getOWLDataProperty(URI.create(uri + "#data" + i));
+				axioms.add(factory.getOWLDataPropertyDomainAxiom(dprop, ocls[i]));
+				axioms.add(factory.getOWLDataPropertyRangeAxiom(dprop, string));
+				axioms.add(factory.getOWLFunctionalDataPropertyAxiom(dprop));
+				
+				OWLObjectProperty oprop = factory.getOWLObjectProperty(URI.create(uri + "#link" + i));
+				axioms.add(factory.getOWLObjectPropertyDomainAxiom(oprop, ocls[i]));
+				axioms.add(factory.getOWLObjectPropertyRangeAxiom(oprop, ocls[i / 2]));
+			}
+		}
+		manager.addAxioms(ontology, axioms);
+		manager.saveOntology(ontology, file.toURI());
+	}
+	
+	private static byte[] read(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			byte[] content = new byte[(int)file.length()];
+			int read = 0;
+			while(read < content.length){
+				int n = in.read(content, read, content.length - read);
+				if(n < 0){
+					break;
+				}
+				read += n;
+			}
+			return Arrays.copyOf(content, read);
+		} finally {
+			in.close();
+		}
+	}
+	
 }
@@ -0,0 +1,77 @@
+package com.yoshtec.owl.jcodegen;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.Test;
+
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+
+public class TestIncrementalCodeWriter {
+    
+    private static JCodeModel model(String... classes) throws Exception {
+        JCodeModel jmod = new JCodeModel();
+        JPackage pack = jmod._package("incremental");
+        for(String name : classes){
+            JDefinedClass jclass = pack._class(JMod.PUBLIC, name);
+            jclass.field(JMod.PROTECTED, String.class, "name");
+        }
+        return jmod;
+    }
+    
+    private static IncrementalCodeWriter build(JCodeModel jmod, File dir) throws Exception {
+        IncrementalCodeWriter writer = new IncrementalCodeWriter(dir);
+        jmod.build(writer);
+        return writer;
+    }
+    
+    @Test
+    public void testIncremental() throws Exception {
+        File dir = File.createTempFile("codegen", "");
+        dir.delete();
+        dir.mkdirs();
+        File a = new File(dir, "incremental/A.java");
+        File b = new File(dir, "incremental/B.java");
+        
+        IncrementalCodeWriter writer = build(model("A", "B"), dir);
+        assertEquals(2, writer.getWritten());
+        assertTrue(a.exists());
+        assertTrue(new File(dir, IncrementalCodeWriter.MANIFEST).exists());
+        
+        // unchanged files are not touched
+        long time = a.lastModified();
+        writer = build(model("A", "B"), dir);
+        assertEquals(0, writer.getWritten());
+        assertEquals(2, writer.getUnchanged());
+        assertEquals(time, a.lastModified());
+        
+        // a changed class is written, the others are kept 
+        JCodeModel changed = model("A", "B");
+        changed._getClass("incremental.B").field(JMod.PROTECTED, int.class, "size");
+        writer = build(changed, dir);
+        assertEquals(1, writer.getWritten());
+        assertEquals(time, a.lastModified());
+        
+        // files touched since the last run are written again
+        assertTrue(a.setLastModified(1000000000000L));
+        writer = build(changed, dir);
+        assertEquals(1, writer.getWritten());
+        
+        // deleted files are written again 
+        assertTrue(a.delete());
+        writer = build(changed, dir);
+        assertEquals(1, writer.getWritten());
+        assertTrue(a.exists());
+        
+        // files no longer generated are removed
+        writer = build(model("A"), dir);
+        assertFalse(b.exists());
+        assertTrue(a.exists());
+    }
+}
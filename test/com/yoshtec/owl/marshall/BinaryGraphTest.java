@@ -0,0 +1,183 @@
+package com.yoshtec.owl.marshall;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.semanticweb.owl.apibinding.OWLManager;
+import org.semanticweb.owl.model.OWLOntology;
+
+import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.testclasses.bucket.Bucket;
+import com.yoshtec.owl.testclasses.bucket.Material;
+import com.yoshtec.owl.testclasses.bucket.Stone;
+
+public class BinaryGraphTest {
+	
+	private static final URI ONTO = URI.create("http://www.yoshtec.com/ontology/test/BucketBinary");
+	
+	private static final URI P = URI.create("http://ex.org/o#p");
+	
+	/** collects the statements as strings */
+	private static class Collector implements TripleHandler {
+		final List<String> statements = new ArrayList<String>();
+		boolean ended = false;
+		
+		public void resource(URI subject, URI predicate, URI object) {
+			statements.add(subject + " " + predicate + " " + object);
+		}
+		public void literal(URI subject, URI predicate, String literal, URI dataType) {
+			statements.add(subject + " " + predicate + " \"" + literal + "\"" + (dataType != null ? "^^" + dataType : ""));
+		}
+		public void longValue(URI subject, URI predicate, long value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void doubleValue(URI subject, URI predicate, double value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void booleanValue(URI subject, URI predicate, boolean value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void end() {
+			ended = true;
+		}
+	}
+	
+	private static List<String> read(byte[] bytes) throws Exception {
+		Collector c = new Collector();
+		new BinaryGraphReader(c).parse(new ByteArrayInputStream(bytes));
+		Assert.assertTrue(c.ended);
+		return c.statements;
+	}
+	
+	@Test
+	public void testWriteRead() throws Exception {
+		URI a = URI.create("#a");
+		URI b = URI.create("http://ex.org/o#b");
+		URI cls = URI.create("http://ex.org/o#C");
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryGraphWriter out = new BinaryGraphWriter(bytes, ONTO);
+		out.startDocument();
+		out.importDeclaration(URI.create("http://ex.org/o"));
+		out.classAssertion(a, cls);
+		out.longValue(a, P, XsdType.INT.getUri(), -42);
+		out.longValue(a, P, XsdType.GYEAR.getUri(), 987);
+		out.doubleValue(a, P, XsdType.DOUBLE.getUri(), Double.NEGATIVE_INFINITY);
+		out.floatValue(a, P, XsdType.FLOAT.getUri(), 0.1f);
+		out.booleanValue(a, P, XsdType.BOOLEAN.getUri(), true);
+		out.dataPropertyValue(a, P, null, "plain");
+		out.languageValue(a, P, "Hallo", "de");
+		out.objectPropertyValue(a, P, b);
+		out.classAssertion(b, cls);
+		out.dataPropertyValue(b, P, XsdType.STRING.getUri(), "é\n");
+		out.endDocument();
+		
+		String sa = "#a " + P + " ";
+		List<String> expected = Arrays.asList(
+				ONTO + " " + TripleWriter.OWL_IMPORTS + " http://ex.org/o",
+				"#a " + TripleWriter.RDF_TYPE + " " + cls,
+				sa + "-42^^" + XsdType.INT,
+				sa + "987^^" + XsdType.GYEAR,
+				sa + Double.NEGATIVE_INFINITY + "^^" + XsdType.DOUBLE,
+				sa + (double)0.1f + "^^" + XsdType.FLOAT,
+				sa + "true^^" + XsdType.BOOLEAN,
+				sa + "\"plain\"",
+				sa + "\"Hallo\"",
+				sa + b,
+				b + " " + TripleWriter.RDF_TYPE + " " + cls,
+				b + " " + P + " \"é\n\"^^" + XsdType.STRING);
+		Assert.assertEquals(expected, read(bytes.toByteArray()));
+	}
+	
+	@Test(expected=EOFException.class)
+	public void testTruncated() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		BinaryGraphWriter out = new BinaryGraphWriter(bytes, ONTO);
+		out.startDocument();
+		out.dataPropertyValue(URI.create("#a"), P, null, "value");
+		out.endDocument();
+		
+		byte[] all = bytes.toByteArray();
+		read(Arrays.copyOf(all, all.length - 4));
+	}
+	
+	@Test(expected=UnmarshalException.class)
+	public void testNoBinaryGraph() throws Exception {
+		read("<?xml version=\"1.0\"?>".getBytes("UTF-8"));
+	}
+	
+	private static List<Object> createBucket(int stones){
+		Bucket bucket = new Bucket();
+		bucket.setMaterial(Material.IRON.toString());
+		for(int i = 0; i < stones; i++){
+			Stone stone = new Stone();
+			stone.setWeight(i);
+			bucket.getContains().add(stone);
+		}
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(bucket);
+		return obj;
+	}
+	
+	@Test
+	public void testMarshalUnmarshal() throws Exception {
+		List<Object> obj = createBucket(1000);
+		
+		ByteArrayOutputStream bin = new ByteArrayOutputStream();
+		new Marshaller().marshal(obj, ONTO, bin, true);
+		
+		StringWriter nt = new StringWriter();
+		new Marshaller().marshal(obj, ONTO, nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(bin.size() < nt.toString().length());
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		
+		final ArrayList<Object> objects = new ArrayList<Object>();
+		final boolean[] finished = new boolean[1];
+		un.unmarshal(new ByteArrayInputStream(bin.toByteArray()), new UnmarshalListener() {
+			public void unmarshalled(URI individual, Object object) {
+				objects.add(object);
+			}
+			public void finished() {
+				finished[0] = true;
+			}
+		});
+		
+		Assert.assertTrue(finished[0]);
+		Assert.assertEquals(1001, objects.size());
+		
+		int weights = 0;
+		for(Object o : objects){
+			if(o instanceof Bucket){
+				Assert.assertEquals(Material.IRON.toString(), ((Bucket)o).getMaterial());
+			} else {
+				weights += ((Stone)o).getWeight();
+			}
+		}
+		Assert.assertEquals(999 * 1000 / 2, weights);
+	}
+	
+	@Test
+	public void testConvert() throws Exception {
+		OWLOntology onto = new Marshaller().marshal(createBucket(10), ONTO);
+		
+		ByteArrayOutputStream bin = new ByteArrayOutputStream();
+		BinaryGraphConverter.write(onto, bin);
+		
+		OWLOntology copy = BinaryGraphConverter.read(new ByteArrayInputStream(bin.toByteArray()), OWLManager.createOWLOntologyManager());
+		
+		Assert.assertEquals(ONTO, copy.getURI());
+		Assert.assertEquals(onto.getAxioms(), copy.getAxioms());
+	}
+	
+}
@@ -25,8 +25,9 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.GregorianCalendar;
 
-import org.junit.Ignore;
+import org.junit.Assert;
 import org.junit.Test;
+import org.semanticweb.owl.model.OWLOntology;
 
 import com.yoshtec.owl.marshall.Marshaller;
 import com.yoshtec.owl.marshall.UnMarshaller;
@@ -104,6 +105,71 @@ public class BucketTest {
     }
 
 
+    /**
+     * Marshals a large bucket with and without batched axiom emission, 
+     * both have to add the same axioms.
+     */
+    @Test
+    public void testMarshallerBucketBatched() throws Exception {
+        Bucket bucket = new Bucket();
+        bucket.setMaterial(Material.WOOD.toString());
+
+        for(int i = 0; i < MAX_OBJ; i++){
+            Stone stone = new Stone();
+            stone.setWeight(i);
+            stone.setDate_found(new GregorianCalendar());
+            bucket.getContains().add(stone);
+        }
+
+        ArrayList<Object> a = new ArrayList<Object>();
+        a.add(bucket);
+
+        Marshaller single = new Marshaller();
+        OWLOntology o1 = single.marshal(a, URI.create("BucketSingle.owl"));
+
+        Marshaller batched = new Marshaller();
+        batched.setBatchSize(5000);
+        OWLOntology o2 = batched.marshal(a, URI.create("BucketBatched.owl"));
+
+        Assert.assertEquals(o1.getAxioms(), o2.getAxioms());
+    }
+
+    /**
+     * Marshals many small buckets sharing one stone with 1..N threads, 
+     * every run has to add the same axioms.
+     */
+    @Test
+    public void testMarshallerBucketParallel() throws Exception {
+        Stone shared = new Stone();
+        shared.setWeight(-1);
+        
+        ArrayList<Object> a = new ArrayList<Object>();
+        for(int i = 0; i < MAX_OBJ / 10; i++){
+            Bucket bucket = new Bucket();
+            bucket.setMaterial(Material.SILVER.toString());
+            bucket.getContains().add(shared);
+            for(int j = 0; j < 9; j++){
+                Stone stone = new Stone();
+                stone.setWeight(j);
+                stone.setDate_found(new GregorianCalendar());
+                bucket.getContains().add(stone);
+            }
+            a.add(bucket);
+        }
+        
+        int expected = -1;
+        for(int threads = 1; threads <= Runtime.getRuntime().availableProcessors(); threads++){
+            Marshaller marshaller = new Marshaller();
+            OWLOntology onto = marshaller.getManager().createOntology(URI.create("BucketParallel" + threads + ".owl"));
+            marshaller.marshal(a, onto, true, threads);
+            
+            if(expected < 0){
+                expected = onto.getAxiomCount();
+            }
+            Assert.assertEquals(expected, onto.getAxiomCount());
+        }
+    }
+
     @Test
     public void testUnMarshallerBucket1() throws Exception {
         UnMarshaller un = new UnMarshaller();
@@ -134,7 +200,6 @@ public class BucketTest {
 
     }
 
-    @Ignore("the function under test is not implemented yet")
     @Test
     public void testUnMarshallerBucketByName() throws Exception {
         UnMarshaller un = new UnMarshaller();
@@ -146,5 +211,14 @@ public class BucketTest {
         Bucket buck = un.unmarshall((new File("test/bucket.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/Bucket#MyPrecious"));
 
         System.out.println(buck.getMaterial());
+        Assert.assertEquals("Copper", buck.getMaterial());
+        Assert.assertTrue(buck.getContains().isEmpty());
+        
+        // again with the neighbourhood, reusing the loaded ontology
+        buck = un.unmarshall((new File("test/bucket.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/Bucket#MyPrecious"), 1);
+        Assert.assertEquals("Copper", buck.getMaterial());
+        Assert.assertEquals(3, buck.getContains().size());
+        
+        Assert.assertNull(un.unmarshall((new File("test/bucket.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/Bucket#Nothing")));
     }
 }
@@ -0,0 +1,73 @@
+package com.yoshtec.owl.marshall;
+
+import java.net.URI;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.yoshtec.owl.cf.ClassFacade;
+import com.yoshtec.owl.cf.ClassFacadeFactory;
+import com.yoshtec.owl.cf.PropertyAccessor;
+import com.yoshtec.owl.cf.StagingContext;
+import com.yoshtec.owl.testclasses.bucket.Bucket;
+import com.yoshtec.owl.testclasses.bucket.Stone;
+
+public class LinkStagingTest {
+
+	private static final int MAX_OBJ = 100000;
+	
+	private static final URI CONTAINS = URI.create("http://www.yoshtec.com/ontology/test/Bucket#Contains");
+	
+	@Test
+	public void testResolve() throws Exception {
+		ClassFacade cf = ClassFacadeFactory.getShared(null).getClassFacade(Bucket.class);
+		PropertyAccessor contains = cf.getProperty(CONTAINS);
+		
+		LinkStaging links = new LinkStaging();
+		Bucket bucket = new Bucket();
+		int id = links.put(URI.create("#bucket"), bucket);
+		links.link(id, contains, URI.create("#stone1"));
+		links.link(id, contains, URI.create("#stone2"));
+		// never unmarshalled
+		links.link(id, contains, URI.create("#unknown"));
+		
+		Stone stone = new Stone();
+		links.put(URI.create("#stone1"), stone);
+		links.put(URI.create("#stone2"), new Stone());
+		links.put(URI.create("#nothing"), null);
+		
+		Assert.assertTrue(links.isUnmarshalled(URI.create("#nothing")));
+		Assert.assertFalse(links.isUnmarshalled(URI.create("#unknown")));
+		Assert.assertSame(stone, links.get(URI.create("#stone1")));
+		Assert.assertEquals(3, links.size());
+		Assert.assertEquals(3, links.getObjects().size());
+		
+		StagingContext ctx = new StagingContext();
+		links.resolve(ctx);
+		ctx.commit();
+		
+		Assert.assertEquals(0, links.size());
+		Assert.assertEquals(2, bucket.getContains().size());
+		Assert.assertSame(stone, bucket.getContains().get(0));
+	}
+	
+	@Test
+	public void testManyLinks() throws Exception {
+		PropertyAccessor contains = ClassFacadeFactory.getShared(null).getClassFacade(Bucket.class).getProperty(CONTAINS);
+		
+		LinkStaging links = new LinkStaging();
+		Bucket bucket = new Bucket();
+		int id = links.put(URI.create("#bucket"), bucket);
+		for(int i = 0; i < MAX_OBJ; i++){
+			URI uri = URI.create("#stone" + i);
+			links.link(id, contains, uri);
+			links.put(uri, new Stone());
+		}
+		
+		StagingContext ctx = new StagingContext();
+		links.resolve(ctx);
+		ctx.commit();
+		
+		Assert.assertEquals(MAX_OBJ, bucket.getContains().size());
+	}
+}
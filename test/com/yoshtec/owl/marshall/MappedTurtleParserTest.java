@@ -0,0 +1,152 @@
+package com.yoshtec.owl.marshall;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.io.FileInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class MappedTurtleParserTest {
+	
+	private static final String XSD = "http://www.w3.org/2001/XMLSchema#";
+	
+	/** collects the statements as strings */
+	private static class Collector implements TripleHandler {
+		final List<String> statements = new ArrayList<String>();
+		boolean ended = false;
+		
+		public void resource(URI subject, URI predicate, URI object) {
+			statements.add(subject + " " + predicate + " " + object);
+		}
+		public void literal(URI subject, URI predicate, String literal, URI dataType) {
+			statements.add(subject + " " + predicate + " \"" + literal + "\"" + (dataType != null ? "^^" + dataType : ""));
+		}
+		public void longValue(URI subject, URI predicate, long value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void doubleValue(URI subject, URI predicate, double value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void booleanValue(URI subject, URI predicate, boolean value, URI dataType) {
+			statements.add(subject + " " + predicate + " " + value + "^^" + dataType);
+		}
+		public void end() {
+			ended = true;
+		}
+	}
+	
+	private static File write(String content) throws Exception {
+		File f = File.createTempFile("jaob", ".ttl");
+		f.deleteOnExit();
+		Writer w = new OutputStreamWriter(new FileOutputStream(f), "UTF-8");
+		w.write(content);
+		w.close();
+		return f;
+	}
+	
+	@Test
+	public void testTurtle() throws Exception {
+		File f = write(
+				"@prefix ex: <http://ex.org/o#> .\n" +
+				"@base <http://ex.org/base/> .\n" +
+				"PREFIX xsd: <" + XSD + ">\n" +
+				"# a comment\n" +
+				"ex:b1 a ex:Bucket ; ex:material \"Iron\" , 'Gold'@en ;\n" +
+				"  ex:weight 42, -3.5, 1e3, true ;\n" +
+				"  ex:note \"\"\"two\nlines\"\"\" ; ex:link <rel> , [ ex:x ex:y ] , _:b2 ; .\n" +
+				"<http://ex.org/o#s2> <http://ex.org/o#p> \"tab\\t\\u00e9\"^^xsd:string .\n" +
+				"[ ex:p ex:o ] .\n" +
+				"_:x ex:p ex:o .\n" +
+				"ex:s3 ex:list ( 1 2 ex:z ) ; ex:p ex:o.\n");
+		
+		Collector c = new Collector();
+		new MappedTurtleParser(c).parse(f);
+		
+		Assert.assertTrue(c.ended);
+		String b1 = "http://ex.org/o#b1 ";
+		String[] expected = {
+				b1 + TripleWriter.RDF_TYPE + " http://ex.org/o#Bucket",
+				b1 + "http://ex.org/o#material \"Iron\"",
+				b1 + "http://ex.org/o#material \"Gold\"",
+				b1 + "http://ex.org/o#weight \"42\"^^" + XSD + "integer",
+				b1 + "http://ex.org/o#weight \"-3.5\"^^" + XSD + "decimal",
+				b1 + "http://ex.org/o#weight \"1e3\"^^" + XSD + "double",
+				b1 + "http://ex.org/o#weight \"true\"^^" + XSD + "boolean",
+				b1 + "http://ex.org/o#note \"two\nlines\"",
+				b1 + "http://ex.org/o#link http://ex.org/base/rel",
+				"http://ex.org/o#s2 http://ex.org/o#p \"tab\té\"^^" + XSD + "string",
+				"http://ex.org/o#s3 http://ex.org/o#p http://ex.org/o#o"
+		};
+		Assert.assertEquals(expected.length, c.statements.size());
+		for(int i = 0; i < expected.length; i++){
+			Assert.assertEquals(expected[i], c.statements.get(i));
+		}
+	}
+	
+	@Test(expected=UnmarshalException.class)
+	public void testUnknownPrefix() throws Exception {
+		new MappedTurtleParser(new Collector()).parse(write("ex:a ex:b ex:c .\n"));
+	}
+	
+	/**
+	 * Statements crossing the end of a mapped window, the result must be the 
+	 * same as the one of the {@link NTriplesParser}
+	 */
+	@Test
+	public void testWindows() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 2000; i++){
+			sb.append("<http://ex.org/o#s").append(i).append("> <").append(TripleWriter.RDF_TYPE).append("> <http://ex.org/o#C> .\n");
+			sb.append("<http://ex.org/o#s").append(i).append("> <http://ex.org/o#p> \"vé").append(i).append("\"^^<").append(XSD).append("int> .\n");
+		}
+		File f = write(sb.toString());
+		
+		Collector reference = new Collector();
+		InputStreamReader in = new InputStreamReader(new FileInputStream(f), "UTF-8");
+		new NTriplesParser(reference).parse(in);
+		in.close();
+		
+		for(int window : new int[]{128, 1000, MappedTurtleParser.DEFAULT_WINDOW}){
+			Collector c = new Collector();
+			new MappedTurtleParser(c, window).parse(f);
+			Assert.assertEquals(reference.statements, c.statements);
+		}
+	}
+	
+	/**
+	 * Benchmark of the memory mapped parser against the NTriplesParser, long running
+	 */
+	@Ignore
+	@Test
+	public void testTiming() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0; i < 200000; i++){
+			sb.append("<http://ex.org/o#s").append(i).append("> <http://ex.org/o#weight> \"").append(i).append("\"^^<").append(XSD).append("int> .\n");
+		}
+		File f = write(sb.toString());
+		
+		for(int round = 0; round < 3; round++){
+			long time = System.currentTimeMillis();
+			InputStreamReader in = new InputStreamReader(new FileInputStream(f), "UTF-8");
+			Collector reader = new Collector();
+			new NTriplesParser(reader).parse(in);
+			in.close();
+			System.out.println("NTriplesParser: " + (System.currentTimeMillis() - time) + "ms");
+			
+			time = System.currentTimeMillis();
+			Collector mapped = new Collector();
+			new MappedTurtleParser(mapped).parse(f);
+			System.out.println("MappedTurtleParser: " + (System.currentTimeMillis() - time) + "ms");
+			Assert.assertEquals(reader.statements.size(), mapped.statements.size());
+		}
+	}
+	
+}
@@ -20,17 +20,47 @@
 package com.yoshtec.owl.marshall;
 
 import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.GregorianCalendar;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.semanticweb.owl.model.OWLOntology;
 
+import com.yoshtec.owl.XsdType;
+import com.yoshtec.owl.annotations.OwlClass;
+import com.yoshtec.owl.annotations.OwlDataProperty;
+import com.yoshtec.owl.annotations.OwlDataType;
 import com.yoshtec.owl.testclasses.brain.Brain;
+import com.yoshtec.owl.testclasses.bucket.Bucket;
+import com.yoshtec.owl.testclasses.bucket.Material;
+import com.yoshtec.owl.testclasses.bucket.Stone;
+import com.yoshtec.owl.testclasses.matryoshka.Matryoshka;
+import com.yoshtec.owl.testclasses.matryoshka.MatryoshkaImpl;
 
 public class MarshallerTest {
+	
+	@OwlClass(uri="http://www.yoshtec.com/ontology/test/Samples#Samples")
+	public static class Samples {
+		@OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Samples#count")
+		@OwlDataType(uri=XsdType.XSD_INT_URI)
+		int[] counts;
+		
+		@OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Samples#value")
+		@OwlDataType(uri=XsdType.XML_SCHEMA_BASE_URI + "#double")
+		double[] values;
+		
+		@OwlDataProperty(uri="http://www.yoshtec.com/ontology/test/Samples#flag")
+		@OwlDataType(uri=XsdType.XML_SCHEMA_BASE_URI + "#boolean")
+		boolean[] flags;
+	}
     		
 	@Test
 	public void testMarshallerBrain1() throws Exception{
@@ -46,6 +76,235 @@ public class MarshallerTest {
 	
 
 	
+	@Test
+	public void testStreamBucket() throws Exception {
+		Bucket bucket = new Bucket();
+		bucket.setMaterial(Material.IRON.toString());
+		bucket.addEngraving("streamed");
+		for(int i = 0; i < 100; i++){
+			Stone stone = new Stone();
+			stone.setWeight(i);
+			stone.setDate_found(new GregorianCalendar());
+			bucket.getContains().add(stone);
+		}
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(bucket);
+		
+		// N-Triples
+		StringWriter nt = new StringWriter();
+		new Marshaller().marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/BucketStream"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(nt.toString().contains("<http://www.yoshtec.com/ontology/test/Bucket#Material> \"IRON\""));
+		
+		// RDF/XML, has to be readable by the UnMarshaller
+		File file = new File("otest/BucketStream.owl");
+		Writer out = new FileWriter(file);
+		try {
+			new Marshaller().marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/BucketStream"), out, RdfFormat.RDF_XML, true);
+		} finally {
+			out.close();
+		}
+		
+		UnMarshaller un = new UnMarshaller();
+		un.addURIMapping(URI.create("http://www.yoshtec.com/ontology/test/Bucket"), (new File("test/bucket.owl")).toURI());
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		Collection<Object> objects = un.unmarshal(file.toURI());
+		Assert.assertEquals(101, objects.size());
+	}
+	
+	/**
+	 * An overridden printValue prints every literal
+	 */
+	@Test
+	public void testPrintValueOverride() throws Exception {
+		Marshaller marshaller = new Marshaller(){
+			@Override
+			protected String printValue(Object value) {
+				return "v" + value;
+			}
+		};
+		Samples samples = new Samples();
+		samples.counts = new int[]{1, 2};
+		Stone stone = new Stone();
+		stone.setWeight(7);
+		
+		StringWriter nt = new StringWriter();
+		marshaller.marshal(Arrays.asList(samples, stone), URI.create("http://www.yoshtec.com/ontology/test/PrintValue"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(nt.toString().contains("\"v1\""));
+		Assert.assertTrue(nt.toString().contains("\"v2\""));
+		Assert.assertTrue(nt.toString().contains("\"v7\""));
+	}
+	
+	@Test
+	public void testStreamUnmarshalBucket() throws Exception {
+		Bucket bucket = new Bucket();
+		bucket.setMaterial(Material.IRON.toString());
+		for(int i = 0; i < 100; i++){
+			Stone stone = new Stone();
+			stone.setWeight(i);
+			bucket.getContains().add(stone);
+		}
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(bucket);
+		
+		StringWriter nt = new StringWriter();
+		new Marshaller().marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/BucketStream"), nt, RdfFormat.N_TRIPLES, true);
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		
+		final ArrayList<Object> objects = new ArrayList<Object>();
+		final boolean[] finished = new boolean[1];
+		un.unmarshal(new StringReader(nt.toString()), new UnmarshalListener() {
+			public void unmarshalled(URI individual, Object object) {
+				Assert.assertFalse(finished[0]);
+				objects.add(object);
+			}
+			public void finished() {
+				finished[0] = true;
+			}
+		});
+		
+		Assert.assertTrue(finished[0]);
+		Assert.assertEquals(101, objects.size());
+		
+		int weights = 0;
+		for(Object o : objects){
+			if(o instanceof Bucket){
+				Assert.assertEquals(Material.IRON.toString(), ((Bucket)o).getMaterial());
+			} else {
+				weights += ((Stone)o).getWeight();
+			}
+		}
+		Assert.assertEquals(99 * 100 / 2, weights);
+	}
+	
+	@Test
+	public void testMappedUnmarshalBucket() throws Exception {
+		Bucket bucket = new Bucket();
+		bucket.setMaterial(Material.IRON.toString());
+		for(int i = 0; i < 100; i++){
+			Stone stone = new Stone();
+			stone.setWeight(i);
+			bucket.getContains().add(stone);
+		}
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(bucket);
+		
+		File file = File.createTempFile("bucket", ".nt");
+		file.deleteOnExit();
+		Writer w = new FileWriter(file);
+		new Marshaller().marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/BucketMapped"), w, RdfFormat.N_TRIPLES, true);
+		w.close();
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		
+		final ArrayList<Object> objects = new ArrayList<Object>();
+		final boolean[] finished = new boolean[1];
+		un.unmarshal(file, new UnmarshalListener() {
+			public void unmarshalled(URI individual, Object object) {
+				objects.add(object);
+			}
+			public void finished() {
+				finished[0] = true;
+			}
+		});
+		
+		Assert.assertTrue(finished[0]);
+		Assert.assertEquals(101, objects.size());
+		
+		int weights = 0;
+		for(Object o : objects){
+			if(o instanceof Bucket){
+				Assert.assertEquals(Material.IRON.toString(), ((Bucket)o).getMaterial());
+			} else {
+				weights += ((Stone)o).getWeight();
+			}
+		}
+		Assert.assertEquals(99 * 100 / 2, weights);
+	}
+	
+	@Test
+	public void testPrimitiveArrays() throws Exception {
+		Samples samples = new Samples();
+		samples.counts = new int[]{1, 2, 3};
+		samples.values = new double[]{0.5, 1.5};
+		samples.flags = new boolean[]{true};
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(samples);
+		
+		StringWriter nt = new StringWriter();
+		new Marshaller().marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/Samples"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(nt.toString().contains("<http://www.yoshtec.com/ontology/test/Samples#count> \"3\""));
+		Assert.assertTrue(nt.toString().contains("<http://www.yoshtec.com/ontology/test/Samples#value> \"1.5\""));
+		Assert.assertTrue(nt.toString().contains("<http://www.yoshtec.com/ontology/test/Samples#flag> \"true\""));
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Samples.class);
+		final ArrayList<Object> objects = new ArrayList<Object>();
+		un.unmarshal(new StringReader(nt.toString()), new UnmarshalListener() {
+			public void unmarshalled(URI individual, Object object) {
+				objects.add(object);
+			}
+			public void finished() {
+			}
+		});
+		
+		Assert.assertEquals(1, objects.size());
+		Samples result = (Samples)objects.get(0);
+		Arrays.sort(result.counts);
+		Arrays.sort(result.values);
+		Assert.assertArrayEquals(samples.counts, result.counts);
+		Assert.assertArrayEquals(samples.values, result.values, 0.0);
+		Assert.assertTrue(Arrays.equals(samples.flags, result.flags));
+	}
+	
+	@Test
+	public void testTraversalPolicy() throws Exception {
+		Matryoshka root = new MatryoshkaImpl("M0");
+		Matryoshka ml = root;
+		for(int i = 1; i < 10; i++){
+			Matryoshka tmp = new MatryoshkaImpl("M" + i);
+			tmp.setSize(i);
+			ml.setContains(tmp);
+			ml = tmp;
+		}
+		ArrayList<Object> obj = new ArrayList<Object>();
+		obj.add(root);
+		URI contains = URI.create("http://www.yoshtec.com/ontology/test/matryoshka#Contains");
+		
+		// bounded depth, the objects at the maximum depth are marshalled without their object properties
+		Marshaller marshaller = new Marshaller();
+		marshaller.setTraversalPolicy(new SimpleTraversalPolicy(2));
+		StringWriter nt = new StringWriter();
+		marshaller.marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/Bounded"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertFalse(nt.toString().contains("#M2> <" + contains + ">"));
+		Assert.assertTrue(nt.toString().contains("#M2>"));
+		Assert.assertFalse(nt.toString().contains("#M3>"));
+		
+		// excluded property
+		marshaller.setTraversalPolicy(new SimpleTraversalPolicy().exclude(contains));
+		nt = new StringWriter();
+		marshaller.marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/Bounded"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(nt.toString().contains("#M0>"));
+		Assert.assertFalse(nt.toString().contains("#M1>"));
+		
+		// stopped at a class
+		marshaller.setTraversalPolicy(new SimpleTraversalPolicy().stopAt(Matryoshka.class));
+		nt = new StringWriter();
+		marshaller.marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/Bounded"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertFalse(nt.toString().contains("#M1>"));
+		
+		// no policy, the whole chain
+		marshaller.setTraversalPolicy(null);
+		nt = new StringWriter();
+		marshaller.marshal(obj, URI.create("http://www.yoshtec.com/ontology/test/Bounded"), nt, RdfFormat.N_TRIPLES, true);
+		Assert.assertTrue(nt.toString().contains("#M9>"));
+	}
+	
 	@Test(expected=MarshalException.class)
 	public void testError1() throws Exception {
 		Collection<Object> col = new ArrayList<Object>();
@@ -0,0 +1,41 @@
+package com.yoshtec.owl.marshall;
+
+import java.io.StringWriter;
+import java.net.URI;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NTriplesWriterTest {
+
+	private static final URI BASE = URI.create("http://www.yoshtec.com/ontology/test/Escape");
+
+	private static final URI NAME = URI.create(BASE + "#name");
+
+	@Test
+	public void testLiteralEscapes() throws Exception {
+		StringWriter out = new StringWriter();
+		NTriplesWriter writer = new NTriplesWriter(out, BASE);
+		String literal = "a\"b\\c\nd\u00e9 \ud83d\ude00";
+		writer.literal(BASE, NAME, literal, null);
+
+		String line = out.toString();
+		Assert.assertTrue(line, line.contains("\"a\\\"b\\\\c\\nd\\u00E9 \\U0001F600\""));
+
+		String written = line.substring(line.indexOf('"') + 1, line.lastIndexOf('"'));
+		Assert.assertEquals(literal, NTriplesParser.unescape(written));
+	}
+
+	@Test
+	public void testUriEscapes() throws Exception {
+		StringWriter out = new StringWriter();
+		NTriplesWriter writer = new NTriplesWriter(out, BASE);
+		URI unicode = new URI("http", "www.yoshtec.com", "/\u00e9\ud83d\ude00", null);
+		writer.resource(unicode, NAME, BASE);
+
+		String line = out.toString();
+		Assert.assertTrue(line, line.startsWith("<http://www.yoshtec.com/\\u00E9\\U0001F600> "));
+		Assert.assertFalse(line, line.contains("\\\""));
+	}
+
+}
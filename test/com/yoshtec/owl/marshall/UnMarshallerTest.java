@@ -20,18 +20,227 @@
 package com.yoshtec.owl.marshall;
 
 import java.io.File;
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.Assert;
 import org.junit.Test;
+import org.semanticweb.owl.model.OWLOntology;
 
+import com.yoshtec.owl.annotations.OwlClass;
+import com.yoshtec.owl.annotations.OwlDataType;
+import com.yoshtec.owl.annotations.OwlIndividualId;
+import com.yoshtec.owl.annotations.OwlObjectProperty;
 import com.yoshtec.owl.testclasses.bucket.Bucket;
 import com.yoshtec.owl.testclasses.bucket.Stone;
+import com.yoshtec.owl.testclasses.bucket.Stuff;
+import com.yoshtec.owl.testclasses.matryoshka.Matryoshka;
 import com.yoshtec.owl.testclasses.matryoshka.MatryoshkaImpl;
 
 public class UnMarshallerTest {
-
-
 	
+	@OwlClass(uri="http://www.yoshtec.com/ontology/test/Bucket#Bucket")
+	public static class ConcreteBucket {
+		@OwlObjectProperty(uri="http://www.yoshtec.com/ontology/test/Bucket#Contains")
+		@OwlDataType(uri="http://www.yoshtec.com/ontology/test/Bucket#Stuff")
+		ArrayList<Object> contains = null;
+	}
+	
+	/** a bucket with a unique id instead of its hash code */
+	@OwlClass(uri="http://www.yoshtec.com/ontology/test/Bucket#Bucket")
+	public static class NamedBucket extends Bucket {
+		@OwlIndividualId
+		String name = null;
+		
+		public NamedBucket(){
+		}
+		
+		public NamedBucket(String name){
+			this.name = name;
+		}
+	}
+	
+	/** a stone with a unique id instead of its hash code */
+	@OwlClass(uri="http://www.yoshtec.com/ontology/test/Bucket#Stone")
+	public static class NamedStone extends Stone {
+		@OwlIndividualId
+		String name = null;
+		
+		public NamedStone(){
+		}
+		
+		public NamedStone(String name){
+			this.name = name;
+		}
+	}
 
+	private static int unmarshalBucket() throws Exception {
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		un.registerClass(Stuff.class);
+		Collection<Object> objects = un.unmarshal((new File("test/bucket.owl")).toURI());
+		for(Object o : objects){
+			if(o instanceof Bucket){
+				Assert.assertNotNull(((Bucket)o).getMaterial());
+			}
+		}
+		return objects.size();
+	}
+	
+	/**
+	 * Several UnMarshallers in parallel, sharing their class facades
+	 */
+	@Test
+	public void testConcurrentUnmarshalling() throws Exception {
+		final int expected = unmarshalBucket();
+		final AtomicInteger failures = new AtomicInteger();
+		
+		Thread[] threads = new Thread[4];
+		for(int i = 0; i < threads.length; i++){
+			threads[i] = new Thread(){
+				@Override
+				public void run() {
+					try {
+						for(int j = 0; j < 10; j++){
+							if(unmarshalBucket() != expected){
+								failures.incrementAndGet();
+							}
+						}
+					} catch (Throwable e) {
+						e.printStackTrace();
+						failures.incrementAndGet();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for(Thread t : threads){
+			t.join();
+		}
+		Assert.assertEquals(0, failures.get());
+	}
+	
+	/**
+	 * Thousands of instances per class, every instance must get 
+	 * its staged values.
+	 */
+	@Test
+	public void testManyInstances() throws Exception {
+		final int n = 5000;
+		List<Object> objects = new ArrayList<Object>();
+		for(int i = 0; i < n; i++){
+			Bucket b = new NamedBucket("bucket" + i);
+			b.setMaterial("M" + i);
+			b.getEngraving().add("E" + i);
+			b.getEngraving().add("F" + i);
+			objects.add(b);
+			
+			Stone s = new NamedStone("stone" + i);
+			s.setWeight(i);
+			objects.add(s);
+		}
+		OWLOntology onto = new Marshaller().marshal(objects, URI.create("http://www.yoshtec.com/ontology/test/BucketMany"));
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(NamedBucket.class);
+		un.registerClass(NamedStone.class);
+		
+		Collection<Object> result = un.unmarshal(onto);
+		
+		Assert.assertEquals(2 * n, result.size());
+		int buckets = 0;
+		for(Object o : result){
+			if(o instanceof Bucket){
+				Bucket b = (Bucket)o;
+				String i = b.getMaterial().substring(1);
+				Assert.assertEquals(2, b.getEngraving().size());
+				Assert.assertTrue(b.getEngraving().contains("E" + i));
+				Assert.assertTrue(b.getEngraving().contains("F" + i));
+				buckets++;
+			} else {
+				Assert.assertNotNull(((Stone)o).getWeight());
+			}
+		}
+		Assert.assertEquals(n, buckets);
+	}
+	
+	/**
+	 * The index of an ontology is reused until it is cleared
+	 */
+	@Test
+	public void testClearIndexes() throws Exception {
+		File file = File.createTempFile("bucket", ".owl");
+		file.deleteOnExit();
+		String owl = new String(Files.readAllBytes(new File("test/bucket.owl").toPath()), "UTF-8");
+		Files.write(file.toPath(), owl.getBytes("UTF-8"));
+		URI precious = URI.create("http://www.yoshtec.com/ontology/test/Bucket#MyPrecious");
+		
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		Bucket buck = un.unmarshall(file.toURI(), precious);
+		Assert.assertEquals("Copper", buck.getMaterial());
+		
+		Files.write(file.toPath(), owl.replace(">Copper<", ">Bronze<").getBytes("UTF-8"));
+		buck = un.unmarshall(file.toURI(), precious);
+		Assert.assertEquals("Copper", buck.getMaterial());
+		
+		un.clearIndexes();
+		buck = un.unmarshall(file.toURI(), precious);
+		Assert.assertEquals("Bronze", buck.getMaterial());
+	}
+	
+	/**
+	 * Object properties leaving the individual are unmarshalled on first access
+	 */
+	@Test
+	public void testLazyUnmarshalling() throws Exception {
+		UnMarshaller un = new UnMarshaller();
+		un.registerClass(Bucket.class);
+		un.registerClass(Stone.class);
+		un.registerClass(Stuff.class);
+		un.registerClass(MatryoshkaImpl.class);
+		un.setLazy(true);
+		
+		// lazy collection
+		Bucket buck = un.unmarshall((new File("test/bucket.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/Bucket#MyPrecious"), 0);
+		Assert.assertEquals("Copper", buck.getMaterial());
+		Field contains = Bucket.class.getDeclaredField("contains");
+		contains.setAccessible(true);
+		LazyGraph.LazyValue lazy = (LazyGraph.LazyValue)contains.get(buck);
+		Assert.assertFalse(lazy.isLoaded());
+		Assert.assertEquals(3, buck.getContains().size());
+		Assert.assertTrue(lazy.isLoaded());
+		
+		// proxy for an interface
+		Matryoshka darth = un.unmarshall((new File("test/matryoshka.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/matryoshka#DarthVader"), 0);
+		Assert.assertEquals(Integer.valueOf(10), darth.getSize());
+		Matryoshka anakin = darth.getContains();
+		Assert.assertTrue(Proxy.isProxyClass(anakin.getClass()));
+		Assert.assertFalse(((LazyGraph.LazyValue)Proxy.getInvocationHandler(anakin)).isLoaded());
+		Assert.assertEquals(Integer.valueOf(9), anakin.getSize());
+		Assert.assertTrue(((LazyGraph.LazyValue)Proxy.getInvocationHandler(anakin)).isLoaded());
+		Assert.assertSame(darth, anakin.getContained_in());
+		
+		// a field of a concrete collection type is set right away
+		UnMarshaller concrete = new UnMarshaller();
+		concrete.registerClass(ConcreteBucket.class);
+		concrete.registerClass(Stuff.class);
+		concrete.setLazy(true);
+		ConcreteBucket cb = concrete.unmarshall((new File("test/bucket.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/Bucket#MyPrecious"), 0);
+		Assert.assertEquals(1, cb.contains.size());
+		Assert.assertTrue(cb.contains.get(0) instanceof Stuff);
+		
+		// not lazy, the object property stays unset
+		un.setLazy(false);
+		darth = un.unmarshall((new File("test/matryoshka.owl")).toURI(), URI.create("http://www.yoshtec.com/ontology/test/matryoshka#DarthVader"), 0);
+		Assert.assertNull(darth.getContains());
+	}
 	
 }
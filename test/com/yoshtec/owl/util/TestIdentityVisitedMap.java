@@ -0,0 +1,143 @@
+package com.yoshtec.owl.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestIdentityVisitedMap {
+    
+    private static final int MAX_OBJ = 1000000;
+
+    /**
+     * A bean with value equality, like the ones that are marshaled
+     */
+    private static class Bean {
+        private final String name;
+        private final int weight;
+        
+        Bean(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+        
+        @Override
+        public boolean equals(Object obj) {
+            if(!(obj instanceof Bean)){
+                return false;
+            }
+            Bean other = (Bean)obj;
+            return weight == other.weight && name.equals(other.name);
+        }
+        
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + weight;
+        }
+    }
+    
+    @Test
+    public void testIdentity(){
+        Map<Object,String> map = new IdentityVisitedMap<String>();
+        Bean a = new Bean("stone", 1);
+        Bean b = new Bean("stone", 1);
+        
+        assertNull(map.put(a, "a"));
+        assertNull(map.get(b));
+        assertFalse(map.containsKey(b));
+        assertNull(map.putIfAbsent(b, "b"));
+        assertEquals("a", map.putIfAbsent(a, "c"));
+        assertEquals("a", map.get(a));
+        assertEquals("b", map.get(b));
+        assertEquals(2, map.size());
+        
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(a));
+    }
+    
+    @Test
+    public void testGrowth(){
+        Map<Object,Integer> map = new IdentityVisitedMap<Integer>(4);
+        Object[] keys = new Object[10000];
+        for(int i = 0; i < keys.length; i++){
+            keys[i] = new Object();
+            map.put(keys[i], i);
+        }
+        assertEquals(keys.length, map.size());
+        for(int i = 0; i < keys.length; i++){
+            assertEquals(i, map.get(keys[i]).intValue());
+        }
+        
+        int count = 0;
+        for(Map.Entry<Object,Integer> e : map.entrySet()){
+            assertSame(keys[e.getValue()], e.getKey());
+            count++;
+        }
+        assertEquals(keys.length, count);
+    }
+    
+    @Test(expected=NullPointerException.class)
+    public void testNullKey(){
+        new IdentityVisitedMap<String>().put(null, "null");
+    }
+    
+    /**
+     * Benchmark of lookup time and memory against a HashMap on 10^6 objects, long running
+     */
+    @Ignore
+    @Test
+    public void testTiming(){
+        Bean[] beans = new Bean[MAX_OBJ];
+        for(int i = 0; i < beans.length; i++){
+            beans[i] = new Bean("bean", i);
+        }
+        
+        long mem = usedMemory();
+        long time = System.currentTimeMillis();
+        Map<Object,Object> hash = new HashMap<Object,Object>();
+        for(Bean b : beans){
+            hash.put(b, b);
+        }
+        System.out.println("HashMap put: " + (System.currentTimeMillis() - time) + "ms");
+        System.out.println("HashMap memory: " + (usedMemory() - mem) / 1024 + "kB");
+        
+        time = System.currentTimeMillis();
+        int found = 0;
+        for(Bean b : beans){
+            if(hash.get(b) != null) found++;
+        }
+        System.out.println("HashMap get: " + (System.currentTimeMillis() - time) + "ms");
+        hash = null;
+        
+        mem = usedMemory();
+        time = System.currentTimeMillis();
+        Map<Object,Object> identity = new IdentityVisitedMap<Object>();
+        for(Bean b : beans){
+            identity.put(b, b);
+        }
+        System.out.println("IdentityVisitedMap put: " + (System.currentTimeMillis() - time) + "ms");
+        System.out.println("IdentityVisitedMap memory: " + (usedMemory() - mem) / 1024 + "kB");
+        
+        time = System.currentTimeMillis();
+        for(Bean b : beans){
+            if(identity.get(b) != null) found++;
+        }
+        System.out.println("IdentityVisitedMap get: " + (System.currentTimeMillis() - time) + "ms");
+        
+        assertEquals(2 * MAX_OBJ, found);
+    }
+    
+    private static long usedMemory(){
+        Runtime rt = Runtime.getRuntime();
+        System.gc();
+        return rt.totalMemory() - rt.freeMemory();
+    }
+}
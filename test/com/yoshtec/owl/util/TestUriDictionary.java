@@ -0,0 +1,166 @@
+package com.yoshtec.owl.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Ignore;
+import org.junit.Test;
+
+public class TestUriDictionary {
+    
+    private static final int MAX_URI = 200000;
+    
+    @Test
+    public void testIntern() {
+        UriDictionary dict = new UriDictionary();
+        
+        URI a = dict.intern("http://ex.org/o#a");
+        assertSame(a, dict.intern("http://ex.org/o#a"));
+        assertSame(a, dict.intern(URI.create("http://ex.org/o#a")));
+        assertEquals(0, dict.getId(a));
+        assertEquals(0, dict.getId("http://ex.org/o#a"));
+        
+        URI b = URI.create("#b");
+        assertSame(b, dict.intern(b));
+        assertSame(b, dict.intern("#b"));
+        assertEquals(1, dict.getId(URI.create("#b")));
+        
+        assertEquals(-1, dict.lookup(URI.create("#c")));
+        assertEquals(2, dict.size());
+        assertSame(a, dict.getUri(0));
+        assertSame(b, dict.getUri(1));
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalid() {
+        new UriDictionary().intern("not a uri");
+    }
+    
+    @Test
+    public void testParent() {
+        UriDictionary parent = new UriDictionary();
+        URI cls = parent.intern("http://ex.org/o#Class");
+        
+        UriDictionary child = new UriDictionary(parent);
+        URI ind = child.intern("#ind");
+        
+        // the instance of the parent, numbered by the child
+        assertSame(cls, child.intern("http://ex.org/o#Class"));
+        assertEquals(1, child.getId(cls));
+        assertEquals(2, child.size());
+        
+        // the parent is not changed
+        assertEquals(-1, parent.lookup(ind));
+        assertEquals(1, parent.size());
+        
+        assertNotSame(ind, new UriDictionary(parent).intern("#ind"));
+    }
+    
+    @Test
+    public void testConcurrent() throws Exception {
+        final UriDictionary dict = new UriDictionary();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<URI[]>> results = new ArrayList<Future<URI[]>>();
+            for(int t = 0; t < 4; t++){
+                results.add(pool.submit(new Callable<URI[]>() {
+                    public URI[] call() {
+                        URI[] uris = new URI[10000];
+                        for(int i = 0; i < uris.length; i++){
+                            uris[i] = dict.intern("#i" + i);
+                        }
+                        return uris;
+                    }
+                }));
+            }
+            URI[] first = results.get(0).get();
+            for(Future<URI[]> f : results){
+                URI[] uris = f.get();
+                for(int i = 0; i < uris.length; i++){
+                    assertSame(first[i], uris[i]);
+                    assertSame(uris[i], dict.getUri(dict.getId(uris[i])));
+                }
+            }
+            assertEquals(10000, dict.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    /**
+     * An id found by a lock free lookup has to be resolvable right away
+     */
+    @Test
+    public void testPublished() throws Exception {
+        final UriDictionary dict = new UriDictionary();
+        final URI[] uris = new URI[50000];
+        for(int i = 0; i < uris.length; i++){
+            uris[i] = URI.create("#i" + i);
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread reader = new Thread(){
+            @Override
+            public void run() {
+                try {
+                    for(int i = 0; i < uris.length; i++){
+                        int id;
+                        while((id = dict.lookup(uris[i])) < 0){
+                            // wait for the writer
+                        }
+                        assertSame(uris[i], dict.getUri(id));
+                    }
+                } catch (Throwable t) {
+                    failure.set(t);
+                }
+            }
+        };
+        reader.start();
+        for(URI uri : uris){
+            dict.intern(uri);
+        }
+        reader.join();
+        if(failure.get() != null){
+            throw new AssertionError(failure.get());
+        }
+    }
+    
+    /**
+     * Benchmark of interning against URI.create, long running
+     */
+    @Ignore
+    @Test
+    public void testTiming() {
+        String[] strings = new String[MAX_URI];
+        for(int i = 0; i < MAX_URI; i++){
+            // every URI three times, like an individual in several statements
+            strings[i] = "http://www.yoshtec.com/ontology/test/Bucket#Stone" + (i / 3);
+        }
+        
+        for(int round = 0; round < 3; round++){
+            long time = System.currentTimeMillis();
+            for(int i = 0; i < MAX_URI; i++){
+                URI.create(strings[i]);
+            }
+            System.out.println("URI.create: " + (System.currentTimeMillis() - time) + "ms");
+            
+            time = System.currentTimeMillis();
+            UriDictionary dict = new UriDictionary();
+            for(int i = 0; i < MAX_URI; i++){
+                dict.intern(strings[i]);
+            }
+            System.out.println("UriDictionary: " + (System.currentTimeMillis() - time) + "ms");
+            assertEquals(MAX_URI / 3 + 1, dict.size());
+        }
+    }
+    
+}